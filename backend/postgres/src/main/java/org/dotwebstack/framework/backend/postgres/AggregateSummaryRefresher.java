@@ -0,0 +1,93 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.dotwebstack.framework.backend.postgres.config.AggregateSummary;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// Refreshes the materialized views of aggregate summaries with a refresh interval. The refresh runs
+// on the primary, a replica receives the refreshed view through replication.
+@Slf4j
+@Component
+public class AggregateSummaryRefresher implements AutoCloseable {
+
+  private final DSLContext dslContext;
+
+  private final DotWebStackConfiguration dotWebStackConfiguration;
+
+  private final ResultCache resultCache;
+
+  private List<Disposable> refreshes = List.of();
+
+  public AggregateSummaryRefresher(DSLContext dslContext, DotWebStackConfiguration dotWebStackConfiguration,
+      ResultCache resultCache) {
+    this.dslContext = dslContext;
+    this.dotWebStackConfiguration = dotWebStackConfiguration;
+    this.resultCache = resultCache;
+  }
+
+  @PostConstruct
+  public void start() {
+    refreshes = getRefreshedSummaries().stream()
+        .map(summary -> Flux.interval(summary.getRefreshInterval(), summary.getRefreshInterval())
+            .onBackpressureDrop()
+            .concatMap(tick -> refresh(summary))
+            .subscribe())
+        .collect(Collectors.toList());
+  }
+
+  Mono<Void> refresh(AggregateSummary summary) {
+    var sql = summary.isConcurrent() ? "refresh materialized view concurrently {0}" : "refresh materialized view {0}";
+
+    return Mono.fromRunnable(() -> dslContext.execute(sql, DSL.name(summary.getTable()
+        .split("\\."))))
+        .subscribeOn(Schedulers.boundedElastic())
+        .doOnSuccess(ignored -> {
+          LOG.debug("Refreshed aggregate summary '{}'.", summary.getTable());
+          resultCache.invalidate(summary.getTable());
+        })
+        // a failed refresh keeps the previous contents, the next interval tries again
+        .onErrorResume(e -> {
+          LOG.warn("Refreshing aggregate summary '{}' failed.", summary.getTable(), e);
+          return Mono.empty();
+        })
+        .then();
+  }
+
+  // a view which summarizes several fields is refreshed once
+  Collection<AggregateSummary> getRefreshedSummaries() {
+    return dotWebStackConfiguration.getObjectTypes()
+        .values()
+        .stream()
+        .filter(PostgresTypeConfiguration.class::isInstance)
+        .flatMap(typeConfiguration -> ((PostgresTypeConfiguration) typeConfiguration).getFields()
+            .values()
+            .stream())
+        .map(PostgresFieldConfiguration::getSummary)
+        .filter(Objects::nonNull)
+        .filter(summary -> summary.getRefreshInterval() != null)
+        .collect(Collectors.toMap(AggregateSummary::getTable, Function.identity(), (first, other) -> first,
+            LinkedHashMap::new))
+        .values();
+  }
+
+  @Override
+  public void close() {
+    refreshes.forEach(Disposable::dispose);
+  }
+}
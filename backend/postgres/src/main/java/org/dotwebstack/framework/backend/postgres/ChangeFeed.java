@@ -0,0 +1,124 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+// Listens on a dedicated connection for notifications with the table and keys of a changed row
+@Slf4j
+public class ChangeFeed {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final String DELETE_OPERATION = "DELETE";
+
+  // emits from the notification and the connection cleanup threads may overlap, they are retried
+  // instead of dropped
+  static final Sinks.EmitFailureHandler RETRY_NON_SERIALIZED =
+      (signalType, emitResult) -> emitResult == Sinks.EmitResult.FAIL_NON_SERIALIZED;
+
+  private final String channel;
+
+  private final Flux<ChangeNotification> changes;
+
+  // whether the LISTEN of the current connection has been acknowledged, replayed to new subscribers
+  private final Sinks.Many<Boolean> listening = Sinks.many()
+      .replay()
+      .latest();
+
+  public ChangeFeed(Publisher<? extends PostgresqlConnection> connectionPublisher, String channel,
+      Duration reconnectInterval) {
+    this.channel = channel;
+
+    // the connection is opened for the first subscriber and closed when the last subscriber cancels
+    this.changes = Flux.usingWhen(connectionPublisher, this::listen, this::close)
+        .doOnError(e -> LOG.warn("Listening on channel '{}' failed, retrying in {}.", channel, reconnectInterval, e))
+        .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, reconnectInterval))
+        .share();
+  }
+
+  Flux<ChangeNotification> getChanges() {
+    return changes;
+  }
+
+  // completes once changes are received, so a state read afterwards misses no changes
+  Mono<Void> awaitListening() {
+    return listening.asFlux()
+        .filter(Boolean::booleanValue)
+        .next()
+        .then();
+  }
+
+  private Flux<ChangeNotification> listen(PostgresqlConnection connection) {
+    return connection.createStatement(String.format("LISTEN \"%s\"", channel.replace("\"", "\"\"")))
+        .execute()
+        .flatMap(PostgresqlResult::getRowsUpdated)
+        .then()
+        .doOnSuccess(ignored -> {
+          LOG.debug("Listening for changes on channel '{}'.", channel);
+          listening.emitNext(Boolean.TRUE, RETRY_NON_SERIALIZED);
+        })
+        .thenMany(connection.getNotifications())
+        .flatMap(notification -> Flux.fromStream(parse(notification.getParameter()).stream()))
+        .doOnError(e -> listening.emitNext(Boolean.FALSE, RETRY_NON_SERIALIZED));
+  }
+
+  private Mono<Void> close(PostgresqlConnection connection) {
+    listening.emitNext(Boolean.FALSE, RETRY_NON_SERIALIZED);
+    return connection.close();
+  }
+
+  static Optional<ChangeNotification> parse(String payload) {
+    if (StringUtils.isBlank(payload)) {
+      LOG.warn("Ignoring change notification without payload.");
+      return Optional.empty();
+    }
+
+    try {
+      var node = OBJECT_MAPPER.readTree(payload);
+      var table = node.path("table");
+      var key = node.path("key");
+
+      if (!table.isTextual() || !key.isObject() || key.size() == 0) {
+        LOG.warn("Ignoring change notification without table or key values: {}", payload);
+        return Optional.empty();
+      }
+
+      // notifications may contain a schema qualified table name, the schema is not taken into account
+      var unqualifiedName = StringUtils.substringAfterLast(table.asText(), ".");
+
+      return Optional.of(ChangeNotification.builder()
+          .table(unqualifiedName.isEmpty() ? table.asText() : unqualifiedName)
+          .key(toKey(key))
+          .deleted(DELETE_OPERATION.equalsIgnoreCase(node.path("operation")
+              .asText()))
+          .build());
+    } catch (JsonProcessingException e) {
+      LOG.warn("Ignoring change notification with invalid payload: {}", payload, e);
+      return Optional.empty();
+    }
+  }
+
+  private static Map<String, Object> toKey(JsonNode key) {
+    var values = new LinkedHashMap<String, Object>();
+
+    key.fields()
+        .forEachRemaining(
+            field -> values.put(field.getKey(), OBJECT_MAPPER.convertValue(field.getValue(), Object.class)));
+
+    return values;
+  }
+}
@@ -0,0 +1,20 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import java.util.Map;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data
+@Builder
+class ChangeNotification {
+
+  @NonNull
+  private final String table;
+
+  @NonNull
+  private final Map<String, Object> key;
+
+  // deleted rows can't be fetched again
+  private final boolean deleted;
+}
@@ -0,0 +1,31 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import java.util.List;
+import java.util.Map;
+import org.dotwebstack.framework.core.datafetchers.KeyCondition;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.GroupedFlux;
+
+class KeyConditionGroupedFlux extends GroupedFlux<KeyCondition, Map<String, Object>> {
+
+  private final KeyCondition keyCondition;
+
+  private final List<Map<String, Object>> rows;
+
+  KeyConditionGroupedFlux(KeyCondition keyCondition, List<Map<String, Object>> rows) {
+    this.keyCondition = keyCondition;
+    this.rows = rows;
+  }
+
+  @Override
+  public KeyCondition key() {
+    return keyCondition;
+  }
+
+  @Override
+  public void subscribe(CoreSubscriber<? super Map<String, Object>> actual) {
+    Flux.fromIterable(rows)
+        .subscribe(actual);
+  }
+}
@@ -0,0 +1,84 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.dotwebstack.framework.core.datafetchers.KeyCondition;
+
+class KeyConditionIndex {
+
+  private final List<String> keyNames;
+
+  private final Map<String, String> keyColumnNames;
+
+  private final Map<Object, KeyCondition> keyConditions;
+
+  private KeyConditionIndex(Set<KeyCondition> keyConditions, Map<String, String> keyColumnNames) {
+    this.keyNames = List.copyOf(keyColumnNames.keySet());
+    this.keyColumnNames = keyColumnNames;
+    this.keyConditions = new HashMap<>(keyConditions.size() * 2);
+
+    keyConditions.stream()
+        .map(ColumnKeyCondition.class::cast)
+        .forEach(keyCondition -> this.keyConditions.put(createKey(keyCondition.getValueMap()::get), keyCondition));
+  }
+
+  static KeyConditionIndex create(Set<KeyCondition> keyConditions, Map<String, String> keyColumnNames) {
+    return new KeyConditionIndex(keyConditions, keyColumnNames);
+  }
+
+  KeyCondition get(Map<String, Object> row) {
+    var keyCondition = keyConditions.get(createKey(keyName -> row.get(keyColumnNames.get(keyName))));
+
+    if (keyCondition == null) {
+      throw illegalStateException("Unable to find keyCondition.");
+    }
+
+    return keyCondition;
+  }
+
+  private Object createKey(KeyValueResolver keyValueResolver) {
+    // Single column keys, which are by far the most common, are indexed by their plain value
+    if (keyNames.size() == 1) {
+      return normalize(keyValueResolver.resolve(keyNames.get(0)));
+    }
+
+    var values = new Object[keyNames.size()];
+
+    for (var index = 0; index < values.length; index++) {
+      values[index] = normalize(keyValueResolver.resolve(keyNames.get(index)));
+    }
+
+    return Arrays.asList(values);
+  }
+
+  // The driver returns the Java type of the column, which may differ from the type of the
+  // requested key (e.g. an Integer argument for a bigint or numeric column), so exact numbers are
+  // compared by value
+  private static Object normalize(Object value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    }
+
+    if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value);
+    }
+
+    if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).stripTrailingZeros();
+    }
+
+    return value;
+  }
+
+  @FunctionalInterface
+  private interface KeyValueResolver {
+    Object resolve(String keyName);
+  }
+}
@@ -1,13 +1,20 @@
 package org.dotwebstack.framework.backend.postgres;
 
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionFactory;
 import io.r2dbc.postgresql.extension.CodecRegistrar;
 import io.r2dbc.spi.ConnectionFactory;
 import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringUtils;
 import org.jooq.DSLContext;
 import org.jooq.impl.DSL;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,6 +24,10 @@ import org.springframework.r2dbc.core.DatabaseClient;
 @EnableConfigurationProperties(PostgresProperties.class)
 public class PostgresConfiguration {
 
+  private static final String PRIMARY_ENDPOINT_NAME = "primary";
+
+  private static final String STATEMENT_TIMEOUT_OPTION = "statement_timeout";
+
   private final PostgresProperties postgresProperties;
 
   private final Collection<CodecRegistrar> codecRegistrars;
@@ -41,24 +52,137 @@ public class PostgresConfiguration {
 
   @Bean
   public ConnectionFactory connectionFactory() {
+    var primaryConnectionFactory =
+        createConnectionFactory(postgresProperties.getHost(), postgresProperties.getPort(), PRIMARY_ENDPOINT_NAME);
+
+    if (postgresProperties.getReplicas()
+        .isEmpty()) {
+      return primaryConnectionFactory;
+    }
+
+    var replicas = IntStream.range(0, postgresProperties.getReplicas()
+        .size())
+        .mapToObj(index -> {
+          var replicaProperties = postgresProperties.getReplicas()
+              .get(index);
+          var endpointName = String.format("replica-%d", index + 1);
+
+          var probeConnectionFactory = new PostgresqlConnectionFactory(
+              createConnectionConfiguration(replicaProperties.getHost(), replicaProperties.getPort()));
+
+          return new ReplicaEndpoint(endpointName,
+              createConnectionFactory(replicaProperties.getHost(), replicaProperties.getPort(), endpointName),
+              probeConnectionFactory);
+        })
+        .collect(Collectors.toList());
+
+    var routingConnectionFactory = new ReplicaRoutingConnectionFactory(
+        new ReplicaEndpoint(PRIMARY_ENDPOINT_NAME, primaryConnectionFactory), replicas);
+
+    routingConnectionFactory.startLagChecks(postgresProperties.getReplicationLag());
+
+    return routingConnectionFactory;
+  }
+
+  // the connection factory bean is typed as ConnectionFactory, so its metrics are bound by a
+  // separate bean, the routing factory binds the pools of the primary and the replicas
+  @Bean
+  public MeterBinder connectionFactoryMetrics(ConnectionFactory connectionFactory) {
+    return registry -> {
+      if (connectionFactory instanceof MeterBinder) {
+        ((MeterBinder) connectionFactory).bindTo(registry);
+      }
+    };
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "dotwebstack.postgres.result-cache", name = "enabled", havingValue = "true")
+  public ResultCacheListener resultCacheListener(ResultCache resultCache) {
+    var resultCacheProperties = postgresProperties.getResultCache();
+
+    // notifications are delivered to a session, so the listener uses its own connection
+    var connectionFactory = new PostgresqlConnectionFactory(
+        createConnectionConfiguration(postgresProperties.getHost(), postgresProperties.getPort()));
+
+    var resultCacheListener = new ResultCacheListener(connectionFactory.create(), resultCache,
+        resultCacheProperties.getChannel(), resultCacheProperties.getReconnectInterval());
+    resultCacheListener.start();
+
+    return resultCacheListener;
+  }
+
+  @Bean
+  public ChangeFeed changeFeed() {
+    var subscriptionProperties = postgresProperties.getSubscriptions();
+
+    // the connection is only opened while there are subscriptions
+    var connectionFactory = new PostgresqlConnectionFactory(
+        createConnectionConfiguration(postgresProperties.getHost(), postgresProperties.getPort()));
+
+    return new ChangeFeed(connectionFactory.create(), subscriptionProperties.getChannel(),
+        subscriptionProperties.getReconnectInterval());
+  }
+
+  private ConnectionFactory createConnectionFactory(String host, int port, String endpointName) {
+    var connectionFactory = new PostgresqlConnectionFactory(createConnectionConfiguration(host, port));
+
+    if (!postgresProperties.getPool()
+        .isEnabled()) {
+      return connectionFactory;
+    }
+
+    return createConnectionPool(connectionFactory, postgresProperties.getPool(), endpointName);
+  }
+
+  private PostgresqlConnectionConfiguration createConnectionConfiguration(String host, int port) {
     var configurationBuilder = PostgresqlConnectionConfiguration.builder()
-        .host(postgresProperties.getHost())
-        .port(postgresProperties.getPort())
+        .host(host)
+        .port(port)
         .username(postgresProperties.getUsername())
         .password(postgresProperties.getPassword())
+        .preparedStatementCacheQueries(postgresProperties.getPreparedStatementCacheSize())
         .forceBinary(true);
 
     if (StringUtils.isNotEmpty(postgresProperties.getDatabase())) {
       configurationBuilder.database(postgresProperties.getDatabase());
     }
 
+    // the timeout is a setting of the session, sent when connecting instead of with every statement
+    if (postgresProperties.getStatementTimeout() != null) {
+      configurationBuilder
+          .options(Map.of(STATEMENT_TIMEOUT_OPTION, String.valueOf(postgresProperties.getStatementTimeout()
+              .toMillis())));
+    }
+
     codecRegistrars.forEach(configurationBuilder::codecRegistrar);
 
-    return new PostgresqlConnectionFactory(configurationBuilder.build());
+    return configurationBuilder.build();
+  }
+
+  private PostgresConnectionPool createConnectionPool(ConnectionFactory connectionFactory,
+      PostgresProperties.PoolProperties poolProperties, String endpointName) {
+    var poolName = PRIMARY_ENDPOINT_NAME.equals(endpointName) ? "dotwebstack-postgres"
+        : String.format("dotwebstack-postgres-%s", endpointName);
+
+    var poolConfigurationBuilder = ConnectionPoolConfiguration.builder(connectionFactory)
+        .name(poolName)
+        .initialSize(poolProperties.getInitialSize())
+        .maxSize(poolProperties.getMaxSize())
+        .maxIdleTime(poolProperties.getMaxIdleTime());
+
+    if (poolProperties.getMaxAcquireTime() != null) {
+      poolConfigurationBuilder.maxAcquireTime(poolProperties.getMaxAcquireTime());
+    }
+
+    if (StringUtils.isNotEmpty(poolProperties.getValidationQuery())) {
+      poolConfigurationBuilder.validationQuery(poolProperties.getValidationQuery());
+    }
+
+    return new PostgresConnectionPool(poolConfigurationBuilder.build(), Tags.of("endpoint", endpointName));
   }
 
   @Bean
   public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
-    return DatabaseClient.create(connectionFactory);
+    return DatabaseClient.create(new StatementTimeoutConnectionFactory(connectionFactory));
   }
 }
@@ -0,0 +1,74 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import lombok.NonNull;
+import reactor.core.publisher.Mono;
+
+public class PostgresConnectionPool extends ConnectionPool implements MeterBinder {
+
+  static final String METRIC_PREFIX = "dotwebstack.postgres.pool.";
+
+  private final Tags tags;
+
+  private volatile Timer acquireTimer;
+
+  public PostgresConnectionPool(ConnectionPoolConfiguration configuration) {
+    this(configuration, Tags.empty());
+  }
+
+  public PostgresConnectionPool(ConnectionPoolConfiguration configuration, Tags tags) {
+    super(configuration);
+    this.tags = tags;
+  }
+
+  @Override
+  public Mono<Connection> create() {
+    return Mono.defer(() -> {
+      var startTime = System.nanoTime();
+
+      return super.create().doOnSuccess(connection -> recordAcquireTime(System.nanoTime() - startTime));
+    });
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    registerGauge(registry, "acquired", "Number of connections currently in use", PoolMetrics::acquiredSize);
+    registerGauge(registry, "allocated", "Number of connections currently allocated", PoolMetrics::allocatedSize);
+    registerGauge(registry, "idle", "Number of idle connections", PoolMetrics::idleSize);
+    registerGauge(registry, "pending", "Number of callers waiting for a connection", PoolMetrics::pendingAcquireSize);
+    registerGauge(registry, "max.allocated", "Maximum number of connections", PoolMetrics::getMaxAllocatedSize);
+
+    acquireTimer = Timer.builder(METRIC_PREFIX.concat("acquire"))
+        .description("Time spent waiting to acquire a connection")
+        .tags(tags)
+        .register(registry);
+  }
+
+  private void registerGauge(MeterRegistry registry, String name, String description,
+      ToIntFunction<PoolMetrics> metricFn) {
+    Gauge.builder(METRIC_PREFIX.concat(name), this, pool -> pool.getMetrics()
+        .map(metricFn::applyAsInt)
+        .orElse(0))
+        .description(description)
+        .tags(tags)
+        .register(registry);
+  }
+
+  private void recordAcquireTime(long nanos) {
+    var timer = acquireTimer;
+
+    if (timer != null) {
+      timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -1,29 +1,43 @@
 package org.dotwebstack.framework.backend.postgres;
 
+import static org.dotwebstack.framework.backend.postgres.query.QueryHelper.getBindParams;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.unsupportedOperationException;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Lists;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Set;
-import java.util.function.Predicate;
-import java.util.function.UnaryOperator;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
 import org.dotwebstack.framework.backend.postgres.query.ObjectSelectContext;
 import org.dotwebstack.framework.backend.postgres.query.PostgresKeyCriteria;
 import org.dotwebstack.framework.backend.postgres.query.SelectQueryBuilder;
+import org.dotwebstack.framework.backend.postgres.query.SelectQueryBuilderResult;
 import org.dotwebstack.framework.core.config.TypeConfiguration;
 import org.dotwebstack.framework.core.datafetchers.BackendDataLoader;
+import org.dotwebstack.framework.core.datafetchers.GenericDataFetcher;
 import org.dotwebstack.framework.core.datafetchers.KeyCondition;
 import org.dotwebstack.framework.core.datafetchers.LoadEnvironment;
+import org.dotwebstack.framework.core.datafetchers.RequestDeadline;
+import org.dotwebstack.framework.core.query.QueryExecution;
+import org.dotwebstack.framework.core.query.QueryStatistics;
 import org.dotwebstack.framework.core.query.model.CollectionRequest;
+import org.dotwebstack.framework.core.query.model.KeyCriteria;
 import org.dotwebstack.framework.core.query.model.ObjectRequest;
+import org.dotwebstack.framework.ext.spatial.LazyGeometry;
 import org.jooq.Param;
 import org.jooq.Query;
-import org.jooq.SelectQuery;
 import org.jooq.conf.ParamType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,21 +46,49 @@ import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.GroupedFlux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 @Component
 public class PostgresDataLoader implements BackendDataLoader {
   private static final String UNSUPPORTED_MESSAGE = "This is old implementation";
 
+  private static final String BACKEND_NAME = "postgres";
+
+  private static final String TABLE_ROWS_SQL = "select reltuples::bigint from pg_class where oid = to_regclass(:1)";
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
   private static final Logger LOG = LoggerFactory.getLogger(PostgresDataLoader.class);
 
   private final DatabaseClient databaseClient;
 
   private final SelectQueryBuilder selectQueryBuilder;
 
-  public PostgresDataLoader(DatabaseClient databaseClient, SelectQueryBuilder selectQueryBuilder) {
+  private final StatementReuseMetrics statementReuseMetrics;
+
+  private final ResultCache resultCache;
+
+  private final ChangeFeed changeFeed;
+
+  private final QueryStatistics queryStatistics;
+
+  private final int fetchSize;
+
+  private final PostgresProperties.SubscriptionProperties subscriptionProperties;
+
+  public PostgresDataLoader(DatabaseClient databaseClient, SelectQueryBuilder selectQueryBuilder,
+      StatementReuseMetrics statementReuseMetrics, ResultCache resultCache, ChangeFeed changeFeed,
+      QueryStatistics queryStatistics, PostgresProperties postgresProperties) {
     this.databaseClient = databaseClient;
     this.selectQueryBuilder = selectQueryBuilder;
+    this.statementReuseMetrics = statementReuseMetrics;
+    this.resultCache = resultCache;
+    this.changeFeed = changeFeed;
+    this.queryStatistics = queryStatistics;
+    this.fetchSize = postgresProperties.getFetchSize();
+    this.subscriptionProperties = postgresProperties.getSubscriptions();
   }
 
   @Override
@@ -58,14 +100,78 @@ public class PostgresDataLoader implements BackendDataLoader {
   public Mono<Map<String, Object>> loadSingleRequest(ObjectRequest objectRequest) {
     var selectQueryBuilderResult = selectQueryBuilder.build(objectRequest, new ObjectSelectContext());
 
-    return fetch(selectQueryBuilderResult.getQuery(), selectQueryBuilderResult.getMapAssembler()).single();
+    return query(selectQueryBuilderResult, fetch(selectQueryBuilderResult), objectRequest, objectRequest.getDeadline())
+        .map(selectQueryBuilderResult.getMapAssembler())
+        .single();
   }
 
   @Override
   public Flux<Map<String, Object>> loadManyRequest(CollectionRequest collectionRequest) {
+    return loadManyRequest(collectionRequest, true);
+  }
+
+  private Flux<Map<String, Object>> loadManyRequest(CollectionRequest collectionRequest, boolean cached) {
     var selectQueryBuilderResult = selectQueryBuilder.build(collectionRequest, new ObjectSelectContext());
+    var pagingCriteria = collectionRequest.getPagingCriteria();
+    var objectRequest = collectionRequest.getObjectRequest();
+
+    // paging backwards fetches the rows in reverse order
+    if (pagingCriteria != null && pagingCriteria.isKeyset() && pagingCriteria.getBefore() != null) {
+      return query(selectQueryBuilderResult, fetch(selectQueryBuilderResult), objectRequest,
+          collectionRequest.getDeadline(), cached).map(selectQueryBuilderResult.getMapAssembler())
+              .collectList()
+              .flatMapIterable(rows -> {
+                Collections.reverse(rows);
+                return rows;
+              });
+    }
 
-    return fetch(selectQueryBuilderResult.getQuery(), selectQueryBuilderResult.getMapAssembler());
+    return query(selectQueryBuilderResult, stream(selectQueryBuilderResult), objectRequest,
+        collectionRequest.getDeadline(), cached).map(selectQueryBuilderResult.getMapAssembler());
+  }
+
+  @Override
+  public Mono<Long> countRequest(CollectionRequest collectionRequest, boolean estimate) {
+    Mono<Long> count;
+
+    if (!estimate) {
+      count = execute(selectQueryBuilder.buildCountQuery(collectionRequest)).map(row -> row.get(0, Long.class))
+          .one();
+    } else {
+      // the estimate of the planner for the filtered query, it reads the row estimate of an unfiltered
+      // table from the statistics directly
+      var planRows =
+          execute(selectQueryBuilder.buildExplainQuery(collectionRequest)).map(row -> row.get(0, String.class))
+              .one()
+              .map(PostgresDataLoader::getPlanRows);
+
+      count = collectionRequest.getFilterCriterias()
+          .isEmpty() ? getTableRows(collectionRequest).switchIfEmpty(planRows) : planRows;
+    }
+
+    return withDeadline(count.flux(), collectionRequest.getDeadline()).next();
+  }
+
+  // Tables which have never been analyzed have no row estimate
+  private Mono<Long> getTableRows(CollectionRequest collectionRequest) {
+    var table = ((PostgresTypeConfiguration) collectionRequest.getObjectRequest()
+        .getTypeConfiguration()).getTable();
+
+    return execute(TABLE_ROWS_SQL, List.of(table)).map(row -> row.get(0, Long.class))
+        .one()
+        .filter(rows -> rows >= 0);
+  }
+
+  private static long getPlanRows(String plan) {
+    try {
+      return OBJECT_MAPPER.readTree(plan)
+          .path(0)
+          .path("Plan")
+          .path("Plan Rows")
+          .asLong();
+    } catch (JsonProcessingException e) {
+      throw illegalStateException("Unable to read the query plan.", e);
+    }
   }
 
   @Override
@@ -93,32 +199,273 @@ public class PostgresDataLoader implements BackendDataLoader {
     var selectQueryBuilderResult =
         selectQueryBuilder.build(collectionRequest, new ObjectSelectContext(joinCriteria, true));
 
-    Map<String, String> keyColumnNames = selectQueryBuilderResult.getContext()
-        .getKeyColumnNames();
+    var keyConditionIndex = KeyConditionIndex.create(keyConditions, selectQueryBuilderResult.getContext()
+        .getKeyColumnNames());
+
+    // rows are grouped through a hash index, groupBy stalls with a large number of groups
+    return query(selectQueryBuilderResult, fetch(selectQueryBuilderResult), collectionRequest.getObjectRequest(),
+        collectionRequest.getDeadline())
+            .collect(LinkedHashMap<KeyCondition, List<Map<String, Object>>>::new,
+                (groups, row) -> groups.computeIfAbsent(keyConditionIndex.get(row), keyCondition -> new ArrayList<>())
+                    .add(selectQueryBuilderResult.getMapAssembler()
+                        .apply(row)))
+            .flatMapIterable(Map::entrySet)
+            .<GroupedFlux<KeyCondition, Map<String, Object>>>map(
+                group -> new KeyConditionGroupedFlux(group.getKey(), group.getValue()));
+  }
 
-    return this.execute(selectQueryBuilderResult.getQuery())
-        .fetch()
-        .all()
-        .map(row -> row)
-        .groupBy(row -> getKeyConditionByKey(keyConditions, row, keyColumnNames),
-            row -> selectQueryBuilderResult.getMapAssembler()
-                .apply(row));
+  @Override
+  public Flux<Tuple2<KeyCondition, Map<String, Object>>> batchLoadSingleRequest(Set<KeyCondition> keyConditions,
+      ObjectRequest objectRequest) {
+    List<KeyCriteria> keyCriteria = keyConditions.stream()
+        .map(ColumnKeyCondition.class::cast)
+        .filter(keyCondition -> keyCondition.getJoinTable() == null)
+        .map(key -> PostgresKeyCriteria.builder()
+            .values(key.getValueMap())
+            .build())
+        .collect(Collectors.toList());
+
+    List<PostgresKeyCriteria> joinCriteria = keyConditions.stream()
+        .map(ColumnKeyCondition.class::cast)
+        .filter(keyCondition -> keyCondition.getJoinTable() != null)
+        .map(key -> PostgresKeyCriteria.builder()
+            .values(key.getValueMap())
+            .joinTable(key.getJoinTable())
+            .build())
+        .collect(Collectors.toList());
+
+    // the data loader reuses the object request for every dispatch, so the keys are not added to it
+    var batchObjectRequest = copyObjectRequest(objectRequest, keyCriteria, objectRequest.getDeadline());
+
+    var selectQueryBuilderResult =
+        selectQueryBuilder.build(batchObjectRequest, new ObjectSelectContext(joinCriteria, true));
+
+    var keyConditionIndex = KeyConditionIndex.create(keyConditions, selectQueryBuilderResult.getContext()
+        .getKeyColumnNames());
+
+    // keys without a matching row are left out, the data loader resolves them to null
+    return query(selectQueryBuilderResult, fetch(selectQueryBuilderResult), objectRequest, objectRequest.getDeadline())
+        .map(row -> Tuples.of(keyConditionIndex.get(row), selectQueryBuilderResult.getMapAssembler()
+            .apply(row)))
+        .filter(result -> result.getT2() != GenericDataFetcher.NULL_MAP);
   }
 
   @Override
-  public Flux<Tuple2<KeyCondition, Map<String, Object>>> batchLoadSingleRequest(ObjectRequest objectRequest) {
-    throw unsupportedOperationException(UNSUPPORTED_MESSAGE);
+  public Flux<Map<String, Object>> subscribeRequest(CollectionRequest collectionRequest) {
+    var objectRequest = collectionRequest.getObjectRequest();
+    var table = ((PostgresTypeConfiguration) objectRequest.getTypeConfiguration()).getTable();
+    var unqualifiedTable = StringUtils.substringAfterLast(table, ".");
+    var tableName = unqualifiedTable.isEmpty() ? table : unqualifiedTable;
+
+    return Flux.defer(() -> {
+      var pendingKeys = new LinkedHashSet<Map<String, Object>>();
+      var pendingDelete = new AtomicBoolean();
+      var changed = Sinks.many()
+          .replay()
+          .<Boolean>latest();
+
+      // changes are collected from the start, so changes made while reading the current state are kept
+      var listening = changeFeed.getChanges()
+          .filter(change -> tableName.equals(change.getTable()))
+          .filter(change -> matchesKeyCriteria(change.getKey(), objectRequest.getKeyCriteria()))
+          .subscribe(change -> {
+            if (change.isDeleted()) {
+              pendingDelete.set(true);
+            } else {
+              synchronized (pendingKeys) {
+                pendingKeys.add(change.getKey());
+              }
+            }
+            changed.emitNext(Boolean.TRUE, ChangeFeed.RETRY_NON_SERIALIZED);
+          });
+
+      // bursts of changes are coalesced into a single refetch per window, and while the subscriber is
+      // busy the changed keys keep accumulating instead of being buffered as separate refetches
+      var refetches = changed.asFlux()
+          .sample(subscriptionProperties.getCoalesceWindow())
+          .onBackpressureLatest()
+          .concatMap(signal -> {
+            var keys = drain(pendingKeys);
+
+            // a deleted row can't be fetched by its key, so the current state is read again instead
+            return pendingDelete.getAndSet(false) ? loadManyRequest(collectionRequest, false)
+                : refetch(collectionRequest, keys);
+          }, 1);
+
+      // the current state is read once the LISTEN is acknowledged, so no change made after the
+      // read is missed
+      return changeFeed.awaitListening()
+          .thenMany(Flux.defer(() -> loadManyRequest(collectionRequest, false)))
+          .concatWith(refetches)
+          .doFinally(signal -> listening.dispose());
+    })
+        // the rows are read from the primary without the result cache, a notification is sent once the
+        // primary commits, and a lagging replica or a cached result could still have the old rows
+        .transform(ReplicaRoutingConnectionFactory::onPrimary);
   }
 
-  private Flux<Map<String, Object>> fetch(SelectQuery<?> query, UnaryOperator<Map<String, Object>> mapAssembler) {
-    String sql = query.getSQL(ParamType.INLINED);
+  private Flux<Map<String, Object>> refetch(CollectionRequest collectionRequest, List<Map<String, Object>> keys) {
+    // the values table of a query requires equal key columns for all rows
+    var keysByColumns = keys.stream()
+        .collect(Collectors.groupingBy(Map::keySet, LinkedHashMap::new, Collectors.toList()));
+
+    return Flux.fromIterable(keysByColumns.values())
+        .flatMapIterable(columnKeys -> Lists.partition(columnKeys, subscriptionProperties.getBatchSize()))
+        .concatMap(batch -> {
+          List<KeyCriteria> keyCriteria = batch.stream()
+              .map(key -> PostgresKeyCriteria.builder()
+                  .values(key)
+                  .build())
+              .collect(Collectors.toList());
+
+          // changed rows are fetched without paging, rows which no longer match the filters are left out
+          var refetchRequest = CollectionRequest.builder()
+              .objectRequest(copyObjectRequest(collectionRequest.getObjectRequest(), keyCriteria, null))
+              .filterCriterias(collectionRequest.getFilterCriterias())
+              .sortCriterias(collectionRequest.getSortCriterias())
+              .build();
+
+          var selectQueryBuilderResult =
+              selectQueryBuilder.build(refetchRequest, new ObjectSelectContext(new ArrayList<>(), true));
+
+          return measure(selectQueryBuilderResult, fetch(selectQueryBuilderResult), collectionRequest.getObjectRequest()
+              .getPath()).map(selectQueryBuilderResult.getMapAssembler())
+                  .filter(row -> row != GenericDataFetcher.NULL_MAP);
+        }, 1);
+  }
 
-    LOG.debug("Fetching with SQL: {}", sql);
+  private static List<Map<String, Object>> drain(Set<Map<String, Object>> pendingKeys) {
+    synchronized (pendingKeys) {
+      var keys = List.copyOf(pendingKeys);
+      pendingKeys.clear();
+      return keys;
+    }
+  }
+
+  private static boolean matchesKeyCriteria(Map<String, Object> key, List<KeyCriteria> keyCriteria) {
+    if (keyCriteria.isEmpty()) {
+      return true;
+    }
+
+    // notified values are compared as text, since their JSON type may differ from the requested value
+    return keyCriteria.stream()
+        .map(KeyCriteria::getValues)
+        .anyMatch(values -> values.entrySet()
+            .stream()
+            .allMatch(entry -> key.containsKey(entry.getKey()) && String.valueOf(entry.getValue())
+                .equals(String.valueOf(key.get(entry.getKey())))));
+  }
+
+  private static ObjectRequest copyObjectRequest(ObjectRequest objectRequest, List<KeyCriteria> keyCriteria,
+      Instant deadline) {
+    return ObjectRequest.builder()
+        .typeConfiguration(objectRequest.getTypeConfiguration())
+        .scalarFields(objectRequest.getScalarFields())
+        .objectFields(objectRequest.getObjectFields())
+        .nestedObjectFields(objectRequest.getNestedObjectFields())
+        .aggregateObjectFields(objectRequest.getAggregateObjectFields())
+        .collectionObjectFields(objectRequest.getCollectionObjectFields())
+        .keyCriteria(keyCriteria)
+        .deadline(deadline)
+        .path(objectRequest.getPath())
+        .build();
+  }
+
+  private Flux<Map<String, Object>> query(SelectQueryBuilderResult selectQueryBuilderResult,
+      Flux<Map<String, Object>> rows, ObjectRequest objectRequest, Instant deadline) {
+    return query(selectQueryBuilderResult, rows, objectRequest, deadline, true);
+  }
+
+  private Flux<Map<String, Object>> query(SelectQueryBuilderResult selectQueryBuilderResult,
+      Flux<Map<String, Object>> rows, ObjectRequest objectRequest, Instant deadline, boolean cached) {
+    var measuredRows = measure(selectQueryBuilderResult, withDeadline(rows, deadline), objectRequest.getPath());
+
+    if (!cached) {
+      return measuredRows;
+    }
+
+    var tableNames = selectQueryBuilderResult.getContext()
+        .getObjectQueryContext()
+        .getTableNames();
+    var ttl = ((PostgresTypeConfiguration) objectRequest.getTypeConfiguration()).getResultCacheTtl();
+
+    // only queries which reach the database are measured, results from the cache are not. The cache
+    // is filled from the primary, a lagging replica could store rows which were invalidated already.
+    return resultCache.get(selectQueryBuilderResult.getSql(), selectQueryBuilderResult.getBindValues(), tableNames, ttl,
+        resultCache.isEnabled() ? ReplicaRoutingConnectionFactory.onPrimary(measuredRows) : measuredRows);
+  }
+
+  private Flux<Map<String, Object>> measure(SelectQueryBuilderResult selectQueryBuilderResult,
+      Flux<Map<String, Object>> rows, String path) {
+    if (!queryStatistics.isEnabled()) {
+      return rows;
+    }
+
+    return Flux.defer(() -> {
+      var start = System.nanoTime();
+      var counts = new long[2];
+
+      return rows.doOnNext(row -> {
+        counts[0]++;
+        counts[1] += estimateSize(row);
+      })
+          .doFinally(signal -> queryStatistics.record(QueryExecution.builder()
+              .backend(BACKEND_NAME)
+              .query(selectQueryBuilderResult.getSql())
+              .bindValues(selectQueryBuilderResult.getBindValues())
+              .path(path)
+              .duration(Duration.ofNanos(System.nanoTime() - start))
+              .rows(counts[0])
+              .bytes(counts[1])
+              .build()));
+    });
+  }
+
+  private static long estimateSize(Map<String, Object> row) {
+    return row.values()
+        .stream()
+        .mapToLong(value -> value instanceof LazyGeometry ? ((LazyGeometry) value).getSize()
+            : QueryStatistics.estimateSize(value))
+        .sum();
+  }
 
-    return databaseClient.sql(sql)
-        .fetch()
+  private Flux<Map<String, Object>> fetch(SelectQueryBuilderResult selectQueryBuilderResult) {
+    return this.execute(selectQueryBuilderResult)
+        .map(selectQueryBuilderResult.getRowReader()::read)
+        .all();
+  }
+
+  private Flux<Map<String, Object>> stream(SelectQueryBuilderResult selectQueryBuilderResult) {
+    if (fetchSize <= 0) {
+      return fetch(selectQueryBuilderResult);
+    }
+
+    // the driver reads the rows through a portal in chunks of the fetch size, and the chunks are only
+    // requested when the subscriber (e.g. a subscription) has demand for them
+    return this.execute(selectQueryBuilderResult)
+        .filter(statement -> statement.fetchSize(fetchSize))
+        .map(selectQueryBuilderResult.getRowReader()::read)
         .all()
-        .map(mapAssembler);
+        .limitRate(fetchSize);
+  }
+
+  private <T> Flux<T> withDeadline(Flux<T> rows, Instant deadline) {
+    if (deadline == null) {
+      return rows;
+    }
+
+    return Flux.defer(() -> {
+      var remaining = RequestDeadline.getRemaining(deadline);
+
+      if (remaining.isNegative() || remaining.isZero()) {
+        return Flux.error(illegalStateException("Request deadline {} has passed.", deadline));
+      }
+
+      // the statement timeout is set to the remaining time as well, and the timeout cancels a statement
+      // which is still running on the server
+      return StatementTimeoutConnectionFactory.withDeadline(rows, deadline)
+          .timeout(remaining);
+    });
   }
 
   @Override
@@ -143,52 +490,34 @@ public class PostgresDataLoader implements BackendDataLoader {
     throw unsupportedOperationException(UNSUPPORTED_MESSAGE);
   }
 
-  private KeyCondition getKeyConditionByKey(Set<KeyCondition> keyConditions, Map<String, Object> row,
-      Map<String, String> keyColumnNames) {
-    return keyConditions.stream()
-        .map(ColumnKeyCondition.class::cast)
-        .filter(keyCondition -> {
-          for (Entry<String, Object> valueEntry : keyCondition.getValueMap()
-              .entrySet()) {
-
-            String columnAlias = keyColumnNames.get(valueEntry.getKey());
-
-            if (valueEntry.getValue()
-                .equals(row.get(columnAlias))) {
-              return true;
-            }
-          }
-
-          return false;
-        })
-        .findFirst()
-        .orElseThrow(() -> illegalStateException("Unable to find keyCondition."));
+  private DatabaseClient.GenericExecuteSpec execute(SelectQueryBuilderResult selectQueryBuilderResult) {
+    return execute(selectQueryBuilderResult.getSql(), selectQueryBuilderResult.getBindValues());
   }
 
   private DatabaseClient.GenericExecuteSpec execute(Query query) {
-    String sql = query.getSQL(ParamType.NAMED);
-    List<Param<?>> params = getParams(query);
+    return execute(query.getSQL(ParamType.NAMED), getBindParams(query).stream()
+        .map(Param::getValue)
+        .collect(Collectors.toList()));
+  }
+
+  private DatabaseClient.GenericExecuteSpec execute(String sql, List<Object> bindValues) {
     LOG.debug("PostgreSQL query: {}", sql);
-    LOG.debug("Binding variables: {}", params);
+    LOG.debug("Binding variables: {}", bindValues);
+
+    statementReuseMetrics.record(sql);
 
     DatabaseClient.GenericExecuteSpec executeSpec = databaseClient.sql(sql);
 
-    for (var index = 0; index < params.size(); index++) {
-      executeSpec = executeSpec.bind(index, Objects.requireNonNull(params.get(index)
-          .getValue()));
+    for (var index = 0; index < bindValues.size(); index++) {
+      var bindValue = bindValues.get(index);
+
+      // only the textual values of a cursor can be null, the query casts them to the column type
+      executeSpec = bindValue != null ? executeSpec.bind(index, bindValue) : executeSpec.bindNull(index, String.class);
     }
 
     return executeSpec;
   }
 
-  private List<Param<?>> getParams(Query query) {
-    return query.getParams()
-        .values()
-        .stream()
-        .filter(Predicate.not(Param::isInline))
-        .collect(Collectors.toList());
-  }
-
   @Override
   public boolean useRequestApproach() {
     return true;
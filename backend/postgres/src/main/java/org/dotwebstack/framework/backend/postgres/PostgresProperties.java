@@ -1,5 +1,8 @@
 package org.dotwebstack.framework.backend.postgres;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -20,4 +23,136 @@ public class PostgresProperties {
   private String password = "postgres";
 
   private String database = "postgres";
+
+  private int preparedStatementCacheSize = 256;
+
+  private int queryTemplateCacheSize = 512;
+
+  private int fetchSize = 1000;
+
+  // Server-side limit for every statement, also for statements of requests without a deadline
+  private Duration statementTimeout;
+
+  private PoolProperties pool = new PoolProperties();
+
+  private List<ReplicaProperties> replicas = new ArrayList<>();
+
+  private ReplicationLagProperties replicationLag = new ReplicationLagProperties();
+
+  private ResultCacheProperties resultCache = new ResultCacheProperties();
+
+  private SubscriptionProperties subscriptions = new SubscriptionProperties();
+
+  private ExportProperties export = new ExportProperties();
+
+  private FetchProperties fetch = new FetchProperties();
+
+  private IndexAdvisorProperties indexAdvisor = new IndexAdvisorProperties();
+
+  @Getter
+  @Setter
+  public static class PoolProperties {
+
+    private boolean enabled = true;
+
+    private int initialSize = 10;
+
+    private int maxSize = 10;
+
+    private Duration maxIdleTime = Duration.ofMinutes(30);
+
+    private Duration maxAcquireTime;
+
+    private String validationQuery;
+  }
+
+  @Getter
+  @Setter
+  public static class ReplicaProperties {
+
+    private String host;
+
+    private int port = 5432;
+  }
+
+  @Getter
+  @Setter
+  public static class ReplicationLagProperties {
+
+    // replicas are only checked when a maximum lag is configured
+    private Duration maxLag;
+
+    private Duration checkInterval = Duration.ofSeconds(10);
+  }
+
+  @Getter
+  @Setter
+  public static class ResultCacheProperties {
+
+    private boolean enabled = false;
+
+    private int maxSize = 1000;
+
+    // results with more rows are streamed without being cached
+    private int maxRows = 1000;
+
+    private String channel = "dotwebstack_invalidation";
+
+    private Duration reconnectInterval = Duration.ofSeconds(5);
+  }
+
+  @Getter
+  @Setter
+  public static class SubscriptionProperties {
+
+    private String channel = "dotwebstack_changes";
+
+    // maximum number of changed keys which are fetched with a single query
+    private int batchSize = 100;
+
+    // changes within this window are fetched together
+    private Duration coalesceWindow = Duration.ofMillis(100);
+
+    private Duration reconnectInterval = Duration.ofSeconds(5);
+  }
+
+  @Getter
+  @Setter
+  public static class FetchProperties {
+
+    // object fields with fetch strategy auto are loaded separately once a query has this many
+    // lateral joins
+    private int maxLateralJoins = 16;
+
+    // reads the estimated number of rows per table from pg_class at startup
+    private boolean tableStatistics = false;
+
+    // lists with fetch strategy auto are aggregated as json when they have at most this many rows
+    // per parent
+    private int maxJsonRows = 100;
+  }
+
+  @Getter
+  @Setter
+  public static class ExportProperties {
+
+    private boolean enabled = false;
+
+    private String path = "/export";
+  }
+
+  @Getter
+  @Setter
+  public static class IndexAdvisorProperties {
+
+    private boolean enabled = false;
+
+    // analyzes the configuration once the application has started, and logs the advice
+    private boolean onStartup = true;
+
+    private String path = "/index-advice";
+
+    // tables with fewer estimated rows are read quickly without an index
+    private long minRows = 10_000;
+  }
 }
@@ -0,0 +1,105 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+// Runs the release callback once the connection is closed, which returns it to its pool
+class ReleasingConnection implements Connection, Wrapped<Connection> {
+
+  private final Connection connection;
+
+  private final Runnable releaseCallback;
+
+  ReleasingConnection(Connection connection, Runnable releaseCallback) {
+    this.connection = connection;
+    this.releaseCallback = releaseCallback;
+  }
+
+  @Override
+  public Publisher<Void> close() {
+    return Mono.from(connection.close())
+        .doFinally(signalType -> releaseCallback.run());
+  }
+
+  @Override
+  public Connection unwrap() {
+    return connection;
+  }
+
+  @Override
+  public Publisher<Void> beginTransaction() {
+    return connection.beginTransaction();
+  }
+
+  @Override
+  public Publisher<Void> commitTransaction() {
+    return connection.commitTransaction();
+  }
+
+  @Override
+  public Batch createBatch() {
+    return connection.createBatch();
+  }
+
+  @Override
+  public Publisher<Void> createSavepoint(String name) {
+    return connection.createSavepoint(name);
+  }
+
+  @Override
+  public Statement createStatement(String sql) {
+    return connection.createStatement(sql);
+  }
+
+  @Override
+  public boolean isAutoCommit() {
+    return connection.isAutoCommit();
+  }
+
+  @Override
+  public ConnectionMetadata getMetadata() {
+    return connection.getMetadata();
+  }
+
+  @Override
+  public IsolationLevel getTransactionIsolationLevel() {
+    return connection.getTransactionIsolationLevel();
+  }
+
+  @Override
+  public Publisher<Void> releaseSavepoint(String name) {
+    return connection.releaseSavepoint(name);
+  }
+
+  @Override
+  public Publisher<Void> rollbackTransaction() {
+    return connection.rollbackTransaction();
+  }
+
+  @Override
+  public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+    return connection.rollbackTransactionToSavepoint(name);
+  }
+
+  @Override
+  public Publisher<Void> setAutoCommit(boolean autoCommit) {
+    return connection.setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+    return connection.setTransactionIsolationLevel(isolationLevel);
+  }
+
+  @Override
+  public Publisher<Boolean> validate(ValidationDepth depth) {
+    return connection.validate(depth);
+  }
+}
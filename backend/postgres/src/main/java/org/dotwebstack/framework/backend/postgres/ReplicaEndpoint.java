@@ -0,0 +1,66 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.Setter;
+import reactor.core.publisher.Mono;
+
+@Getter
+class ReplicaEndpoint {
+
+  private final String name;
+
+  private final ConnectionFactory connectionFactory;
+
+  // the replication lag is checked over separate connections, so a busy pool does not eject a replica
+  private final ConnectionFactory probeConnectionFactory;
+
+  private final AtomicInteger outstanding = new AtomicInteger();
+
+  @Setter
+  private volatile boolean available = true;
+
+  ReplicaEndpoint(String name, ConnectionFactory connectionFactory) {
+    this(name, connectionFactory, connectionFactory);
+  }
+
+  ReplicaEndpoint(String name, ConnectionFactory connectionFactory, ConnectionFactory probeConnectionFactory) {
+    this.name = name;
+    this.connectionFactory = connectionFactory;
+    this.probeConnectionFactory = probeConnectionFactory;
+  }
+
+  int getOutstandingCount() {
+    return outstanding.get();
+  }
+
+  // a request is outstanding from the moment it waits for a connection until the connection is closed
+  Mono<Connection> create() {
+    return Mono.defer(() -> {
+      outstanding.incrementAndGet();
+
+      var connected = new AtomicBoolean();
+      var released = new AtomicBoolean();
+      Runnable release = () -> {
+        if (released.compareAndSet(false, true)) {
+          outstanding.decrementAndGet();
+        }
+      };
+
+      return Mono.from(connectionFactory.create())
+          .<Connection>map(connection -> {
+            connected.set(true);
+            return new ReleasingConnection(connection, release);
+          })
+          .doOnError(error -> release.run())
+          .doOnCancel(() -> {
+            if (!connected.get()) {
+              release.run();
+            }
+          });
+    });
+  }
+}
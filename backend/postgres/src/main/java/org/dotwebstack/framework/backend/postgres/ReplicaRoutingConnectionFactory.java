@@ -0,0 +1,161 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+// Routes every connection request to the available replica with the least outstanding requests.
+// The primary is only used for primary reads, and when no replica is available.
+@Slf4j
+public class ReplicaRoutingConnectionFactory implements ConnectionFactory, MeterBinder, AutoCloseable {
+
+  static final String METRIC_PREFIX = "dotwebstack.postgres.replicas.";
+
+  static final String PRIMARY_READ_KEY = ReplicaRoutingConnectionFactory.class.getName()
+      .concat(".primaryRead");
+
+  // a replica which has replayed all received WAL is up-to-date, even after an idle primary
+  static final String REPLICATION_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+      + "THEN 0 ELSE CAST(COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) "
+      + "AS double precision) END";
+
+  private final ReplicaEndpoint primary;
+
+  private final List<ReplicaEndpoint> replicas;
+
+  private volatile Disposable lagChecks;
+
+  ReplicaRoutingConnectionFactory(ReplicaEndpoint primary, List<ReplicaEndpoint> replicas) {
+    this.primary = primary;
+    this.replicas = List.copyOf(replicas);
+  }
+
+  @Override
+  public Mono<Connection> create() {
+    return Mono.deferContextual(
+        context -> context.getOrDefault(PRIMARY_READ_KEY, false) ? primary.create() : selectEndpoint().create());
+  }
+
+  // Marks the queries of a flux as primary reads, for reads which must see the latest writes. The
+  // mark has no effect without replicas.
+  public static <T> Flux<T> onPrimary(Flux<T> flux) {
+    return flux.contextWrite(Context.of(PRIMARY_READ_KEY, true));
+  }
+
+  @Override
+  public ConnectionFactoryMetadata getMetadata() {
+    return primary.getConnectionFactory()
+        .getMetadata();
+  }
+
+  ReplicaEndpoint selectEndpoint() {
+    return replicas.stream()
+        .filter(ReplicaEndpoint::isAvailable)
+        .min(Comparator.comparingInt(ReplicaEndpoint::getOutstandingCount))
+        .orElse(primary);
+  }
+
+  void startLagChecks(PostgresProperties.ReplicationLagProperties replicationLagProperties) {
+    var maxLag = replicationLagProperties.getMaxLag();
+
+    if (maxLag == null) {
+      return;
+    }
+
+    var checkInterval = replicationLagProperties.getCheckInterval();
+
+    lagChecks = Flux.interval(Duration.ZERO, checkInterval)
+        .onBackpressureDrop()
+        .concatMap(tick -> Flux.fromIterable(replicas)
+            .flatMap(replica -> checkLag(replica, maxLag, checkInterval)))
+        .subscribe();
+  }
+
+  // A replica is ejected when it refuses connections, fails the check or lags behind. When no
+  // connection is made within the timeout, the replica may be busy rather than unhealthy, so its
+  // availability is kept until a later check gets through.
+  Mono<Boolean> checkLag(ReplicaEndpoint replica, Duration maxLag, Duration timeout) {
+    return Mono.from(replica.getProbeConnectionFactory()
+        .create())
+        .timeout(timeout)
+        .onErrorResume(TimeoutException.class, error -> {
+          LOG.debug("Replication lag check for {} could not connect within {}.", replica.getName(), timeout);
+          return Mono.empty();
+        })
+        .flatMap(connection -> Mono.usingWhen(Mono.just(connection), this::queryLag, Connection::close)
+            .timeout(timeout)
+            .map(lagSeconds -> lagSeconds * 1000 <= maxLag.toMillis())
+            .defaultIfEmpty(false))
+        .onErrorResume(error -> {
+          LOG.debug("Replication lag check for {} failed.", replica.getName(), error);
+          return Mono.just(false);
+        })
+        .doOnNext(available -> updateAvailability(replica, available))
+        .switchIfEmpty(Mono.fromSupplier(replica::isAvailable));
+  }
+
+  private Mono<Double> queryLag(Connection connection) {
+    return Flux.from(connection.createStatement(REPLICATION_LAG_QUERY)
+        .execute())
+        .flatMap(result -> result.map((row, rowMetadata) -> row.get(0, Double.class)))
+        .next();
+  }
+
+  private void updateAvailability(ReplicaEndpoint replica, boolean available) {
+    if (replica.isAvailable() != available) {
+      LOG.warn(available ? "Replica {} is available again." : "Replica {} is lagging or unreachable, ejecting it.",
+          replica.getName());
+    }
+
+    replica.setAvailable(available);
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    getEndpoints().forEach(endpoint -> {
+      Gauge.builder(METRIC_PREFIX.concat("outstanding"), endpoint, ReplicaEndpoint::getOutstandingCount)
+          .description("Number of requests waiting for or using a connection of the endpoint")
+          .tag("endpoint", endpoint.getName())
+          .register(registry);
+
+      Gauge.builder(METRIC_PREFIX.concat("available"), endpoint, e -> e.isAvailable() ? 1 : 0)
+          .description("Whether the endpoint receives requests")
+          .tag("endpoint", endpoint.getName())
+          .register(registry);
+
+      if (endpoint.getConnectionFactory() instanceof MeterBinder) {
+        ((MeterBinder) endpoint.getConnectionFactory()).bindTo(registry);
+      }
+    });
+  }
+
+  @Override
+  public void close() {
+    if (lagChecks != null) {
+      lagChecks.dispose();
+    }
+
+    getEndpoints().map(ReplicaEndpoint::getConnectionFactory)
+        .filter(Disposable.class::isInstance)
+        .map(Disposable.class::cast)
+        .forEach(Disposable::dispose);
+  }
+
+  private Stream<ReplicaEndpoint> getEndpoints() {
+    return Stream.concat(Stream.of(primary), replicas.stream());
+  }
+}
@@ -0,0 +1,258 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+@Component
+public class ResultCache implements MeterBinder {
+
+  static final String METRIC_PREFIX = "dotwebstack.postgres.results.cache.";
+
+  private final boolean enabled;
+
+  private final int maxSize;
+
+  private final int maxRows;
+
+  private final Map<List<Object>, CacheEntry> entries;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  private final AtomicLong sizeEvictions = new AtomicLong();
+
+  private final AtomicLong expiredEvictions = new AtomicLong();
+
+  private final AtomicLong invalidatedEvictions = new AtomicLong();
+
+  // Incremented on every invalidation, results read during an invalidation are not stored
+  private long generation;
+
+  public ResultCache(PostgresProperties postgresProperties) {
+    var resultCacheProperties = postgresProperties.getResultCache();
+
+    this.enabled = resultCacheProperties.isEnabled();
+    this.maxSize = resultCacheProperties.getMaxSize();
+    this.maxRows = resultCacheProperties.getMaxRows();
+
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<Object>, CacheEntry> eldest) {
+        if (size() > maxSize) {
+          sizeEvictions.incrementAndGet();
+          return true;
+        }
+
+        return false;
+      }
+    };
+  }
+
+  public boolean isEnabled() {
+    return enabled && maxSize > 0;
+  }
+
+  public Flux<Map<String, Object>> get(String sql, List<Object> bindValues, Set<String> tableNames, Duration ttl,
+      Flux<Map<String, Object>> rows) {
+    if (!isEnabled()) {
+      return rows;
+    }
+
+    return Flux.defer(() -> {
+      var key = List.<Object>of(sql, getKeyValues(bindValues));
+      var cachedRows = lookup(key);
+
+      if (cachedRows != null) {
+        hits.incrementAndGet();
+        return Flux.fromIterable(cachedRows);
+      }
+
+      misses.incrementAndGet();
+
+      var readGeneration = getGeneration();
+      var buffer = new ArrayList<Map<String, Object>>();
+
+      // the rows are passed on while they are read, so large results are still streamed
+      return rows.doOnNext(row -> {
+        if (buffer.size() <= maxRows) {
+          buffer.add(row);
+        }
+      })
+          .doOnComplete(() -> {
+            if (buffer.size() <= maxRows) {
+              put(key, new CacheEntry(List.copyOf(buffer), Set.copyOf(tableNames), getExpiresAt(ttl)), readGeneration);
+            }
+          });
+    });
+  }
+
+  public void invalidate(String tableName) {
+    if (StringUtils.isBlank(tableName)) {
+      invalidateAll();
+      return;
+    }
+
+    // notifications may contain a schema qualified table name, the schema is not taken into account
+    var unqualifiedName = StringUtils.substringAfterLast(tableName, ".");
+    var name = unqualifiedName.isEmpty() ? tableName : unqualifiedName;
+
+    synchronized (entries) {
+      generation++;
+
+      var iterator = entries.values()
+          .iterator();
+
+      while (iterator.hasNext()) {
+        if (iterator.next()
+            .getTableNames()
+            .contains(name)) {
+          iterator.remove();
+          invalidatedEvictions.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      generation++;
+      invalidatedEvictions.addAndGet(entries.size());
+      entries.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return sizeEvictions.get() + expiredEvictions.get() + invalidatedEvictions.get();
+  }
+
+  // arrays are compared by identity, as a list they are compared by their elements
+  private static List<Object> getKeyValues(List<Object> bindValues) {
+    return bindValues.stream()
+        .map(bindValue -> bindValue instanceof Object[] ? Arrays.asList((Object[]) bindValue) : bindValue)
+        .collect(Collectors.toList());
+  }
+
+  private List<Map<String, Object>> lookup(List<Object> key) {
+    synchronized (entries) {
+      var entry = entries.get(key);
+
+      if (entry == null) {
+        return null;
+      }
+
+      if (entry.isExpired()) {
+        entries.remove(key);
+        expiredEvictions.incrementAndGet();
+        return null;
+      }
+
+      return entry.getRows();
+    }
+  }
+
+  private void put(List<Object> key, CacheEntry entry, long readGeneration) {
+    synchronized (entries) {
+      if (generation == readGeneration) {
+        entries.put(key, entry);
+      }
+    }
+  }
+
+  private long getGeneration() {
+    synchronized (entries) {
+      return generation;
+    }
+  }
+
+  private static Instant getExpiresAt(Duration ttl) {
+    return ttl != null ? Instant.now()
+        .plus(ttl) : null;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    FunctionCounter.builder(METRIC_PREFIX.concat("hits"), hits, AtomicLong::get)
+        .description("Number of queries served from the result cache")
+        .register(registry);
+
+    FunctionCounter.builder(METRIC_PREFIX.concat("misses"), misses, AtomicLong::get)
+        .description("Number of queries which were not found in the result cache")
+        .register(registry);
+
+    bindEvictions(registry, sizeEvictions, "size");
+    bindEvictions(registry, expiredEvictions, "expired");
+    bindEvictions(registry, invalidatedEvictions, "invalidated");
+
+    Gauge.builder(METRIC_PREFIX.concat("size"), this, ResultCache::size)
+        .description("Number of cached query results")
+        .register(registry);
+  }
+
+  private static void bindEvictions(MeterRegistry registry, AtomicLong evictions, String cause) {
+    FunctionCounter.builder(METRIC_PREFIX.concat("evictions"), evictions, AtomicLong::get)
+        .description("Number of results removed from the result cache")
+        .tag("cause", cause)
+        .register(registry);
+  }
+
+  private static final class CacheEntry {
+
+    private final List<Map<String, Object>> rows;
+
+    private final Set<String> tableNames;
+
+    private final Instant expiresAt;
+
+    private CacheEntry(List<Map<String, Object>> rows, Set<String> tableNames, Instant expiresAt) {
+      this.rows = rows;
+      this.tableNames = tableNames;
+      this.expiresAt = expiresAt;
+    }
+
+    List<Map<String, Object>> getRows() {
+      return rows;
+    }
+
+    Set<String> getTableNames() {
+      return tableNames;
+    }
+
+    boolean isExpired() {
+      return expiresAt != null && !Instant.now()
+          .isBefore(expiresAt);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import java.time.Duration;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+// Listens on a dedicated connection for notifications with the name of a changed table as payload
+@Slf4j
+class ResultCacheListener implements AutoCloseable {
+
+  private final Publisher<? extends PostgresqlConnection> connectionPublisher;
+
+  private final ResultCache resultCache;
+
+  private final String channel;
+
+  private final Duration reconnectInterval;
+
+  private Disposable subscription;
+
+  ResultCacheListener(Publisher<? extends PostgresqlConnection> connectionPublisher, ResultCache resultCache,
+      String channel, Duration reconnectInterval) {
+    this.connectionPublisher = connectionPublisher;
+    this.resultCache = resultCache;
+    this.channel = channel;
+    this.reconnectInterval = reconnectInterval;
+  }
+
+  void start() {
+    subscription = Flux.usingWhen(connectionPublisher, this::listen, PostgresqlConnection::close)
+        .doOnError(e -> LOG.warn("Listening on channel '{}' failed, retrying in {}.", channel, reconnectInterval, e))
+        .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, reconnectInterval))
+        .subscribe(resultCache::invalidate);
+  }
+
+  private Flux<String> listen(PostgresqlConnection connection) {
+    return connection.createStatement(String.format("LISTEN \"%s\"", channel.replace("\"", "\"\"")))
+        .execute()
+        .flatMap(PostgresqlResult::getRowsUpdated)
+        // changes which were made while not listening are unknown
+        .then(Mono.fromRunnable(resultCache::invalidateAll))
+        .doOnSuccess(ignored -> LOG.debug("Listening for result cache invalidations on channel '{}'.", channel))
+        .thenMany(connection.getNotifications())
+        .map(notification -> Optional.ofNullable(notification.getParameter())
+            .orElse(""));
+  }
+
+  @Override
+  public void close() {
+    if (subscription != null) {
+      subscription.dispose();
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.r2dbc.spi.Connection;
+import java.time.Instant;
+import java.util.function.Function;
+import lombok.Getter;
+import reactor.core.publisher.Mono;
+
+// The deadline of the statements of a query, it is passed to the connection factory through the
+// subscriber context and keeps the connection of the running statement, so it can be cancelled
+class StatementDeadline {
+
+  @Getter
+  private final Instant deadline;
+
+  private Connection connection;
+
+  private Function<Connection, Mono<Void>> canceller;
+
+  private Mono<Void> cancellation;
+
+  StatementDeadline(Instant deadline) {
+    this.deadline = deadline;
+  }
+
+  // Returns false when the statements were cancelled before the connection was acquired
+  synchronized boolean attach(Connection connection, Function<Connection, Mono<Void>> canceller) {
+    if (cancellation != null) {
+      return false;
+    }
+
+    this.connection = connection;
+    this.canceller = canceller;
+    return true;
+  }
+
+  // Returns false when the statement was cancelled, otherwise a later cancel no longer affects the
+  // connection
+  synchronized boolean detach(Connection connection) {
+    if (cancellation != null) {
+      return false;
+    }
+
+    if (this.connection == connection) {
+      this.connection = null;
+    }
+
+    return true;
+  }
+
+  // Cancels the running statement once, the returned publisher completes when the cancel has been
+  // sent and the connection is closed
+  synchronized Mono<Void> cancel() {
+    if (cancellation == null) {
+      cancellation = connection != null ? canceller.apply(connection)
+          .cache() : Mono.empty();
+    }
+
+    return cancellation;
+  }
+}
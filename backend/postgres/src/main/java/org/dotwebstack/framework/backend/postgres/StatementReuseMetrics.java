@@ -0,0 +1,72 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+import org.springframework.stereotype.Component;
+
+// Counts how often the SQL text of a statement repeats one of the most recent distinct SQL texts of
+// the application. The driver caches prepared statements per connection, which can't be observed,
+// so the counts only indicate how well the statements lend themselves to that cache.
+@Component
+public class StatementReuseMetrics implements MeterBinder {
+
+  static final String METRIC_PREFIX = "dotwebstack.postgres.statements.";
+
+  private final Map<String, Boolean> recentStatements;
+
+  private final AtomicLong reused = new AtomicLong();
+
+  private final AtomicLong distinct = new AtomicLong();
+
+  public StatementReuseMetrics(PostgresProperties postgresProperties) {
+    var cacheSize = postgresProperties.getPreparedStatementCacheSize();
+
+    this.recentStatements = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return cacheSize >= 0 && size() > cacheSize;
+      }
+    };
+  }
+
+  public void record(String sql) {
+    // The SQL text only contains bind markers for values, so it identifies the shape of a statement
+    boolean recent;
+
+    synchronized (recentStatements) {
+      recent = recentStatements.put(sql, Boolean.TRUE) != null;
+    }
+
+    if (recent) {
+      reused.incrementAndGet();
+    } else {
+      distinct.incrementAndGet();
+    }
+  }
+
+  public long getReused() {
+    return reused.get();
+  }
+
+  public long getDistinct() {
+    return distinct.get();
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    FunctionCounter.builder(METRIC_PREFIX.concat("reused"), reused, AtomicLong::get)
+        .description("Number of statements with the SQL text of a recent statement of the application")
+        .register(registry);
+
+    FunctionCounter.builder(METRIC_PREFIX.concat("distinct"), distinct, AtomicLong::get)
+        .description("Number of statements with an SQL text which is not among the recent statements")
+        .register(registry);
+  }
+}
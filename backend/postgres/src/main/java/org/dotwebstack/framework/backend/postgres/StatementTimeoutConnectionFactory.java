@@ -0,0 +1,206 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import io.r2dbc.postgresql.client.Client;
+import io.r2dbc.postgresql.client.ReactorNettyClient;
+import io.r2dbc.postgresql.message.frontend.CancelRequest;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Wrapped;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.dotwebstack.framework.core.datafetchers.RequestDeadline;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.function.Tuples;
+
+// Bounds the statements of a request by its deadline on the server. The statement timeout of the
+// connection is set to the remaining time in the same round trip as the statement, and reset when
+// the connection is released. A statement which is still running when its rows are cancelled (e.g.
+// by the timeout of the request) is cancelled on the server, and its connection is closed instead
+// of being reused, so a late cancel can't hit the statement of another request.
+@Slf4j
+public class StatementTimeoutConnectionFactory implements ConnectionFactory {
+
+  static final String STATEMENT_DEADLINE_KEY = StatementTimeoutConnectionFactory.class.getName()
+      .concat(".statementDeadline");
+
+  static final String STATEMENT_TIMEOUT_SQL = "SET statement_timeout = %d";
+
+  static final String RESET_STATEMENT_TIMEOUT_SQL = "RESET statement_timeout";
+
+  private static final String DRIVER_CONNECTION_CLASS = "io.r2dbc.postgresql.PostgresqlConnection";
+
+  private static final Method GET_CLIENT = findClientMethod();
+
+  private static final Field CLIENT_CONNECTION = findClientConnectionField();
+
+  private final ConnectionFactory connectionFactory;
+
+  private final Function<Connection, Mono<Void>> canceller;
+
+  public StatementTimeoutConnectionFactory(ConnectionFactory connectionFactory) {
+    this(connectionFactory, StatementTimeoutConnectionFactory::cancel);
+  }
+
+  StatementTimeoutConnectionFactory(ConnectionFactory connectionFactory, Function<Connection, Mono<Void>> canceller) {
+    this.connectionFactory = connectionFactory;
+    this.canceller = canceller;
+  }
+
+  @Override
+  public Mono<Connection> create() {
+    return Mono.deferContextual(context -> {
+      StatementDeadline statementDeadline = context.getOrDefault(STATEMENT_DEADLINE_KEY, null);
+
+      if (statementDeadline == null) {
+        return Mono.from(connectionFactory.create());
+      }
+
+      return Mono.from(connectionFactory.create())
+          .map(connection -> applyTimeout(connection, statementDeadline));
+    });
+  }
+
+  @Override
+  public ConnectionFactoryMetadata getMetadata() {
+    return connectionFactory.getMetadata();
+  }
+
+  // Bounds the statements executed for the rows by the deadline, the rows are cancelled as usual
+  // (e.g. with a timeout)
+  public static <T> Flux<T> withDeadline(Flux<T> rows, Instant deadline) {
+    return Flux.defer(() -> {
+      var statementDeadline = new StatementDeadline(deadline);
+
+      // the statement is cancelled before the connection is released
+      return rows.doOnCancel(() -> statementDeadline.cancel()
+          .subscribe(null, error -> LOG.debug("Cancelling the statement failed.", error)))
+          .contextWrite(Context.of(STATEMENT_DEADLINE_KEY, statementDeadline));
+    });
+  }
+
+  private Connection applyTimeout(Connection connection, StatementDeadline statementDeadline) {
+    if (!statementDeadline.attach(connection, canceller)) {
+      return connection;
+    }
+
+    var timeout = Math.max(RequestDeadline.getRemaining(statementDeadline.getDeadline())
+        .toMillis(), 1);
+
+    // the result is not awaited, so the statement follows without waiting for a response
+    Flux.from(connection.createStatement(String.format(STATEMENT_TIMEOUT_SQL, timeout))
+        .execute())
+        .flatMap(Result::getRowsUpdated)
+        .subscribe(null, error -> LOG.warn("Setting the statement timeout failed.", error));
+
+    return new TimeoutConnection(connection, statementDeadline);
+  }
+
+  // Sends a cancel request for the running statement of the connection over a new connection, as
+  // the protocol requires, and closes the connection
+  private static Mono<Void> cancel(Connection connection) {
+    var driverConnection = getDriverConnection(connection);
+
+    return Mono.fromCallable(() -> {
+      var client = (Client) GET_CLIENT.invoke(driverConnection);
+      var address = ((reactor.netty.Connection) CLIENT_CONNECTION.get(client)).channel()
+          .remoteAddress();
+
+      return Tuples.of(client, (InetSocketAddress) address);
+    })
+        .flatMap(target -> {
+          var client = target.getT1();
+          var address = target.getT2();
+          var processId = client.getProcessId()
+              .orElseThrow();
+          var secretKey = client.getSecretKey()
+              .orElseThrow();
+
+          // the server reads the request and closes the connection, it doesn't send a response
+          return ReactorNettyClient.connect(address.getHostString(), address.getPort())
+              .flatMap(cancelClient -> {
+                cancelClient.send(new CancelRequest(processId, secretKey));
+                return cancelClient.close();
+              });
+        })
+        .onErrorResume(error -> {
+          LOG.debug("Sending a cancel request failed.", error);
+          return Mono.empty();
+        })
+        .then(Mono.defer(() -> Mono.from(driverConnection.close())));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Connection getDriverConnection(Connection connection) {
+    var unwrapped = connection;
+
+    while (unwrapped instanceof Wrapped) {
+      unwrapped = ((Wrapped<Connection>) unwrapped).unwrap();
+    }
+
+    return unwrapped;
+  }
+
+  // The driver doesn't expose the process id, secret key and address of a connection, they are read
+  // from its client
+  private static Method findClientMethod() {
+    try {
+      var method = Class.forName(DRIVER_CONNECTION_CLASS)
+          .getDeclaredMethod("getClient");
+      method.setAccessible(true);
+      return method;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.warn("Statements can't be cancelled, the client of a connection is not accessible.", e);
+      return null;
+    }
+  }
+
+  private static Field findClientConnectionField() {
+    try {
+      var field = ReactorNettyClient.class.getDeclaredField("connection");
+      field.setAccessible(true);
+      return field;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.warn("Statements can't be cancelled, the address of a connection is not accessible.", e);
+      return null;
+    }
+  }
+
+  private static final class TimeoutConnection extends ReleasingConnection {
+
+    private final StatementDeadline statementDeadline;
+
+    private TimeoutConnection(Connection connection, StatementDeadline statementDeadline) {
+      super(connection, () -> {
+      });
+      this.statementDeadline = statementDeadline;
+    }
+
+    @Override
+    public Publisher<Void> close() {
+      if (!statementDeadline.detach(unwrap())) {
+        return statementDeadline.cancel()
+            .onErrorResume(error -> Mono.empty())
+            .then(Mono.defer(() -> Mono.from(super.close())));
+      }
+
+      return Flux.from(unwrap().createStatement(RESET_STATEMENT_TIMEOUT_SQL)
+          .execute())
+          .flatMap(Result::getRowsUpdated)
+          .then()
+          .onErrorResume(error -> {
+            LOG.warn("Resetting the statement timeout failed.", error);
+            return Mono.empty();
+          })
+          .then(Mono.defer(() -> Mono.from(super.close())));
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package org.dotwebstack.framework.backend.postgres.advisor;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data
+@Builder
+public class IndexAdvice {
+
+  @NonNull
+  private final String typeName;
+
+  @NonNull
+  private final IndexUsage usage;
+
+  // the key field, filter, sortableBy or relation field of the type
+  @NonNull
+  private final String name;
+
+  @NonNull
+  private final String table;
+
+  @NonNull
+  private final List<String> columns;
+
+  // null when the table has never been analyzed
+  private final Long estimatedRows;
+
+  // an index on the table starts with the first column
+  private final boolean indexed;
+
+  // the plan of the query shape reads the whole table
+  private final boolean sequentialScan;
+}
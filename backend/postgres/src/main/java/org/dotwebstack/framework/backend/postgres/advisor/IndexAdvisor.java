@@ -0,0 +1,483 @@
+package org.dotwebstack.framework.backend.postgres.advisor;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.dotwebstack.framework.backend.postgres.config.JoinColumn;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.backend.postgres.query.PostgresKeyCriteria;
+import org.dotwebstack.framework.backend.postgres.query.SelectQueryBuilder;
+import org.dotwebstack.framework.backend.postgres.query.SelectQueryBuilderResult;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.dotwebstack.framework.core.query.model.CollectionRequest;
+import org.dotwebstack.framework.core.query.model.ObjectRequest;
+import org.dotwebstack.framework.core.query.model.Origin;
+import org.dotwebstack.framework.core.query.model.PagingCriteria;
+import org.dotwebstack.framework.core.query.model.ScalarField;
+import org.dotwebstack.framework.core.query.model.SortCriteria;
+import org.dotwebstack.framework.core.query.model.filter.EqualsFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.FieldPath;
+import org.dotwebstack.framework.core.query.model.filter.FilterCriteria;
+import org.dotwebstack.framework.ext.spatial.SpatialConstants;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.conf.ParamType;
+import org.jooq.impl.DSL;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Checks whether the lookups which the configuration implies are supported by indexes. For each
+// key, filter, sortableBy and relation of a type a query is built with the select query builder,
+// with values taken from the table, and the plan of the query is checked for sequential scans.
+@Slf4j
+public class IndexAdvisor {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final String EXPLAIN_SQL = "EXPLAIN (FORMAT JSON) %s";
+
+  private static final String TABLE_ROWS_SQL = "select reltuples::bigint from pg_class where oid = to_regclass($1)";
+
+  private static final String INDEXED_COLUMNS_SQL = "select a.attname from pg_index i join pg_attribute a "
+      + "on a.attrelid = i.indrelid and a.attnum = i.indkey[0] where i.indrelid = to_regclass($1)";
+
+  private static final String SEQ_SCAN = "Seq Scan";
+
+  private static final int SORT_PAGE_SIZE = 10;
+
+  private final DotWebStackConfiguration dotWebStackConfiguration;
+
+  private final SelectQueryBuilder selectQueryBuilder;
+
+  private final DatabaseClient databaseClient;
+
+  private final DSLContext dslContext;
+
+  private final PostgresProperties.IndexAdvisorProperties indexAdvisorProperties;
+
+  IndexAdvisor(DotWebStackConfiguration dotWebStackConfiguration, SelectQueryBuilder selectQueryBuilder,
+      DatabaseClient databaseClient, DSLContext dslContext,
+      PostgresProperties.IndexAdvisorProperties indexAdvisorProperties) {
+    this.dotWebStackConfiguration = dotWebStackConfiguration;
+    this.selectQueryBuilder = selectQueryBuilder;
+    this.databaseClient = databaseClient;
+    this.dslContext = dslContext;
+    this.indexAdvisorProperties = indexAdvisorProperties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (!indexAdvisorProperties.isOnStartup()) {
+      return;
+    }
+
+    analyze().subscribe(IndexAdvisor::log, e -> LOG.warn("Analyzing the indexes of the configuration failed.", e));
+  }
+
+  // Returns the lookups on tables with at least the minimum number of rows, which are not
+  // supported by an index. Shapes are analyzed one by one, to limit the load on the database.
+  public Mono<List<IndexAdvice>> analyze() {
+    return Flux.fromIterable(createShapes())
+        .concatMap(this::analyzeShape)
+        .filter(advice -> !advice.isIndexed() || advice.isSequentialScan())
+        .filter(advice -> advice.getEstimatedRows() == null
+            || advice.getEstimatedRows() >= indexAdvisorProperties.getMinRows())
+        .collectList();
+  }
+
+  List<QueryShape> createShapes() {
+    var shapes = new LinkedHashMap<String, QueryShape>();
+
+    dotWebStackConfiguration.getObjectTypes()
+        .values()
+        .stream()
+        .filter(PostgresTypeConfiguration.class::isInstance)
+        .map(PostgresTypeConfiguration.class::cast)
+        .filter(typeConfiguration -> typeConfiguration.getTable() != null)
+        .flatMap(typeConfiguration -> Stream
+            .of(createKeyShapes(typeConfiguration), createFilterShapes(typeConfiguration),
+                createSortShapes(typeConfiguration), createJoinShapes(typeConfiguration))
+            .flatMap(stream -> stream))
+        // relations which are configured on both sides lead to the same lookup
+        .forEach(shape -> shapes.putIfAbsent(shape.getId(), shape));
+
+    return List.copyOf(shapes.values());
+  }
+
+  private Stream<QueryShape> createKeyShapes(PostgresTypeConfiguration typeConfiguration) {
+    return typeConfiguration.getKeys()
+        .stream()
+        .map(keyConfiguration -> typeConfiguration.getFields()
+            .get(keyConfiguration.getField()))
+        .filter(IndexAdvisor::isColumnField)
+        .map(fieldConfiguration -> createShape(typeConfiguration, IndexUsage.KEY, fieldConfiguration.getName(),
+            typeConfiguration, List.of(fieldConfiguration)));
+  }
+
+  private Stream<QueryShape> createFilterShapes(PostgresTypeConfiguration typeConfiguration) {
+    return typeConfiguration.getFilters()
+        .entrySet()
+        .stream()
+        .map(entry -> Optional.ofNullable(typeConfiguration.getFields()
+            .get(StringUtils.defaultIfBlank(entry.getValue()
+                .getField(), entry.getKey())))
+            .filter(IndexAdvisor::isColumnField)
+            // geometry filters are checked with a bounding box, which requires a GiST index
+            .filter(fieldConfiguration -> !SpatialConstants.GEOMETRY.equals(fieldConfiguration.getType()))
+            .map(fieldConfiguration -> createShape(typeConfiguration, IndexUsage.FILTER, entry.getKey(),
+                typeConfiguration, List.of(fieldConfiguration))))
+        .flatMap(Optional::stream);
+  }
+
+  private Stream<QueryShape> createSortShapes(PostgresTypeConfiguration typeConfiguration) {
+    return typeConfiguration.getSortCriterias()
+        .entrySet()
+        .stream()
+        // sorting on the fields of nested objects is not supported by an index on the table
+        .filter(entry -> entry.getValue()
+            .stream()
+            .allMatch(sortCriteria -> sortCriteria.getFieldPath()
+                .isLeaf()))
+        .map(entry -> QueryShape.builder()
+            .typeName(typeConfiguration.getName())
+            .usage(IndexUsage.SORT)
+            .name(entry.getKey())
+            .typeConfiguration(typeConfiguration)
+            .fields(entry.getValue()
+                .stream()
+                .map(sortCriteria -> (PostgresFieldConfiguration) sortCriteria.getFieldPath()
+                    .getFieldConfiguration())
+                .collect(Collectors.toList()))
+            .sortCriterias(entry.getValue())
+            .build());
+  }
+
+  // The rows of a relation are looked up by the columns which reference the parent. These columns are
+  // not fields of a type, so the lookup is built for a type with just these columns.
+  private Stream<QueryShape> createJoinShapes(PostgresTypeConfiguration typeConfiguration) {
+    return typeConfiguration.getFields()
+        .values()
+        .stream()
+        .map(fieldConfiguration -> getJoinLookup(fieldConfiguration).map(lookup -> createShape(typeConfiguration,
+            IndexUsage.JOIN, fieldConfiguration.getName(), createLookupType(lookup.getKey(), lookup.getValue()), null)))
+        .flatMap(Optional::stream);
+  }
+
+  private Optional<Map.Entry<String, List<JoinColumn>>> getJoinLookup(PostgresFieldConfiguration fieldConfiguration) {
+    if (fieldConfiguration.getJoinTable() != null) {
+      return Optional.of(Map.entry(fieldConfiguration.getJoinTable()
+          .getName(),
+          fieldConfiguration.getJoinTable()
+              .getJoinColumns()));
+    }
+
+    if (!(fieldConfiguration.getTypeConfiguration() instanceof PostgresTypeConfiguration)) {
+      return Optional.empty();
+    }
+
+    var targetTypeConfiguration = (PostgresTypeConfiguration) fieldConfiguration.getTypeConfiguration();
+
+    if (fieldConfiguration.getMappedBy() != null) {
+      return Optional.ofNullable(targetTypeConfiguration.getFields()
+          .get(fieldConfiguration.getMappedBy()))
+          .map(PostgresFieldConfiguration::getJoinColumns)
+          .map(joinColumns -> Map.entry(targetTypeConfiguration.getTable(), joinColumns));
+    }
+
+    // the join columns of an object field are on its own table and reference the key of the target
+    if (fieldConfiguration.isAggregate() && fieldConfiguration.getJoinColumns() != null) {
+      return Optional.of(Map.entry(targetTypeConfiguration.getTable(), fieldConfiguration.getJoinColumns()));
+    }
+
+    return Optional.empty();
+  }
+
+  private static PostgresTypeConfiguration createLookupType(String table, List<JoinColumn> joinColumns) {
+    var fields = new LinkedHashMap<String, PostgresFieldConfiguration>();
+
+    joinColumns.forEach(joinColumn -> {
+      var fieldConfiguration = new PostgresFieldConfiguration();
+      fieldConfiguration.setColumn(joinColumn.getName());
+      fields.put(joinColumn.getName(), fieldConfiguration);
+    });
+
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setName(table);
+    typeConfiguration.setTable(table);
+    typeConfiguration.setKeys(List.of());
+    typeConfiguration.setFields(fields);
+    return typeConfiguration;
+  }
+
+  private static QueryShape createShape(PostgresTypeConfiguration typeConfiguration, IndexUsage usage, String name,
+      PostgresTypeConfiguration lookupTypeConfiguration, List<PostgresFieldConfiguration> fields) {
+    return QueryShape.builder()
+        .typeName(typeConfiguration.getName())
+        .usage(usage)
+        .name(name)
+        .typeConfiguration(lookupTypeConfiguration)
+        .fields(fields != null ? fields
+            : List.copyOf(lookupTypeConfiguration.getFields()
+                .values()))
+        .sortCriterias(List.of())
+        .build();
+  }
+
+  private static boolean isColumnField(PostgresFieldConfiguration fieldConfiguration) {
+    return fieldConfiguration != null && fieldConfiguration.isScalar() && fieldConfiguration.getColumn() != null
+        && !fieldConfiguration.isList();
+  }
+
+  private Mono<IndexAdvice> analyzeShape(QueryShape shape) {
+    var table = shape.getTypeConfiguration()
+        .getTable();
+
+    return createQuery(shape).flatMap(this::explain)
+        .zipWith(getTableRows(table).map(Optional::of)
+            .defaultIfEmpty(Optional.empty()))
+        .zipWith(getIndexedColumns(table), (result, indexedColumns) -> IndexAdvice.builder()
+            .typeName(shape.getTypeName())
+            .usage(shape.getUsage())
+            .name(shape.getName())
+            .table(table)
+            .columns(shape.getColumns())
+            .estimatedRows(result.getT2()
+                .orElse(null))
+            .indexed(indexedColumns.contains(shape.getColumns()
+                .get(0)))
+            .sequentialScan(result.getT1()
+                .contains(getUnqualifiedName(table)))
+            .build())
+        .onErrorResume(e -> {
+          LOG.warn("Unable to analyze {} '{}' of type '{}'.", shape.getUsage(), shape.getName(), shape.getTypeName(),
+              e);
+          return Mono.empty();
+        });
+  }
+
+  // Lookups are planned with values from the table, a table without rows is not analyzed
+  private Mono<SelectQueryBuilderResult> createQuery(QueryShape shape) {
+    if (shape.getUsage() == IndexUsage.SORT) {
+      return Mono.fromCallable(() -> selectQueryBuilder.build(CollectionRequest.builder()
+          .objectRequest(createObjectRequest(shape, List.of()))
+          .sortCriterias(shape.getSortCriterias())
+          .pagingCriteria(PagingCriteria.builder()
+              .page(0)
+              .pageSize(SORT_PAGE_SIZE)
+              .build())
+          .build()));
+    }
+
+    return getSampleValues(shape).map(values -> {
+      if (shape.getUsage() == IndexUsage.KEY) {
+        var keyValues = new LinkedHashMap<String, Object>();
+        IntStream.range(0, values.size())
+            .forEach(index -> keyValues.put(shape.getColumns()
+                .get(index), values.get(index)));
+
+        return selectQueryBuilder.build(createObjectRequest(shape, List.of(PostgresKeyCriteria.builder()
+            .values(keyValues)
+            .build())));
+      }
+
+      var filterCriterias = IntStream.range(0, values.size())
+          .mapToObj(index -> (FilterCriteria) EqualsFilterCriteria.builder()
+              .fieldPath(FieldPath.builder()
+                  .fieldConfiguration(shape.getFields()
+                      .get(index))
+                  .build())
+              .value(values.get(index))
+              .build())
+          .collect(Collectors.toList());
+
+      return selectQueryBuilder.build(CollectionRequest.builder()
+          .objectRequest(createObjectRequest(shape, List.of()))
+          .filterCriterias(filterCriterias)
+          .build());
+    });
+  }
+
+  private static ObjectRequest createObjectRequest(QueryShape shape, List<PostgresKeyCriteria> keyCriteria) {
+    var scalarFields = shape.getFields()
+        .stream()
+        .map(fieldConfiguration -> ScalarField.builder()
+            .field(fieldConfiguration)
+            .origins(new HashSet<>(Set.of(Origin.REQUESTED)))
+            .build())
+        .collect(Collectors.toCollection(ArrayList::new));
+
+    return ObjectRequest.builder()
+        .typeConfiguration(shape.getTypeConfiguration())
+        .scalarFields(scalarFields)
+        .keyCriteria(List.copyOf(keyCriteria))
+        .build();
+  }
+
+  private Mono<List<Object>> getSampleValues(QueryShape shape) {
+    var columns = shape.getColumns()
+        .stream()
+        .map(column -> DSL.field(DSL.name(column)))
+        .collect(Collectors.toList());
+
+    var sql = dslContext.select(columns)
+        .from(DSL.table(DSL.name(shape.getTypeConfiguration()
+            .getTable()
+            .split("\\."))))
+        .where(columns.stream()
+            .map(Field::isNotNull)
+            .collect(Collectors.toList()))
+        .limit(1)
+        .getSQL(ParamType.INLINED);
+
+    return databaseClient.sql(sql)
+        .map(row -> IntStream.range(0, columns.size())
+            .mapToObj(row::get)
+            .collect(Collectors.toList()))
+        .first();
+  }
+
+  private Mono<Set<String>> explain(SelectQueryBuilderResult selectQueryBuilderResult) {
+    var bindValues = selectQueryBuilderResult.getBindValues();
+    DatabaseClient.GenericExecuteSpec executeSpec =
+        databaseClient.sql(String.format(EXPLAIN_SQL, selectQueryBuilderResult.getSql()));
+
+    for (var index = 0; index < bindValues.size(); index++) {
+      executeSpec = executeSpec.bind(index, Objects.requireNonNull(bindValues.get(index)));
+    }
+
+    return executeSpec.map(row -> row.get(0, String.class))
+        .one()
+        .map(IndexAdvisor::getSequentialScans);
+  }
+
+  // Tables which have never been analyzed have no row estimate
+  private Mono<Long> getTableRows(String table) {
+    return databaseClient.sql(TABLE_ROWS_SQL)
+        .bind(0, table)
+        .map(row -> row.get(0, Long.class))
+        .one()
+        .filter(rows -> rows >= 0);
+  }
+
+  private Mono<Set<String>> getIndexedColumns(String table) {
+    return databaseClient.sql(INDEXED_COLUMNS_SQL)
+        .bind(0, table)
+        .map(row -> row.get(0, String.class))
+        .all()
+        .collect(Collectors.toSet());
+  }
+
+  // Returns the names of the tables which are read with a sequential scan
+  static Set<String> getSequentialScans(String plan) {
+    try {
+      var scans = new HashSet<String>();
+      addSequentialScans(OBJECT_MAPPER.readTree(plan)
+          .path(0)
+          .path("Plan"), scans);
+      return scans;
+    } catch (JsonProcessingException e) {
+      throw illegalStateException("Unable to read the query plan.", e);
+    }
+  }
+
+  private static void addSequentialScans(JsonNode node, Set<String> scans) {
+    if (SEQ_SCAN.equals(node.path("Node Type")
+        .asText())) {
+      scans.add(node.path("Relation Name")
+          .asText());
+    }
+
+    node.path("Plans")
+        .forEach(child -> addSequentialScans(child, scans));
+  }
+
+  private static String getUnqualifiedName(String table) {
+    return table.substring(table.lastIndexOf('.') + 1);
+  }
+
+  private static void log(List<IndexAdvice> advices) {
+    if (advices.isEmpty()) {
+      LOG.info("All analyzed lookups of the configuration are supported by an index.");
+      return;
+    }
+
+    advices
+        .forEach(advice -> LOG.warn("{} '{}' of type '{}' looks up table '{}' ({} rows) by {}: {}.", advice.getUsage(),
+            advice.getName(), advice.getTypeName(), advice.getTable(), Optional.ofNullable(advice.getEstimatedRows())
+                .map(String::valueOf)
+                .orElse("unknown"),
+            advice.getColumns(), describe(advice)));
+  }
+
+  private static String describe(IndexAdvice advice) {
+    var problems = new ArrayList<String>();
+
+    if (!advice.isIndexed()) {
+      problems.add("no index starts with column '" + advice.getColumns()
+          .get(0) + "'");
+    }
+
+    if (advice.isSequentialScan()) {
+      problems.add("the query plan scans the whole table");
+    }
+
+    return String.join(" and ", problems);
+  }
+
+  @Getter
+  @Builder
+  static class QueryShape {
+
+    @NonNull
+    private final String typeName;
+
+    @NonNull
+    private final IndexUsage usage;
+
+    @NonNull
+    private final String name;
+
+    @NonNull
+    private final PostgresTypeConfiguration typeConfiguration;
+
+    @NonNull
+    private final List<PostgresFieldConfiguration> fields;
+
+    @NonNull
+    private final List<SortCriteria> sortCriterias;
+
+    List<String> getColumns() {
+      return fields.stream()
+          .map(PostgresFieldConfiguration::getColumn)
+          .collect(Collectors.toList());
+    }
+
+    String getId() {
+      return String.join(":", usage.name(), typeConfiguration.getTable(), String.join(",", getColumns()),
+          usage == IndexUsage.SORT ? name : "");
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package org.dotwebstack.framework.backend.postgres.advisor;
+
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.dotwebstack.framework.backend.postgres.query.SelectQueryBuilder;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.jooq.DSLContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+@Configuration
+@ConditionalOnProperty(prefix = "dotwebstack.postgres.index-advisor", name = "enabled", havingValue = "true")
+public class IndexAdvisorConfiguration {
+
+  @Bean
+  public IndexAdvisor indexAdvisor(DotWebStackConfiguration dotWebStackConfiguration,
+      SelectQueryBuilder selectQueryBuilder, DatabaseClient databaseClient, DSLContext dslContext,
+      PostgresProperties postgresProperties) {
+    return new IndexAdvisor(dotWebStackConfiguration, selectQueryBuilder, databaseClient, dslContext,
+        postgresProperties.getIndexAdvisor());
+  }
+}
@@ -0,0 +1,25 @@
+package org.dotwebstack.framework.backend.postgres.advisor;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnProperty(prefix = "dotwebstack.postgres.index-advisor", name = "enabled", havingValue = "true")
+class IndexAdvisorController {
+
+  private final IndexAdvisor indexAdvisor;
+
+  public IndexAdvisorController(IndexAdvisor indexAdvisor) {
+    this.indexAdvisor = indexAdvisor;
+  }
+
+  @GetMapping(path = "${dotwebstack.postgres.index-advisor.path:/index-advice}",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<List<IndexAdvice>> handleGet() {
+    return indexAdvisor.analyze();
+  }
+}
@@ -0,0 +1,6 @@
+package org.dotwebstack.framework.backend.postgres.advisor;
+
+// The part of the configuration which makes queries look up rows by a column
+public enum IndexUsage {
+  KEY, FILTER, SORT, JOIN
+}
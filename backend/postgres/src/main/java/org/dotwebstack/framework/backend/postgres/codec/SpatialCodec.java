@@ -1,6 +1,7 @@
 package org.dotwebstack.framework.backend.postgres.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.r2dbc.postgresql.client.Parameter;
 import io.r2dbc.postgresql.codec.Codec;
 import io.r2dbc.postgresql.message.Format;
@@ -8,10 +9,12 @@ import java.nio.charset.StandardCharsets;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.dotwebstack.framework.core.helpers.ExceptionHelper;
+import org.dotwebstack.framework.ext.spatial.LazyGeometry;
 import org.locationtech.jts.geom.Geometry;
 
+// Geometries are decoded lazily, unless a JTS Geometry is requested
 @Slf4j
-class SpatialCodec implements Codec<Geometry> {
+class SpatialCodec implements Codec<Object> {
 
   private final Set<Integer> dataTypes;
 
@@ -28,11 +31,24 @@ class SpatialCodec implements Codec<Geometry> {
   }
 
   @Override
-  public Geometry decode(ByteBuf byteBuf, int dataType, Format format, Class<? extends Geometry> type) {
+  public Object decode(ByteBuf byteBuf, int dataType, Format format, Class<?> type) {
     if (byteBuf == null) {
       return null;
     }
 
+    if (Geometry.class.isAssignableFrom(type)) {
+      return decodeGeometry(byteBuf, format);
+    }
+
+    // the buffer is released after decoding, so the bytes are copied
+    var bytes =
+        format.equals(Format.FORMAT_TEXT) ? ByteBufUtil.decodeHexDump(byteBuf.toString(StandardCharsets.US_ASCII))
+            : ByteBufUtil.getBytes(byteBuf);
+
+    return LazyGeometry.of(bytes, geometryParser::parse);
+  }
+
+  private Geometry decodeGeometry(ByteBuf byteBuf, Format format) {
     if (format.equals(Format.FORMAT_TEXT)) {
       var hex = byteBuf.toString(StandardCharsets.US_ASCII);
       return geometryParser.parse(hex);
@@ -63,6 +79,6 @@ class SpatialCodec implements Codec<Geometry> {
 
   @Override
   public Class<?> type() {
-    return Geometry.class;
+    return LazyGeometry.class;
   }
 }
@@ -0,0 +1,69 @@
+package org.dotwebstack.framework.backend.postgres.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.dotwebstack.framework.core.query.model.AggregateFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.AggregateFunctionType;
+
+// A table or materialized view with the precomputed aggregates of an aggregationOf field, with a
+// row per parent
+@Data
+@NoArgsConstructor
+public class AggregateSummary {
+
+  @NotBlank
+  private String table;
+
+  // the columns of the summary which reference the fields of the parent
+  @Valid
+  @NotEmpty
+  private List<JoinColumn> joinColumns;
+
+  @Valid
+  @NotEmpty
+  private List<SummaryColumn> columns;
+
+  // materialized views are refreshed at this interval, otherwise the summary is maintained elsewhere
+  private Duration refreshInterval;
+
+  // a concurrent refresh doesn't block readers, but requires a unique index on the view
+  private boolean concurrent = true;
+
+  public Optional<SummaryColumn> findColumn(AggregateFieldConfiguration aggregateFieldConfiguration) {
+    return columns.stream()
+        .filter(column -> column.matches(aggregateFieldConfiguration))
+        .findFirst();
+  }
+
+  @Data
+  @NoArgsConstructor
+  public static class SummaryColumn {
+
+    @NotBlank
+    private String name;
+
+    @NotBlank
+    private String field;
+
+    private AggregateFunctionType function;
+
+    private boolean distinct = false;
+
+    private String separator = ",";
+
+    boolean matches(AggregateFieldConfiguration aggregateFieldConfiguration) {
+      return function == aggregateFieldConfiguration.getAggregateFunctionType()
+          && field.equals(aggregateFieldConfiguration.getField()
+              .getName())
+          && distinct == aggregateFieldConfiguration.isDistinct() && (function != AggregateFunctionType.JOIN
+              || Objects.equals(separator, aggregateFieldConfiguration.getSeparator()));
+    }
+  }
+}
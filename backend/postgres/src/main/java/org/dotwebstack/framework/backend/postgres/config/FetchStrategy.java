@@ -0,0 +1,12 @@
+package org.dotwebstack.framework.backend.postgres.config;
+
+public enum FetchStrategy {
+  // joined into the query of the parent, not supported for lists
+  JOIN,
+  // loaded with a separate query, batched for all parents at the same path
+  BATCH,
+  // aggregated as a json array in a lateral subquery of the parent query
+  JSON,
+  // chosen by the fetch planner, based on the width of the query and the table statistics
+  AUTO
+}
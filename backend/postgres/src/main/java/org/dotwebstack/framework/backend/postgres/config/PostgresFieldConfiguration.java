@@ -22,8 +22,18 @@ public class PostgresFieldConfiguration extends AbstractFieldConfiguration {
 
   private String column;
 
+  // the spatial reference of a geometry column, used for the geometries of a filter
+  private Integer srid;
+
   private boolean isNested = false;
 
+  // how the objects of an object or list field are loaded together with the parent
+  private FetchStrategy fetch = FetchStrategy.AUTO;
+
+  // precomputed aggregates, which are read instead of aggregating the rows of an aggregationOf field
+  @Valid
+  private AggregateSummary summary;
+
   @Override
   public boolean isScalarField() {
     return isScalar();
@@ -73,6 +83,13 @@ public class PostgresFieldConfiguration extends AbstractFieldConfiguration {
     return List.of();
   }
 
+  // The key under which the value of a join column is part of the parent row, when the object is
+  // loaded with a separate query. Field names can not contain a dot, so the key does not clash.
+  public String getJoinColumnKey(JoinColumn joinColumn) {
+    return getName().concat(".")
+        .concat(joinColumn.getName());
+  }
+
   public List<JoinColumn> findInverseJoinColumns() {
     if (joinTable != null) {
       return joinTable.getInverseJoinColumns();
@@ -3,9 +3,11 @@ package org.dotwebstack.framework.backend.postgres.config;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.invalidConfigurationException;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.base.CaseFormat;
 import graphql.schema.DataFetchingEnvironment;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +30,7 @@ import org.dotwebstack.framework.core.datafetchers.MappedByKeyCondition;
 import org.dotwebstack.framework.core.helpers.TypeHelper;
 import org.dotwebstack.framework.core.query.model.SortCriteria;
 import org.dotwebstack.framework.core.query.model.filter.FieldPathHelper;
+import org.springframework.boot.convert.DurationStyle;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -36,11 +39,19 @@ public class PostgresTypeConfiguration extends AbstractTypeConfiguration<Postgre
 
   private String table;
 
+  // Maximum age of cached results, e.g. '30s' or 'PT5M'
+  private String cacheTtl;
+
+  @JsonIgnore
+  @Setter(AccessLevel.NONE)
+  private Duration resultCacheTtl;
+
   @Setter(AccessLevel.NONE)
   private Map<String, PostgresFieldConfiguration> referencedColumns = new HashMap<>();
 
   @Override
   public void init(DotWebStackConfiguration dotWebStackConfiguration) {
+    validateFetchStrategies();
 
     getFields().values()
         .forEach(fieldConfiguration -> {
@@ -69,6 +80,32 @@ public class PostgresTypeConfiguration extends AbstractTypeConfiguration<Postgre
     initReferencedColumns(dotWebStackConfiguration.getObjectTypes());
     initObjectTypes(dotWebStackConfiguration.getObjectTypes());
     initKeyFields();
+    initResultCacheTtl();
+  }
+
+  // lists can't be joined into the rows of their parent, they are aggregated with the json strategy
+  private void validateFetchStrategies() {
+    getFields().values()
+        .stream()
+        .filter(
+            fieldConfiguration -> fieldConfiguration.isList() && fieldConfiguration.getFetch() == FetchStrategy.JOIN)
+        .findFirst()
+        .ifPresent(fieldConfiguration -> {
+          throw invalidConfigurationException("Fetch strategy 'join' is not supported for list field '{}', use 'json'.",
+              fieldConfiguration.getName());
+        });
+  }
+
+  private void initResultCacheTtl() {
+    if (StringUtils.isBlank(cacheTtl)) {
+      return;
+    }
+
+    try {
+      resultCacheTtl = DurationStyle.detectAndParse(cacheTtl);
+    } catch (IllegalArgumentException e) {
+      throw invalidConfigurationException("Invalid cacheTtl '{}' for type '{}'.", cacheTtl, getName(), e);
+    }
   }
 
   private void initSortCriterias(DotWebStackConfiguration dotWebStackConfiguration) {
@@ -151,6 +188,23 @@ public class PostgresTypeConfiguration extends AbstractTypeConfiguration<Postgre
           .build();
     }
 
+    // the join columns of an object field are only selected in the row of its parent when it is
+    // batched, a joined object field is part of the row itself
+    if (fieldConfiguration.getJoinColumns() != null && !fieldConfiguration.isList()
+        && isBatched(fieldConfiguration, source)) {
+      var typeConfiguration = (PostgresTypeConfiguration) fieldConfiguration.getTypeConfiguration();
+      Map<String, Object> columnValues = new HashMap<>();
+
+      fieldConfiguration.getJoinColumns()
+          .forEach(joinColumn -> columnValues.put(typeConfiguration.getFields()
+              .get(joinColumn.getField())
+              .getColumn(), source.get(fieldConfiguration.getJoinColumnKey(joinColumn))));
+
+      return ColumnKeyCondition.builder()
+          .valueMap(columnValues)
+          .build();
+    }
+
     return super.getKeyCondition(fieldName);
   }
 
@@ -168,6 +222,12 @@ public class PostgresTypeConfiguration extends AbstractTypeConfiguration<Postgre
         .orElse(null);
   }
 
+  private static boolean isBatched(PostgresFieldConfiguration fieldConfiguration, Map<String, Object> source) {
+    return fieldConfiguration.getJoinColumns()
+        .stream()
+        .allMatch(joinColumn -> source.containsKey(fieldConfiguration.getJoinColumnKey(joinColumn)));
+  }
+
   @Override
   public KeyCondition invertKeyCondition(MappedByKeyCondition mappedByKeyCondition, Map<String, Object> source) {
     PostgresFieldConfiguration fieldConfiguration = getFields().get(mappedByKeyCondition.getFieldName());
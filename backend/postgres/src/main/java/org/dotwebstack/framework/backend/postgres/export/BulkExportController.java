@@ -0,0 +1,43 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@ConditionalOnProperty(prefix = "dotwebstack.postgres.export", name = "enabled", havingValue = "true")
+class BulkExportController {
+
+  private static final String FORMAT = "format";
+
+  private final BulkExporter bulkExporter;
+
+  public BulkExportController(BulkExporter bulkExporter) {
+    this.bulkExporter = bulkExporter;
+  }
+
+  @GetMapping(path = "${dotwebstack.postgres.export.path:/export}/{typeName}")
+  public ResponseEntity<Flux<String>> handleGet(@PathVariable("typeName") String typeName,
+      @RequestParam(value = FORMAT, defaultValue = "ndjson") String formatName) {
+    var format = ExportFormat.of(formatName);
+
+    if (format.isEmpty()) {
+      return ResponseEntity.badRequest()
+          .build();
+    }
+
+    if (!bulkExporter.supports(typeName)) {
+      return ResponseEntity.notFound()
+          .build();
+    }
+
+    return ResponseEntity.ok()
+        .contentType(format.get()
+            .getMediaType())
+        .body(bulkExporter.export(typeName, format.get()));
+  }
+}
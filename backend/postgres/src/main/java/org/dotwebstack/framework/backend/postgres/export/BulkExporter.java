@@ -0,0 +1,110 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgumentException;
+
+import graphql.Scalars;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.dotwebstack.framework.ext.spatial.SpatialConstants;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import reactor.core.publisher.Flux;
+
+@Slf4j
+public class BulkExporter {
+
+  private static final String COPY_SQL = "COPY (%s) TO STDOUT (FORMAT binary)";
+
+  private final DotWebStackConfiguration dotWebStackConfiguration;
+
+  private final DSLContext dslContext;
+
+  private final CopyClient copyClient;
+
+  BulkExporter(DotWebStackConfiguration dotWebStackConfiguration, DSLContext dslContext, CopyClient copyClient) {
+    this.dotWebStackConfiguration = dotWebStackConfiguration;
+    this.dslContext = dslContext;
+    this.copyClient = copyClient;
+  }
+
+  public boolean supports(String typeName) {
+    return getTypeConfiguration(typeName).isPresent();
+  }
+
+  // Streams all rows of a type as lines of the format, the rows are read from the database as the
+  // lines are consumed, so the export takes a constant amount of memory
+  public Flux<String> export(String typeName, ExportFormat format) {
+    var typeConfiguration = getTypeConfiguration(typeName)
+        .orElseThrow(() -> illegalArgumentException("Type '{}' can not be exported.", typeName));
+
+    var fieldConfigurations = typeConfiguration.getFields()
+        .values()
+        .stream()
+        .filter(PostgresFieldConfiguration::isScalar)
+        .filter(fieldConfiguration -> fieldConfiguration.getColumn() != null)
+        .collect(Collectors.toList());
+
+    var columns = fieldConfigurations.stream()
+        .map(fieldConfiguration -> ExportColumn.builder()
+            .name(fieldConfiguration.getName())
+            .numericType(fieldConfiguration.isNumeric())
+            .booleanType(Scalars.GraphQLBoolean.getName()
+                .equals(fieldConfiguration.getType()))
+            .build())
+        .collect(Collectors.toList());
+
+    var sql = createCopySql(typeConfiguration, fieldConfigurations);
+    LOG.debug("PostgreSQL export: {}", sql);
+
+    return Flux.defer(() -> {
+      var decoder = new CopyOutDecoder();
+
+      var lines = copyClient.copyOut(sql)
+          .concatMapIterable(decoder::decode)
+          .map(values -> format.createLine(columns, values));
+
+      var header = format.createHeader(columns);
+
+      return header.isEmpty() ? lines : lines.startWith(header);
+    });
+  }
+
+  String createCopySql(PostgresTypeConfiguration typeConfiguration,
+      List<PostgresFieldConfiguration> fieldConfigurations) {
+    // all columns are read as text, so the copy output does not depend on the binary format of a type
+    var fields = fieldConfigurations.stream()
+        .map(BulkExporter::createTextField)
+        .collect(Collectors.toList());
+
+    var table = DSL.table(DSL.name(StringUtils.split(typeConfiguration.getTable(), '.')));
+
+    return String.format(COPY_SQL, dslContext.renderInlined(dslContext.select(fields)
+        .from(table)));
+  }
+
+  private static Field<?> createTextField(PostgresFieldConfiguration fieldConfiguration) {
+    var column = DSL.field(DSL.name(fieldConfiguration.getColumn()));
+
+    if (SpatialConstants.GEOMETRY.equals(fieldConfiguration.getType())) {
+      return DSL.field("ST_AsText({0})", String.class, column);
+    }
+
+    return column.cast(SQLDataType.CLOB);
+  }
+
+  private Optional<PostgresTypeConfiguration> getTypeConfiguration(String typeName) {
+    return Optional.ofNullable(dotWebStackConfiguration.getObjectTypes()
+        .get(typeName))
+        .filter(PostgresTypeConfiguration.class::isInstance)
+        .map(PostgresTypeConfiguration.class::cast)
+        .filter(typeConfiguration -> typeConfiguration.getTable() != null);
+  }
+}
@@ -0,0 +1,89 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.ReferenceCountUtil;
+import io.r2dbc.postgresql.authentication.AuthenticationHandler;
+import io.r2dbc.postgresql.authentication.PasswordAuthenticationHandler;
+import io.r2dbc.postgresql.authentication.SASLAuthenticationHandler;
+import io.r2dbc.postgresql.client.Client;
+import io.r2dbc.postgresql.client.ReactorNettyClient;
+import io.r2dbc.postgresql.client.StartupMessageFlow;
+import io.r2dbc.postgresql.message.backend.AuthenticationMessage;
+import io.r2dbc.postgresql.message.backend.BackendMessage;
+import io.r2dbc.postgresql.message.backend.CopyData;
+import io.r2dbc.postgresql.message.backend.ErrorResponse;
+import io.r2dbc.postgresql.message.backend.Field;
+import io.r2dbc.postgresql.message.backend.ReadyForQuery;
+import io.r2dbc.postgresql.message.frontend.Query;
+import java.util.Map;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+
+// Runs COPY ... TO STDOUT statements on a dedicated connection. The driver has no API for the copy
+// protocol, so the messages are exchanged with its client directly.
+class CopyClient {
+
+  private static final String APPLICATION_NAME = "dotwebstack-export";
+
+  private final PostgresProperties postgresProperties;
+
+  CopyClient(PostgresProperties postgresProperties) {
+    this.postgresProperties = postgresProperties;
+  }
+
+  // Returns the copy data, the chunks are only read when there is demand for them
+  Flux<byte[]> copyOut(String sql) {
+    return Flux.usingWhen(connect(),
+        client -> client.exchange(ReadyForQuery.class::isInstance, Mono.just(new Query(sql)))
+            .handle(CopyClient::handleMessage),
+        Client::close);
+  }
+
+  private Mono<Client> connect() {
+    return ReactorNettyClient.connect(postgresProperties.getHost(), postgresProperties.getPort())
+        .flatMap(client -> StartupMessageFlow
+            .exchange(APPLICATION_NAME, this::getAuthenticationHandler, client, postgresProperties.getDatabase(),
+                postgresProperties.getUsername(), Map.of())
+            .handle(CopyClient::handleMessage)
+            .then(Mono.<Client>just(client))
+            .onErrorResume(e -> client.close()
+                .then(Mono.error(e))));
+  }
+
+  private AuthenticationHandler getAuthenticationHandler(AuthenticationMessage message) {
+    if (PasswordAuthenticationHandler.supports(message)) {
+      return new PasswordAuthenticationHandler(postgresProperties.getPassword(), postgresProperties.getUsername());
+    }
+
+    if (SASLAuthenticationHandler.supports(message)) {
+      return new SASLAuthenticationHandler(postgresProperties.getPassword(), postgresProperties.getUsername());
+    }
+
+    throw illegalStateException("Unsupported authentication message {}.", message);
+  }
+
+  private static void handleMessage(BackendMessage message, SynchronousSink<byte[]> sink) {
+    try {
+      if (message instanceof ErrorResponse) {
+        sink.error(illegalStateException("Copy failed: {}", getErrorMessage((ErrorResponse) message)));
+      } else if (message instanceof CopyData) {
+        sink.next(ByteBufUtil.getBytes(((CopyData) message).getData()));
+      }
+    } finally {
+      ReferenceCountUtil.release(message);
+    }
+  }
+
+  private static String getErrorMessage(ErrorResponse errorResponse) {
+    return errorResponse.getFields()
+        .stream()
+        .filter(field -> field.getType() == Field.FieldType.MESSAGE)
+        .map(Field::getValue)
+        .findFirst()
+        .orElse(errorResponse.toString());
+  }
+}
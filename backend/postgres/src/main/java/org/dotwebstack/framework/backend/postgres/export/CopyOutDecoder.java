@@ -0,0 +1,134 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Decodes the output of COPY ... TO STDOUT (FORMAT binary) of text columns into rows. The output
+// may be split at any position, the bytes of an incomplete row are kept for the next chunk.
+class CopyOutDecoder {
+
+  private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+  private static final int TRAILER = -1;
+
+  private byte[] remaining = new byte[0];
+
+  private boolean headerRead;
+
+  private boolean finished;
+
+  List<List<String>> decode(byte[] chunk) {
+    var buffer = ByteBuffer.allocate(remaining.length + chunk.length)
+        .put(remaining)
+        .put(chunk)
+        .flip();
+
+    var rows = new ArrayList<List<String>>();
+
+    if (!headerRead && !readHeader(buffer)) {
+      remaining = getRemaining(buffer);
+      return rows;
+    }
+
+    while (!finished) {
+      var row = readRow(buffer);
+
+      if (row == null) {
+        break;
+      }
+
+      rows.add(row);
+    }
+
+    remaining = getRemaining(buffer);
+
+    return rows;
+  }
+
+  boolean isFinished() {
+    return finished;
+  }
+
+  private boolean readHeader(ByteBuffer buffer) {
+    // signature, flags and length of the header extension
+    if (buffer.remaining() < SIGNATURE.length + 2 * Integer.BYTES) {
+      return false;
+    }
+
+    buffer.mark();
+
+    var signature = new byte[SIGNATURE.length];
+    buffer.get(signature);
+
+    if (!Arrays.equals(signature, SIGNATURE)) {
+      throw illegalStateException("Copy output does not start with the binary copy signature.");
+    }
+
+    buffer.getInt();
+    var extensionLength = buffer.getInt();
+
+    if (buffer.remaining() < extensionLength) {
+      buffer.reset();
+      return false;
+    }
+
+    buffer.position(buffer.position() + extensionLength);
+    headerRead = true;
+
+    return true;
+  }
+
+  private List<String> readRow(ByteBuffer buffer) {
+    if (buffer.remaining() < Short.BYTES) {
+      return null;
+    }
+
+    buffer.mark();
+
+    var fieldCount = buffer.getShort();
+
+    if (fieldCount == TRAILER) {
+      finished = true;
+      return null;
+    }
+
+    var values = new ArrayList<String>(fieldCount);
+
+    for (var index = 0; index < fieldCount; index++) {
+      if (buffer.remaining() < Integer.BYTES) {
+        buffer.reset();
+        return null;
+      }
+
+      var length = buffer.getInt();
+
+      if (length < 0) {
+        values.add(null);
+        continue;
+      }
+
+      if (buffer.remaining() < length) {
+        buffer.reset();
+        return null;
+      }
+
+      var value = new byte[length];
+      buffer.get(value);
+      values.add(new String(value, StandardCharsets.UTF_8));
+    }
+
+    return values;
+  }
+
+  private static byte[] getRemaining(ByteBuffer buffer) {
+    var bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+
+    return bytes;
+  }
+}
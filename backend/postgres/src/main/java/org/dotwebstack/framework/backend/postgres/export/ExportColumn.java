@@ -0,0 +1,17 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data
+@Builder
+public class ExportColumn {
+
+  @NonNull
+  private final String name;
+
+  private final boolean numericType;
+
+  private final boolean booleanType;
+}
@@ -0,0 +1,20 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.jooq.DSLContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "dotwebstack.postgres.export", name = "enabled", havingValue = "true")
+public class ExportConfiguration {
+
+  @Bean
+  public BulkExporter bulkExporter(DotWebStackConfiguration dotWebStackConfiguration, DSLContext dslContext,
+      PostgresProperties postgresProperties) {
+    // exports use their own connections, so a long running export does not hold a pooled connection
+    return new BulkExporter(dotWebStackConfiguration, dslContext, new CopyClient(postgresProperties));
+  }
+}
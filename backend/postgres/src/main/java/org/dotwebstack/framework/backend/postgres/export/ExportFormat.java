@@ -0,0 +1,113 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+
+  NDJSON(MediaType.parseMediaType("application/x-ndjson")) {
+    @Override
+    String createHeader(List<ExportColumn> columns) {
+      return "";
+    }
+
+    @Override
+    String createLine(List<ExportColumn> columns, List<String> values) {
+      var line = new StringBuilder("{");
+
+      for (var index = 0; index < columns.size(); index++) {
+        var column = columns.get(index);
+
+        if (index > 0) {
+          line.append(',');
+        }
+
+        line.append('"')
+            .append(JSON_ENCODER.quoteAsString(column.getName()))
+            .append("\":")
+            .append(toJsonValue(column, values.get(index)));
+      }
+
+      return line.append("}\n")
+          .toString();
+    }
+  },
+
+  CSV(MediaType.parseMediaType("text/csv")) {
+    @Override
+    String createHeader(List<ExportColumn> columns) {
+      return columns.stream()
+          .map(ExportColumn::getName)
+          .map(ExportFormat::toCsvValue)
+          .collect(Collectors.joining(",", "", CSV_LINE_END));
+    }
+
+    @Override
+    String createLine(List<ExportColumn> columns, List<String> values) {
+      return values.stream()
+          .map(ExportFormat::toCsvValue)
+          .collect(Collectors.joining(",", "", CSV_LINE_END));
+    }
+  };
+
+  private static final JsonStringEncoder JSON_ENCODER = JsonStringEncoder.getInstance();
+
+  private static final Pattern JSON_NUMBER = Pattern.compile("-?(?:0|[1-9]\\d*)(?:\\.\\d+)?(?:[eE][-+]?\\d+)?");
+
+  private static final String CSV_LINE_END = "\r\n";
+
+  private final MediaType mediaType;
+
+  ExportFormat(MediaType mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public static Optional<ExportFormat> of(String name) {
+    for (var format : values()) {
+      if (format.name()
+          .equalsIgnoreCase(name)) {
+        return Optional.of(format);
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  abstract String createHeader(List<ExportColumn> columns);
+
+  abstract String createLine(List<ExportColumn> columns, List<String> values);
+
+  private static String toJsonValue(ExportColumn column, String value) {
+    if (value == null) {
+      return "null";
+    }
+
+    // the values are read as text, numbers and booleans are written unquoted when their text allows it
+    if ((column.isNumericType() && JSON_NUMBER.matcher(value)
+        .matches()) || (column.isBooleanType() && ("true".equals(value) || "false".equals(value)))) {
+      return value;
+    }
+
+    return "\"" + new String(JSON_ENCODER.quoteAsString(value)) + "\"";
+  }
+
+  private static String toCsvValue(String value) {
+    if (value == null) {
+      return "";
+    }
+
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+
+    return "\"" + value.replace("\"", "\"\"") + "\"";
+  }
+}
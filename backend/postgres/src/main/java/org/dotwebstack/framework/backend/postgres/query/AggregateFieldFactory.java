@@ -5,6 +5,8 @@ import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgu
 import java.math.BigDecimal;
 import org.dotwebstack.framework.core.query.model.AggregateFieldConfiguration;
 import org.dotwebstack.framework.core.query.model.ScalarType;
+import org.jooq.AggregateFunction;
+import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.impl.DSL;
 import org.springframework.stereotype.Component;
@@ -14,34 +16,41 @@ public class AggregateFieldFactory {
 
   public Field<?> create(AggregateFieldConfiguration aggregateFieldConfiguration, String fromTable, String columnName,
       String columnAlias) {
+    return create(aggregateFieldConfiguration, fromTable, columnName, columnAlias, null);
+  }
+
+  // the filter restricts the rows of the aggregate, when other aggregates of the same query see
+  // more rows
+  public Field<?> create(AggregateFieldConfiguration aggregateFieldConfiguration, String fromTable, String columnName,
+      String columnAlias, Condition filter) {
     Field<?> result;
 
     var aggregateFunction = aggregateFieldConfiguration.getAggregateFunctionType();
     switch (aggregateFunction) {
       case AVG:
-        result = DSL.avg(bigDecimalField(fromTable, columnName))
+        result = filter(DSL.avg(bigDecimalField(fromTable, columnName)), filter)
             .cast(getNumericType(aggregateFieldConfiguration.getType()));
         break;
       case COUNT:
         if (aggregateFieldConfiguration.isDistinct()) {
-          result = DSL.countDistinct(DSL.field(DSL.name(fromTable, columnName)));
+          result = filter(DSL.countDistinct(DSL.field(DSL.name(fromTable, columnName))), filter);
         } else {
-          result = DSL.count(DSL.field(DSL.name(fromTable, columnName)));
+          result = filter(DSL.count(DSL.field(DSL.name(fromTable, columnName))), filter);
         }
         break;
       case JOIN:
-        result = createStringJoin(aggregateFieldConfiguration, fromTable, columnName, columnAlias);
+        result = filter(createStringJoin(aggregateFieldConfiguration, fromTable, columnName, columnAlias), filter);
         break;
       case MAX:
-        result = DSL.max(bigDecimalField(fromTable, columnName))
+        result = filter(DSL.max(bigDecimalField(fromTable, columnName)), filter)
             .cast(getNumericType(aggregateFieldConfiguration.getType()));
         break;
       case MIN:
-        result = DSL.min(bigDecimalField(fromTable, columnName))
+        result = filter(DSL.min(bigDecimalField(fromTable, columnName)), filter)
             .cast(getNumericType(aggregateFieldConfiguration.getType()));
         break;
       case SUM:
-        result = DSL.sum(bigDecimalField(fromTable, columnName))
+        result = filter(DSL.sum(bigDecimalField(fromTable, columnName)), filter)
             .cast(getNumericType(aggregateFieldConfiguration.getType()));
         break;
       default:
@@ -51,8 +60,35 @@ public class AggregateFieldFactory {
     return result;
   }
 
-  private Field<?> createGroupConcat(AggregateFieldConfiguration aggregateFieldConfiguration, String alias) {
-    Field<?> result;
+  // reads an aggregate from the column of a summary, which has at most one row per parent. The
+  // column is aggregated once more, so the query still returns a row when the summary has none.
+  public Field<?> createSummaryField(AggregateFieldConfiguration aggregateFieldConfiguration, String fromTable,
+      String columnName) {
+    var aggregateFunction = aggregateFieldConfiguration.getAggregateFunctionType();
+    switch (aggregateFunction) {
+      case COUNT:
+        return DSL.coalesce(DSL.sum(bigDecimalField(fromTable, columnName)), DSL.inline(BigDecimal.ZERO))
+            .cast(Integer.class);
+      case JOIN:
+        return DSL.max(DSL.field(DSL.name(fromTable, columnName), String.class));
+      case AVG:
+      case MAX:
+      case MIN:
+      case SUM:
+        return DSL.max(bigDecimalField(fromTable, columnName))
+            .cast(getNumericType(aggregateFieldConfiguration.getType()));
+      default:
+        throw illegalArgumentException("Aggregate function {} is not supported", aggregateFunction);
+    }
+  }
+
+  private <T> Field<T> filter(AggregateFunction<T> aggregate, Condition filter) {
+    return filter != null ? aggregate.filterWhere(filter) : aggregate;
+  }
+
+  private AggregateFunction<String> createGroupConcat(AggregateFieldConfiguration aggregateFieldConfiguration,
+      String alias) {
+    AggregateFunction<String> result;
     String separator = aggregateFieldConfiguration.getSeparator();
     if (aggregateFieldConfiguration.isDistinct()) {
       result = DSL.groupConcatDistinct(DSL.field(DSL.name(alias)))
@@ -64,8 +100,8 @@ public class AggregateFieldFactory {
     return result;
   }
 
-  private Field<?> createStringJoin(AggregateFieldConfiguration aggregateFieldConfiguration, String fromTable,
-      String columnName, String columnAlias) {
+  private AggregateFunction<String> createStringJoin(AggregateFieldConfiguration aggregateFieldConfiguration,
+      String fromTable, String columnName, String columnAlias) {
 
     if (aggregateFieldConfiguration.getField()
         .isList()) {
@@ -0,0 +1,121 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.jooq.Condition;
+import org.jooq.DataType;
+import org.jooq.Field;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+
+// Binds a list of values as a single array parameter, so the SQL of a query doesn't depend on the
+// number of values. The values are converted to the column type and bound as an array of that type,
+// or as text which is cast to the column type for types without an array codec in the driver.
+public final class ArrayConditionHelper {
+
+  // beyond this number of values the array is joined as a table, which lets the planner choose a
+  // hash join instead of checking every row against the array. The unnested array is used instead of
+  // a temporary table, which would take extra statements on the connection, or a values list, which
+  // would make the SQL depend on the number of values again. Below it an index on the column is
+  // probed once per value, which is faster than hashing a small array.
+  public static final int UNNEST_THRESHOLD = 10_000;
+
+  // the component types of the array codecs of the driver
+  private static final Set<Class<?>> TYPED_ARRAY_TYPES =
+      Set.of(Short.class, Integer.class, Long.class, String.class, UUID.class);
+
+  private ArrayConditionHelper() {}
+
+  public static boolean isUnnested(int size) {
+    return size > UNNEST_THRESHOLD;
+  }
+
+  public static Condition createAnyCondition(Field<?> field, DataType<?> dataType, List<?> values,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, ? extends List<?>> valuesExtractor) {
+    var array = createArrayParam(dataType, values, objectSelectContext, valuesExtractor);
+
+    if (isUnnested(values.size())) {
+      return DSL.condition("{0} in (select unnest({1}))", field, array);
+    }
+
+    return DSL.condition("{0} = any({1})", field, array);
+  }
+
+  // composite keys are compared as row values with the rows of the arrays unnested side by side
+  public static Condition createRowInCondition(List<? extends Field<?>> fields, List<? extends Field<?>> arrays) {
+    return DSL.condition("{0} in (select * from {1})", DSL.row(fields), createUnnestTable(arrays));
+  }
+
+  public static Table<?> createUnnestTable(List<? extends Field<?>> arrays) {
+    return createUnnestTable(arrays, false);
+  }
+
+  public static Table<?> createUnnestTable(List<? extends Field<?>> arrays, boolean withOrdinality) {
+    var arguments = IntStream.range(0, arrays.size())
+        .mapToObj(index -> "{" + index + "}")
+        .collect(Collectors.joining(", "));
+
+    return DSL.table("unnest(" + arguments + ")" + (withOrdinality ? " with ordinality" : ""),
+        arrays.toArray(Field<?>[]::new));
+  }
+
+  public static Field<?> createArrayParam(DataType<?> dataType, List<?> values, ObjectSelectContext objectSelectContext,
+      Function<RequestValues, ? extends List<?>> valuesExtractor) {
+    if (TYPED_ARRAY_TYPES.contains(dataType.getType())) {
+      return objectSelectContext.newParam(DSL.val(toTypedArray(dataType, values), dataType.getArrayDataType()),
+          valuesExtractor.andThen(requestValues -> toTypedArray(dataType, requestValues)));
+    }
+
+    return objectSelectContext
+        .newParam(DSL.val(toTextArray(dataType, values), SQLDataType.VARCHAR.getArrayDataType()),
+            valuesExtractor.andThen(requestValues -> toTextArray(dataType, requestValues)))
+        .cast(dataType.getArrayDataType());
+  }
+
+  // the values are cast to the type of the column, or else to the type of the values themselves,
+  // which is therefore part of the fingerprint of a query
+  public static DataType<?> getDataType(Table<?> table, String columnName, List<?> values) {
+    return Optional.<Field<?>>ofNullable(table.field(columnName))
+        .<DataType<?>>map(Field::getDataType)
+        .orElseGet(() -> getFirstValue(values).<DataType<?>>map(value -> DSL.val(value)
+            .getDataType())
+            .orElse(SQLDataType.VARCHAR));
+  }
+
+  public static String getValueType(List<?> values) {
+    return getFirstValue(values).map(value -> value.getClass()
+        .getName())
+        .orElse("null");
+  }
+
+  private static Optional<?> getFirstValue(List<?> values) {
+    return values.stream()
+        .filter(Objects::nonNull)
+        .findFirst();
+  }
+
+  private static Object[] toTypedArray(DataType<?> dataType, List<?> values) {
+    var array = (Object[]) Array.newInstance(dataType.getType(), values.size());
+
+    for (var index = 0; index < array.length; index++) {
+      array[index] = dataType.convert(values.get(index));
+    }
+
+    return array;
+  }
+
+  // the values are converted to the column type first, so they are rendered in its format
+  private static String[] toTextArray(DataType<?> dataType, List<?> values) {
+    return values.stream()
+        .map(value -> Objects.toString(dataType.convert(value), null))
+        .toArray(String[]::new);
+  }
+}
@@ -0,0 +1,59 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import org.dotwebstack.framework.core.query.model.SortDirection;
+import org.jooq.Condition;
+import org.jooq.DataType;
+import org.jooq.Field;
+import org.jooq.SortField;
+
+@Getter
+@Builder
+class CursorColumn {
+
+  @NonNull
+  private final Field<Object> field;
+
+  @NonNull
+  private final DataType<?> dataType;
+
+  @NonNull
+  private final SortDirection direction;
+
+  // paging backwards reads the rows in reverse order, the data loader restores the requested order
+  boolean isAscending(boolean backward) {
+    return (direction == SortDirection.ASC) != backward;
+  }
+
+  SortField<Object> createSortField(boolean backward) {
+    return isAscending(backward) ? field.asc() : field.desc();
+  }
+
+  boolean isNullable() {
+    return dataType.nullable();
+  }
+
+  // nulls sort last in ascending and first in descending order, a null cursor value is only
+  // followed by nulls when ascending and by all other values when descending
+  Condition createSeekCondition(Field<Object> cursorValue, boolean backward) {
+    if (!isNullable()) {
+      return isAscending(backward) ? field.gt(cursorValue) : field.lt(cursorValue);
+    }
+
+    if (isAscending(backward)) {
+      return cursorValue.isNotNull()
+          .and(field.gt(cursorValue)
+              .or(field.isNull()));
+    }
+
+    return field.lt(cursorValue)
+        .or(cursorValue.isNull()
+            .and(field.isNotNull()));
+  }
+
+  Condition createEqualCondition(Field<Object> cursorValue) {
+    return isNullable() ? field.isNotDistinctFrom(cursorValue) : field.eq(cursorValue);
+  }
+}
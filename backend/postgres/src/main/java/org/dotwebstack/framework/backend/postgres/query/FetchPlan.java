@@ -0,0 +1,56 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.dotwebstack.framework.backend.postgres.config.FetchStrategy;
+import org.dotwebstack.framework.core.query.model.ObjectFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.ObjectRequest;
+import org.dotwebstack.framework.core.query.model.filter.FilterCriteria;
+
+// The fetch strategy per object and list field of a request. Object fields without a planned
+// strategy, such as the fields added for a nested filter, are joined and lists are batched.
+public class FetchPlan {
+
+  private final Map<ObjectFieldConfiguration, FetchStrategy> strategies = new IdentityHashMap<>();
+
+  void put(ObjectFieldConfiguration objectField, FetchStrategy fetchStrategy) {
+    strategies.put(objectField, fetchStrategy);
+  }
+
+  public boolean isBatched(ObjectFieldConfiguration objectField) {
+    return strategies.get(objectField) == FetchStrategy.BATCH;
+  }
+
+  public boolean isInlined(ObjectFieldConfiguration collectionObjectField) {
+    return strategies.get(collectionObjectField) == FetchStrategy.JSON;
+  }
+
+  public List<ObjectFieldConfiguration> getInlinedFields(ObjectRequest objectRequest) {
+    return objectRequest.getCollectionObjectFields()
+        .stream()
+        .filter(this::isInlined)
+        .collect(Collectors.toList());
+  }
+
+  // The filter criteria of the inlined lists, in the order in which the query builder visits them
+  public List<List<FilterCriteria>> getFilterCriterias(ObjectRequest objectRequest) {
+    var filterCriterias = new ArrayList<List<FilterCriteria>>();
+    addFilterCriterias(objectRequest, filterCriterias);
+    return filterCriterias;
+  }
+
+  private void addFilterCriterias(ObjectRequest objectRequest, List<List<FilterCriteria>> filterCriterias) {
+    objectRequest.getObjectFields()
+        .stream()
+        .filter(objectField -> !isBatched(objectField))
+        .forEach(objectField -> addFilterCriterias(objectField.getObjectRequest(), filterCriterias));
+
+    getInlinedFields(objectRequest).forEach(collectionObjectField -> {
+      filterCriterias.add(collectionObjectField.getFilterCriterias());
+      addFilterCriterias(collectionObjectField.getObjectRequest(), filterCriterias);
+    });
+  }
+}
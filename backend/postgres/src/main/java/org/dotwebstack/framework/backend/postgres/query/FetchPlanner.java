@@ -0,0 +1,221 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.dotwebstack.framework.backend.postgres.config.FetchStrategy;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.query.model.ObjectFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.ObjectRequest;
+import org.dotwebstack.framework.core.query.model.ScalarField;
+import org.dotwebstack.framework.core.query.model.SortCriteria;
+import org.dotwebstack.framework.core.query.model.filter.FieldPath;
+import org.dotwebstack.framework.core.query.model.filter.FilterCriteria;
+import org.dotwebstack.framework.ext.spatial.SpatialConstants;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.springframework.stereotype.Component;
+
+// Decides per object and list field whether it is joined into the query of its parent or loaded
+// with a separate query, which is batched for all parents at the same path
+@Slf4j
+@Component
+public class FetchPlanner {
+
+  private static final String STATISTICS_SQL = "select n.nspname, c.relname, c.reltuples from pg_class c "
+      + "join pg_namespace n on n.oid = c.relnamespace where c.relkind in ('r', 'p', 'm', 'v')";
+
+  private final DSLContext dslContext;
+
+  private final PostgresProperties.FetchProperties fetchProperties;
+
+  private volatile Map<String, Long> estimatedRows = Map.of();
+
+  public FetchPlanner(DSLContext dslContext, PostgresProperties postgresProperties) {
+    this.dslContext = dslContext;
+    this.fetchProperties = postgresProperties.getFetch();
+  }
+
+  @PostConstruct
+  public void refresh() {
+    if (!fetchProperties.isTableStatistics()) {
+      return;
+    }
+
+    try {
+      var rows = new HashMap<String, Long>();
+
+      dslContext.resultQuery(STATISTICS_SQL)
+          .fetch()
+          .forEach(record -> {
+            var tuples = record.get(2, Double.class);
+
+            // tables which have never been analyzed have no estimate
+            if (tuples != null && tuples >= 0) {
+              var tableName = record.get(1, String.class);
+              rows.put(record.get(0, String.class)
+                  .concat(".")
+                  .concat(tableName), tuples.longValue());
+              rows.putIfAbsent(tableName, tuples.longValue());
+            }
+          });
+
+      LOG.debug("Loaded row estimates of {} table(s) for the fetch planner.", rows.size());
+      estimatedRows = rows;
+    } catch (DataAccessException e) {
+      LOG.warn("Unable to load the table statistics, lists are loaded with separate queries.", e);
+    }
+  }
+
+  public FetchPlan plan(ObjectRequest objectRequest, List<FilterCriteria> filterCriterias,
+      List<SortCriteria> sortCriterias) {
+    var fetchPlan = new FetchPlan();
+    var joinedFields = Collections.<ObjectFieldConfiguration>newSetFromMap(new IdentityHashMap<>());
+
+    addJoinedFields(objectRequest, filterCriterias, sortCriterias, joinedFields);
+    planRequest(objectRequest, fetchPlan, joinedFields, new AtomicInteger());
+
+    return fetchPlan;
+  }
+
+  private void planRequest(ObjectRequest objectRequest, FetchPlan fetchPlan, Set<ObjectFieldConfiguration> joinedFields,
+      AtomicInteger lateralJoins) {
+    // the fields are visited in the same order as the query builder adds the lateral joins
+    objectRequest.getObjectFields()
+        .forEach(objectField -> {
+          var fetchStrategy =
+              joinedFields.contains(objectField) ? FetchStrategy.JOIN : getStrategy(objectField, lateralJoins.get());
+          fetchPlan.put(objectField, fetchStrategy);
+
+          if (fetchStrategy == FetchStrategy.JOIN) {
+            lateralJoins.incrementAndGet();
+            planRequest(objectField.getObjectRequest(), fetchPlan, joinedFields, lateralJoins);
+          }
+        });
+
+    // all aggregates of a field are computed in a single lateral join
+    lateralJoins.addAndGet(objectRequest.getAggregateObjectFields()
+        .size());
+
+    objectRequest.getCollectionObjectFields()
+        .forEach(collectionObjectField -> {
+          var fetchStrategy = getCollectionStrategy((PostgresTypeConfiguration) objectRequest.getTypeConfiguration(),
+              collectionObjectField, lateralJoins.get());
+          fetchPlan.put(collectionObjectField, fetchStrategy);
+
+          if (fetchStrategy == FetchStrategy.JSON) {
+            lateralJoins.incrementAndGet();
+            addJoinedFields(collectionObjectField.getObjectRequest(), collectionObjectField.getFilterCriterias(),
+                collectionObjectField.getSortCriterias(), joinedFields);
+            planRequest(collectionObjectField.getObjectRequest(), fetchPlan, joinedFields, lateralJoins);
+          }
+        });
+  }
+
+  private FetchStrategy getStrategy(ObjectFieldConfiguration objectField, int lateralJoins) {
+    var fieldConfiguration = (PostgresFieldConfiguration) objectField.getField();
+
+    // only the key of an object with join columns can be read from the row of its parent
+    if (fieldConfiguration.getJoinColumns() == null) {
+      return FetchStrategy.JOIN;
+    }
+
+    switch (fieldConfiguration.getFetch()) {
+      case BATCH:
+        return FetchStrategy.BATCH;
+      case AUTO:
+        return lateralJoins < fetchProperties.getMaxLateralJoins() ? FetchStrategy.JOIN : FetchStrategy.BATCH;
+      default:
+        return FetchStrategy.JOIN;
+    }
+  }
+
+  private FetchStrategy getCollectionStrategy(PostgresTypeConfiguration parentTypeConfiguration,
+      ObjectFieldConfiguration collectionObjectField, int lateralJoins) {
+    var fieldConfiguration = (PostgresFieldConfiguration) collectionObjectField.getField();
+
+    // geometries have no json representation which can be read back as a geometry
+    if ((fieldConfiguration.getMappedBy() == null && fieldConfiguration.getJoinTable() == null)
+        || selectsGeometry(collectionObjectField.getObjectRequest())) {
+      return FetchStrategy.BATCH;
+    }
+
+    switch (fieldConfiguration.getFetch()) {
+      case JSON:
+        return FetchStrategy.JSON;
+      case AUTO:
+        return lateralJoins < fetchProperties.getMaxLateralJoins()
+            && hasFewRowsPerParent(parentTypeConfiguration, fieldConfiguration) ? FetchStrategy.JSON
+                : FetchStrategy.BATCH;
+      default:
+        return FetchStrategy.BATCH;
+    }
+  }
+
+  private boolean hasFewRowsPerParent(PostgresTypeConfiguration parentTypeConfiguration,
+      PostgresFieldConfiguration fieldConfiguration) {
+    var tableName = fieldConfiguration.getJoinTable() != null ? fieldConfiguration.getJoinTable()
+        .getName() : ((PostgresTypeConfiguration) fieldConfiguration.getTypeConfiguration()).getTable();
+
+    var rows = estimatedRows.get(tableName);
+    var parentRows = estimatedRows.get(parentTypeConfiguration.getTable());
+
+    // without statistics the size of a list is unknown, so it is loaded separately
+    if (rows == null || parentRows == null) {
+      return false;
+    }
+
+    return rows <= fetchProperties.getMaxJsonRows() * Math.max(parentRows, 1L);
+  }
+
+  // object fields on the path of a nested filter or sort are always joined, the condition refers to
+  // their table
+  private static void addJoinedFields(ObjectRequest objectRequest, List<FilterCriteria> filterCriterias,
+      List<SortCriteria> sortCriterias, Set<ObjectFieldConfiguration> joinedFields) {
+    filterCriterias.stream()
+        .filter(filterCriteria -> filterCriteria.getFieldPath() != null)
+        .forEach(filterCriteria -> addJoinedFields(objectRequest, filterCriteria.getFieldPath(), joinedFields));
+
+    sortCriterias.forEach(sortCriteria -> addJoinedFields(objectRequest, sortCriteria.getFieldPath(), joinedFields));
+  }
+
+  private static void addJoinedFields(ObjectRequest objectRequest, FieldPath fieldPath,
+      Set<ObjectFieldConfiguration> joinedFields) {
+    if (fieldPath.isLeaf()) {
+      return;
+    }
+
+    objectRequest.getObjectField(fieldPath.getFieldConfiguration())
+        .ifPresent(objectField -> {
+          joinedFields.add(objectField);
+          addJoinedFields(objectField.getObjectRequest(), fieldPath.getChild(), joinedFields);
+        });
+  }
+
+  private static boolean selectsGeometry(ObjectRequest objectRequest) {
+    return objectRequest.getScalarFields()
+        .stream()
+        .anyMatch(FetchPlanner::isGeometry)
+        || objectRequest.getNestedObjectFields()
+            .stream()
+            .flatMap(nestedObjectField -> nestedObjectField.getScalarFields()
+                .stream())
+            .anyMatch(FetchPlanner::isGeometry)
+        || objectRequest.getObjectFields()
+            .stream()
+            .anyMatch(objectField -> selectsGeometry(objectField.getObjectRequest()));
+  }
+
+  private static boolean isGeometry(ScalarField scalarField) {
+    return SpatialConstants.GEOMETRY.equals(scalarField.getField()
+        .getType());
+  }
+}
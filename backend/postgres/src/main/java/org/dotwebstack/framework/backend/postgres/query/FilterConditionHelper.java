@@ -1,10 +1,15 @@
 package org.dotwebstack.framework.backend.postgres.query;
 
+import static org.dotwebstack.framework.backend.postgres.query.ArrayConditionHelper.createAnyCondition;
+import static org.dotwebstack.framework.backend.postgres.query.ArrayConditionHelper.getDataType;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgumentException;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.unsupportedOperationException;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
 import org.dotwebstack.framework.core.query.model.filter.AndFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.EqualsFilterCriteria;
@@ -14,10 +19,12 @@ import org.dotwebstack.framework.core.query.model.filter.GreaterThenFilterCriter
 import org.dotwebstack.framework.core.query.model.filter.InFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenEqualsFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.MatchFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.NotFilterCriteria;
 import org.dotwebstack.framework.ext.spatial.GeometryFilterCriteria;
 import org.jooq.Condition;
 import org.jooq.Field;
+import org.jooq.SortField;
 import org.jooq.Table;
 import org.jooq.impl.DSL;
 
@@ -27,120 +34,249 @@ public final class FilterConditionHelper {
 
   public static List<Condition> createFilterConditions(List<FilterCriteria> filterCriterias,
       ObjectSelectContext objectSelectContext, Table<?> fromTable) {
-    return filterCriterias.stream()
-        .map(filterCriteria -> {
+    return createFilterConditions(filterCriterias, objectSelectContext, fromTable, RequestValues::getFilterCriterias);
+  }
+
+  public static List<Condition> createFilterConditions(List<FilterCriteria> filterCriterias,
+      ObjectSelectContext objectSelectContext, Table<?> fromTable,
+      Function<RequestValues, List<FilterCriteria>> criteriasLocator) {
+    return IntStream.range(0, filterCriterias.size())
+        .mapToObj(index -> {
+          var filterCriteria = filterCriterias.get(index);
+          // the columns of a nested filter table are unknown, only its alias is referenced
           var filterTable =
-              filterCriteria.isNestedFilter() ? objectSelectContext.getTableAlias(filterCriteria.getFieldPath()
-                  .getFieldConfiguration()
-                  .getName()) : fromTable.getName();
-          return createFilterCondition(filterCriteria, filterTable);
+              filterCriteria.isNestedFilter()
+                  ? DSL.table(DSL.name(objectSelectContext.getTableAlias(filterCriteria.getFieldPath()
+                      .getFieldConfiguration()
+                      .getName())))
+                  : fromTable;
+
+          // locates the same criteria in the values of a later request with an identical shape
+          Function<RequestValues, FilterCriteria> criteriaLocator =
+              requestValues -> criteriasLocator.apply(requestValues)
+                  .get(index);
+
+          return createFilterCondition(filterCriteria, filterTable, objectSelectContext, criteriaLocator);
         })
         .collect(Collectors.toList());
   }
 
-  private static Condition createFilterCondition(FilterCriteria filterCriteria, String fromTable) {
+  private static Condition createFilterCondition(FilterCriteria filterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
     if (filterCriteria instanceof EqualsFilterCriteria) {
-      return createFilterCondition((EqualsFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((EqualsFilterCriteria) filterCriteria, fromTable, objectSelectContext,
+          criteriaLocator);
     } else if (filterCriteria instanceof NotFilterCriteria) {
-      return createFilterCondition((NotFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((NotFilterCriteria) filterCriteria, fromTable, objectSelectContext, criteriaLocator);
     } else if (filterCriteria instanceof GreaterThenFilterCriteria) {
-      return createFilterCondition((GreaterThenFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((GreaterThenFilterCriteria) filterCriteria, fromTable, objectSelectContext,
+          criteriaLocator);
     } else if (filterCriteria instanceof GreaterThenEqualsFilterCriteria) {
-      return createFilterCondition((GreaterThenEqualsFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((GreaterThenEqualsFilterCriteria) filterCriteria, fromTable, objectSelectContext,
+          criteriaLocator);
     } else if (filterCriteria instanceof LowerThenFilterCriteria) {
-      return createFilterCondition((LowerThenFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((LowerThenFilterCriteria) filterCriteria, fromTable, objectSelectContext,
+          criteriaLocator);
     } else if (filterCriteria instanceof LowerThenEqualsFilterCriteria) {
-      return createFilterCondition((LowerThenEqualsFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((LowerThenEqualsFilterCriteria) filterCriteria, fromTable, objectSelectContext,
+          criteriaLocator);
     } else if (filterCriteria instanceof InFilterCriteria) {
-      return createFilterCondition((InFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((InFilterCriteria) filterCriteria, fromTable, objectSelectContext, criteriaLocator);
     } else if (filterCriteria instanceof AndFilterCriteria) {
-      return createFilterCondition((AndFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((AndFilterCriteria) filterCriteria, fromTable, objectSelectContext, criteriaLocator);
     } else if (filterCriteria instanceof GeometryFilterCriteria) {
-      return createFilterCondition((GeometryFilterCriteria) filterCriteria, fromTable);
+      return createFilterCondition((GeometryFilterCriteria) filterCriteria, fromTable, objectSelectContext,
+          criteriaLocator);
+    } else if (filterCriteria instanceof MatchFilterCriteria) {
+      return createFilterCondition((MatchFilterCriteria) filterCriteria, fromTable, objectSelectContext,
+          criteriaLocator);
     }
 
     throw unsupportedOperationException("Filter '{}' is not supported!", filterCriteria.getClass()
         .getName());
   }
 
-  private static Condition createFilterCondition(AndFilterCriteria andFilterCriteria, String fromTable) {
-    var innerConditions = andFilterCriteria.getFilterCriterias()
-        .stream()
-        .map(innerCriteria -> createFilterCondition(innerCriteria, fromTable))
+  private static Condition createFilterCondition(AndFilterCriteria andFilterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
+    var innerCriterias = andFilterCriteria.getFilterCriterias();
+
+    var innerConditions = IntStream.range(0, innerCriterias.size())
+        .mapToObj(index -> createFilterCondition(innerCriterias.get(index), fromTable, objectSelectContext,
+            criteriaLocator.andThen(criteria -> ((AndFilterCriteria) criteria).getFilterCriterias()
+                .get(index))))
         .collect(Collectors.toList());
 
     return DSL.and(innerConditions);
   }
 
-  private static Condition createFilterCondition(GeometryFilterCriteria geometryFilterCriteria, String fromTable) {
+  private static Condition createFilterCondition(GeometryFilterCriteria geometryFilterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
     Field<Object> field = getField(geometryFilterCriteria, fromTable);
 
+    var geometryValue = objectSelectContext.newParam(DSL.val(geometryFilterCriteria.getGeometry()
+        .toString()), criteriaLocator.andThen(
+            criteria -> ((GeometryFilterCriteria) criteria).getGeometry()
+                .toString()));
+
+    var srid = ((PostgresFieldConfiguration) geometryFilterCriteria.getFieldPath()
+        .getLeaf()
+        .getFieldConfiguration()).getSrid();
+
+    // the filter geometry needs the SRID of the column, otherwise the comparison fails
     Field<?> geofilterField =
-        DSL.field("ST_GeomFromText({0})", Object.class, DSL.val(geometryFilterCriteria.getGeometry()
-            .toString()));
+        srid != null ? DSL.field("ST_GeomFromText({0}, {1})", Object.class, geometryValue, DSL.inline(srid))
+            : DSL.field("ST_GeomFromText({0})", Object.class, geometryValue);
+
+    // each of the operations implies overlapping bounding boxes, which can be checked with a GiST index
+    var boundingBoxCondition = DSL.condition("{0} && {1}", field, geofilterField);
 
     switch (geometryFilterCriteria.getFilterOperator()) {
       case CONTAINS:
-        return DSL.condition("ST_Contains({0}, {1})", field, geofilterField);
+        return boundingBoxCondition.and(DSL.condition("ST_Contains({0}, {1})", field, geofilterField));
       case WITHIN:
-        return DSL.condition("ST_Within({0}, {1})", geofilterField, field);
+        return boundingBoxCondition.and(DSL.condition("ST_Within({0}, {1})", geofilterField, field));
       case INTERSECTS:
-        return DSL.condition("ST_Intersects({0}, {1})", field, geofilterField);
+        return boundingBoxCondition.and(DSL.condition("ST_Intersects({0}, {1})", field, geofilterField));
       default:
         throw illegalArgumentException("Unsupported geometry filter operation");
     }
   }
 
-  private static Condition createFilterCondition(EqualsFilterCriteria equalsFilterCriteria, String fromTable) {
+  private static Condition createFilterCondition(MatchFilterCriteria matchFilterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
+    return DSL.condition("{0} @@ {1}", createDocument(matchFilterCriteria, fromTable),
+        createTextQuery(matchFilterCriteria, objectSelectContext, criteriaLocator));
+  }
+
+  private static Condition createFilterCondition(EqualsFilterCriteria equalsFilterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
     Field<Object> field = getField(equalsFilterCriteria, fromTable);
 
-    return field.eq(equalsFilterCriteria.getValue());
+    return field.eq(createValue(field, equalsFilterCriteria.getValue(), objectSelectContext,
+        criteriaLocator.andThen(criteria -> ((EqualsFilterCriteria) criteria).getValue())));
   }
 
-  private static Condition createFilterCondition(NotFilterCriteria notFilterCriteria, String fromTable) {
-    var innerCondition = createFilterCondition(notFilterCriteria.getFilterCriteria(), fromTable);
+  private static Condition createFilterCondition(NotFilterCriteria notFilterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
+    var innerCondition = createFilterCondition(notFilterCriteria.getFilterCriteria(), fromTable, objectSelectContext,
+        criteriaLocator.andThen(criteria -> ((NotFilterCriteria) criteria).getFilterCriteria()));
 
     return DSL.not(innerCondition);
   }
 
   private static Condition createFilterCondition(GreaterThenFilterCriteria greaterThenFilterCriteria,
-      String fromTable) {
+      Table<?> fromTable, ObjectSelectContext objectSelectContext,
+      Function<RequestValues, FilterCriteria> criteriaLocator) {
     Field<Object> field = getField(greaterThenFilterCriteria, fromTable);
 
-    return field.gt(greaterThenFilterCriteria.getValue());
+    return field.gt(createValue(field, greaterThenFilterCriteria.getValue(), objectSelectContext,
+        criteriaLocator.andThen(criteria -> ((GreaterThenFilterCriteria) criteria).getValue())));
   }
 
   private static Condition createFilterCondition(GreaterThenEqualsFilterCriteria greaterThenEqualsFilterCriteria,
-      String fromTable) {
+      Table<?> fromTable, ObjectSelectContext objectSelectContext,
+      Function<RequestValues, FilterCriteria> criteriaLocator) {
     Field<Object> field = getField(greaterThenEqualsFilterCriteria, fromTable);
 
-    return field.ge(greaterThenEqualsFilterCriteria.getValue());
+    return field.ge(createValue(field, greaterThenEqualsFilterCriteria.getValue(), objectSelectContext,
+        criteriaLocator.andThen(criteria -> ((GreaterThenEqualsFilterCriteria) criteria).getValue())));
   }
 
-  private static Condition createFilterCondition(LowerThenFilterCriteria lowerThenFilterCriteria, String fromTable) {
+  private static Condition createFilterCondition(LowerThenFilterCriteria lowerThenFilterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
     Field<Object> field = getField(lowerThenFilterCriteria, fromTable);
 
-    return field.lt(lowerThenFilterCriteria.getValue());
+    return field.lt(createValue(field, lowerThenFilterCriteria.getValue(), objectSelectContext,
+        criteriaLocator.andThen(criteria -> ((LowerThenFilterCriteria) criteria).getValue())));
   }
 
   private static Condition createFilterCondition(LowerThenEqualsFilterCriteria lowerThenEqualsFilterCriteria,
-      String fromTable) {
+      Table<?> fromTable, ObjectSelectContext objectSelectContext,
+      Function<RequestValues, FilterCriteria> criteriaLocator) {
     Field<Object> field = getField(lowerThenEqualsFilterCriteria, fromTable);
 
-    return field.le(lowerThenEqualsFilterCriteria.getValue());
+    return field.le(createValue(field, lowerThenEqualsFilterCriteria.getValue(), objectSelectContext,
+        criteriaLocator.andThen(criteria -> ((LowerThenEqualsFilterCriteria) criteria).getValue())));
   }
 
-  private static Condition createFilterCondition(InFilterCriteria inFilterCriteria, String fromTable) {
+  private static Condition createFilterCondition(InFilterCriteria inFilterCriteria, Table<?> fromTable,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
     Field<Object> field = getField(inFilterCriteria, fromTable);
+    var values = inFilterCriteria.getValues();
+    var dataType = getDataType(fromTable, ((PostgresFieldConfiguration) inFilterCriteria.getFieldPath()
+        .getLeaf()
+        .getFieldConfiguration()).getColumn(), values);
+
+    return createAnyCondition(field, dataType, values, objectSelectContext,
+        criteriaLocator.andThen(criteria -> ((InFilterCriteria) criteria).getValues()));
+  }
+
+  // orders by the relevance of the matches of the filter criterias which request a rank, the
+  // criterias of nested objects are not ranked
+  public static List<SortField<?>> createRankSortFields(List<FilterCriteria> filterCriterias,
+      ObjectSelectContext objectSelectContext, Table<?> fromTable) {
+    return createRankFields(filterCriterias, objectSelectContext, fromTable).stream()
+        .map(Field::desc)
+        .collect(Collectors.toList());
+  }
+
+  public static List<Field<Float>> createRankFields(List<FilterCriteria> filterCriterias,
+      ObjectSelectContext objectSelectContext, Table<?> fromTable) {
+    return IntStream.range(0, filterCriterias.size())
+        .filter(index -> filterCriterias.get(index) instanceof MatchFilterCriteria)
+        .mapToObj(index -> {
+          var matchFilterCriteria = (MatchFilterCriteria) filterCriterias.get(index);
+
+          if (matchFilterCriteria.isNestedFilter() || !matchFilterCriteria.getTextSearch()
+              .isRank()) {
+            return null;
+          }
+
+          Function<RequestValues, FilterCriteria> criteriaLocator = requestValues -> requestValues.getFilterCriterias()
+              .get(index);
+
+          return DSL.field("ts_rank({0}, {1})", Float.class, createDocument(matchFilterCriteria, fromTable),
+              createTextQuery(matchFilterCriteria, objectSelectContext, criteriaLocator));
+        })
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  // the document is either a precomputed column or computed from the column of the field, in both
+  // cases the expression has to match the expression of a GIN index to avoid a sequential scan
+  private static Field<?> createDocument(MatchFilterCriteria matchFilterCriteria, Table<?> fromTable) {
+    var textSearch = matchFilterCriteria.getTextSearch();
+
+    if (textSearch.getColumn() != null) {
+      return DSL.field(DSL.name(fromTable.getName(), textSearch.getColumn()));
+    }
+
+    return DSL.field("to_tsvector(cast({0} as regconfig), {1})", Object.class, DSL.inline(textSearch.getConfig()),
+        getField(matchFilterCriteria, fromTable));
+  }
+
+  // websearch_to_tsquery accepts the input of a user without syntax errors
+  private static Field<?> createTextQuery(MatchFilterCriteria matchFilterCriteria,
+      ObjectSelectContext objectSelectContext, Function<RequestValues, FilterCriteria> criteriaLocator) {
+    var value = objectSelectContext.newParam(DSL.val(matchFilterCriteria.getValue()),
+        criteriaLocator.andThen(criteria -> ((MatchFilterCriteria) criteria).getValue()));
+
+    return DSL.field("websearch_to_tsquery(cast({0} as regconfig), {1})", Object.class,
+        DSL.inline(matchFilterCriteria.getTextSearch()
+            .getConfig()),
+        value);
+  }
 
-    return field.in(inFilterCriteria.getValues());
+  private static Field<Object> createValue(Field<Object> field, Object value, ObjectSelectContext objectSelectContext,
+      Function<RequestValues, ?> valueExtractor) {
+    return objectSelectContext.newParam(DSL.val(value, field), valueExtractor);
   }
 
-  private static Field<Object> getField(FilterCriteria filterCriteria, String fromTable) {
+  private static Field<Object> getField(FilterCriteria filterCriteria, Table<?> fromTable) {
     var postgresFieldConfiguration = (PostgresFieldConfiguration) filterCriteria.getFieldPath()
         .getLeaf()
         .getFieldConfiguration();
 
-    return DSL.field(DSL.name(fromTable, postgresFieldConfiguration.getColumn()));
+    return DSL.field(DSL.name(fromTable.getName(), postgresFieldConfiguration.getColumn()));
   }
 }
@@ -0,0 +1,93 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.temporal.Temporal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.jooq.DataType;
+import org.jooq.Field;
+import org.jooq.SelectQuery;
+import org.jooq.impl.SQLDataType;
+
+// Reads the rows of a list which is aggregated as a json array in the query of its parent
+final class JsonCollectionHelper {
+
+  // numbers are read without loss of precision, so they can be converted to the type of their column
+  private static final ObjectMapper OBJECT_MAPPER =
+      new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+          .enable(DeserializationFeature.USE_LONG_FOR_INTS);
+
+  private static final TypeReference<List<Map<String, Object>>> ROWS_TYPE = new TypeReference<>() {};
+
+  private JsonCollectionHelper() {}
+
+  // the columns of which the json value differs from the value the driver returns, e.g. a bigint
+  // which is read as an Integer or a date which is read as a String
+  static Map<String, DataType<?>> getColumnTypes(SelectQuery<?> query) {
+    var columnTypes = new LinkedHashMap<String, DataType<?>>();
+
+    query.getSelect()
+        .forEach(field -> getConvertedType(field).ifPresent(dataType -> columnTypes.put(field.getName(), dataType)));
+
+    return columnTypes;
+  }
+
+  private static Optional<DataType<?>> getConvertedType(Field<?> field) {
+    var type = field.getDataType()
+        .getType();
+
+    // the driver returns java.time values for the JDBC types of the database metadata
+    if (type == Date.class) {
+      return Optional.of(SQLDataType.LOCALDATE);
+    }
+
+    if (type == Time.class) {
+      return Optional.of(SQLDataType.LOCALTIME);
+    }
+
+    if (type == Timestamp.class) {
+      return Optional.of(SQLDataType.LOCALDATETIME);
+    }
+
+    if (Number.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type) || type == UUID.class) {
+      return Optional.of(field.getDataType());
+    }
+
+    return Optional.empty();
+  }
+
+  static List<Map<String, Object>> decode(Object rows, Map<String, DataType<?>> columnTypes) {
+    if (rows == null) {
+      return List.of();
+    }
+
+    List<Map<String, Object>> decodedRows;
+
+    try {
+      decodedRows = OBJECT_MAPPER.readValue((String) rows, ROWS_TYPE);
+    } catch (JsonProcessingException e) {
+      throw illegalStateException("Unable to read the rows of a json aggregate.", e);
+    }
+
+    decodedRows.forEach(row -> columnTypes.forEach((columnName, dataType) -> {
+      var value = row.get(columnName);
+
+      if (value != null) {
+        row.put(columnName, dataType.convert(value));
+      }
+    }));
+
+    return decodedRows;
+  }
+}
@@ -1,9 +1,16 @@
 package org.dotwebstack.framework.backend.postgres.query;
 
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import lombok.Data;
+import org.jooq.Param;
 
 @Data
 public class ObjectQueryContext {
@@ -14,6 +21,15 @@ public class ObjectQueryContext {
 
   private final AtomicInteger tableCounter = new AtomicInteger();
 
+  private final AtomicInteger collectionCounter = new AtomicInteger();
+
+  private final Map<Param<?>, Function<RequestValues, ?>> valueExtractors = new IdentityHashMap<>();
+
+  // The names of all tables the query reads from, which determine when a cached result is invalidated
+  private final Set<String> tableNames = new HashSet<>();
+
+  private FetchPlan fetchPlan = new FetchPlan();
+
   public String newSelectAlias() {
     return "x".concat(String.valueOf(selectCounter.incrementAndGet()));
   }
@@ -28,7 +44,28 @@ public class ObjectQueryContext {
     return alias;
   }
 
+  public int newCollectionIndex() {
+    return collectionCounter.getAndIncrement();
+  }
+
   public String getTableAlias(String fieldName) {
     return tableAliasByFieldName.get(fieldName);
   }
+
+  public <T> Param<T> newParam(Param<T> param, Function<RequestValues, ?> valueExtractor) {
+    valueExtractors.put(param, valueExtractor);
+    return param;
+  }
+
+  public Function<RequestValues, ?> getValueExtractor(Param<?> param) {
+    // a bind value without an extractor would be reused for every request with the same shape, values
+    // which are constant per shape are rendered inline instead
+    var valueExtractor = valueExtractors.get(param);
+
+    if (valueExtractor == null) {
+      throw illegalStateException("Bind parameter with value '{}' has no value extractor.", param.getValue());
+    }
+
+    return valueExtractor;
+  }
 }
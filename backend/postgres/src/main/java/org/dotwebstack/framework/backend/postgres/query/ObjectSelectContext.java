@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import lombok.Data;
+import org.jooq.Param;
 
 @Data
 public class ObjectSelectContext {
@@ -49,6 +50,10 @@ public class ObjectSelectContext {
     return objectQueryContext.newTableAlias(fieldName);
   }
 
+  public <T> Param<T> newParam(Param<T> param, Function<RequestValues, ?> valueExtractor) {
+    return objectQueryContext.newParam(param, valueExtractor);
+  }
+
   public String getTableAlias(String fieldName) {
     return objectQueryContext.getTableAlias(fieldName);
   }
@@ -0,0 +1,306 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.query.model.AggregateFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.AggregateObjectFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.CollectionRequest;
+import org.dotwebstack.framework.core.query.model.KeyCriteria;
+import org.dotwebstack.framework.core.query.model.NestedObjectFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.ObjectFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.ObjectRequest;
+import org.dotwebstack.framework.core.query.model.PagingCriteria;
+import org.dotwebstack.framework.core.query.model.ScalarField;
+import org.dotwebstack.framework.core.query.model.SortCriteria;
+import org.dotwebstack.framework.core.query.model.filter.AndFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.FieldPath;
+import org.dotwebstack.framework.core.query.model.filter.FilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.InFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.MatchFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.NotFilterCriteria;
+import org.dotwebstack.framework.ext.spatial.GeometryFilterCriteria;
+
+// Describes everything of a request that influences the generated SQL, except for the bound values
+public final class QueryFingerprint {
+
+  private QueryFingerprint() {}
+
+  public static String create(CollectionRequest collectionRequest, ObjectSelectContext objectSelectContext) {
+    var builder = new StringBuilder("collection");
+    var fetchPlan = objectSelectContext.getObjectQueryContext()
+        .getFetchPlan();
+
+    appendObjectRequest(builder, collectionRequest.getObjectRequest(), fetchPlan);
+
+    builder.append("|filter[");
+    collectionRequest.getFilterCriterias()
+        .forEach(filterCriteria -> appendFilterCriteria(builder, filterCriteria));
+
+    builder.append("]|sort[");
+    collectionRequest.getSortCriterias()
+        .forEach(sortCriteria -> appendSortCriteria(builder, sortCriteria));
+
+    builder.append("]|paging:")
+        .append(collectionRequest.getPagingCriteria() != null);
+
+    Optional.ofNullable(collectionRequest.getPagingCriteria())
+        .filter(PagingCriteria::isKeyset)
+        .ifPresent(pagingCriteria -> appendKeysetPaging(builder, pagingCriteria));
+
+    appendContext(builder, objectSelectContext);
+
+    return builder.toString();
+  }
+
+  public static String create(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext) {
+    var builder = new StringBuilder("object");
+
+    appendObjectRequest(builder, objectRequest, objectSelectContext.getObjectQueryContext()
+        .getFetchPlan());
+    appendContext(builder, objectSelectContext);
+
+    return builder.toString();
+  }
+
+  private static void appendObjectRequest(StringBuilder builder, ObjectRequest objectRequest, FetchPlan fetchPlan) {
+    var typeConfiguration = (PostgresTypeConfiguration) objectRequest.getTypeConfiguration();
+
+    builder.append('{')
+        .append(typeConfiguration.getName())
+        .append('@')
+        .append(typeConfiguration.getTable());
+
+    builder.append("|scalars[");
+    objectRequest.getScalarFields()
+        .forEach(scalarField -> appendScalarField(builder, scalarField));
+
+    builder.append("]|nested[");
+    objectRequest.getNestedObjectFields()
+        .forEach(nestedObjectField -> appendNestedObjectField(builder, nestedObjectField));
+
+    builder.append("]|objects[");
+    objectRequest.getObjectFields()
+        .forEach(objectField -> appendObjectField(builder, objectField, fetchPlan));
+
+    builder.append("]|aggregates[");
+    objectRequest.getAggregateObjectFields()
+        .forEach(aggregateObjectField -> appendAggregateObjectField(builder, aggregateObjectField));
+
+    builder.append("]|collections[");
+    objectRequest.getCollectionObjectFields()
+        .forEach(collectionObjectField -> appendCollectionObjectField(builder, collectionObjectField, fetchPlan));
+
+    builder.append("]|keys");
+    appendKeyCriteria(builder, objectRequest.getKeyCriteria());
+
+    builder.append('}');
+  }
+
+  private static void appendScalarField(StringBuilder builder, ScalarField scalarField) {
+    builder.append(scalarField.getName())
+        .append('(');
+
+    scalarField.getOrigins()
+        .stream()
+        .sorted()
+        .forEach(origin -> builder.append(origin.name())
+            .append(','));
+
+    // arguments such as a geometry simplification are rendered inline
+    if (!scalarField.getArguments()
+        .isEmpty()) {
+      builder.append(new TreeMap<>(scalarField.getArguments()));
+    }
+
+    builder.append("),");
+  }
+
+  private static void appendNestedObjectField(StringBuilder builder, NestedObjectFieldConfiguration nestedObjectField) {
+    builder.append(nestedObjectField.getField()
+        .getName())
+        .append('[');
+
+    nestedObjectField.getScalarFields()
+        .forEach(scalarField -> appendScalarField(builder, scalarField));
+
+    builder.append("],");
+  }
+
+  private static void appendObjectField(StringBuilder builder, ObjectFieldConfiguration objectField,
+      FetchPlan fetchPlan) {
+    builder.append(objectField.getField()
+        .getName());
+
+    // of a batched field only the join columns are selected
+    if (fetchPlan.isBatched(objectField)) {
+      builder.append("(batch)");
+    } else {
+      appendObjectRequest(builder, objectField.getObjectRequest(), fetchPlan);
+    }
+
+    builder.append(',');
+  }
+
+  private static void appendCollectionObjectField(StringBuilder builder, ObjectFieldConfiguration collectionObjectField,
+      FetchPlan fetchPlan) {
+    builder.append(collectionObjectField.getField()
+        .getName());
+
+    // only fields which are inlined as json are part of the query
+    if (fetchPlan.isInlined(collectionObjectField)) {
+      appendObjectRequest(builder, collectionObjectField.getObjectRequest(), fetchPlan);
+
+      builder.append("filter[");
+      collectionObjectField.getFilterCriterias()
+          .forEach(filterCriteria -> appendFilterCriteria(builder, filterCriteria));
+
+      builder.append("]sort[");
+      collectionObjectField.getSortCriterias()
+          .forEach(sortCriteria -> appendSortCriteria(builder, sortCriteria));
+
+      builder.append(']');
+    }
+
+    builder.append(',');
+  }
+
+  private static void appendAggregateObjectField(StringBuilder builder,
+      AggregateObjectFieldConfiguration aggregateObjectField) {
+    builder.append(aggregateObjectField.getField()
+        .getName())
+        .append('[');
+
+    aggregateObjectField.getAggregateFields()
+        .forEach(aggregateField -> appendAggregateField(builder, aggregateField));
+
+    builder.append("],");
+  }
+
+  private static void appendAggregateField(StringBuilder builder, AggregateFieldConfiguration aggregateField) {
+    // the separator is rendered inline, so it is part of the shape
+    builder.append(aggregateField.getAlias())
+        .append(':')
+        .append(aggregateField.getField()
+            .getName())
+        .append(':')
+        .append(aggregateField.getAggregateFunctionType())
+        .append(':')
+        .append(aggregateField.isDistinct())
+        .append(':')
+        .append(aggregateField.getType())
+        .append(':')
+        .append(aggregateField.getSeparator())
+        .append(',');
+  }
+
+  private static void appendKeyCriteria(StringBuilder builder, List<? extends KeyCriteria> keyCriteria) {
+    // the keys are bound as arrays, only a large number of keys changes the query
+    builder.append('(')
+        .append(ArrayConditionHelper.isUnnested(keyCriteria.size()) ? "unnest" : "any");
+
+    // the columns of the values table are based on the keys of the first criteria, the type of the
+    // values determines the array type when a column type is unknown
+    keyCriteria.stream()
+        .findFirst()
+        .ifPresent(firstKeyCriteria -> firstKeyCriteria.getValues()
+            .keySet()
+            .forEach(keyName -> builder.append(keyName)
+                .append(':')
+                .append(ArrayConditionHelper.getValueType(keyCriteria.stream()
+                    .map(criteria -> criteria.getValues()
+                        .get(keyName))
+                    .collect(Collectors.toList())))
+                .append(',')));
+
+    builder.append(')');
+  }
+
+  private static void appendFilterCriteria(StringBuilder builder, FilterCriteria filterCriteria) {
+    builder.append(filterCriteria.getClass()
+        .getSimpleName());
+
+    if (filterCriteria.getFieldPath() != null) {
+      builder.append(':');
+      appendFieldPath(builder, filterCriteria.getFieldPath());
+    }
+
+    if (filterCriteria instanceof AndFilterCriteria) {
+      builder.append('[');
+      ((AndFilterCriteria) filterCriteria).getFilterCriterias()
+          .forEach(innerCriteria -> appendFilterCriteria(builder, innerCriteria));
+      builder.append(']');
+    } else if (filterCriteria instanceof NotFilterCriteria) {
+      builder.append('[');
+      appendFilterCriteria(builder, ((NotFilterCriteria) filterCriteria).getFilterCriteria());
+      builder.append(']');
+    } else if (filterCriteria instanceof InFilterCriteria) {
+      var values = ((InFilterCriteria) filterCriteria).getValues();
+      builder.append('#')
+          .append(ArrayConditionHelper.isUnnested(values.size()) ? "unnest" : "any")
+          .append(':')
+          .append(ArrayConditionHelper.getValueType(values));
+    } else if (filterCriteria instanceof GeometryFilterCriteria) {
+      builder.append(':')
+          .append(((GeometryFilterCriteria) filterCriteria).getFilterOperator());
+    } else if (filterCriteria instanceof MatchFilterCriteria) {
+      // the configuration and column are rendered inline, the rank adds an order to the query
+      var textSearch = ((MatchFilterCriteria) filterCriteria).getTextSearch();
+      builder.append(':')
+          .append(textSearch.getConfig())
+          .append(':')
+          .append(textSearch.getColumn())
+          .append(':')
+          .append(textSearch.isRank());
+    }
+
+    builder.append(',');
+  }
+
+  private static void appendSortCriteria(StringBuilder builder, SortCriteria sortCriteria) {
+    appendFieldPath(builder, sortCriteria.getFieldPath());
+
+    builder.append(':')
+        .append(sortCriteria.getDirection())
+        .append(',');
+  }
+
+  private static void appendKeysetPaging(StringBuilder builder, PagingCriteria pagingCriteria) {
+    // the seek condition depends on the cursor direction and the number of cursor values
+    builder.append("|keyset:after#")
+        .append(Optional.ofNullable(pagingCriteria.getAfter())
+            .map(List::size)
+            .orElse(-1))
+        .append(":before#")
+        .append(Optional.ofNullable(pagingCriteria.getBefore())
+            .map(List::size)
+            .orElse(-1));
+  }
+
+  private static void appendFieldPath(StringBuilder builder, FieldPath fieldPath) {
+    builder.append(fieldPath.getFieldConfiguration()
+        .getName());
+
+    if (!fieldPath.isLeaf()) {
+      builder.append('.');
+      appendFieldPath(builder, fieldPath.getChild());
+    }
+  }
+
+  private static void appendContext(StringBuilder builder, ObjectSelectContext objectSelectContext) {
+    var joinCriteria = objectSelectContext.getJoinCriteria();
+
+    builder.append("|join");
+    appendKeyCriteria(builder, joinCriteria);
+
+    joinCriteria.stream()
+        .findFirst()
+        .map(PostgresKeyCriteria::getJoinTable)
+        .ifPresent(joinTable -> builder.append(joinTable.getName()));
+
+    builder.append("|nullMap:")
+        .append(objectSelectContext.isUseNullMapWhenNotFound());
+  }
+}
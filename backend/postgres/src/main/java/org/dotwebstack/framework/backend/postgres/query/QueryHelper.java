@@ -1,12 +1,16 @@
 package org.dotwebstack.framework.backend.postgres.query;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.dotwebstack.framework.core.datafetchers.GenericDataFetcher;
+import org.jooq.Param;
+import org.jooq.Query;
 
 public class QueryHelper {
 
@@ -15,6 +19,10 @@ public class QueryHelper {
   public static UnaryOperator<Map<String, Object>> createMapAssembler(
       Map<String, Function<Map<String, Object>, Object>> assembleFns, AtomicReference<String> checkNullAlias,
       boolean isUseNullMapWhenNotFound) {
+    // the fields are resolved once, every row is assembled into an array with the shared key layout
+    var layout = RowLayout.create(assembleFns.keySet());
+    var fieldAssembleFns = List.copyOf(assembleFns.values());
+
     return row -> {
       if (StringUtils.isNotEmpty(checkNullAlias.get()) && row.get(checkNullAlias.get()) == null) {
         if (isUseNullMapWhenNotFound) {
@@ -23,10 +31,22 @@ public class QueryHelper {
         return null;
       }
 
-      return assembleFns.entrySet()
-          .stream()
-          .collect(HashMap::new, (acc, entry) -> acc.put(entry.getKey(), entry.getValue()
-              .apply(row)), HashMap::putAll);
+      var values = new Object[fieldAssembleFns.size()];
+
+      for (var index = 0; index < values.length; index++) {
+        values[index] = fieldAssembleFns.get(index)
+            .apply(row);
+      }
+
+      return new RowMap(layout, values);
     };
   }
+
+  public static List<Param<?>> getBindParams(Query query) {
+    return query.getParams()
+        .values()
+        .stream()
+        .filter(Predicate.not(Param::isInline))
+        .collect(Collectors.toList());
+  }
 }
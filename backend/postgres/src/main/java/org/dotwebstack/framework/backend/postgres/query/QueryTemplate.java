@@ -0,0 +1,60 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.dotwebstack.framework.backend.postgres.query.QueryHelper.getBindParams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import org.jooq.Table;
+
+@Getter
+public class QueryTemplate {
+
+  private final String sql;
+
+  private final List<Function<RequestValues, ?>> valueExtractors;
+
+  private final Table<?> table;
+
+  private final UnaryOperator<Map<String, Object>> mapAssembler;
+
+  private final ObjectSelectContext context;
+
+  private final RowReader rowReader;
+
+  private QueryTemplate(SelectQueryBuilderResult selectQueryBuilderResult) {
+    var context = selectQueryBuilderResult.getContext();
+
+    this.sql = selectQueryBuilderResult.getSql();
+    this.valueExtractors = getBindParams(selectQueryBuilderResult.getQuery()).stream()
+        .map(context.getObjectQueryContext()::getValueExtractor)
+        .collect(Collectors.toList());
+    this.table = selectQueryBuilderResult.getTable();
+    this.mapAssembler = selectQueryBuilderResult.getMapAssembler();
+    this.context = context;
+    this.rowReader = selectQueryBuilderResult.getRowReader();
+  }
+
+  public static QueryTemplate create(SelectQueryBuilderResult selectQueryBuilderResult) {
+    return new QueryTemplate(selectQueryBuilderResult);
+  }
+
+  public SelectQueryBuilderResult bind(RequestValues requestValues) {
+    var bindValues = valueExtractors.stream()
+        .map(valueExtractor -> valueExtractor.apply(requestValues))
+        .collect(Collectors.<Object>toList());
+
+    // The context only provides the alias layout, which is equal for all requests with this shape
+    return SelectQueryBuilderResult.builder()
+        .sql(sql)
+        .bindValues(bindValues)
+        .table(table)
+        .mapAssembler(mapAssembler)
+        .context(context)
+        .rowReader(rowReader)
+        .build();
+  }
+}
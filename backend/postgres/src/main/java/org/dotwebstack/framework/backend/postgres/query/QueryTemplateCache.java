@@ -0,0 +1,104 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+public class QueryTemplateCache implements MeterBinder {
+
+  static final String METRIC_PREFIX = "dotwebstack.postgres.query.templates.";
+
+  private final int maxSize;
+
+  private final Map<String, QueryTemplate> templates;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  public QueryTemplateCache(PostgresProperties postgresProperties) {
+    this.maxSize = postgresProperties.getQueryTemplateCacheSize();
+
+    this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, QueryTemplate> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  public Optional<QueryTemplate> get(String fingerprint) {
+    QueryTemplate template;
+
+    synchronized (templates) {
+      template = templates.get(fingerprint);
+    }
+
+    if (template != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+    }
+
+    return Optional.ofNullable(template);
+  }
+
+  public void put(String fingerprint, QueryTemplate template) {
+    synchronized (templates) {
+      templates.put(fingerprint, template);
+    }
+  }
+
+  public int size() {
+    synchronized (templates) {
+      return templates.size();
+    }
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public double getHitRatio() {
+    var lookups = hits.get() + misses.get();
+    return lookups == 0 ? 0d : (double) hits.get() / lookups;
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    FunctionCounter.builder(METRIC_PREFIX.concat("hits"), hits, AtomicLong::get)
+        .description("Number of queries served from a cached query template")
+        .register(registry);
+
+    FunctionCounter.builder(METRIC_PREFIX.concat("misses"), misses, AtomicLong::get)
+        .description("Number of queries which required building a new query template")
+        .register(registry);
+
+    Gauge.builder(METRIC_PREFIX.concat("hit.ratio"), this, QueryTemplateCache::getHitRatio)
+        .description("Ratio of queries served from a cached query template")
+        .register(registry);
+
+    Gauge.builder(METRIC_PREFIX.concat("size"), this, QueryTemplateCache::size)
+        .description("Number of cached query templates")
+        .register(registry);
+  }
+}
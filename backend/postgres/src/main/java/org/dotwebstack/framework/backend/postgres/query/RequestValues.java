@@ -0,0 +1,28 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import org.dotwebstack.framework.core.query.model.KeyCriteria;
+import org.dotwebstack.framework.core.query.model.PagingCriteria;
+import org.dotwebstack.framework.core.query.model.filter.FilterCriteria;
+
+@Data
+@Builder
+public class RequestValues {
+
+  @Builder.Default
+  private final List<FilterCriteria> filterCriterias = List.of();
+
+  private final PagingCriteria pagingCriteria;
+
+  @Builder.Default
+  private final List<KeyCriteria> keyCriteria = List.of();
+
+  @Builder.Default
+  private final List<PostgresKeyCriteria> joinCriteria = List.of();
+
+  // The filter criteria of the list fields which are inlined as json, in query builder order
+  @Builder.Default
+  private final List<List<FilterCriteria>> collectionFilterCriterias = List.of();
+}
@@ -0,0 +1,44 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The positions of the keys of all rows with the same shape, resolved once instead of per row
+final class RowLayout {
+
+  private final Map<String, Integer> positions;
+
+  private final int width;
+
+  private RowLayout(Map<String, Integer> positions, int width) {
+    this.positions = positions;
+    this.width = width;
+  }
+
+  static RowLayout create(Collection<String> keys) {
+    var positions = new LinkedHashMap<String, Integer>();
+    var position = 0;
+
+    // duplicate keys resolve to the last position, like a map which is filled in column order
+    for (var key : keys) {
+      positions.put(key, position++);
+    }
+
+    return new RowLayout(Collections.unmodifiableMap(positions), position);
+  }
+
+  int getPosition(Object key) {
+    var position = positions.get(key);
+    return position != null ? position : -1;
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  Map<String, Integer> getPositions() {
+    return positions;
+  }
+}
@@ -0,0 +1,66 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+// Read-only map on an array of values, the keys are shared with all rows of the same layout
+final class RowMap extends AbstractMap<String, Object> {
+
+  private final RowLayout layout;
+
+  private final Object[] values;
+
+  RowMap(RowLayout layout, Object[] values) {
+    this.layout = layout;
+    this.values = values;
+  }
+
+  @Override
+  public Object get(Object key) {
+    var position = layout.getPosition(key);
+    return position >= 0 ? values[position] : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return layout.getPosition(key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return layout.getPositions()
+        .size();
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        var positions = layout.getPositions()
+            .entrySet()
+            .iterator();
+
+        return new Iterator<>() {
+          @Override
+          public boolean hasNext() {
+            return positions.hasNext();
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            var position = positions.next();
+            return new SimpleImmutableEntry<>(position.getKey(), values[position.getValue()]);
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return RowMap.this.size();
+      }
+    };
+  }
+}
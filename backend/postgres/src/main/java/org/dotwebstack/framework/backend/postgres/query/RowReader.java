@@ -0,0 +1,29 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.Map;
+
+// Reads the columns of a row by position, all rows of a query shape share the column layout
+// which is resolved from the metadata of the first row
+public class RowReader {
+
+  private volatile RowLayout layout;
+
+  public Map<String, Object> read(Row row, RowMetadata rowMetadata) {
+    var rowLayout = layout;
+
+    if (rowLayout == null) {
+      rowLayout = RowLayout.create(rowMetadata.getColumnNames());
+      layout = rowLayout;
+    }
+
+    var values = new Object[rowLayout.getWidth()];
+
+    for (var index = 0; index < values.length; index++) {
+      values[index] = row.get(index);
+    }
+
+    return new RowMap(rowLayout, values);
+  }
+}
@@ -1,21 +1,34 @@
 package org.dotwebstack.framework.backend.postgres.query;
 
+import static org.dotwebstack.framework.backend.postgres.query.ArrayConditionHelper.createAnyCondition;
+import static org.dotwebstack.framework.backend.postgres.query.ArrayConditionHelper.createArrayParam;
+import static org.dotwebstack.framework.backend.postgres.query.ArrayConditionHelper.createRowInCondition;
+import static org.dotwebstack.framework.backend.postgres.query.ArrayConditionHelper.createUnnestTable;
+import static org.dotwebstack.framework.backend.postgres.query.ArrayConditionHelper.getDataType;
 import static org.dotwebstack.framework.backend.postgres.query.FilterConditionHelper.createFilterConditions;
+import static org.dotwebstack.framework.backend.postgres.query.FilterConditionHelper.createRankFields;
+import static org.dotwebstack.framework.backend.postgres.query.FilterConditionHelper.createRankSortFields;
 import static org.dotwebstack.framework.backend.postgres.query.QueryHelper.createMapAssembler;
+import static org.dotwebstack.framework.backend.postgres.query.QueryHelper.getBindParams;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.CURSOR_VALUES_KEY;
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgumentException;
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.unsupportedOperationException;
 import static org.dotwebstack.framework.core.query.model.AggregateFunctionType.JOIN;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.dotwebstack.framework.backend.postgres.config.AggregateSummary;
 import org.dotwebstack.framework.backend.postgres.config.JoinColumn;
 import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
 import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
@@ -26,17 +39,24 @@ import org.dotwebstack.framework.core.query.model.CollectionRequest;
 import org.dotwebstack.framework.core.query.model.KeyCriteria;
 import org.dotwebstack.framework.core.query.model.ObjectRequest;
 import org.dotwebstack.framework.core.query.model.Origin;
+import org.dotwebstack.framework.core.query.model.PagingCriteria;
 import org.dotwebstack.framework.core.query.model.ScalarField;
 import org.dotwebstack.framework.core.query.model.SortCriteria;
+import org.dotwebstack.framework.core.query.model.SortDirection;
+import org.dotwebstack.framework.ext.spatial.SpatialConstants;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.JoinType;
-import org.jooq.RowN;
+import org.jooq.OrderField;
+import org.jooq.Param;
+import org.jooq.Query;
 import org.jooq.SelectQuery;
 import org.jooq.SortField;
 import org.jooq.Table;
+import org.jooq.conf.ParamType;
 import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -47,9 +67,19 @@ public class SelectQueryBuilder {
 
   private final AggregateFieldFactory aggregateFieldFactory;
 
-  public SelectQueryBuilder(DSLContext dslContext, AggregateFieldFactory aggregateFieldFactory) {
+  private final TableCatalog tableCatalog;
+
+  private final QueryTemplateCache queryTemplateCache;
+
+  private final FetchPlanner fetchPlanner;
+
+  public SelectQueryBuilder(DSLContext dslContext, AggregateFieldFactory aggregateFieldFactory,
+      TableCatalog tableCatalog, QueryTemplateCache queryTemplateCache, FetchPlanner fetchPlanner) {
     this.dslContext = dslContext;
     this.aggregateFieldFactory = aggregateFieldFactory;
+    this.tableCatalog = tableCatalog;
+    this.queryTemplateCache = queryTemplateCache;
+    this.fetchPlanner = fetchPlanner;
   }
 
   public SelectQueryBuilderResult build(CollectionRequest collectionRequest) {
@@ -57,10 +87,87 @@ public class SelectQueryBuilder {
   }
 
   public SelectQueryBuilderResult build(CollectionRequest collectionRequest, ObjectSelectContext objectSelectContext) {
+    var fetchPlan = fetchPlanner.plan(collectionRequest.getObjectRequest(), collectionRequest.getFilterCriterias(),
+        collectionRequest.getSortCriterias());
+    objectSelectContext.getObjectQueryContext()
+        .setFetchPlan(fetchPlan);
+
+    var requestValues = RequestValues.builder()
+        .filterCriterias(collectionRequest.getFilterCriterias())
+        .pagingCriteria(collectionRequest.getPagingCriteria())
+        .keyCriteria(collectionRequest.getObjectRequest()
+            .getKeyCriteria())
+        .joinCriteria(objectSelectContext.getJoinCriteria())
+        .collectionFilterCriterias(fetchPlan.getFilterCriterias(collectionRequest.getObjectRequest()))
+        .build();
+
+    return build(requestValues, () -> QueryFingerprint.create(collectionRequest, objectSelectContext),
+        () -> buildCollectionQuery(collectionRequest, objectSelectContext, true));
+  }
+
+  public SelectQueryBuilderResult build(ObjectRequest objectRequest) {
+    return build(objectRequest, new ObjectSelectContext());
+  }
+
+  public SelectQueryBuilderResult build(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext) {
+    var fetchPlan = fetchPlanner.plan(objectRequest, List.of(), List.of());
+    objectSelectContext.getObjectQueryContext()
+        .setFetchPlan(fetchPlan);
+
+    var requestValues = RequestValues.builder()
+        .keyCriteria(objectRequest.getKeyCriteria())
+        .joinCriteria(objectSelectContext.getJoinCriteria())
+        .collectionFilterCriterias(fetchPlan.getFilterCriterias(objectRequest))
+        .build();
+
+    return build(requestValues, () -> QueryFingerprint.create(objectRequest, objectSelectContext),
+        () -> buildObjectQuery(objectRequest, objectSelectContext));
+  }
+
+  private SelectQueryBuilderResult build(RequestValues requestValues, Supplier<String> fingerprintSupplier,
+      Supplier<SelectQueryBuilderResult> queryBuilder) {
+    if (!queryTemplateCache.isEnabled()) {
+      return queryBuilder.get();
+    }
+
+    var fingerprint = fingerprintSupplier.get();
+
+    return queryTemplateCache.get(fingerprint)
+        .map(queryTemplate -> queryTemplate.bind(requestValues))
+        .orElseGet(() -> {
+          var selectQueryBuilderResult = queryBuilder.get();
+          queryTemplateCache.put(fingerprint, QueryTemplate.create(selectQueryBuilderResult));
+          return selectQueryBuilderResult;
+        });
+  }
+
+  // The rows of a collection are counted over its filtered query, the order doesn't change the count
+  public Query buildCountQuery(CollectionRequest collectionRequest) {
+    return dslContext.selectCount()
+        .from(buildFilterQuery(collectionRequest).asTable("x"));
+  }
+
+  // The top node of the plan of the filtered query holds the row estimate of the planner
+  public Query buildExplainQuery(CollectionRequest collectionRequest) {
+    return dslContext.resultQuery("explain (format json) {0}", buildFilterQuery(collectionRequest));
+  }
+
+  private SelectQuery<?> buildFilterQuery(CollectionRequest collectionRequest) {
+    var objectSelectContext = new ObjectSelectContext();
+    objectSelectContext.getObjectQueryContext()
+        .setFetchPlan(fetchPlanner.plan(collectionRequest.getObjectRequest(), collectionRequest.getFilterCriterias(),
+            collectionRequest.getSortCriterias()));
+
+    return buildCollectionQuery(collectionRequest, objectSelectContext, false).getQuery();
+  }
+
+  private SelectQueryBuilderResult buildCollectionQuery(CollectionRequest collectionRequest,
+      ObjectSelectContext objectSelectContext, boolean ordered) {
     var objectRequest = collectionRequest.getObjectRequest();
 
-    var fromTable = findTable(((PostgresTypeConfiguration) objectRequest.getTypeConfiguration()).getTable())
-        .as(objectSelectContext.newTableAlias());
+    var fromTable =
+        findTable(((PostgresTypeConfiguration) objectRequest.getTypeConfiguration()).getTable(), objectSelectContext)
+            .as(objectSelectContext.newTableAlias());
 
     var postgresObjectRequest = PostgresObjectRequestFactory.create(objectRequest);
     postgresObjectRequest.addFilterCriteria(collectionRequest.getFilterCriterias());
@@ -72,54 +179,223 @@ public class SelectQueryBuilder {
       createFilterConditions(collectionRequest.getFilterCriterias(), objectSelectContext, fromTable)
           .forEach(selectQuery::addConditions);
     }
-    if (!CollectionUtils.isEmpty(collectionRequest.getSortCriterias())) {
-      createSortConditions(collectionRequest.getSortCriterias(), objectSelectContext, fromTable)
-          .forEach(selectQuery::addOrderBy);
+    var pagingCriteria = collectionRequest.getPagingCriteria();
+
+    if (pagingCriteria != null && pagingCriteria.isKeyset()) {
+      addKeysetPaging(collectionRequest, objectSelectContext, selectQuery, fromTable);
+    } else if (ordered) {
+      if (!CollectionUtils.isEmpty(collectionRequest.getFilterCriterias())) {
+        createRankSortFields(collectionRequest.getFilterCriterias(), objectSelectContext, fromTable)
+            .forEach(selectQuery::addOrderBy);
+      }
+
+      if (!CollectionUtils.isEmpty(collectionRequest.getSortCriterias())) {
+        createSortConditions(collectionRequest.getSortCriterias(), objectSelectContext, fromTable)
+            .forEach(selectQuery::addOrderBy);
+      }
     }
 
-    if (collectionRequest.getPagingCriteria() != null) {
-      var pagingCriteria = collectionRequest.getPagingCriteria();
-      selectQuery.addLimit(pagingCriteria.getPage(), pagingCriteria.getPageSize());
+    if (pagingCriteria != null && !pagingCriteria.isKeyset()) {
+      selectQuery.addLimit(
+          objectSelectContext.newParam(DSL.val(pagingCriteria.getPage()),
+              requestValues -> requestValues.getPagingCriteria()
+                  .getPage()),
+          objectSelectContext.newParam(DSL.val(pagingCriteria.getPageSize()),
+              requestValues -> requestValues.getPagingCriteria()
+                  .getPageSize()));
     }
 
     if (!CollectionUtils.isEmpty(objectRequest.getKeyCriteria())) {
       selectQuery = addKeyCriterias(selectQuery, objectSelectContext, fromTable, objectRequest.getKeyCriteria());
     }
 
-    var rowMapper = createMapAssembler(objectSelectContext.getAssembleFns(), objectSelectContext.getCheckNullAlias(),
-        objectSelectContext.isUseNullMapWhenNotFound());
+    return createResult(selectQuery, objectSelectContext, fromTable);
+  }
 
-    return SelectQueryBuilderResult.builder()
-        .query(selectQuery)
-        .mapAssembler(rowMapper)
-        .context(objectSelectContext)
-        .table(fromTable)
+  private void addKeysetPaging(CollectionRequest collectionRequest, ObjectSelectContext objectSelectContext,
+      SelectQuery<?> query, Table<?> fromTable) {
+    var pagingCriteria = collectionRequest.getPagingCriteria();
+    var cursorColumns = createCursorColumns(collectionRequest, objectSelectContext, fromTable);
+    var backward = pagingCriteria.getBefore() != null;
+
+    var cursorAliases = cursorColumns.stream()
+        .map(cursorColumn -> {
+          var cursorAlias = objectSelectContext.newSelectAlias();
+          query.addSelect(cursorColumn.getField()
+              .as(cursorAlias));
+          return cursorAlias;
+        })
+        .collect(Collectors.toList());
+
+    objectSelectContext.getAssembleFns()
+        .put(CURSOR_VALUES_KEY, row -> cursorAliases.stream()
+            .map(row::get)
+            .collect(Collectors.toList()));
+
+    cursorColumns.forEach(cursorColumn -> query.addOrderBy(cursorColumn.createSortField(backward)));
+
+    if (pagingCriteria.getAfter() != null || pagingCriteria.getBefore() != null) {
+      query.addConditions(createSeekCondition(cursorColumns, pagingCriteria, objectSelectContext));
+    }
+
+    // the cursor replaces the offset, so only the page size is applied
+    query.addLimit(objectSelectContext.newParam(DSL.val(pagingCriteria.getPageSize()),
+        requestValues -> requestValues.getPagingCriteria()
+            .getPageSize()));
+  }
+
+  private List<CursorColumn> createCursorColumns(CollectionRequest collectionRequest,
+      ObjectSelectContext objectSelectContext, Table<?> fromTable) {
+    var typeConfiguration = (PostgresTypeConfiguration) collectionRequest.getObjectRequest()
+        .getTypeConfiguration();
+
+    // the relevance of a match comes first, as in the order without a cursor. A matching row has a
+    // document, so its rank is never null
+    var cursorColumns = Optional.ofNullable(collectionRequest.getFilterCriterias())
+        .map(filterCriterias -> createRankFields(filterCriterias, objectSelectContext, fromTable))
+        .orElse(List.of())
+        .stream()
+        .map(rankField -> CursorColumn.builder()
+            .field(rankField.coerce(Object.class))
+            .dataType(SQLDataType.REAL.nullable(false))
+            .direction(SortDirection.DESC)
+            .build())
+        .collect(Collectors.toCollection(ArrayList::new));
+
+    collectionRequest.getSortCriterias()
+        .stream()
+        .map(sortCriteria -> createCursorColumn(sortCriteria, objectSelectContext, fromTable))
+        .forEach(cursorColumns::add);
+
+    // the key columns make the cursor unique when the sort order contains duplicate values
+    typeConfiguration.getKeys()
+        .stream()
+        .map(keyConfiguration -> typeConfiguration.getFields()
+            .get(keyConfiguration.getField()))
+        .filter(Objects::nonNull)
+        .map(keyFieldConfiguration -> createCursorColumn(fromTable, fromTable.getName(),
+            keyFieldConfiguration.getColumn(), SortDirection.ASC))
+        .filter(keyColumn -> cursorColumns.stream()
+            .noneMatch(cursorColumn -> cursorColumn.getField()
+                .equals(keyColumn.getField())))
+        .forEach(cursorColumns::add);
+
+    if (cursorColumns.isEmpty()) {
+      throw illegalStateException("Keyset paging requires a sort order or key for type '{}'.",
+          typeConfiguration.getName());
+    }
+
+    return cursorColumns;
+  }
+
+  private CursorColumn createCursorColumn(SortCriteria sortCriteria, ObjectSelectContext objectSelectContext,
+      Table<?> fromTable) {
+    var fieldPath = sortCriteria.getFieldPath();
+    var leafFieldConfiguration = (PostgresFieldConfiguration) fieldPath.getLeaf()
+        .getFieldConfiguration();
+
+    if (fieldPath.isLeaf()) {
+      return createCursorColumn(fromTable, fromTable.getName(), leafFieldConfiguration.getColumn(),
+          sortCriteria.getDirection());
+    }
+
+    var leafTable = findTable(((PostgresTypeConfiguration) leafFieldConfiguration.getTypeConfiguration()).getTable(),
+        objectSelectContext);
+    var leafTableAlias = objectSelectContext.getTableAlias(fieldPath.getFieldConfiguration()
+        .getName());
+
+    return createCursorColumn(leafTable, leafTableAlias, leafFieldConfiguration.getColumn(),
+        sortCriteria.getDirection());
+  }
+
+  private CursorColumn createCursorColumn(Table<?> table, String tableAlias, String columnName,
+      SortDirection direction) {
+    // the column metadata provides the type to which the textual cursor values are cast
+    var column = Optional.ofNullable(table.field(columnName))
+        .orElseThrow(() -> illegalStateException("Column '{}' not found in table '{}'.", columnName, table.getName()));
+
+    return CursorColumn.builder()
+        .field(DSL.field(DSL.name(tableAlias, columnName)))
+        .dataType(column.getDataType())
+        .direction(direction)
         .build();
   }
 
-  public SelectQueryBuilderResult build(ObjectRequest objectRequest) {
-    return build(objectRequest, new ObjectSelectContext());
+  private Condition createSeekCondition(List<CursorColumn> cursorColumns, PagingCriteria pagingCriteria,
+      ObjectSelectContext objectSelectContext) {
+    var backward = pagingCriteria.getBefore() != null;
+    var cursor = getCursor(pagingCriteria);
+
+    if (cursor.size() != cursorColumns.size()) {
+      throw illegalArgumentException("Cursor doesn't match the sort order of the query.");
+    }
+
+    var cursorValues = IntStream.range(0, cursorColumns.size())
+        .mapToObj(index -> objectSelectContext
+            .newParam(DSL.val(cursor.get(index), String.class),
+                requestValues -> getCursor(requestValues.getPagingCriteria()).get(index))
+            .cast(cursorColumns.get(index)
+                .getDataType())
+            .coerce(Object.class))
+        .collect(Collectors.toList());
+
+    var ascending = cursorColumns.get(0)
+        .isAscending(backward);
+
+    // a row value comparison can be answered by a single index range scan, but skips rows with nulls
+    if (cursorColumns.stream()
+        .allMatch(cursorColumn -> cursorColumn.isAscending(backward) == ascending && !cursorColumn.isNullable())) {
+      var columnsRow = DSL.row(cursorColumns.stream()
+          .map(CursorColumn::getField)
+          .collect(Collectors.toList()));
+      var valuesRow = DSL.row(cursorValues);
+
+      return ascending ? columnsRow.gt(valuesRow) : columnsRow.lt(valuesRow);
+    }
+
+    // mixed directions or nullable columns: (a > x) or (a = x and b < y) or ...
+    return IntStream.range(0, cursorColumns.size())
+        .mapToObj(index -> IntStream.range(0, index)
+            .mapToObj(previousIndex -> cursorColumns.get(previousIndex)
+                .createEqualCondition(cursorValues.get(previousIndex)))
+            .reduce(DSL.noCondition(), Condition::and)
+            .and(cursorColumns.get(index)
+                .createSeekCondition(cursorValues.get(index), backward)))
+        .reduce(DSL.falseCondition(), Condition::or);
   }
 
-  public SelectQueryBuilderResult build(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext) {
-    var fromTable = findTable(((PostgresTypeConfiguration) objectRequest.getTypeConfiguration()).getTable())
-        .as(objectSelectContext.newTableAlias());
-    return build(objectRequest, objectSelectContext, fromTable);
+  private static List<String> getCursor(PagingCriteria pagingCriteria) {
+    return pagingCriteria.getBefore() != null ? pagingCriteria.getBefore() : pagingCriteria.getAfter();
   }
 
-  private SelectQueryBuilderResult build(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext,
-      Table<?> fromTable) {
-    var query = buildQuery(objectSelectContext, objectRequest, fromTable);
+  private SelectQueryBuilderResult buildObjectQuery(ObjectRequest objectRequest,
+      ObjectSelectContext objectSelectContext) {
+    var fromTable =
+        findTable(((PostgresTypeConfiguration) objectRequest.getTypeConfiguration()).getTable(), objectSelectContext)
+            .as(objectSelectContext.newTableAlias());
 
-    var rowMapper = createMapAssembler(objectSelectContext.getAssembleFns(), objectSelectContext.getCheckNullAlias(),
-        objectSelectContext.isUseNullMapWhenNotFound());
+    var query = buildQuery(objectSelectContext, objectRequest, fromTable);
 
     if (!CollectionUtils.isEmpty(objectRequest.getKeyCriteria())) {
       query = addKeyCriterias(query, objectSelectContext, fromTable, objectRequest.getKeyCriteria());
     }
 
+    return createResult(query, objectSelectContext, fromTable);
+  }
+
+  private SelectQueryBuilderResult createResult(SelectQuery<?> query, ObjectSelectContext objectSelectContext,
+      Table<?> fromTable) {
+    var rowMapper = createMapAssembler(objectSelectContext.getAssembleFns(), objectSelectContext.getCheckNullAlias(),
+        objectSelectContext.isUseNullMapWhenNotFound());
+
+    var bindValues = getBindParams(query).stream()
+        .map(Param::getValue)
+        .collect(Collectors.<Object>toList());
+
     return SelectQueryBuilderResult.builder()
         .query(query)
+        .sql(query.getSQL(ParamType.NAMED))
+        .bindValues(bindValues)
         .mapAssembler(rowMapper)
         .context(objectSelectContext)
         .table(fromTable)
@@ -136,6 +412,7 @@ public class SelectQueryBuilder {
     addNestedObjectFields(objectRequest, objectSelectContext, query, fromTable);
     addObjectFields(objectRequest, objectSelectContext, query, fromTable);
     addAggregateObjectFields(objectRequest, objectSelectContext, query, fromTable);
+    addCollectionObjectFields(objectRequest, objectSelectContext, query, fromTable);
 
     // check if any non-key-fields need to be added in order to support join
     addReferenceColumns(objectRequest, objectSelectContext, query, fromTable);
@@ -153,7 +430,8 @@ public class SelectQueryBuilder {
       var joinCriteria = objectSelectContext.getJoinCriteria();
       var postgresKeyCriteria = joinCriteria.get(0);
       var joinTable = postgresKeyCriteria.getJoinTable();
-      var aliasedJoinTable = findTable(joinTable.getName()).asTable(objectSelectContext.newTableAlias());
+      var aliasedJoinTable =
+          findTable(joinTable.getName(), objectSelectContext).asTable(objectSelectContext.newTableAlias());
 
       var joinCondition = createJoinTableJoinCondition(joinTable.getInverseJoinColumns(), typeConfiguration.getFields(),
           aliasedJoinTable, table);
@@ -167,18 +445,20 @@ public class SelectQueryBuilder {
 
   private void addJoinTableWhereCondition(SelectQuery<?> query, ObjectSelectContext objectSelectContext,
       List<PostgresKeyCriteria> joinCriteria, Table<?> aliasedJoinTable) {
-    var keyColumnNames = new HashMap<String, String>();
-    var valuesPerKeyIdentifier = getKeyValuesPerKeyIdentifier(joinCriteria);
-    valuesPerKeyIdentifier.forEach((keyColumnName, value) -> {
-      var keyColumnAlias = objectSelectContext.newSelectAlias();
-      var keyColumn = aliasedJoinTable.field(keyColumnName, Object.class)
-          .as(keyColumnAlias);
-      query.addSelect(keyColumn);
-      // add IN condition
-      var inCondition = createJoinTableInCondition(aliasedJoinTable, keyColumnName, value);
-      query.addConditions(inCondition);
-      keyColumnNames.put(keyColumnName, keyColumnAlias);
-    });
+    var keyColumnNames = new LinkedHashMap<String, String>();
+    joinCriteria.get(0)
+        .getValues()
+        .keySet()
+        .forEach(keyColumnName -> {
+          var keyColumnAlias = objectSelectContext.newSelectAlias();
+          var keyColumn = aliasedJoinTable.field(keyColumnName, Object.class)
+              .as(keyColumnAlias);
+          query.addSelect(keyColumn);
+          keyColumnNames.put(keyColumnName, keyColumnAlias);
+        });
+
+    query.addConditions(createJoinTableKeyCondition(aliasedJoinTable, List.copyOf(keyColumnNames.keySet()),
+        joinCriteria, objectSelectContext));
 
     // add setKeyColumnNames
     objectSelectContext.setKeyColumnNames(keyColumnNames);
@@ -200,25 +480,42 @@ public class SelectQueryBuilder {
         .reduce(DSL.noCondition(), Condition::and);
   }
 
-  private Condition createJoinTableInCondition(Table<?> joinTable, String keyColumnName, List<Object> values) {
-    var leftColumn = DSL.field(DSL.name(joinTable.getName(), keyColumnName));
-    return Objects.requireNonNull(leftColumn)
-        .in(values);
+  // the keys of all parents are bound as an array per key column
+  private Condition createJoinTableKeyCondition(Table<?> joinTable, List<String> keyColumnNames,
+      List<PostgresKeyCriteria> joinCriteria, ObjectSelectContext objectSelectContext) {
+    var keyColumns = keyColumnNames.stream()
+        .<Field<?>>map(keyColumnName -> DSL.field(DSL.name(joinTable.getName(), keyColumnName)))
+        .collect(Collectors.toList());
+
+    if (keyColumnNames.isEmpty()) {
+      return DSL.noCondition();
+    }
+
+    if (keyColumnNames.size() == 1) {
+      var keyColumnName = keyColumnNames.get(0);
+      var keyValues = getKeyValues(joinCriteria, keyColumnName);
+
+      return createAnyCondition(keyColumns.get(0), getDataType(joinTable, keyColumnName, keyValues), keyValues,
+          objectSelectContext, requestValues -> getKeyValues(requestValues.getJoinCriteria(), keyColumnName));
+    }
+
+    var keyArrays = keyColumnNames.stream()
+        .map(keyColumnName -> {
+          var keyValues = getKeyValues(joinCriteria, keyColumnName);
+
+          return createArrayParam(getDataType(joinTable, keyColumnName, keyValues), keyValues, objectSelectContext,
+              requestValues -> getKeyValues(requestValues.getJoinCriteria(), keyColumnName));
+        })
+        .collect(Collectors.toList());
+
+    return createRowInCondition(keyColumns, keyArrays);
   }
 
-  private Map<String, List<Object>> getKeyValuesPerKeyIdentifier(List<PostgresKeyCriteria> joinCriteria) {
-    var keyValuesPerKeyIdentifier = new HashMap<String, List<Object>>();
-    joinCriteria.forEach(criteria -> criteria.getValues()
-        .forEach((key, value) -> {
-          if (keyValuesPerKeyIdentifier.containsKey(key)) {
-            var values = keyValuesPerKeyIdentifier.get(key);
-            values.add(value);
-            keyValuesPerKeyIdentifier.put(key, values);
-          } else {
-            keyValuesPerKeyIdentifier.put(key, new ArrayList<>(Arrays.asList(value)));
-          }
-        }));
-    return keyValuesPerKeyIdentifier;
+  private static List<Object> getKeyValues(List<? extends KeyCriteria> keyCriterias, String keyName) {
+    return keyCriterias.stream()
+        .map(keyCriteria -> keyCriteria.getValues()
+            .get(keyName))
+        .collect(Collectors.toList());
   }
 
   private void addScalarFields(PostgresTypeConfiguration typeConfiguration, List<ScalarField> scalarFields,
@@ -251,7 +548,10 @@ public class SelectQueryBuilder {
 
     if (scalarField.hasOrigin(Origin.REQUESTED)) {
       var columnAlias = objectSelectContext.newSelectAlias();
-      var aliasedColumn = column.as(columnAlias);
+      var selectField = SpatialConstants.GEOMETRY.equals(scalarFieldConfiguration.getType())
+          ? createGeometryField(column, scalarField.getArguments())
+          : column;
+      var aliasedColumn = selectField.as(columnAlias);
       objectSelectContext.getAssembleFns()
           .put(scalarField.getName(), row -> row.get(aliasedColumn.getName()));
 
@@ -268,6 +568,41 @@ public class SelectQueryBuilder {
 
   }
 
+  private Field<?> createGeometryField(Field<?> column, Map<String, Object> arguments) {
+    Field<?> field = column;
+
+    // the tolerances are inlined, they are part of the query fingerprint
+    var simplify = getTolerance(arguments, SpatialConstants.ARGUMENT_SIMPLIFY);
+
+    if (simplify != null) {
+      field = DSL.field("ST_SimplifyPreserveTopology({0}, {1})", Object.class, field, DSL.inline(simplify));
+    }
+
+    var precision = getTolerance(arguments, SpatialConstants.ARGUMENT_PRECISION);
+
+    if (precision != null) {
+      field = DSL.field("ST_ReducePrecision({0}, {1})", Object.class, field, DSL.inline(precision));
+    }
+
+    return field;
+  }
+
+  private static Double getTolerance(Map<String, Object> arguments, String argumentName) {
+    var value = arguments.get(argumentName);
+
+    if (value == null) {
+      return null;
+    }
+
+    var tolerance = ((Number) value).doubleValue();
+
+    if (tolerance <= 0) {
+      throw illegalArgumentException("Argument '{}' must be greater than zero.", argumentName);
+    }
+
+    return tolerance;
+  }
+
   private void addNestedObjectFields(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext,
       SelectQuery<?> query, Table<?> fieldTable) {
 
@@ -290,20 +625,27 @@ public class SelectQueryBuilder {
 
     objectRequest.getObjectFields()
         .forEach(objectField -> {
-          var lateralJoinContext = new ObjectSelectContext(objectSelectContext.getObjectQueryContext());
-
           var objectFieldConfiguration = (PostgresFieldConfiguration) objectField.getField();
 
+          if (objectSelectContext.getObjectQueryContext()
+              .getFetchPlan()
+              .isBatched(objectField)) {
+            addBatchKeyFields(objectFieldConfiguration, objectSelectContext, query, fieldTable);
+            return;
+          }
+
+          var lateralJoinContext = new ObjectSelectContext(objectSelectContext.getObjectQueryContext());
+
           var objectFieldTable =
-              findTable(((PostgresTypeConfiguration) objectFieldConfiguration.getTypeConfiguration()).getTable())
-                  .asTable(objectSelectContext.newTableAlias());
+              findTable(((PostgresTypeConfiguration) objectFieldConfiguration.getTypeConfiguration()).getTable(),
+                  objectSelectContext).asTable(objectSelectContext.newTableAlias());
 
           var subSelect = buildQuery(lateralJoinContext, objectField.getObjectRequest(), objectFieldTable);
 
           addJoin(subSelect, lateralJoinContext, objectFieldConfiguration, objectFieldTable,
               (PostgresTypeConfiguration) objectRequest.getTypeConfiguration(), fieldTable);
 
-          subSelect.addLimit(1);
+          subSelect.addLimit(DSL.inline(1));
 
           var lateralTable = subSelect.asTable(objectSelectContext.newTableAlias(objectFieldConfiguration.getName()));
           query.addSelect(lateralTable.asterisk());
@@ -317,6 +659,19 @@ public class SelectQueryBuilder {
         });
   }
 
+  // A batched object is loaded with a separate query, keyed by the join columns of its parent
+  private void addBatchKeyFields(PostgresFieldConfiguration objectFieldConfiguration,
+      ObjectSelectContext objectSelectContext, SelectQuery<?> query, Table<?> fieldTable) {
+    objectFieldConfiguration.getJoinColumns()
+        .forEach(joinColumn -> {
+          var columnAlias = objectSelectContext.newSelectAlias();
+          query.addSelect(fieldTable.field(joinColumn.getName(), Object.class)
+              .as(columnAlias));
+          objectSelectContext.getAssembleFns()
+              .put(objectFieldConfiguration.getJoinColumnKey(joinColumn), row -> row.get(columnAlias));
+        });
+  }
+
   private void addAggregateObjectFields(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext,
       SelectQuery<?> query, Table<?> fieldTable) {
 
@@ -324,20 +679,8 @@ public class SelectQueryBuilder {
         .forEach(aggregateObjectFieldConfiguration -> {
           var aggregateObjectSelectContext = new ObjectSelectContext(objectSelectContext.getObjectQueryContext());
 
-          var stringJoinAggregateFields = aggregateObjectFieldConfiguration.getAggregateFields(true);
-
-          var otherAggregateFields = aggregateObjectFieldConfiguration.getAggregateFields(false);
-
-          stringJoinAggregateFields
-              .forEach(stringJoinAggregateField -> processAggregateFields(List.of(stringJoinAggregateField),
-                  aggregateObjectFieldConfiguration, aggregateObjectSelectContext, query,
-                  (PostgresTypeConfiguration) objectRequest.getTypeConfiguration(), fieldTable));
-
-          if (!otherAggregateFields.isEmpty()) {
-            processAggregateFields(otherAggregateFields, aggregateObjectFieldConfiguration,
-                aggregateObjectSelectContext, query, (PostgresTypeConfiguration) objectRequest.getTypeConfiguration(),
-                fieldTable);
-          }
+          processAggregateFields(aggregateObjectFieldConfiguration, aggregateObjectSelectContext, query,
+              (PostgresTypeConfiguration) objectRequest.getTypeConfiguration(), fieldTable);
 
           objectSelectContext.getAssembleFns()
               .put(aggregateObjectFieldConfiguration.getField()
@@ -348,19 +691,98 @@ public class SelectQueryBuilder {
         });
   }
 
-  private void processAggregateFields(List<AggregateFieldConfiguration> aggregateFields,
-      AggregateObjectFieldConfiguration aggregateObjectFieldConfiguration,
+  private void addCollectionObjectFields(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext,
+      SelectQuery<?> query, Table<?> fieldTable) {
+
+    objectSelectContext.getObjectQueryContext()
+        .getFetchPlan()
+        .getInlinedFields(objectRequest)
+        .forEach(collectionObjectField -> {
+          // taken before the nested lists are visited, in the order of FetchPlan
+          final var collectionIndex = objectSelectContext.getObjectQueryContext()
+              .newCollectionIndex();
+          var lateralJoinContext = new ObjectSelectContext(objectSelectContext.getObjectQueryContext());
+
+          var collectionFieldConfiguration = (PostgresFieldConfiguration) collectionObjectField.getField();
+
+          var collectionTable =
+              findTable(((PostgresTypeConfiguration) collectionFieldConfiguration.getTypeConfiguration()).getTable(),
+                  objectSelectContext).asTable(objectSelectContext.newTableAlias());
+
+          var collectionRequest = PostgresObjectRequestFactory.create(collectionObjectField.getObjectRequest());
+          collectionRequest.addFilterCriteria(collectionObjectField.getFilterCriterias());
+          collectionRequest.addSortCriteria(collectionObjectField.getSortCriterias());
+
+          var subSelect = buildQuery(lateralJoinContext, collectionRequest, collectionTable);
+
+          addCollectionJoin(subSelect, lateralJoinContext, collectionFieldConfiguration, collectionTable,
+              (PostgresTypeConfiguration) objectRequest.getTypeConfiguration(), fieldTable);
+
+          createFilterConditions(collectionObjectField.getFilterCriterias(), lateralJoinContext, collectionTable,
+              requestValues -> requestValues.getCollectionFilterCriterias()
+                  .get(collectionIndex)).forEach(subSelect::addConditions);
+
+          var rowsAlias = objectSelectContext.newTableAlias();
+          Field<?> rows;
+
+          if (collectionObjectField.getSortCriterias()
+              .isEmpty()) {
+            rows = DSL.field("json_agg({0})", DSL.name(rowsAlias));
+          } else {
+            // the rows are numbered in the sort order, json_agg does not keep the order of a subquery
+            var positionAlias = objectSelectContext.newSelectAlias();
+            var sortConditions =
+                createSortConditions(collectionObjectField.getSortCriterias(), lateralJoinContext, collectionTable);
+            subSelect.addSelect(DSL.rowNumber()
+                .over()
+                .orderBy(sortConditions.toArray(new OrderField<?>[0]))
+                .as(positionAlias));
+            rows = DSL.field("json_agg({0} order by {1})", DSL.name(rowsAlias), DSL.name(rowsAlias, positionAlias));
+          }
+
+          var rowsColumn = rows.cast(SQLDataType.CLOB)
+              .as(objectSelectContext.newSelectAlias());
+          var columnTypes = JsonCollectionHelper.getColumnTypes(subSelect);
+
+          var lateralTable = dslContext.select(rowsColumn)
+              .from(subSelect.asTable(rowsAlias))
+              .asTable(objectSelectContext.newTableAlias());
+          query.addSelect(lateralTable.asterisk());
+          query.addJoin(lateralTable, JoinType.OUTER_APPLY);
+
+          var rowAssembler =
+              createMapAssembler(lateralJoinContext.getAssembleFns(), lateralJoinContext.getCheckNullAlias(), false);
+
+          objectSelectContext.getAssembleFns()
+              .put(collectionFieldConfiguration.getName(),
+                  row -> JsonCollectionHelper.decode(row.get(rowsColumn.getName()), columnTypes)
+                      .stream()
+                      .map(rowAssembler)
+                      .collect(Collectors.toList()));
+        });
+  }
+
+  private void processAggregateFields(AggregateObjectFieldConfiguration aggregateObjectFieldConfiguration,
       ObjectSelectContext aggregateObjectSelectContext, SelectQuery<?> query,
       PostgresTypeConfiguration mainTypeConfiguration, Table<?> fieldTable) {
     var aggregateFieldConfiguration = (PostgresFieldConfiguration) aggregateObjectFieldConfiguration.getField();
+    var summary = aggregateFieldConfiguration.getSummary();
+
+    if (summary != null && isCoveredBy(aggregateObjectFieldConfiguration.getAggregateFields(), summary)) {
+      processSummaryFields(aggregateObjectFieldConfiguration.getAggregateFields(), summary,
+          aggregateObjectSelectContext, query, mainTypeConfiguration, fieldTable);
+      return;
+    }
+
     var aggregateTypeConfiguration = (PostgresTypeConfiguration) aggregateFieldConfiguration.getTypeConfiguration();
 
-    var aliasedAggregateTable =
-        findTable(aggregateTypeConfiguration.getTable()).asTable(aggregateObjectSelectContext.newTableAlias());
+    var aliasedAggregateTable = findTable(aggregateTypeConfiguration.getTable(), aggregateObjectSelectContext)
+        .asTable(aggregateObjectSelectContext.newTableAlias());
 
     var subSelect = dslContext.selectQuery(aliasedAggregateTable);
 
-    addAggregateFields(aggregateFields, aggregateObjectSelectContext, subSelect, aliasedAggregateTable);
+    addAggregateFields(aggregateObjectFieldConfiguration.getAggregateFields(), aggregateObjectSelectContext, subSelect,
+        aliasedAggregateTable);
 
     // add join condition to subselect query
     addAggregateJoin(subSelect, aggregateObjectSelectContext, aggregateFieldConfiguration, aliasedAggregateTable,
@@ -372,29 +794,120 @@ public class SelectQueryBuilder {
     query.addJoin(lateralTable, JoinType.OUTER_APPLY);
   }
 
+  // the aggregates are read from the row of the parent in the summary, instead of aggregating the
+  // rows of the aggregated type
+  private void processSummaryFields(List<AggregateFieldConfiguration> aggregateFieldConfigurations,
+      AggregateSummary summary, ObjectSelectContext aggregateObjectSelectContext, SelectQuery<?> query,
+      PostgresTypeConfiguration mainTypeConfiguration, Table<?> fieldTable) {
+    var summaryTable = DSL.table(DSL.name(summary.getTable()
+        .split("\\.")));
+
+    aggregateObjectSelectContext.getObjectQueryContext()
+        .getTableNames()
+        .add(summaryTable.getName());
+
+    var aliasedSummaryTable = summaryTable.as(aggregateObjectSelectContext.newTableAlias());
+    var subSelect = dslContext.selectQuery(aliasedSummaryTable);
+
+    aggregateFieldConfigurations.forEach(aggregateFieldConfiguration -> {
+      var summaryColumn = summary.findColumn(aggregateFieldConfiguration)
+          .orElseThrow();
+
+      var column = aggregateFieldFactory
+          .createSummaryField(aggregateFieldConfiguration, aliasedSummaryTable.getName(), summaryColumn.getName())
+          .as(aggregateObjectSelectContext.newSelectAlias());
+
+      aggregateObjectSelectContext.getAssembleFns()
+          .put(aggregateFieldConfiguration.getAlias(), row -> row.get(column.getName()));
+
+      subSelect.addSelect(column);
+    });
+
+    subSelect.addConditions(summary.getJoinColumns()
+        .stream()
+        .map(joinColumn -> DSL.field(DSL.name(aliasedSummaryTable.getName(), joinColumn.getName()))
+            .eq(DSL.field(DSL.name(fieldTable.getName(), mainTypeConfiguration.getFields()
+                .get(joinColumn.getField())
+                .getColumn()))))
+        .collect(Collectors.toList()));
+
+    var lateralTable = subSelect.asTable(aggregateObjectSelectContext.newTableAlias());
+    query.addSelect(lateralTable.asterisk());
+    query.addJoin(lateralTable, JoinType.OUTER_APPLY);
+  }
+
+  // a summary is only used when it has a column for every requested aggregate, a partial summary
+  // would still need a scan of the aggregated rows
+  private static boolean isCoveredBy(List<AggregateFieldConfiguration> aggregateFieldConfigurations,
+      AggregateSummary summary) {
+    return aggregateFieldConfigurations.stream()
+        .allMatch(aggregateFieldConfiguration -> summary.findColumn(aggregateFieldConfiguration)
+            .isPresent());
+  }
+
+  // all aggregates are computed in a single scan of the aggregated rows. The elements of list fields
+  // are joined with a shared unnest, which repeats each row for every element. The other aggregates
+  // are filtered on the first element, so they still see each row once.
   private void addAggregateFields(List<AggregateFieldConfiguration> aggregateFieldConfigurations,
       ObjectSelectContext objectSelectContext, SelectQuery<?> query, Table<?> table) {
-    aggregateFieldConfigurations.forEach(aggregateFieldConfiguration -> {
+    var columnAliases = new LinkedHashMap<AggregateFieldConfiguration, String>();
+    aggregateFieldConfigurations.forEach(aggregateFieldConfiguration -> columnAliases.put(aggregateFieldConfiguration,
+        objectSelectContext.newSelectAlias()));
 
-      var columnAlias = objectSelectContext.newSelectAlias();
+    var unnestedFields = aggregateFieldConfigurations.stream()
+        .filter(SelectQueryBuilder::isUnnested)
+        .collect(Collectors.toList());
+
+    var filter = unnestedFields.isEmpty() ? null
+        : addUnnestJoin(unnestedFields, columnAliases, objectSelectContext, query, table);
+
+    columnAliases.forEach((aggregateFieldConfiguration, columnAlias) -> {
       var columnName = ((PostgresFieldConfiguration) aggregateFieldConfiguration.getField()).getColumn();
 
-      var column = aggregateFieldFactory.create(aggregateFieldConfiguration, table.getName(), columnName, columnAlias)
+      var column = aggregateFieldFactory
+          .create(aggregateFieldConfiguration, table.getName(), columnName, columnAlias,
+              isUnnested(aggregateFieldConfiguration) ? null : filter)
           .as(columnAlias);
 
       objectSelectContext.getAssembleFns()
           .put(aggregateFieldConfiguration.getAlias(), row -> row.get(column.getName()));
 
       query.addSelect(column);
-
-      if (aggregateFieldConfiguration.getAggregateFunctionType() == JOIN && aggregateFieldConfiguration.getField()
-          .isList()) {
-        query.addJoin(DSL.unnest(DSL.field(DSL.name(table.getName(), columnName), String[].class))
-            .as(columnAlias), JoinType.CROSS_JOIN);
-      }
     });
   }
 
+  private Condition addUnnestJoin(List<AggregateFieldConfiguration> unnestedFields,
+      Map<AggregateFieldConfiguration, String> columnAliases, ObjectSelectContext objectSelectContext,
+      SelectQuery<?> query, Table<?> table) {
+    var arrays = unnestedFields.stream()
+        .map(aggregateFieldConfiguration -> DSL.field(DSL.name(table.getName(),
+            ((PostgresFieldConfiguration) aggregateFieldConfiguration.getField()).getColumn()), String[].class))
+        .collect(Collectors.toList());
+
+    // the elements are named after the aggregates which join them
+    var unnestAliases = unnestedFields.stream()
+        .map(columnAliases::get)
+        .collect(Collectors.toCollection(ArrayList::new));
+    var ordinalityAlias = objectSelectContext.newSelectAlias();
+    unnestAliases.add(ordinalityAlias);
+
+    var unnestTable =
+        createUnnestTable(arrays, true).as(objectSelectContext.newTableAlias(), unnestAliases.toArray(String[]::new));
+
+    // rows with empty arrays are kept, they are counted by the other aggregates
+    query.addJoin(unnestTable, JoinType.LEFT_OUTER_JOIN, DSL.trueCondition());
+
+    var ordinality = DSL.field(DSL.name(unnestTable.getName(), ordinalityAlias), Long.class);
+
+    return ordinality.isNull()
+        .or(ordinality.eq(DSL.inline(1L)));
+  }
+
+  private static boolean isUnnested(AggregateFieldConfiguration aggregateFieldConfiguration) {
+    return aggregateFieldConfiguration.getAggregateFunctionType() == JOIN && aggregateFieldConfiguration.getField()
+        .isList();
+  }
+
   private void addReferenceColumns(ObjectRequest objectRequest, ObjectSelectContext objectSelectContext,
       SelectQuery<?> query, Table<?> table) {
     if (!objectRequest.getObjectFields()
@@ -422,7 +935,7 @@ public class SelectQueryBuilder {
     if (leftSideConfiguration.getJoinTable() != null) {
       // wordt deze code wel geraakt?
       var joinTable = findTable(leftSideConfiguration.getJoinTable()
-          .getName()).asTable(objectSelectContext.newTableAlias());
+          .getName(), objectSelectContext).asTable(objectSelectContext.newTableAlias());
       var condition = getJoinTableCondition(leftSideConfiguration, leftSideTable, rightSideConfiguration,
           rightSideTable, joinTable);
       // create join with jointable and join condition on joinColumns and inverse joinColumn
@@ -443,7 +956,7 @@ public class SelectQueryBuilder {
     if (leftSideConfiguration.getJoinTable() != null) {
 
       var joinTable = findTable(leftSideConfiguration.getJoinTable()
-          .getName()).asTable(objectSelectContext.newTableAlias());
+          .getName(), objectSelectContext).asTable(objectSelectContext.newTableAlias());
       // create join with jointable and join condition on joinColumns and inverse joinColumn
       var condition = getJoinTableCondition(leftSideConfiguration, leftSideTable, rightSideConfiguration,
           rightSideTable, joinTable);
@@ -456,30 +969,47 @@ public class SelectQueryBuilder {
     }
   }
 
+  private void addCollectionJoin(SelectQuery<?> subSelect, ObjectSelectContext objectSelectContext,
+      PostgresFieldConfiguration leftSideConfiguration, Table<?> leftSideTable,
+      PostgresTypeConfiguration rightSideConfiguration, Table<?> rightSideTable) {
+    if (leftSideConfiguration.getMappedBy() != null) {
+      var mappedByConfiguration = ((PostgresTypeConfiguration) leftSideConfiguration.getTypeConfiguration()).getFields()
+          .get(leftSideConfiguration.getMappedBy());
+
+      subSelect.addConditions(getJoinCondition(mappedByConfiguration.getJoinColumns(),
+          rightSideConfiguration.getFields(), leftSideTable, rightSideTable));
+    } else {
+      addAggregateJoin(subSelect, objectSelectContext, leftSideConfiguration, leftSideTable, rightSideConfiguration,
+          rightSideTable);
+    }
+  }
+
   private SelectQuery<?> addKeyCriterias(SelectQuery<?> subSelectQuery, ObjectSelectContext objectSelectContext,
       Table<?> fieldTable, List<KeyCriteria> keyCriterias) {
 
-    // create value rows array
-    var valuesTableRows = keyCriterias.stream()
-        .map(keyCriteria -> DSL.row(keyCriteria.getValues()
-            .values()))
-        .toArray(RowN[]::new);
+    // the key columns of the first criteria determine the column order of the values table
+    var keyNames = List.copyOf(keyCriterias.get(0)
+        .getValues()
+        .keySet());
 
     // create key column names map
-    var keyColumnNames = keyCriterias.stream()
-        .findAny()
-        .orElseThrow()
-        .getValues()
-        .keySet()
-        .stream()
-        .collect(Collectors.toMap(Function.identity(), keyColumnName -> objectSelectContext.newSelectAlias()));
+    var keyColumnNames = new LinkedHashMap<String, String>();
+    keyNames.forEach(keyName -> keyColumnNames.put(keyName, objectSelectContext.newSelectAlias()));
 
     objectSelectContext.setKeyColumnNames(keyColumnNames);
 
-    // create virtual table
-    var valuesTable = DSL.values(valuesTableRows)
-        .as(objectSelectContext.newTableAlias(), keyColumnNames.values()
-            .toArray(String[]::new));
+    // create virtual table with a row per key, from an array per key column
+    var keyArrays = keyNames.stream()
+        .map(keyName -> {
+          var keyValues = getKeyValues(keyCriterias, keyName);
+
+          return createArrayParam(getDataType(fieldTable, keyName, keyValues), keyValues, objectSelectContext,
+              requestValues -> getKeyValues(requestValues.getKeyCriteria(), keyName));
+        })
+        .collect(Collectors.toList());
+
+    var valuesTable = createUnnestTable(keyArrays).as(objectSelectContext.newTableAlias(), keyColumnNames.values()
+        .toArray(String[]::new));
 
     // create joinCondition from subselect keycriteria values
     var joinCondition = keyColumnNames.entrySet()
@@ -506,12 +1036,14 @@ public class SelectQueryBuilder {
     return query;
   }
 
-  private Table<?> findTable(String name) {
-    var path = name.split("\\.");
-    var tables = dslContext.meta()
-        .getTables(path[path.length - 1]);
+  private Table<?> findTable(String name, ObjectSelectContext objectSelectContext) {
+    var table = tableCatalog.getTable(name);
+
+    objectSelectContext.getObjectQueryContext()
+        .getTableNames()
+        .add(table.getName());
 
-    return tables.get(0);
+    return table;
   }
 
   private Condition getJoinTableCondition(PostgresFieldConfiguration leftSideConfiguration, Table<?> leftSideTable,
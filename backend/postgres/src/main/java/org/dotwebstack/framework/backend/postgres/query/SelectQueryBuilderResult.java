@@ -1,5 +1,6 @@
 package org.dotwebstack.framework.backend.postgres.query;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.UnaryOperator;
 import lombok.Builder;
@@ -12,9 +13,15 @@ import org.jooq.Table;
 @Data
 @Builder
 public class SelectQueryBuilderResult {
-  @NonNull
+  // Only present when the query has been built, results from a cached query template contain no query
   private final SelectQuery<?> query;
 
+  @NonNull
+  private final String sql;
+
+  @NonNull
+  private final List<Object> bindValues;
+
   @NonNull
   private final Table<?> table;
 
@@ -23,4 +30,9 @@ public class SelectQueryBuilderResult {
 
   @NonNull
   private final ObjectSelectContext context;
+
+  // Shared by all results of a query template, so the column layout is resolved once per shape
+  @NonNull
+  @Builder.Default
+  private final RowReader rowReader = new RowReader();
 }
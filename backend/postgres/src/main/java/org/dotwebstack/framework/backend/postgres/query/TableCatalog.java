@@ -0,0 +1,151 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.dotwebstack.framework.backend.postgres.config.JoinTable;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.jooq.DSLContext;
+import org.jooq.Meta;
+import org.jooq.Table;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class TableCatalog {
+
+  private final DSLContext dslContext;
+
+  private final DotWebStackConfiguration dotWebStackConfiguration;
+
+  private volatile Map<String, Table<?>> tables = new ConcurrentHashMap<>();
+
+  public TableCatalog(DSLContext dslContext, DotWebStackConfiguration dotWebStackConfiguration) {
+    this.dslContext = dslContext;
+    this.dotWebStackConfiguration = dotWebStackConfiguration;
+  }
+
+  @PostConstruct
+  public void refresh() {
+    Meta meta;
+    List<String> searchPath;
+
+    // the application also starts without a database, the tables are then resolved on first use
+    try {
+      meta = dslContext.meta();
+      searchPath = getSearchPath();
+    } catch (DataAccessException e) {
+      LOG.warn("Unable to load the table catalog, tables are resolved on first use: {}", e.getMessage());
+      return;
+    }
+
+    var refreshedTables = new ConcurrentHashMap<String, Table<?>>();
+
+    getConfiguredTableNames()
+        .forEach(name -> resolveTable(meta, searchPath, name).ifPresentOrElse(table -> refreshedTables.put(name, table),
+            () -> LOG.warn("Table '{}' not found in database.", name)));
+
+    LOG.debug("Loaded {} table(s) into the table catalog.", refreshedTables.size());
+    tables = refreshedTables;
+  }
+
+  public Table<?> getTable(String name) {
+    // Tables which are not part of the configuration are resolved on first use
+    return tables.computeIfAbsent(name, key -> resolveTable(dslContext.meta(), getSearchPath(), key)
+        .orElseThrow(() -> illegalStateException("Table '{}' not found in database.", key)));
+  }
+
+  Set<String> getConfiguredTableNames() {
+    return dotWebStackConfiguration.getObjectTypes()
+        .values()
+        .stream()
+        .filter(PostgresTypeConfiguration.class::isInstance)
+        .map(PostgresTypeConfiguration.class::cast)
+        .flatMap(this::getTableNames)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+  }
+
+  private Stream<String> getTableNames(PostgresTypeConfiguration typeConfiguration) {
+    var joinTableNames = typeConfiguration.getFields()
+        .values()
+        .stream()
+        .map(PostgresFieldConfiguration::getJoinTable)
+        .filter(Objects::nonNull)
+        .map(JoinTable::getName);
+
+    var aggregateTableNames = typeConfiguration.getFields()
+        .values()
+        .stream()
+        .map(PostgresFieldConfiguration::getAggregationOf)
+        .filter(Objects::nonNull)
+        .map(aggregationOf -> dotWebStackConfiguration.getObjectTypes()
+            .get(aggregationOf))
+        .filter(PostgresTypeConfiguration.class::isInstance)
+        .map(aggregateType -> ((PostgresTypeConfiguration) aggregateType).getTable());
+
+    return Stream.of(Stream.of(typeConfiguration.getTable()), joinTableNames, aggregateTableNames)
+        .flatMap(stream -> stream);
+  }
+
+  private Optional<Table<?>> resolveTable(Meta meta, List<String> searchPath, String name) {
+    var path = name.split("\\.");
+
+    if (path.length == 1) {
+      return resolveUnqualifiedTable(meta, searchPath, name);
+    }
+
+    return findTable(meta, path[path.length - 2], path[path.length - 1]);
+  }
+
+  // unqualified names are resolved like the database does, in the order of the search path
+  private Optional<Table<?>> resolveUnqualifiedTable(Meta meta, List<String> searchPath, String name) {
+    var searchPathTable = searchPath.stream()
+        .map(schemaName -> findTable(meta, schemaName, name))
+        .flatMap(Optional::stream)
+        .findFirst();
+
+    if (searchPathTable.isPresent()) {
+      return searchPathTable;
+    }
+
+    var tables = meta.getTables(name);
+
+    if (tables.size() > 1) {
+      throw illegalStateException(
+          "Table '{}' is found in multiple schemas outside of the search path, qualify it with its schema.", name);
+    }
+
+    return tables.stream()
+        .<Table<?>>map(table -> table)
+        .findFirst();
+  }
+
+  private Optional<Table<?>> findTable(Meta meta, String schemaName, String tableName) {
+    return meta.getSchemas(schemaName)
+        .stream()
+        .map(schema -> schema.getTable(tableName))
+        .filter(Objects::nonNull)
+        .<Table<?>>map(table -> table)
+        .findFirst();
+  }
+
+  private List<String> getSearchPath() {
+    return Optional.ofNullable(dslContext.fetchValue(DSL.field("current_schemas(false)", String[].class)))
+        .map(List::of)
+        .orElse(List.of());
+  }
+}
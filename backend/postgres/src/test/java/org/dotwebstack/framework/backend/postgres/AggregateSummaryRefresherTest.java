@@ -0,0 +1,95 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.dotwebstack.framework.backend.postgres.config.AggregateSummary;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AggregateSummaryRefresherTest {
+
+  @Mock
+  private DSLContext dslContext;
+
+  @Mock
+  private ResultCache resultCache;
+
+  @Test
+  void getRefreshedSummaries_returnsSummariesWithRefreshInterval() {
+    var refreshed = createSummary("dbeerpedia.brewery_beer_summary", Duration.ofMinutes(5));
+    var maintained = createSummary("dbeerpedia.brewery_ingredient_summary", null);
+
+    var refresher = new AggregateSummaryRefresher(dslContext, createConfiguration(refreshed, maintained,
+        createSummary("dbeerpedia.brewery_beer_summary", Duration.ofMinutes(10))), resultCache);
+
+    assertThat(refresher.getRefreshedSummaries(), contains(refreshed));
+  }
+
+  @Test
+  void refresh_refreshesViewConcurrently_andInvalidatesResultCache() {
+    var summary = createSummary("dbeerpedia.brewery_beer_summary", Duration.ofMinutes(5));
+    var refresher = new AggregateSummaryRefresher(dslContext, createConfiguration(summary), resultCache);
+
+    refresher.refresh(summary)
+        .block();
+
+    verify(dslContext).execute("refresh materialized view concurrently {0}",
+        DSL.name("dbeerpedia", "brewery_beer_summary"));
+    verify(resultCache).invalidate("dbeerpedia.brewery_beer_summary");
+  }
+
+  @Test
+  void refresh_completes_forFailedRefresh() {
+    var summary = createSummary("dbeerpedia.brewery_beer_summary", Duration.ofMinutes(5));
+    summary.setConcurrent(false);
+    var refresher = new AggregateSummaryRefresher(dslContext, createConfiguration(summary), resultCache);
+
+    when(dslContext.execute("refresh materialized view {0}", DSL.name("dbeerpedia", "brewery_beer_summary")))
+        .thenThrow(new IllegalStateException("relation does not exist"));
+
+    refresher.refresh(summary)
+        .block();
+
+    verify(resultCache, never()).invalidate(anyString());
+  }
+
+  private static AggregateSummary createSummary(String table, Duration refreshInterval) {
+    var summary = new AggregateSummary();
+    summary.setTable(table);
+    summary.setRefreshInterval(refreshInterval);
+    return summary;
+  }
+
+  private static DotWebStackConfiguration createConfiguration(AggregateSummary... summaries) {
+    var typeConfiguration = new PostgresTypeConfiguration();
+    var fields = new LinkedHashMap<String, PostgresFieldConfiguration>();
+
+    for (var index = 0; index < summaries.length; index++) {
+      var fieldConfiguration = new PostgresFieldConfiguration();
+      fieldConfiguration.setSummary(summaries[index]);
+      fields.put("agg" + index, fieldConfiguration);
+    }
+
+    typeConfiguration.setFields(fields);
+
+    var dotWebStackConfiguration = new DotWebStackConfiguration();
+    dotWebStackConfiguration.setObjectTypes(Map.of("Brewery", typeConfiguration));
+    return dotWebStackConfiguration;
+  }
+}
@@ -0,0 +1,113 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ChangeFeedTest {
+
+  @Test
+  void getChanges_returnsChanges_forNotifications() {
+    var connection = mock(PostgresqlConnection.class);
+    var statement = mock(PostgresqlStatement.class);
+    var result = mock(PostgresqlResult.class);
+    var notification = mock(Notification.class);
+
+    when(connection.createStatement("LISTEN \"dotwebstack_changes\"")).thenReturn(statement);
+    when(statement.execute()).thenReturn(Flux.just(result));
+    when(result.getRowsUpdated()).thenReturn(Mono.just(0));
+    when(notification.getParameter())
+        .thenReturn("{\"table\": \"dbeerpedia.beers\", \"key\": {\"identifier_beer\": 1}}");
+    when(connection.getNotifications()).thenReturn(Flux.concat(Flux.just(notification), Flux.never()));
+    when(connection.close()).thenReturn(Mono.empty());
+
+    var changeFeed = new ChangeFeed(Mono.just(connection), "dotwebstack_changes", Duration.ofSeconds(5));
+
+    var change = changeFeed.getChanges()
+        .blockFirst(Duration.ofSeconds(5));
+
+    assertThat(change, equalTo(ChangeNotification.builder()
+        .table("beers")
+        .key(Map.of("identifier_beer", 1))
+        .build()));
+    verify(connection, timeout(1000)).close();
+  }
+
+  @Test
+  void awaitListening_completes_afterListenIsAcknowledged() {
+    var connection = mock(PostgresqlConnection.class);
+    var statement = mock(PostgresqlStatement.class);
+    var result = mock(PostgresqlResult.class);
+    Sinks.One<Integer> acknowledgement = Sinks.one();
+
+    when(connection.createStatement("LISTEN \"dotwebstack_changes\"")).thenReturn(statement);
+    when(statement.execute()).thenReturn(Flux.just(result));
+    when(result.getRowsUpdated()).thenReturn(acknowledgement.asMono());
+    when(connection.getNotifications()).thenReturn(Flux.never());
+    when(connection.close()).thenReturn(Mono.empty());
+
+    var changeFeed = new ChangeFeed(Mono.just(connection), "dotwebstack_changes", Duration.ofSeconds(5));
+
+    var listening = changeFeed.awaitListening()
+        .toFuture();
+    var subscription = changeFeed.getChanges()
+        .subscribe();
+
+    assertThat(listening.isDone(), is(false));
+
+    acknowledgement.tryEmitValue(0);
+    subscription.dispose();
+
+    assertThat(listening.isDone(), is(true));
+  }
+
+  @Test
+  void parse_returnsDeletedChange_forDeleteOperation() {
+    var change =
+        ChangeFeed.parse("{\"table\": \"beers\", \"operation\": \"DELETE\", \"key\": {\"identifier_beer\": 1}}");
+
+    assertThat(change, equalTo(Optional.of(ChangeNotification.builder()
+        .table("beers")
+        .key(Map.of("identifier_beer", 1))
+        .deleted(true)
+        .build())));
+  }
+
+  @Test
+  void parse_returnsChange_forUnqualifiedTable() {
+    var change = ChangeFeed.parse("{\"table\": \"beers\", \"key\": {\"identifier_beer\": \"b0e7\", \"version\": 2}}");
+
+    assertThat(change, equalTo(Optional.of(ChangeNotification.builder()
+        .table("beers")
+        .key(Map.of("identifier_beer", "b0e7", "version", 2))
+        .build())));
+  }
+
+  @Test
+  void parse_returnsEmpty_forInvalidPayload() {
+    assertThat(ChangeFeed.parse("beers")
+        .isPresent(), is(false));
+    assertThat(ChangeFeed.parse("")
+        .isPresent(), is(false));
+    assertThat(ChangeFeed.parse("{\"table\": \"beers\"}")
+        .isPresent(), is(false));
+    assertThat(ChangeFeed.parse("{\"table\": \"beers\", \"key\": {}}")
+        .isPresent(), is(false));
+  }
+}
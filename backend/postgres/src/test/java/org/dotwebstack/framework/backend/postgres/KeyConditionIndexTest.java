@@ -0,0 +1,66 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
+import org.dotwebstack.framework.core.datafetchers.KeyCondition;
+import org.junit.jupiter.api.Test;
+
+class KeyConditionIndexTest {
+
+  @Test
+  void get_returnsKeyCondition_forSingleColumnKey() {
+    var firstKeyCondition = createKeyCondition(Map.of("identifier", "id-1"));
+    var secondKeyCondition = createKeyCondition(Map.of("identifier", "id-2"));
+
+    var keyConditionIndex =
+        KeyConditionIndex.create(Set.of(firstKeyCondition, secondKeyCondition), Map.of("identifier", "x1"));
+
+    assertThat(keyConditionIndex.get(Map.of("x1", "id-2", "x2", "Brewery 2")), is(secondKeyCondition));
+  }
+
+  @Test
+  void get_returnsKeyCondition_forCompositeKey() {
+    var firstKeyCondition = createKeyCondition(Map.of("country", "NL", "code", "1"));
+    var secondKeyCondition = createKeyCondition(Map.of("country", "BE", "code", "1"));
+
+    var keyConditionIndex =
+        KeyConditionIndex.create(Set.of(firstKeyCondition, secondKeyCondition), Map.of("country", "x1", "code", "x2"));
+
+    assertThat(keyConditionIndex.get(Map.of("x1", "BE", "x2", "1")), is(secondKeyCondition));
+    assertThat(keyConditionIndex.get(Map.of("x1", "NL", "x2", "1")), is(firstKeyCondition));
+  }
+
+  @Test
+  void get_returnsKeyCondition_forMixedNumericTypes() {
+    var firstKeyCondition = createKeyCondition(Map.of("identifier", 1));
+    var secondKeyCondition = createKeyCondition(Map.of("identifier", 2L));
+    var thirdKeyCondition = createKeyCondition(Map.of("identifier", new BigDecimal("3.0")));
+
+    var keyConditionIndex = KeyConditionIndex.create(Set.of(firstKeyCondition, secondKeyCondition, thirdKeyCondition),
+        Map.of("identifier", "x1"));
+
+    assertThat(keyConditionIndex.get(Map.of("x1", 1L)), is(firstKeyCondition));
+    assertThat(keyConditionIndex.get(Map.of("x1", new BigDecimal("2"))), is(secondKeyCondition));
+    assertThat(keyConditionIndex.get(Map.of("x1", 3)), is(thirdKeyCondition));
+  }
+
+  @Test
+  void get_throwsException_forUnknownKey() {
+    var keyConditionIndex = KeyConditionIndex.create(Set.of(createKeyCondition(Map.of("country", "NL", "code", "1"))),
+        Map.of("country", "x1", "code", "x2"));
+    Map<String, Object> row = Map.of("x1", "NL", "x2", "2");
+
+    assertThrows(IllegalStateException.class, () -> keyConditionIndex.get(row));
+  }
+
+  private KeyCondition createKeyCondition(Map<String, Object> valueMap) {
+    return ColumnKeyCondition.builder()
+        .valueMap(valueMap)
+        .build();
+  }
+}
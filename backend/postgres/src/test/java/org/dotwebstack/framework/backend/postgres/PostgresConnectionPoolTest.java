@@ -0,0 +1,98 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresConnectionPoolTest {
+
+  @Mock
+  private ConnectionFactory connectionFactory;
+
+  @Mock
+  private Connection connection;
+
+  private PostgresConnectionPool connectionPool;
+
+  @BeforeEach
+  void beforeEach() {
+    lenient().doReturn(Mono.just(connection))
+        .when(connectionFactory)
+        .create();
+    lenient().doReturn(Mono.just(true))
+        .when(connection)
+        .validate(any());
+    lenient().doReturn(Mono.empty())
+        .when(connection)
+        .close();
+
+    connectionPool = new PostgresConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+        .initialSize(1)
+        .maxSize(2)
+        .build());
+  }
+
+  @AfterEach
+  void afterEach() {
+    connectionPool.dispose();
+  }
+
+  @Test
+  void bindTo_registersPoolGauges() {
+    var registry = new SimpleMeterRegistry();
+
+    connectionPool.bindTo(registry);
+
+    assertThat(registry.get("dotwebstack.postgres.pool.max.allocated")
+        .gauge()
+        .value(), is(2.0));
+    assertThat(registry.get("dotwebstack.postgres.pool.acquired")
+        .gauge()
+        .value(), is(0.0));
+  }
+
+  @Test
+  void connectionFactoryMetrics_bindsPoolGauges_forConnectionFactoryBean() {
+    var registry = new SimpleMeterRegistry();
+    var postgresConfiguration = new PostgresConfiguration(new PostgresProperties(), List.of());
+
+    postgresConfiguration.connectionFactoryMetrics(connectionPool)
+        .bindTo(registry);
+
+    assertThat(registry.get("dotwebstack.postgres.pool.max.allocated")
+        .gauge()
+        .value(), is(2.0));
+  }
+
+  @Test
+  void create_recordsAcquireTime_whenBound() {
+    var registry = new SimpleMeterRegistry();
+    connectionPool.bindTo(registry);
+
+    connectionPool.create()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(registry.get("dotwebstack.postgres.pool.acquire")
+        .timer()
+        .count(), is(1L));
+    assertThat(registry.get("dotwebstack.postgres.pool.acquired")
+        .gauge()
+        .value(), is(1.0));
+  }
+}
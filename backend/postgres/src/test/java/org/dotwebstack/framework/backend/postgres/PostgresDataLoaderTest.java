@@ -3,13 +3,15 @@ package org.dotwebstack.framework.backend.postgres;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
-import static org.jooq.conf.ParamType.INLINED;
-import static org.jooq.conf.ParamType.NAMED;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,11 +19,23 @@ import static org.mockito.Mockito.when;
 import graphql.execution.ExecutionStepInfo;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.DataFetchingFieldSelectionSet;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
 import org.dotwebstack.framework.backend.postgres.query.ObjectSelectContext;
@@ -29,21 +43,29 @@ import org.dotwebstack.framework.backend.postgres.query.SelectQueryBuilder;
 import org.dotwebstack.framework.backend.postgres.query.SelectQueryBuilderResult;
 import org.dotwebstack.framework.core.config.AbstractTypeConfiguration;
 import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.dotwebstack.framework.core.datafetchers.GenericDataFetcher;
 import org.dotwebstack.framework.core.datafetchers.KeyCondition;
 import org.dotwebstack.framework.core.datafetchers.LoadEnvironment;
 import org.dotwebstack.framework.core.datafetchers.MappedByKeyCondition;
+import org.dotwebstack.framework.core.query.QueryStatistics;
+import org.dotwebstack.framework.core.query.QueryStatisticsProperties;
 import org.dotwebstack.framework.core.query.model.CollectionRequest;
 import org.dotwebstack.framework.core.query.model.ObjectRequest;
-import org.jooq.SelectQuery;
+import org.jooq.SQLDialect;
 import org.jooq.Table;
+import org.jooq.impl.DSL;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.r2dbc.core.FetchSpec;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.function.Tuples;
 
 @ExtendWith(MockitoExtension.class)
 class PostgresDataLoaderTest {
@@ -54,11 +76,19 @@ class PostgresDataLoaderTest {
   @Mock
   private SelectQueryBuilder selectQueryBuilder;
 
+  @Mock
+  private ChangeFeed changeFeed;
+
+  private QueryStatistics queryStatistics;
+
   private PostgresDataLoader postgresDataLoader;
 
   @BeforeEach
   void beforeAll() {
-    postgresDataLoader = new PostgresDataLoader(databaseClient, selectQueryBuilder);
+    queryStatistics = new QueryStatistics(new QueryStatisticsProperties());
+    postgresDataLoader =
+        new PostgresDataLoader(databaseClient, selectQueryBuilder, new StatementReuseMetrics(new PostgresProperties()),
+            new ResultCache(new PostgresProperties()), changeFeed, queryStatistics, new PostgresProperties());
   }
 
   @Test
@@ -130,11 +160,9 @@ class PostgresDataLoaderTest {
     var fetchSpec = mockQueryContext();
     when(fetchSpec.all()).thenReturn(Flux.just(data));
 
-    SelectQuery<?> query = mock(SelectQuery.class);
-    when(query.getSQL(INLINED)).thenReturn("");
-
     SelectQueryBuilderResult selectQueryBuilderResult = SelectQueryBuilderResult.builder()
-        .query(query)
+        .sql("")
+        .bindValues(List.of())
         .table(mock(Table.class))
         .mapAssembler(row -> row)
         .context(new ObjectSelectContext())
@@ -159,12 +187,51 @@ class PostgresDataLoaderTest {
   }
 
   @Test
-  void batchLoadSingleRequest() {
+  void batchLoadSingleRequest_returnsResultPerKey_withoutMissingKeys() {
+    var fetchSpec = mockQueryContext();
+    var missingRow = new HashMap<String, Object>();
+    missingRow.put("x1", null);
+    missingRow.put("x2", "id-2");
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Brewery 1", "x2", "id-1"), missingRow));
+
+    var context = new ObjectSelectContext();
+    context.setKeyColumnNames(Map.of("identifier", "x2"));
+
+    SelectQueryBuilderResult selectQueryBuilderResult = SelectQueryBuilderResult.builder()
+        .sql("")
+        .bindValues(List.of())
+        .table(mock(Table.class))
+        .mapAssembler(row -> row.get("x1") == null ? GenericDataFetcher.NULL_MAP : Map.of("name", row.get("x1")))
+        .context(context)
+        .build();
+
+    when(selectQueryBuilder.build(any(ObjectRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(selectQueryBuilderResult);
+
+    var keyCondition = ColumnKeyCondition.builder()
+        .valueMap(Map.of("identifier", "id-1"))
+        .build();
+    Set<KeyCondition> keyConditions = Set.of(keyCondition, ColumnKeyCondition.builder()
+        .valueMap(Map.of("identifier", "id-2"))
+        .build());
+
     ObjectRequest objectRequest = ObjectRequest.builder()
         .typeConfiguration(new PostgresTypeConfiguration())
         .build();
 
-    assertThrows(UnsupportedOperationException.class, () -> postgresDataLoader.batchLoadSingleRequest(objectRequest));
+    var result = postgresDataLoader.batchLoadSingleRequest(keyConditions, objectRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(result, equalTo(List.of(Tuples.of(keyCondition, Map.of("name", "Brewery 1")))));
+
+    var objectRequestCaptor = ArgumentCaptor.forClass(ObjectRequest.class);
+    verify(selectQueryBuilder, times(1)).build(objectRequestCaptor.capture(), any(ObjectSelectContext.class));
+    assertThat(objectRequestCaptor.getValue()
+        .getKeyCriteria()
+        .size(), is(2));
+    assertThat(objectRequest.getKeyCriteria()
+        .isEmpty(), is(true));
   }
 
   @Test
@@ -174,11 +241,9 @@ class PostgresDataLoaderTest {
     var fetchSpec = mockQueryContext();
     when(fetchSpec.all()).thenReturn(Flux.fromIterable(data));
 
-    SelectQuery<?> query = mock(SelectQuery.class);
-    when(query.getSQL(INLINED)).thenReturn("");
-
     SelectQueryBuilderResult selectQueryBuilderResult = SelectQueryBuilderResult.builder()
-        .query(query)
+        .sql("")
+        .bindValues(List.of())
         .table(mock(Table.class))
         .mapAssembler(row -> row)
         .context(new ObjectSelectContext())
@@ -205,6 +270,480 @@ class PostgresDataLoaderTest {
     verify(selectQueryBuilder, times(1)).build(any(CollectionRequest.class), any(ObjectSelectContext.class));
   }
 
+  @Test
+  void loadManyRequest_recordsStatistics_forQueryShape() {
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Beer 1"), Map.of("x1", "Beer 2")));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select \"x1\" from beer where brewery = $1")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .path("/beers")
+            .build())
+        .build();
+
+    postgresDataLoader.loadManyRequest(collectionRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    var statistics = queryStatistics.getStatistics();
+
+    assertThat(statistics.size(), is(1));
+    assertThat(statistics.get(0)
+        .getShape(), equalTo("select \"x1\" from beer where brewery = ?"));
+    assertThat(statistics.get(0)
+        .getCount(), is(1L));
+    assertThat(statistics.get(0)
+        .getRows(), is(2L));
+    assertThat(statistics.get(0)
+        .getBytes(), is(12L));
+  }
+
+  @Test
+  void loadManyRequest_bindsParameters_forFilterValues() {
+    DatabaseClient.GenericExecuteSpec genericExecuteSpec = mock(DatabaseClient.GenericExecuteSpec.class);
+    FetchSpec<Map<String, Object>> fetchSpec = mockFetchSpec();
+    when(databaseClient.sql("select * from beer where name = :1")).thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.bind(0, "Beer 1")).thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.filter(anyStatementFilter())).thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.map(anyRowReader())).thenReturn(fetchSpec);
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Beer 1")));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer where name = :1")
+            .bindValues(List.of("Beer 1"))
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .build())
+        .build();
+
+    List<Map<String, Object>> result = postgresDataLoader.loadManyRequest(collectionRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(result, equalTo(List.of(Map.of("x1", "Beer 1"))));
+    verify(genericExecuteSpec, times(1)).bind(0, "Beer 1");
+  }
+
+  @Test
+  void loadManyRequest_bindsNullAsText_forNullCursorValue() {
+    DatabaseClient.GenericExecuteSpec genericExecuteSpec = mock(DatabaseClient.GenericExecuteSpec.class);
+    FetchSpec<Map<String, Object>> fetchSpec = mockFetchSpec();
+    var sql = "select * from beer where name is not distinct from cast(:1 as varchar) and identifier > :2";
+    when(databaseClient.sql(sql)).thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.bindNull(0, String.class)).thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.bind(1, "beer-1")).thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.filter(anyStatementFilter())).thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.map(anyRowReader())).thenReturn(fetchSpec);
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Beer 2")));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql(sql)
+            .bindValues(Arrays.asList(null, "beer-1"))
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .build())
+        .build();
+
+    List<Map<String, Object>> result = postgresDataLoader.loadManyRequest(collectionRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(result, equalTo(List.of(Map.of("x1", "Beer 2"))));
+    verify(genericExecuteSpec, times(1)).bindNull(0, String.class);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void loadManyRequest_setsFetchSize_forCollections() {
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.empty());
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .build())
+        .build();
+
+    postgresDataLoader.loadManyRequest(collectionRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    ArgumentCaptor<Function<Statement, Statement>> statementFilterCaptor = ArgumentCaptor.forClass(Function.class);
+    verify(databaseClient.sql("select * from beer")).filter(statementFilterCaptor.capture());
+
+    var statement = mock(Statement.class);
+    statementFilterCaptor.getValue()
+        .apply(statement);
+    verify(statement).fetchSize(1000);
+  }
+
+  @Test
+  void loadManyRequest_executesSingleStatement_withDeadline() {
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Beer 1")));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .build())
+        .deadline(Instant.now()
+            .plusSeconds(30))
+        .build();
+
+    List<Map<String, Object>> result = postgresDataLoader.loadManyRequest(collectionRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(result, equalTo(List.of(Map.of("x1", "Beer 1"))));
+    verify(databaseClient, times(1)).sql(any(String.class));
+  }
+
+  @Test
+  void loadManyRequest_throwsTimeoutException_whenDeadlinePassesWhileReading() {
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.never());
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .build())
+        .deadline(Instant.now()
+            .plusMillis(100))
+        .build();
+
+    var result = postgresDataLoader.loadManyRequest(collectionRequest);
+
+    var exception = assertThrows(RuntimeException.class, () -> result.blockLast(Duration.ofSeconds(5)));
+    assertThat(exception.getCause(), instanceOf(TimeoutException.class));
+  }
+
+  @Test
+  void loadManyRequest_throwsException_withPassedDeadline() {
+    var subscribed = new AtomicBoolean();
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.<Map<String, Object>>empty()
+        .doOnSubscribe(subscription -> subscribed.set(true)));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .build())
+        .deadline(Instant.now()
+            .minusSeconds(1))
+        .build();
+
+    var result = postgresDataLoader.loadManyRequest(collectionRequest);
+
+    assertThrows(IllegalStateException.class, () -> result.blockLast(Duration.ofSeconds(5)));
+    assertThat(subscribed.get(), is(false));
+  }
+
+  @Test
+  void loadManyRequest_returnsCachedRows_withResultCache() {
+    var postgresProperties = new PostgresProperties();
+    postgresProperties.getResultCache()
+        .setEnabled(true);
+    postgresDataLoader =
+        new PostgresDataLoader(databaseClient, selectQueryBuilder, new StatementReuseMetrics(postgresProperties),
+            new ResultCache(postgresProperties), changeFeed, queryStatistics, postgresProperties);
+
+    var executions = new AtomicInteger();
+    var primaryReads = new AtomicInteger();
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.deferContextual(context -> {
+      executions.incrementAndGet();
+      if (context.getOrDefault(ReplicaRoutingConnectionFactory.PRIMARY_READ_KEY, false)) {
+        primaryReads.incrementAndGet();
+      }
+      return Flux.just(Map.of("x1", "Beer 1"));
+    }));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(new PostgresTypeConfiguration())
+            .build())
+        .build();
+
+    var firstResult = postgresDataLoader.loadManyRequest(collectionRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+    var secondResult = postgresDataLoader.loadManyRequest(collectionRequest)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(firstResult, equalTo(List.of(Map.of("x1", "Beer 1"))));
+    assertThat(secondResult, equalTo(firstResult));
+    assertThat(executions.get(), is(1));
+    assertThat(primaryReads.get(), is(1));
+    assertThat(queryStatistics.getStatistics()
+        .get(0)
+        .getCount(), is(1L));
+  }
+
+  @Test
+  void subscribeRequest_refetchesChangedRows_forNotifications() throws Exception {
+    Sinks.Many<ChangeNotification> changes = Sinks.many()
+        .multicast()
+        .directBestEffort();
+    when(changeFeed.getChanges()).thenReturn(changes.asFlux());
+    when(changeFeed.awaitListening()).thenReturn(Mono.empty());
+
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Beer 1")))
+        .thenReturn(Flux.just(Map.of("x1", "Beer 1 (changed)")));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setTable("dbeerpedia.beers");
+
+    CollectionRequest collectionRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(typeConfiguration)
+            .build())
+        .build();
+
+    var key = Map.<String, Object>of("identifier_beer", "b0e7cf18-e3ce-439b-a63e-034c8452f59c");
+    var beerChange = ChangeNotification.builder()
+        .table("beers")
+        .key(key)
+        .build();
+    var breweryChange = ChangeNotification.builder()
+        .table("breweries")
+        .key(Map.of("identifier_brewery", "d3654375-95fa-46b4-8529-08b0f777bd6b"))
+        .build();
+
+    var result = postgresDataLoader.subscribeRequest(collectionRequest)
+        .take(2)
+        .collectList()
+        .toFuture();
+
+    List.of(beerChange, breweryChange, beerChange)
+        .forEach(changes::tryEmitNext);
+
+    assertThat(result.get(5, TimeUnit.SECONDS),
+        equalTo(List.of(Map.of("x1", "Beer 1"), Map.of("x1", "Beer 1 (changed)"))));
+
+    var requestCaptor = ArgumentCaptor.forClass(CollectionRequest.class);
+    verify(selectQueryBuilder, times(2)).build(requestCaptor.capture(), any(ObjectSelectContext.class));
+
+    var keyCriteria = requestCaptor.getAllValues()
+        .get(1)
+        .getObjectRequest()
+        .getKeyCriteria();
+    assertThat(keyCriteria.size(), is(1));
+    assertThat(keyCriteria.get(0)
+        .getValues(), equalTo(key));
+  }
+
+  @Test
+  void subscribeRequest_readsCurrentState_afterListening() throws Exception {
+    when(changeFeed.getChanges()).thenReturn(Flux.never());
+    Sinks.One<Void> listening = Sinks.one();
+    when(changeFeed.awaitListening()).thenReturn(listening.asMono());
+
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Beer 1")));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    var result = postgresDataLoader.subscribeRequest(createSubscriptionRequest())
+        .take(1)
+        .collectList()
+        .toFuture();
+
+    verify(selectQueryBuilder, never()).build(any(CollectionRequest.class), any(ObjectSelectContext.class));
+
+    listening.tryEmitEmpty();
+
+    assertThat(result.get(5, TimeUnit.SECONDS), equalTo(List.of(Map.of("x1", "Beer 1"))));
+  }
+
+  @Test
+  void subscribeRequest_readsCurrentStateAgain_forDeleteNotification() throws Exception {
+    Sinks.Many<ChangeNotification> changes = Sinks.many()
+        .multicast()
+        .directBestEffort();
+    when(changeFeed.getChanges()).thenReturn(changes.asFlux());
+    when(changeFeed.awaitListening()).thenReturn(Mono.empty());
+
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.just(Map.of("x1", "Beer 1"), Map.of("x1", "Beer 2")))
+        .thenReturn(Flux.just(Map.of("x1", "Beer 2")));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    var result = postgresDataLoader.subscribeRequest(createSubscriptionRequest())
+        .take(3)
+        .collectList()
+        .toFuture();
+
+    changes.tryEmitNext(ChangeNotification.builder()
+        .table("beers")
+        .key(Map.of("identifier_beer", "b0e7cf18-e3ce-439b-a63e-034c8452f59c"))
+        .deleted(true)
+        .build());
+
+    assertThat(result.get(5, TimeUnit.SECONDS),
+        equalTo(List.of(Map.of("x1", "Beer 1"), Map.of("x1", "Beer 2"), Map.of("x1", "Beer 2"))));
+
+    var requestCaptor = ArgumentCaptor.forClass(CollectionRequest.class);
+    verify(selectQueryBuilder, times(2)).build(requestCaptor.capture(), any(ObjectSelectContext.class));
+
+    assertThat(requestCaptor.getAllValues()
+        .get(1)
+        .getObjectRequest()
+        .getKeyCriteria()
+        .isEmpty(), is(true));
+  }
+
+  @Test
+  void subscribeRequest_readsFromPrimaryWithoutResultCache_forCachedRows() throws Exception {
+    var postgresProperties = new PostgresProperties();
+    postgresProperties.getResultCache()
+        .setEnabled(true);
+    postgresDataLoader =
+        new PostgresDataLoader(databaseClient, selectQueryBuilder, new StatementReuseMetrics(postgresProperties),
+            new ResultCache(postgresProperties), changeFeed, queryStatistics, postgresProperties);
+
+    when(changeFeed.getChanges()).thenReturn(Flux.never());
+    when(changeFeed.awaitListening()).thenReturn(Mono.empty());
+
+    var executions = new AtomicInteger();
+    var primaryReads = new AtomicInteger();
+    var fetchSpec = mockQueryContext();
+    when(fetchSpec.all()).thenReturn(Flux.deferContextual(context -> {
+      executions.incrementAndGet();
+      if (context.getOrDefault(ReplicaRoutingConnectionFactory.PRIMARY_READ_KEY, false)) {
+        primaryReads.incrementAndGet();
+      }
+      return Flux.just(Map.of("x1", "Beer 1"));
+    }));
+
+    when(selectQueryBuilder.build(any(CollectionRequest.class), any(ObjectSelectContext.class)))
+        .thenReturn(SelectQueryBuilderResult.builder()
+            .sql("select * from beer")
+            .bindValues(List.of())
+            .table(mock(Table.class))
+            .mapAssembler(row -> row)
+            .context(new ObjectSelectContext())
+            .build());
+
+    var collectionRequest = createSubscriptionRequest();
+
+    postgresDataLoader.loadManyRequest(collectionRequest)
+        .blockLast(Duration.ofSeconds(5));
+
+    var result = postgresDataLoader.subscribeRequest(collectionRequest)
+        .take(1)
+        .collectList()
+        .toFuture();
+
+    assertThat(result.get(5, TimeUnit.SECONDS), equalTo(List.of(Map.of("x1", "Beer 1"))));
+    assertThat(executions.get(), is(2));
+    assertThat(primaryReads.get(), is(2));
+  }
+
+  private CollectionRequest createSubscriptionRequest() {
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setTable("dbeerpedia.beers");
+
+    return CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(typeConfiguration)
+            .build())
+        .build();
+  }
+
   @Test
   void batchLoadManyRequest() {
     List<Map<String, Object>> data =
@@ -212,10 +751,6 @@ class PostgresDataLoaderTest {
     var fetchSpec = mockQueryContext();
     when(fetchSpec.all()).thenReturn(Flux.fromIterable(data));
 
-    SelectQuery<?> query = mock(SelectQuery.class);
-    when(query.getSQL(NAMED)).thenReturn("");
-    when(query.getParams()).thenReturn(Map.of());
-
     Set<KeyCondition> keyConditions = Set.of(ColumnKeyCondition.builder()
         .valueMap(Map.of("identifier", "id-1"))
         .build(),
@@ -224,7 +759,8 @@ class PostgresDataLoaderTest {
             .build());
 
     SelectQueryBuilderResult selectQueryBuilderResult = SelectQueryBuilderResult.builder()
-        .query(query)
+        .sql("")
+        .bindValues(List.of())
         .table(mock(Table.class))
         .mapAssembler(row -> row)
         .context(new ObjectSelectContext())
@@ -254,6 +790,52 @@ class PostgresDataLoaderTest {
     verify(selectQueryBuilder, times(1)).build(any(CollectionRequest.class), any(ObjectSelectContext.class));
   }
 
+  @Test
+  void countRequest_returnsCount_forFilteredQuery() {
+    var dslContext = DSL.using(SQLDialect.POSTGRES);
+    when(selectQueryBuilder.buildCountQuery(any(CollectionRequest.class))).thenReturn(dslContext.selectCount()
+        .from(dslContext.select(DSL.field(DSL.name("t1", "identifier")))
+            .from(DSL.table(DSL.name("brewery"))
+                .as("t1"))
+            .where(DSL.field(DSL.name("t1", "name"), String.class)
+                .like("100%"))
+            .asTable("x")));
+
+    var executeSpec = mock(DatabaseClient.GenericExecuteSpec.class);
+    var fetchSpec = mockCountQuery(executeSpec, "select count(*) from (select \"t1\".\"identifier\" from \"brewery\" "
+        + "as \"t1\" where \"t1\".\"name\" like :1) as \"x\"");
+    when(fetchSpec.one()).thenReturn(Mono.just(42L));
+
+    var count = postgresDataLoader.countRequest(createCountRequest(), false)
+        .block(Duration.ofSeconds(5));
+
+    assertThat(count, is(42L));
+    verify(executeSpec).bind(0, "100%");
+  }
+
+  @Test
+  void countRequest_returnsPlanRows_forEstimateOfUnanalyzedTable() {
+    var dslContext = DSL.using(SQLDialect.POSTGRES);
+    when(selectQueryBuilder.buildExplainQuery(any(CollectionRequest.class)))
+        .thenReturn(dslContext.resultQuery("explain (format json) {0}", dslContext.selectOne()
+            .from(DSL.table(DSL.name("brewery"))
+                .as("t1"))));
+
+    // the table has never been analyzed, so its row estimate is unknown
+    var tableRowsSpec = mockCountQuery(mock(DatabaseClient.GenericExecuteSpec.class),
+        "select reltuples::bigint from pg_class where oid = to_regclass(:1)");
+    when(tableRowsSpec.one()).thenReturn(Mono.just(-1L));
+
+    var explainSpec = mockCountQuery(mock(DatabaseClient.GenericExecuteSpec.class),
+        "explain (format json) select 1 as \"one\" from \"brewery\" as \"t1\"");
+    when(explainSpec.one()).thenReturn(Mono.just("[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Plan Rows\": 1200}}]"));
+
+    var count = postgresDataLoader.countRequest(createCountRequest(), true)
+        .block(Duration.ofSeconds(5));
+
+    assertThat(count, is(1200L));
+  }
+
   @Test
   void useRequestApproach_returnsTrue_default() {
     assertThat(postgresDataLoader.useRequestApproach(), is(true));
@@ -265,17 +847,57 @@ class PostgresDataLoaderTest {
 
     var fetchSpec = mock(FetchSpec.class);
 
-    when(genericExecuteSpec.fetch()).thenReturn(fetchSpec);
+    when(genericExecuteSpec.map(anyRowReader())).thenReturn(fetchSpec);
+    lenient().when(genericExecuteSpec.filter(anyStatementFilter()))
+        .thenReturn(genericExecuteSpec);
 
     when(databaseClient.sql(any(String.class))).thenReturn(genericExecuteSpec);
 
     return fetchSpec;
   }
 
+  @SuppressWarnings("unchecked")
+  private FetchSpec<Object> mockCountQuery(DatabaseClient.GenericExecuteSpec genericExecuteSpec, String sql) {
+    var fetchSpec = mock(FetchSpec.class);
+
+    lenient().when(genericExecuteSpec.bind(anyInt(), any()))
+        .thenReturn(genericExecuteSpec);
+    when(genericExecuteSpec.map(any(Function.class))).thenReturn(fetchSpec);
+    when(databaseClient.sql(sql)).thenReturn(genericExecuteSpec);
+
+    return fetchSpec;
+  }
+
+  private static CollectionRequest createCountRequest() {
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setTable("brewery");
+
+    return CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(typeConfiguration)
+            .build())
+        .build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private FetchSpec<Map<String, Object>> mockFetchSpec() {
+    return mock(FetchSpec.class);
+  }
+
   private LoadEnvironment mockLoadEnvironment() {
     return LoadEnvironment.builder()
         .executionStepInfo(mock(ExecutionStepInfo.class))
         .selectionSet(mock(DataFetchingFieldSelectionSet.class))
         .build();
   }
+
+  @SuppressWarnings("unchecked")
+  private Function<Statement, Statement> anyStatementFilter() {
+    return any(Function.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private BiFunction<Row, RowMetadata, Map<String, Object>> anyRowReader() {
+    return any(BiFunction.class);
+  }
 }
@@ -0,0 +1,157 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingConnectionFactoryTest {
+
+  private final ReplicaEndpoint primary = new ReplicaEndpoint("primary", mockConnectionFactory());
+
+  private final ReplicaEndpoint firstReplica = new ReplicaEndpoint("replica-1", mockConnectionFactory());
+
+  private final ReplicaEndpoint secondReplica = new ReplicaEndpoint("replica-2", mockConnectionFactory());
+
+  private final ReplicaRoutingConnectionFactory connectionFactory =
+      new ReplicaRoutingConnectionFactory(primary, List.of(firstReplica, secondReplica));
+
+  @Test
+  void create_routesToReplica_withLeastOutstandingRequests() {
+    var connection = connectionFactory.create()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(firstReplica.getOutstandingCount(), is(1));
+    assertThat(connectionFactory.selectEndpoint(), is(secondReplica));
+
+    Mono.from(connection.close())
+        .block(Duration.ofSeconds(5));
+
+    assertThat(firstReplica.getOutstandingCount(), is(0));
+    assertThat(connectionFactory.selectEndpoint(), is(firstReplica));
+  }
+
+  @Test
+  void create_routesToPrimary_whenNoReplicaIsAvailable() {
+    firstReplica.setAvailable(false);
+    secondReplica.setAvailable(false);
+
+    connectionFactory.create()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(primary.getOutstandingCount(), is(1));
+  }
+
+  @Test
+  void create_routesToPrimary_forPrimaryReads() {
+    ReplicaRoutingConnectionFactory.onPrimary(Flux.from(connectionFactory.create()))
+        .blockLast(Duration.ofSeconds(5));
+
+    assertThat(primary.getOutstandingCount(), is(1));
+    assertThat(firstReplica.getOutstandingCount(), is(0));
+    assertThat(secondReplica.getOutstandingCount(), is(0));
+  }
+
+  @Test
+  void checkLag_ejectsReplica_whenLagExceedsMaxLag() {
+    mockReplicationLag(firstReplica, 30.0);
+
+    var available = connectionFactory.checkLag(firstReplica, Duration.ofSeconds(10), Duration.ofSeconds(5))
+        .block(Duration.ofSeconds(5));
+
+    assertThat(available, is(false));
+    assertThat(connectionFactory.selectEndpoint(), is(secondReplica));
+  }
+
+  @Test
+  void checkLag_restoresReplica_whenLagIsWithinMaxLag() {
+    mockReplicationLag(firstReplica, 2.0);
+    firstReplica.setAvailable(false);
+
+    var available = connectionFactory.checkLag(firstReplica, Duration.ofSeconds(10), Duration.ofSeconds(5))
+        .block(Duration.ofSeconds(5));
+
+    assertThat(available, is(true));
+    assertThat(firstReplica.isAvailable(), is(true));
+  }
+
+  @Test
+  void checkLag_ejectsReplica_whenUnreachable() {
+    when(firstReplica.getProbeConnectionFactory()
+        .create()).thenAnswer(invocation -> Mono.error(new IllegalStateException("Connection refused")));
+
+    var available = connectionFactory.checkLag(firstReplica, Duration.ofSeconds(10), Duration.ofSeconds(5))
+        .block(Duration.ofSeconds(5));
+
+    assertThat(available, is(false));
+    assertThat(firstReplica.isAvailable(), is(false));
+  }
+
+  @Test
+  void checkLag_usesProbeConnection_whenPoolIsExhausted() {
+    var pool = mock(ConnectionFactory.class);
+    lenient().when(pool.create())
+        .thenAnswer(invocation -> Mono.never());
+    var replica = new ReplicaEndpoint("replica-3", pool, mock(ConnectionFactory.class));
+    mockReplicationLag(replica, 2.0);
+
+    var available = connectionFactory.checkLag(replica, Duration.ofSeconds(10), Duration.ofMillis(100))
+        .block(Duration.ofSeconds(5));
+
+    assertThat(available, is(true));
+    assertThat(replica.isAvailable(), is(true));
+  }
+
+  @Test
+  void checkLag_keepsAvailability_whenConnectingTimesOut() {
+    when(firstReplica.getProbeConnectionFactory()
+        .create()).thenAnswer(invocation -> Mono.never());
+
+    var available = connectionFactory.checkLag(firstReplica, Duration.ofSeconds(10), Duration.ofMillis(100))
+        .block(Duration.ofSeconds(5));
+
+    assertThat(available, is(true));
+    assertThat(firstReplica.isAvailable(), is(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mockReplicationLag(ReplicaEndpoint replica, double lagSeconds) {
+    var connection = mock(Connection.class);
+    var statement = mock(Statement.class);
+    var result = mock(Result.class);
+
+    when(replica.getProbeConnectionFactory()
+        .create()).thenAnswer(invocation -> Mono.just(connection));
+    when(connection.createStatement(ReplicaRoutingConnectionFactory.REPLICATION_LAG_QUERY)).thenReturn(statement);
+    when(statement.execute()).thenAnswer(invocation -> Flux.just(result));
+    when(result.map(any())).thenReturn(Flux.just(lagSeconds));
+    when(connection.close()).thenReturn(Mono.empty());
+  }
+
+  private static ConnectionFactory mockConnectionFactory() {
+    var connectionFactory = mock(ConnectionFactory.class);
+    var connection = mock(Connection.class);
+
+    lenient().when(connection.close())
+        .thenReturn(Mono.empty());
+    lenient().when(connectionFactory.create())
+        .thenAnswer(invocation -> Mono.just(connection));
+
+    return connectionFactory;
+  }
+}
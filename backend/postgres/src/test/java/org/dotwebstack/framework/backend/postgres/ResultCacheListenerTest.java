@@ -0,0 +1,42 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.postgresql.api.PostgresqlStatement;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ResultCacheListenerTest {
+
+  @Test
+  void start_invalidatesCache_forNotifications() {
+    var connection = mock(PostgresqlConnection.class);
+    var statement = mock(PostgresqlStatement.class);
+    var result = mock(PostgresqlResult.class);
+    var notification = mock(Notification.class);
+    var resultCache = mock(ResultCache.class);
+
+    when(connection.createStatement("LISTEN \"dotwebstack_invalidation\"")).thenReturn(statement);
+    when(statement.execute()).thenReturn(Flux.just(result));
+    when(result.getRowsUpdated()).thenReturn(Mono.just(0));
+    when(notification.getParameter()).thenReturn("dbeerpedia.beer");
+    when(connection.getNotifications()).thenReturn(Flux.just(notification));
+    when(connection.close()).thenReturn(Mono.empty());
+
+    try (var listener = new ResultCacheListener(Mono.just(connection), resultCache, "dotwebstack_invalidation",
+        Duration.ofSeconds(5))) {
+      listener.start();
+
+      verify(resultCache, timeout(1000)).invalidateAll();
+      verify(resultCache, timeout(1000)).invalidate("dbeerpedia.beer");
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class ResultCacheTest {
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  @Test
+  void get_returnsCachedRows_forSameSqlAndBindValues() {
+    var resultCache = createResultCache(10, 10);
+
+    assertThat(load(resultCache, "select 1", "a"), is(List.of(Map.of("x1", "a"))));
+    assertThat(load(resultCache, "select 1", "a"), is(List.of(Map.of("x1", "a"))));
+    assertThat(load(resultCache, "select 1", "b"), is(List.of(Map.of("x1", "b"))));
+
+    assertThat(executions.get(), is(2));
+    assertThat(resultCache.getHits(), is(1L));
+    assertThat(resultCache.getMisses(), is(2L));
+  }
+
+  @Test
+  void get_returnsRowsWithoutCaching_whenDisabled() {
+    var resultCache = new ResultCache(new PostgresProperties());
+
+    load(resultCache, "select 1", "a");
+    load(resultCache, "select 1", "a");
+
+    assertThat(resultCache.isEnabled(), is(false));
+    assertThat(executions.get(), is(2));
+  }
+
+  @Test
+  void get_doesNotCacheRows_exceedingMaxRows() {
+    var resultCache = createResultCache(10, 1);
+
+    resultCache.get("select 1", List.of(), Set.of("beer"), null, Flux.just(Map.of("x1", "a"), Map.of("x1", "b")))
+        .blockLast();
+
+    assertThat(resultCache.size(), is(0));
+  }
+
+  @Test
+  void get_expiresRows_afterTtl() {
+    var resultCache = createResultCache(10, 10);
+
+    resultCache.get("select 1", List.of("a"), Set.of("beer"), Duration.ZERO, Flux.just(Map.of("x1", "a")))
+        .blockLast();
+    load(resultCache, "select 1", "a");
+
+    assertThat(executions.get(), is(1));
+    assertThat(resultCache.getMisses(), is(2L));
+    assertThat(resultCache.getEvictions(), is(1L));
+  }
+
+  @Test
+  void invalidate_removesRows_forTable() {
+    var resultCache = createResultCache(10, 10);
+    load(resultCache, "select 1", "a");
+    resultCache.get("select 2", List.of(), Set.of("brewery"), null, Flux.just(Map.of("x1", "b")))
+        .blockLast();
+
+    resultCache.invalidate("dbeerpedia.beer");
+
+    assertThat(resultCache.size(), is(1));
+    load(resultCache, "select 1", "a");
+    assertThat(executions.get(), is(2));
+  }
+
+  @Test
+  void invalidate_removesAllRows_forEmptyPayload() {
+    var resultCache = createResultCache(10, 10);
+    load(resultCache, "select 1", "a");
+
+    resultCache.invalidate("");
+
+    assertThat(resultCache.size(), is(0));
+  }
+
+  @Test
+  void get_doesNotCacheRows_invalidatedWhileReading() {
+    var resultCache = createResultCache(10, 10);
+
+    resultCache.get("select 1", List.of(), Set.of("beer"), null, Flux.just(Map.<String, Object>of("x1", "a"))
+        .doOnNext(row -> resultCache.invalidate("beer")))
+        .blockLast();
+
+    assertThat(resultCache.size(), is(0));
+  }
+
+  @Test
+  void bindTo_registersMetrics() {
+    var resultCache = createResultCache(1, 10);
+    var registry = new SimpleMeterRegistry();
+    resultCache.bindTo(registry);
+
+    load(resultCache, "select 1", "a");
+    load(resultCache, "select 2", "b");
+
+    assertThat(registry.get(ResultCache.METRIC_PREFIX.concat("misses"))
+        .functionCounter()
+        .count(), is(2.0));
+    assertThat(registry.get(ResultCache.METRIC_PREFIX.concat("evictions"))
+        .tag("cause", "size")
+        .functionCounter()
+        .count(), is(1.0));
+    assertThat(registry.get(ResultCache.METRIC_PREFIX.concat("size"))
+        .gauge()
+        .value(), is(1.0));
+  }
+
+  private List<Map<String, Object>> load(ResultCache resultCache, String sql, String value) {
+    return resultCache.get(sql, List.of(value), Set.of("beer"), null, Flux.defer(() -> {
+      executions.incrementAndGet();
+      return Flux.just(Map.<String, Object>of("x1", value));
+    }))
+        .collectList()
+        .block();
+  }
+
+  private ResultCache createResultCache(int maxSize, int maxRows) {
+    var postgresProperties = new PostgresProperties();
+    postgresProperties.getResultCache()
+        .setEnabled(true);
+    postgresProperties.getResultCache()
+        .setMaxSize(maxSize);
+    postgresProperties.getResultCache()
+        .setMaxRows(maxRows);
+    return new ResultCache(postgresProperties);
+  }
+}
@@ -0,0 +1,53 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class StatementReuseMetricsTest {
+
+  @Test
+  void record_countsReusedAndDistinct_perSqlShape() {
+    var metrics = new StatementReuseMetrics(new PostgresProperties());
+
+    metrics.record("select * from beer where name = $1");
+    metrics.record("select * from beer where name = $1");
+    metrics.record("select * from brewery where name = $1");
+
+    assertThat(metrics.getReused(), is(1L));
+    assertThat(metrics.getDistinct(), is(2L));
+  }
+
+  @Test
+  void record_countsDistinct_forEvictedSqlShape() {
+    var postgresProperties = new PostgresProperties();
+    postgresProperties.setPreparedStatementCacheSize(1);
+    var metrics = new StatementReuseMetrics(postgresProperties);
+
+    metrics.record("select * from beer");
+    metrics.record("select * from brewery");
+    metrics.record("select * from beer");
+
+    assertThat(metrics.getReused(), is(0L));
+    assertThat(metrics.getDistinct(), is(3L));
+  }
+
+  @Test
+  void bindTo_registersCounters() {
+    var metrics = new StatementReuseMetrics(new PostgresProperties());
+    var registry = new SimpleMeterRegistry();
+    metrics.bindTo(registry);
+
+    metrics.record("select * from beer");
+    metrics.record("select * from beer");
+
+    assertThat(registry.get("dotwebstack.postgres.statements.reused")
+        .functionCounter()
+        .count(), is(1.0));
+    assertThat(registry.get("dotwebstack.postgres.statements.distinct")
+        .functionCounter()
+        .count(), is(1.0));
+  }
+}
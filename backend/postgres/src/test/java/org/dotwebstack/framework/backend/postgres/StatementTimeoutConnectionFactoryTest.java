@@ -0,0 +1,109 @@
+package org.dotwebstack.framework.backend.postgres;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class StatementTimeoutConnectionFactoryTest {
+
+  @Mock
+  private ConnectionFactory connectionFactory;
+
+  @Mock
+  private Connection connection;
+
+  private final AtomicInteger cancels = new AtomicInteger();
+
+  private StatementTimeoutConnectionFactory statementTimeoutConnectionFactory;
+
+  @BeforeEach
+  void beforeEach() {
+    when(connectionFactory.create()).thenAnswer(invocation -> Mono.just(connection));
+    when(connection.close()).thenReturn(Mono.empty());
+
+    statementTimeoutConnectionFactory =
+        new StatementTimeoutConnectionFactory(connectionFactory, cancelledConnection -> {
+          cancels.incrementAndGet();
+          return Mono.empty();
+        });
+  }
+
+  @Test
+  void create_returnsConnection_withoutDeadline() {
+    Flux.usingWhen(statementTimeoutConnectionFactory.create(), c -> Flux.just(1), Connection::close)
+        .blockLast(Duration.ofSeconds(5));
+
+    verify(connection, never()).createStatement(anyString());
+    verify(connection).close();
+  }
+
+  @Test
+  void create_setsAndResetsStatementTimeout_withDeadline() {
+    var setStatement = mockStatement();
+    var resetStatement = mockStatement();
+    when(connection.createStatement(startsWith("SET statement_timeout = "))).thenReturn(setStatement);
+    when(connection.createStatement(StatementTimeoutConnectionFactory.RESET_STATEMENT_TIMEOUT_SQL))
+        .thenReturn(resetStatement);
+
+    var rows = Flux.usingWhen(statementTimeoutConnectionFactory.create(), c -> Flux.just(1), Connection::close);
+
+    StatementTimeoutConnectionFactory.withDeadline(rows, Instant.now()
+        .plusSeconds(10))
+        .blockLast(Duration.ofSeconds(5));
+
+    verify(connection).createStatement(startsWith("SET statement_timeout = "));
+    verify(connection).createStatement(StatementTimeoutConnectionFactory.RESET_STATEMENT_TIMEOUT_SQL);
+    verify(connection).close();
+    assertThat(cancels.get(), is(0));
+  }
+
+  @Test
+  void create_cancelsRunningStatement_whenRowsTimeOut() {
+    var setStatement = mockStatement();
+    when(connection.createStatement(startsWith("SET statement_timeout = "))).thenReturn(setStatement);
+
+    var rows = Flux.usingWhen(statementTimeoutConnectionFactory.create(), c -> Flux.never(), Connection::close);
+
+    var result = StatementTimeoutConnectionFactory.withDeadline(rows, Instant.now()
+        .plusSeconds(10))
+        .timeout(Duration.ofMillis(50))
+        .onErrorResume(TimeoutException.class, error -> Flux.empty());
+
+    result.blockLast(Duration.ofSeconds(5));
+
+    assertThat(cancels.get(), is(1));
+    verify(connection, never()).createStatement(StatementTimeoutConnectionFactory.RESET_STATEMENT_TIMEOUT_SQL);
+  }
+
+  private static Statement mockStatement() {
+    var statement = mock(Statement.class);
+    var result = mock(Result.class);
+
+    when(statement.execute()).thenAnswer(invocation -> Flux.just(result));
+    when(result.getRowsUpdated()).thenReturn(Mono.just(0));
+
+    return statement;
+  }
+}
@@ -0,0 +1,129 @@
+package org.dotwebstack.framework.backend.postgres.advisor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.dotwebstack.framework.backend.postgres.config.JoinColumn;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.config.AbstractTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.dotwebstack.framework.core.config.FilterConfiguration;
+import org.dotwebstack.framework.core.config.KeyConfiguration;
+import org.dotwebstack.framework.core.query.model.SortCriteria;
+import org.dotwebstack.framework.core.query.model.SortDirection;
+import org.dotwebstack.framework.core.query.model.filter.FieldPath;
+import org.junit.jupiter.api.Test;
+
+class IndexAdvisorTest {
+
+  @Test
+  void createShapes_returnsShapes_forKeysFiltersSortableByAndRelations() {
+    var beerTypeConfiguration = createTypeConfiguration("Beer", "dbeerpedia.beers", "identifier", "name");
+
+    var breweryFieldConfiguration = new PostgresFieldConfiguration();
+    breweryFieldConfiguration.setName("brewery");
+    breweryFieldConfiguration.setJoinColumns(List.of(createJoinColumn("brewery", "identifier")));
+    beerTypeConfiguration.getFields()
+        .put("brewery", breweryFieldConfiguration);
+
+    var nameFilter = new FilterConfiguration();
+    beerTypeConfiguration.setFilters(Map.of("name", nameFilter));
+    beerTypeConfiguration.setSortCriterias(Map.of("name", List.of(SortCriteria.builder()
+        .fieldPath(FieldPath.builder()
+            .fieldConfiguration(beerTypeConfiguration.getFields()
+                .get("name"))
+            .build())
+        .direction(SortDirection.ASC)
+        .build())));
+
+    var beersFieldConfiguration = new PostgresFieldConfiguration();
+    beersFieldConfiguration.setName("beers");
+    beersFieldConfiguration.setMappedBy("brewery");
+    beersFieldConfiguration.setTypeConfiguration(beerTypeConfiguration);
+
+    var breweryTypeConfiguration = createTypeConfiguration("Brewery", "dbeerpedia.breweries", "identifier");
+    breweryTypeConfiguration.getFields()
+        .put("beers", beersFieldConfiguration);
+
+    var objectTypes = new LinkedHashMap<String, AbstractTypeConfiguration<?>>();
+    objectTypes.put("Beer", beerTypeConfiguration);
+    objectTypes.put("Brewery", breweryTypeConfiguration);
+
+    var dotWebStackConfiguration = new DotWebStackConfiguration();
+    dotWebStackConfiguration.setObjectTypes(objectTypes);
+
+    var indexAdvisor =
+        new IndexAdvisor(dotWebStackConfiguration, null, null, null, new PostgresProperties.IndexAdvisorProperties());
+
+    var shapes = indexAdvisor.createShapes()
+        .stream()
+        .map(shape -> String.join(" ", shape.getTypeName(), shape.getUsage()
+            .name(), shape.getName(),
+            shape.getTypeConfiguration()
+                .getTable(),
+            shape.getColumns()
+                .toString()))
+        .collect(Collectors.toList());
+
+    assertThat(shapes,
+        containsInAnyOrder("Beer KEY identifier dbeerpedia.beers [identifier_column]",
+            "Beer FILTER name dbeerpedia.beers [name_column]", "Beer SORT name dbeerpedia.beers [name_column]",
+            "Brewery KEY identifier dbeerpedia.breweries [identifier_column]",
+            "Brewery JOIN beers dbeerpedia.beers [brewery]"));
+  }
+
+  @Test
+  void getSequentialScans_returnsTables_forNestedPlan() {
+    var plan = "[{\"Plan\": {\"Node Type\": \"Limit\", \"Plans\": [{\"Node Type\": \"Sort\", \"Plans\": "
+        + "[{\"Node Type\": \"Seq Scan\", \"Relation Name\": \"beers\"}, "
+        + "{\"Node Type\": \"Index Scan\", \"Relation Name\": \"breweries\"}]}]}}]";
+
+    assertThat(IndexAdvisor.getSequentialScans(plan), contains("beers"));
+  }
+
+  @Test
+  void getSequentialScans_returnsEmptySet_forIndexScan() {
+    var plan = "[{\"Plan\": {\"Node Type\": \"Index Scan\", \"Relation Name\": \"beers\"}}]";
+
+    assertThat(IndexAdvisor.getSequentialScans(plan), is(empty()));
+  }
+
+  private static PostgresTypeConfiguration createTypeConfiguration(String name, String table, String keyField,
+      String... fieldNames) {
+    var fields = new LinkedHashMap<String, PostgresFieldConfiguration>();
+
+    Stream.concat(Stream.of(keyField), Stream.of(fieldNames))
+        .forEach(fieldName -> {
+          var fieldConfiguration = new PostgresFieldConfiguration();
+          fieldConfiguration.setColumn(fieldName + "_column");
+          fields.put(fieldName, fieldConfiguration);
+        });
+
+    var keyConfiguration = new KeyConfiguration();
+    keyConfiguration.setField(keyField);
+
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setName(name);
+    typeConfiguration.setTable(table);
+    typeConfiguration.setKeys(List.of(keyConfiguration));
+    typeConfiguration.setFields(fields);
+    return typeConfiguration;
+  }
+
+  private static JoinColumn createJoinColumn(String name, String referencedField) {
+    var joinColumn = new JoinColumn();
+    joinColumn.setName(name);
+    joinColumn.setReferencedField(referencedField);
+    return joinColumn;
+  }
+}
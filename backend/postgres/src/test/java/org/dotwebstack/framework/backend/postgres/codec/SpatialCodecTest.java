@@ -1,5 +1,6 @@
 package org.dotwebstack.framework.backend.postgres.codec;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -11,6 +12,7 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.r2dbc.postgresql.message.Format;
 import java.util.Set;
+import org.dotwebstack.framework.ext.spatial.LazyGeometry;
 import org.junit.jupiter.api.Test;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
@@ -46,7 +48,7 @@ class SpatialCodecTest {
     String hex = new JtsBinaryWriter().writeHexed(point);
     ByteBuf byteBuf = Unpooled.wrappedBuffer(hex.getBytes());
 
-    Geometry decodedValue = codec.decode(byteBuf, id, Format.FORMAT_TEXT, Geometry.class);
+    Object decodedValue = codec.decode(byteBuf, id, Format.FORMAT_TEXT, Geometry.class);
 
     assertThat(decodedValue, is(notNullValue()));
     assertThat(decodedValue.toString(), is(equalTo("POINT (5.97927433 52.21715768)")));
@@ -58,15 +60,44 @@ class SpatialCodecTest {
     byte[] bytes = new JtsBinaryWriter().writeBinary(point);
     ByteBuf byteBuf = Unpooled.wrappedBuffer(bytes);
 
-    Geometry decodedValue = codec.decode(byteBuf, id, Format.FORMAT_BINARY, Geometry.class);
+    Object decodedValue = codec.decode(byteBuf, id, Format.FORMAT_BINARY, Geometry.class);
 
     assertThat(decodedValue, is(notNullValue()));
     assertThat(decodedValue.toString(), is(equalTo("POINT (5.97927433 52.21715768)")));
   }
 
+  @Test
+  void decode_returnsLazyGeometry_forBinaryFormat() {
+    Point point = (new GeometryFactory()).createPoint(new Coordinate(5.97927433, 52.21715768));
+    byte[] bytes = new JtsBinaryWriter().writeBinary(point);
+    ByteBuf byteBuf = Unpooled.wrappedBuffer(bytes);
+
+    Object decodedValue = codec.decode(byteBuf, id, Format.FORMAT_BINARY, Object.class);
+    byteBuf.release();
+
+    assertThat(decodedValue, instanceOf(LazyGeometry.class));
+    LazyGeometry lazyGeometry = (LazyGeometry) decodedValue;
+    assertThat(lazyGeometry.getGeometryType(), is("POINT"));
+    assertThat(lazyGeometry.getGeometry()
+        .toString(), is(equalTo("POINT (5.97927433 52.21715768)")));
+  }
+
+  @Test
+  void decode_returnsLazyGeometry_forTextFormat() {
+    Point point = (new GeometryFactory()).createPoint(new Coordinate(5.97927433, 52.21715768));
+    String hex = new JtsBinaryWriter().writeHexed(point);
+    ByteBuf byteBuf = Unpooled.wrappedBuffer(hex.getBytes());
+
+    Object decodedValue = codec.decode(byteBuf, id, Format.FORMAT_TEXT, Object.class);
+
+    assertThat(decodedValue, instanceOf(LazyGeometry.class));
+    assertThat(((LazyGeometry) decodedValue).getGeometry()
+        .toString(), is(equalTo("POINT (5.97927433 52.21715768)")));
+  }
+
   @Test
   void decode_returnsNull_forNull() {
-    Geometry decodedValue = codec.decode(null, id, Format.FORMAT_TEXT, Geometry.class);
+    Object decodedValue = codec.decode(null, id, Format.FORMAT_TEXT, Geometry.class);
 
     assertThat(decodedValue, is(nullValue()));
   }
@@ -98,9 +129,9 @@ class SpatialCodecTest {
   }
 
   @Test
-  void type_returnsGeometry_always() {
+  void type_returnsLazyGeometry_always() {
     Class<?> type = codec.type();
 
-    assertThat(type, is(Geometry.class));
+    assertThat(type, is(LazyGeometry.class));
   }
 }
@@ -5,12 +5,12 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
+import org.dotwebstack.framework.backend.postgres.ColumnKeyCondition;
 import org.dotwebstack.framework.core.InvalidConfigurationException;
 import org.dotwebstack.framework.core.config.AbstractTypeConfiguration;
 import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
@@ -28,6 +28,8 @@ class PostgresTypeConfigurationTest {
 
   private static final String FIELD_PART_OF = "partOf";
 
+  private static final String FIELD_BREWERY = "brewery";
+
   private static final String BEER_TYPE_NAME = "Beer";
 
   @Mock
@@ -96,6 +98,59 @@ class PostgresTypeConfigurationTest {
         is("The field 'referencedField' or 'referencedColumn' must have a value in field 'partOf'."));
   }
 
+  @Test
+  void init_shouldThrowException_whenJoinFetchIsConfiguredForListField() {
+    JoinColumn joinColumn = createJoinColumnWithReferencedField("beer_identifier", "identifier_beer");
+    JoinColumn inversedJoinColumn = createJoinColumnWithReferencedColumn("ingredient_code", "code");
+
+    PostgresTypeConfiguration typeConfiguration = createTypeConfiguration(joinColumn, inversedJoinColumn);
+    PostgresFieldConfiguration fieldConfiguration = typeConfiguration.getFields()
+        .get(FIELD_PART_OF);
+    fieldConfiguration.setList(true);
+    fieldConfiguration.setFetch(FetchStrategy.JOIN);
+
+    InvalidConfigurationException thrown =
+        assertThrows(InvalidConfigurationException.class, () -> typeConfiguration.init(dotWebStackConfiguration));
+
+    assertThat(thrown.getMessage(), is("Fetch strategy 'join' is not supported for list field 'partOf', use 'json'."));
+  }
+
+  @Test
+  void getKeyCondition_returnsColumnKeyCondition_forBatchedObjectField() {
+    PostgresTypeConfiguration typeConfiguration = createJoinColumnTypeConfiguration();
+
+    var keyCondition = (ColumnKeyCondition) typeConfiguration.getKeyCondition(FIELD_BREWERY,
+        Map.of(FIELD_IDENTIFIER, "id-1", "brewery.brewery_identifier", "brewery-1"));
+
+    assertThat(keyCondition.getValueMap(), is(Map.of("identifier_column", "brewery-1")));
+  }
+
+  @Test
+  void getKeyCondition_throwsException_forJoinedObjectField() {
+    PostgresTypeConfiguration typeConfiguration = createJoinColumnTypeConfiguration();
+    Map<String, Object> source = Map.of(FIELD_IDENTIFIER, "id-1");
+
+    assertThrows(UnsupportedOperationException.class, () -> typeConfiguration.getKeyCondition(FIELD_BREWERY, source));
+  }
+
+  private PostgresTypeConfiguration createJoinColumnTypeConfiguration() {
+    PostgresFieldConfiguration identifierFieldConfiguration = new PostgresFieldConfiguration();
+    identifierFieldConfiguration.setColumn("identifier_column");
+
+    PostgresTypeConfiguration breweryTypeConfiguration = new PostgresTypeConfiguration();
+    breweryTypeConfiguration.setFields(new HashMap<>(Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration)));
+
+    PostgresFieldConfiguration breweryFieldConfiguration = new PostgresFieldConfiguration();
+    breweryFieldConfiguration
+        .setJoinColumns(List.of(createJoinColumnWithReferencedField("brewery_identifier", FIELD_IDENTIFIER)));
+    breweryFieldConfiguration.setTypeConfiguration(breweryTypeConfiguration);
+
+    PostgresTypeConfiguration typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setFields(new HashMap<>(Map.of(FIELD_BREWERY, breweryFieldConfiguration)));
+
+    return typeConfiguration;
+  }
+
   private JoinColumn createJoinColumnWithReferencedField(String name, String fieldName) {
     JoinColumn joinColumn = new JoinColumn();
     joinColumn.setName(name);
@@ -177,7 +232,8 @@ class PostgresTypeConfigurationTest {
   }
 
   private void dotWebStackConfigurationMock() {
-    when(dotWebStackConfiguration.getObjectTypes()).thenReturn(objectTypesMock);
+    lenient().when(dotWebStackConfiguration.getObjectTypes())
+        .thenReturn(objectTypesMock);
     lenient().when(objectTypesMock.get(null))
         .thenReturn(null);
   }
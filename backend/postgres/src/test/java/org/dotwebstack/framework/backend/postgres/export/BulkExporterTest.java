@@ -0,0 +1,144 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.config.AbstractTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+@ExtendWith(MockitoExtension.class)
+class BulkExporterTest {
+
+  @Mock
+  private CopyClient copyClient;
+
+  private BulkExporter bulkExporter;
+
+  @BeforeEach
+  void beforeEach() {
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setTable("db.brewery");
+
+    var fields = new LinkedHashMap<String, PostgresFieldConfiguration>();
+    fields.put("identifier", createFieldConfiguration("identifier_column", "ID", false));
+    fields.put("name", createFieldConfiguration("name_column", "String", false));
+    fields.put("founded", createFieldConfiguration("founded_column", "Int", true));
+    fields.put("geometry", createFieldConfiguration("geometry_column", "Geometry", false));
+    fields.put("beers", new PostgresFieldConfiguration());
+    fields.get("beers")
+        .setMappedBy("brewery");
+    typeConfiguration.setFields(fields);
+
+    var dotWebStackConfiguration = new DotWebStackConfiguration();
+    dotWebStackConfiguration.setObjectTypes(Map.<String, AbstractTypeConfiguration<?>>of("Brewery", typeConfiguration));
+
+    bulkExporter = new BulkExporter(dotWebStackConfiguration, DSL.using(SQLDialect.POSTGRES), copyClient);
+  }
+
+  @Test
+  void supports_returnsFalse_forUnknownType() {
+    assertThat(bulkExporter.supports("Brewery"), is(true));
+    assertThat(bulkExporter.supports("Beer"), is(false));
+  }
+
+  @Test
+  void export_returnsCsvLines_forCopyOutput() throws IOException {
+    var output = createOutput();
+
+    when(copyClient.copyOut(anyString()))
+        .thenReturn(Flux.just(Arrays.copyOfRange(output, 0, 30), Arrays.copyOfRange(output, 30, output.length)));
+
+    var lines = bulkExporter.export("Brewery", ExportFormat.CSV)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(lines,
+        contains("identifier,name,founded,geometry\r\n", "b1,\"Brewery, X\",1900,POINT(1 2)\r\n", "b2,,,\r\n"));
+  }
+
+  @Test
+  void export_returnsJsonLines_forCopyOutput() throws IOException {
+    when(copyClient.copyOut(
+        "COPY (select cast(\"identifier_column\" as text), cast(\"name_column\" as text), cast(\"founded_column\" "
+            + "as text), ST_AsText(\"geometry_column\") from \"db\".\"brewery\") TO STDOUT (FORMAT binary)"))
+                .thenReturn(Flux.just(createOutput()));
+
+    var lines = bulkExporter.export("Brewery", ExportFormat.NDJSON)
+        .collectList()
+        .block(Duration.ofSeconds(5));
+
+    assertThat(lines,
+        contains("{\"identifier\":\"b1\",\"name\":\"Brewery, X\",\"founded\":1900,\"geometry\":\"POINT(1 2)\"}\n",
+            "{\"identifier\":\"b2\",\"name\":null,\"founded\":null,\"geometry\":null}\n"));
+  }
+
+  @Test
+  void createLine_escapesValues_forCsv() {
+    var columns = Arrays.asList(ExportColumn.builder()
+        .name("name")
+        .build());
+
+    assertThat(ExportFormat.CSV.createLine(columns, Arrays.asList("Brewery \"X\"\nY")),
+        equalTo("\"Brewery \"\"X\"\"\nY\"\r\n"));
+  }
+
+  private static PostgresFieldConfiguration createFieldConfiguration(String column, String type, boolean numeric) {
+    var fieldConfiguration = new PostgresFieldConfiguration();
+    fieldConfiguration.setColumn(column);
+    fieldConfiguration.setType(type);
+    fieldConfiguration.setNumeric(numeric);
+    return fieldConfiguration;
+  }
+
+  private static byte[] createOutput() throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var output = new DataOutputStream(bytes);
+
+    output.write(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+    output.writeInt(0);
+    output.writeInt(0);
+
+    writeRow(output, "b1", "Brewery, X", "1900", "POINT(1 2)");
+    writeRow(output, "b2", null, null, null);
+
+    output.writeShort(-1);
+
+    return bytes.toByteArray();
+  }
+
+  private static void writeRow(DataOutputStream output, String... values) throws IOException {
+    output.writeShort(values.length);
+
+    for (var value : values) {
+      if (value == null) {
+        output.writeInt(-1);
+      } else {
+        var valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(valueBytes.length);
+        output.write(valueBytes);
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package org.dotwebstack.framework.backend.postgres.export;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CopyOutDecoderTest {
+
+  @Test
+  void decode_returnsRows_forCompleteOutput() throws IOException {
+    var decoder = new CopyOutDecoder();
+
+    var rows = decoder.decode(createOutput(Arrays.asList("1", "Brewery X"), Arrays.asList("2", null)));
+
+    assertThat(rows, contains(Arrays.asList("1", "Brewery X"), Arrays.asList("2", null)));
+    assertThat(decoder.isFinished(), is(true));
+  }
+
+  @Test
+  void decode_returnsRows_forOutputSplitAtEveryByte() throws IOException {
+    var decoder = new CopyOutDecoder();
+    var output = createOutput(Arrays.asList("1", "Brouwerij 't IJ"), Arrays.asList("2", "Brewery \"Y\""));
+    var rows = new ArrayList<List<String>>();
+
+    for (var value : output) {
+      rows.addAll(decoder.decode(new byte[] {value}));
+    }
+
+    assertThat(rows, contains(Arrays.asList("1", "Brouwerij 't IJ"), Arrays.asList("2", "Brewery \"Y\"")));
+    assertThat(decoder.isFinished(), is(true));
+  }
+
+  @Test
+  void decode_returnsNoRows_forIncompleteHeader() {
+    var decoder = new CopyOutDecoder();
+
+    assertThat(decoder.decode("PGCOPY".getBytes(StandardCharsets.US_ASCII)), empty());
+    assertThat(decoder.isFinished(), is(false));
+  }
+
+  @Test
+  void decode_throwsException_forTextOutput() {
+    var decoder = new CopyOutDecoder();
+    var output = "1\tBrewery X\n2\tBrewery Y\n".getBytes(StandardCharsets.UTF_8);
+
+    assertThrows(IllegalStateException.class, () -> decoder.decode(output));
+  }
+
+  private static byte[] createOutput(List<?>... rows) throws IOException {
+    var bytes = new ByteArrayOutputStream();
+    var output = new DataOutputStream(bytes);
+
+    output.write(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0});
+    output.writeInt(0);
+    output.writeInt(0);
+
+    for (var row : rows) {
+      output.writeShort(row.size());
+
+      for (var value : row) {
+        if (value == null) {
+          output.writeInt(-1);
+        } else {
+          var valueBytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+          output.writeInt(valueBytes.length);
+          output.write(valueBytes);
+        }
+      }
+    }
+
+    output.writeShort(-1);
+
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,55 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import org.jooq.Param;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.Test;
+
+class ArrayConditionHelperTest {
+
+  @Test
+  void createArrayParam_bindsTypedArray_forTypeWithArrayCodec() {
+    var objectSelectContext = new ObjectSelectContext();
+
+    var arrayParam = ArrayConditionHelper.createArrayParam(SQLDataType.BIGINT, List.of(1, "2"), objectSelectContext,
+        requestValues -> List.of(3));
+
+    assertThat(DSL.using(SQLDialect.POSTGRES)
+        .renderNamedParams(arrayParam), equalTo(":1::bigint[]"));
+    assertThat(((Param<?>) arrayParam).getValue(), equalTo(new Long[] {1L, 2L}));
+    assertThat(objectSelectContext.getObjectQueryContext()
+        .getValueExtractor((Param<?>) arrayParam)
+        .apply(RequestValues.builder()
+            .build()),
+        equalTo(new Long[] {3L}));
+  }
+
+  @Test
+  void createArrayParam_bindsTypedArray_forUuidValues() {
+    var identifier = UUID.fromString("b0e7cf18-e3ce-439b-a63e-034c8452f59c");
+
+    var arrayParam = ArrayConditionHelper.createArrayParam(SQLDataType.UUID, List.of(identifier.toString()),
+        new ObjectSelectContext(), requestValues -> List.of());
+
+    assertThat(((Param<?>) arrayParam).getValue(), equalTo(new UUID[] {identifier}));
+  }
+
+  @Test
+  void createArrayParam_bindsCastTextArray_forTypeWithoutArrayCodec() {
+    var arrayParam = ArrayConditionHelper.createArrayParam(SQLDataType.NUMERIC, List.of(new BigDecimal("5.10"), 6),
+        new ObjectSelectContext(), requestValues -> List.of());
+
+    assertThat(DSL.using(SQLDialect.POSTGRES)
+        .renderNamedParams(arrayParam), equalTo("cast(:1::varchar[] as numeric[])"));
+    assertThat(DSL.using(SQLDialect.POSTGRES)
+        .extractBindValues(arrayParam)
+        .get(0), equalTo(new String[] {"5.10", "6"}));
+  }
+}
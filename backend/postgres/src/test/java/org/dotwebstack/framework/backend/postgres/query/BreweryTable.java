@@ -11,13 +11,14 @@ public class BreweryTable extends CustomTable<BreweryRecord> {
 
   private static final long serialVersionUID = 5517434277601288891L;
 
-  public final TableField<BreweryRecord, String> identifier = createField(DSL.name("identifierColumn"), VARCHAR);
+  public final TableField<BreweryRecord, String> identifier =
+      createField(DSL.name("identifierColumn"), VARCHAR.nullable(false));
 
   public final TableField<BreweryRecord, String> name = createField(DSL.name("nameColumn"), VARCHAR);
 
   public final TableField<BreweryRecord, String> postalAddress = createField(DSL.name("postal_address"), VARCHAR);
 
-  public final TableField<BreweryRecord, Integer> age = createField(DSL.name("ageColumn"), INTEGER);
+  public final TableField<BreweryRecord, Integer> age = createField(DSL.name("ageColumn"), INTEGER.nullable(false));
 
 
 
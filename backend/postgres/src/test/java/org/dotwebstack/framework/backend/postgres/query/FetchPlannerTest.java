@@ -0,0 +1,150 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import java.util.List;
+import java.util.Set;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.dotwebstack.framework.backend.postgres.config.FetchStrategy;
+import org.dotwebstack.framework.backend.postgres.config.JoinColumn;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.query.model.ObjectFieldConfiguration;
+import org.dotwebstack.framework.core.query.model.ObjectRequest;
+import org.dotwebstack.framework.core.query.model.Origin;
+import org.dotwebstack.framework.core.query.model.ScalarField;
+import org.dotwebstack.framework.core.query.model.filter.EqualsFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.FieldPath;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.Test;
+
+class FetchPlannerTest {
+
+  @Test
+  void plan_joinsObjectFields_withinLateralJoinBudget() {
+    var first = createObjectField("brewery", FetchStrategy.AUTO);
+    var second = createObjectField("owner", FetchStrategy.AUTO);
+
+    var fetchPlan = createFetchPlanner(1).plan(createObjectRequest(first, second), List.of(), List.of());
+
+    assertThat(fetchPlan.isBatched(first), is(false));
+    assertThat(fetchPlan.isBatched(second), is(true));
+  }
+
+  @Test
+  void plan_batchesObjectField_forBatchStrategy() {
+    var objectField = createObjectField("brewery", FetchStrategy.BATCH);
+
+    var fetchPlan = createFetchPlanner(16).plan(createObjectRequest(objectField), List.of(), List.of());
+
+    assertThat(fetchPlan.isBatched(objectField), is(true));
+  }
+
+  @Test
+  void plan_joinsObjectField_forNestedFilter() {
+    var objectField = createObjectField("brewery", FetchStrategy.BATCH);
+
+    var filterCriteria = EqualsFilterCriteria.builder()
+        .fieldPath(FieldPath.builder()
+            .fieldConfiguration((PostgresFieldConfiguration) objectField.getField())
+            .child(FieldPath.builder()
+                .fieldConfiguration((PostgresFieldConfiguration) createScalarField("name").getField())
+                .build())
+            .build())
+        .value("Brewery X")
+        .build();
+
+    var fetchPlan = createFetchPlanner(16).plan(createObjectRequest(objectField), List.of(filterCriteria), List.of());
+
+    assertThat(fetchPlan.isBatched(objectField), is(false));
+  }
+
+  @Test
+  void plan_inlinesCollectionFields_forJsonStrategyOnly() {
+    var inlined = createCollectionField("beers", FetchStrategy.JSON);
+    var batched = createCollectionField("ingredients", FetchStrategy.AUTO);
+
+    var objectRequest = ObjectRequest.builder()
+        .typeConfiguration(createTypeConfiguration("brewery"))
+        .collectionObjectFields(List.of(inlined, batched))
+        .build();
+
+    // without table statistics the size of a list is unknown
+    var fetchPlan = createFetchPlanner(16).plan(objectRequest, List.of(), List.of());
+
+    assertThat(fetchPlan.getInlinedFields(objectRequest), contains(inlined));
+  }
+
+  private static FetchPlanner createFetchPlanner(int maxLateralJoins) {
+    var postgresProperties = new PostgresProperties();
+    postgresProperties.getFetch()
+        .setMaxLateralJoins(maxLateralJoins);
+
+    return new FetchPlanner(DSL.using(SQLDialect.POSTGRES), postgresProperties);
+  }
+
+  private static ObjectRequest createObjectRequest(ObjectFieldConfiguration... objectFields) {
+    return ObjectRequest.builder()
+        .typeConfiguration(createTypeConfiguration("beer"))
+        .objectFields(List.of(objectFields))
+        .build();
+  }
+
+  private static ObjectFieldConfiguration createObjectField(String name, FetchStrategy fetchStrategy) {
+    var joinColumn = new JoinColumn();
+    joinColumn.setName(name.concat("_identifier"));
+    joinColumn.setReferencedField("identifier");
+
+    var fieldConfiguration = new PostgresFieldConfiguration();
+    fieldConfiguration.setName(name);
+    fieldConfiguration.setJoinColumns(List.of(joinColumn));
+    fieldConfiguration.setFetch(fetchStrategy);
+    fieldConfiguration.setTypeConfiguration(createTypeConfiguration(name));
+
+    return ObjectFieldConfiguration.builder()
+        .field(fieldConfiguration)
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(fieldConfiguration.getTypeConfiguration())
+            .scalarFields(List.of(createScalarField("name")))
+            .build())
+        .build();
+  }
+
+  private static ObjectFieldConfiguration createCollectionField(String name, FetchStrategy fetchStrategy) {
+    var fieldConfiguration = new PostgresFieldConfiguration();
+    fieldConfiguration.setName(name);
+    fieldConfiguration.setList(true);
+    fieldConfiguration.setMappedBy("brewery");
+    fieldConfiguration.setFetch(fetchStrategy);
+    fieldConfiguration.setTypeConfiguration(createTypeConfiguration(name));
+
+    return ObjectFieldConfiguration.builder()
+        .field(fieldConfiguration)
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(fieldConfiguration.getTypeConfiguration())
+            .scalarFields(List.of(createScalarField("name")))
+            .build())
+        .build();
+  }
+
+  private static PostgresTypeConfiguration createTypeConfiguration(String table) {
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setTable(table);
+    return typeConfiguration;
+  }
+
+  private static ScalarField createScalarField(String name) {
+    var fieldConfiguration = new PostgresFieldConfiguration();
+    fieldConfiguration.setName(name);
+    fieldConfiguration.setColumn(name);
+    fieldConfiguration.setType("String");
+
+    return ScalarField.builder()
+        .field(fieldConfiguration)
+        .origins(Set.of(Origin.REQUESTED))
+        .build();
+  }
+}
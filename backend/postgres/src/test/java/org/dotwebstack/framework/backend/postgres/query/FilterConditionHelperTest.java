@@ -1,16 +1,24 @@
 package org.dotwebstack.framework.backend.postgres.query;
 
 import static org.dotwebstack.framework.backend.postgres.query.FilterConditionHelper.createFilterConditions;
+import static org.dotwebstack.framework.backend.postgres.query.FilterConditionHelper.createRankSortFields;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.core.config.TextSearchConfiguration;
 import org.dotwebstack.framework.core.query.model.filter.AndFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.EqualsFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.FieldPath;
@@ -20,11 +28,14 @@ import org.dotwebstack.framework.core.query.model.filter.GreaterThenFilterCriter
 import org.dotwebstack.framework.core.query.model.filter.InFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenEqualsFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.MatchFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.NotFilterCriteria;
 import org.dotwebstack.framework.ext.spatial.GeometryFilterCriteria;
 import org.dotwebstack.framework.ext.spatial.GeometryFilterOperator;
 import org.jooq.Condition;
+import org.jooq.SQLDialect;
 import org.jooq.Table;
+import org.jooq.impl.DSL;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -56,6 +67,8 @@ class FilterConditionHelperTest {
         .thenReturn("t1");
     lenient().when(objectSelectContext.getTableAlias(anyString()))
         .thenReturn("t1");
+    lenient().when(objectSelectContext.newParam(any(), any()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
     lenient().when(fieldConfiguration.getColumn())
         .thenReturn("test_column");
 
@@ -94,25 +107,41 @@ class FilterConditionHelperTest {
 
   @ParameterizedTest
   @CsvSource(delimiterString = ";",
-      value = {"CONTAINS;[(ST_Contains(\"t1\".\"test_column\", ST_GeomFromText('POINT (1 1)')))]",
-          "WITHIN;[(ST_Within(ST_GeomFromText('POINT (1 1)'), \"t1\".\"test_column\"))]",
-          "INTERSECTS;[(ST_Intersects(\"t1\".\"test_column\", ST_GeomFromText('POINT (1 1)')))]"})
+      value = {"CONTAINS;ST_Contains(\"t1\".\"test_column\", ST_GeomFromText('POINT (1 1)'))",
+          "WITHIN;ST_Within(ST_GeomFromText('POINT (1 1)'), \"t1\".\"test_column\")",
+          "INTERSECTS;ST_Intersects(\"t1\".\"test_column\", ST_GeomFromText('POINT (1 1)'))"})
   void createFilterConditions_returnConditions_forGeometryCriteria(String filterOperator, String expected)
       throws ParseException {
-    var wkt = "POINT (1 1)";
+    when(fieldConfiguration.getSrid()).thenReturn(null);
 
-    var wktReader = new WKTReader();
-
-    var filterCriteria = GeometryFilterCriteria.builder()
-        .fieldPath(fieldPath)
-        .filterOperator(GeometryFilterOperator.valueOf(filterOperator))
-        .geometry(wktReader.read(wkt))
-        .build();
+    var filterCriteria = createGeometryFilterCriteria(filterOperator, "POINT (1 1)");
 
     List<Condition> result = createFilterConditions(List.of(filterCriteria), objectSelectContext, fromTable);
 
     assertThat(result, notNullValue());
-    assertThat(result.toString(), equalTo(expected));
+    assertThat(result.toString(),
+        equalTo("[(\n  (\"t1\".\"test_column\" && ST_GeomFromText('POINT (1 1)'))\n  and (" + expected + ")\n)]"));
+  }
+
+  @Test
+  void createFilterConditions_returnConditions_forGeometryCriteriaWithSrid() throws ParseException {
+    when(fieldConfiguration.getSrid()).thenReturn(28992);
+
+    var filterCriteria = createGeometryFilterCriteria("INTERSECTS", "POINT (155000 463000)");
+
+    List<Condition> result = createFilterConditions(List.of(filterCriteria), objectSelectContext, fromTable);
+
+    assertThat(result.toString(),
+        equalTo("[(\n  (\"t1\".\"test_column\" && ST_GeomFromText('POINT (155000 463000)', 28992))\n"
+            + "  and (ST_Intersects(\"t1\".\"test_column\", ST_GeomFromText('POINT (155000 463000)', 28992)))\n)]"));
+  }
+
+  private GeometryFilterCriteria createGeometryFilterCriteria(String filterOperator, String wkt) throws ParseException {
+    return GeometryFilterCriteria.builder()
+        .fieldPath(fieldPath)
+        .filterOperator(GeometryFilterOperator.valueOf(filterOperator))
+        .geometry(new WKTReader().read(wkt))
+        .build();
   }
 
   @Test
@@ -145,7 +174,77 @@ class FilterConditionHelperTest {
     List<Condition> result = createFilterConditions(List.of(filterCriteria), objectSelectContext, fromTable);
 
     assertThat(result, notNullValue());
-    assertThat(result.toString(), equalTo("[\"t1\".\"test_column\" in (\n  'testValue1', 'testValue2'\n)]"));
+    assertThat(result.toString(), equalTo("[(\"t1\".\"test_column\" = any(array['testValue1', 'testValue2']))]"));
+  }
+
+  @Test
+  void createFilterConditions_registersValueExtractors_forInCriteria() {
+    var filterCriteria = InFilterCriteria.builder()
+        .fieldPath(fieldPath)
+        .values(List.of("testValue1", "testValue2"))
+        .build();
+    var selectContext = new ObjectSelectContext();
+
+    var condition = createFilterConditions(List.of(filterCriteria), selectContext, fromTable).get(0);
+
+    var requestValues = RequestValues.builder()
+        .filterCriterias(List.of(InFilterCriteria.builder()
+            .fieldPath(fieldPath)
+            .values(List.of("otherValue1", "otherValue2"))
+            .build()))
+        .build();
+
+    var reboundValues = DSL.using(SQLDialect.POSTGRES)
+        .extractParams(condition)
+        .values()
+        .stream()
+        .map(param -> selectContext.getObjectQueryContext()
+            .getValueExtractor(param)
+            .apply(requestValues))
+        .collect(Collectors.toList());
+
+    assertThat(reboundValues, contains((Object) new String[] {"otherValue1", "otherValue2"}));
+  }
+
+  @Test
+  void createFilterConditions_returnsUnnestCondition_forLargeInCriteria() {
+    var values = IntStream.rangeClosed(0, ArrayConditionHelper.UNNEST_THRESHOLD)
+        .boxed()
+        .collect(Collectors.<Object>toList());
+    var filterCriteria = InFilterCriteria.builder()
+        .fieldPath(fieldPath)
+        .values(values)
+        .build();
+
+    var result = createFilterConditions(List.of(filterCriteria), objectSelectContext, fromTable);
+
+    assertThat(result.get(0)
+        .toString(), startsWith("(\"t1\".\"test_column\" in (select unnest(array[0, 1, "));
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiterString = ";", value = {";to_tsvector(cast('english' as regconfig), \"t1\".\"test_column\")",
+      "search_vector;\"t1\".\"search_vector\""})
+  void createFilterConditions_returnConditions_forMatchCriteria(String column, String expectedDocument) {
+    var filterCriteria = createMatchFilterCriteria(column, false);
+
+    List<Condition> result = createFilterConditions(List.of(filterCriteria), objectSelectContext, fromTable);
+
+    assertThat(result.toString(),
+        equalTo("[(" + expectedDocument + " @@ websearch_to_tsquery(cast('english' as regconfig), 'pale ale'))]"));
+  }
+
+  @Test
+  void createRankSortFields_returnsSortFields_forRankedMatchCriteria() {
+    var filterCriterias = List.<FilterCriteria>of(createMatchFilterCriteria(null, false), EqualsFilterCriteria.builder()
+        .fieldPath(fieldPath)
+        .value("testValue")
+        .build(), createMatchFilterCriteria("search_vector", true));
+
+    var result = createRankSortFields(filterCriterias, objectSelectContext, fromTable);
+
+    assertThat(result.toString(), equalTo(
+        "[ts_rank(\"t1\".\"search_vector\", websearch_to_tsquery(cast('english' as regconfig), 'pale ale')) desc]"));
   }
 
   @Test
@@ -220,4 +319,16 @@ class FilterConditionHelperTest {
 
   }
 
+  private MatchFilterCriteria createMatchFilterCriteria(String column, boolean rank) {
+    var textSearch = new TextSearchConfiguration();
+    textSearch.setConfig("english");
+    textSearch.setColumn(column);
+    textSearch.setRank(rank);
+
+    return MatchFilterCriteria.builder()
+        .fieldPath(fieldPath)
+        .value("pale ale")
+        .textSearch(textSearch)
+        .build();
+  }
 }
@@ -0,0 +1,58 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.junit.jupiter.api.Test;
+
+class JsonCollectionHelperTest {
+
+  @Test
+  void decode_returnsColumnTypes_forJsonValues() {
+    var query = DSL.using(SQLDialect.POSTGRES)
+        .selectQuery();
+    query.addSelect(DSL.field(DSL.name("t1", "identifier"), SQLDataType.UUID)
+        .as("x1"));
+    query.addSelect(DSL.field(DSL.name("t1", "sold"), SQLDataType.BIGINT)
+        .as("x2"));
+    query.addSelect(DSL.field(DSL.name("t1", "abv"), SQLDataType.NUMERIC)
+        .as("x3"));
+    query.addSelect(DSL.field(DSL.name("t1", "brewed"), SQLDataType.DATE)
+        .as("x4"));
+    query.addSelect(DSL.field(DSL.name("t1", "updated"), SQLDataType.OFFSETDATETIME)
+        .as("x5"));
+    query.addSelect(DSL.field(DSL.name("t1", "name"), SQLDataType.VARCHAR)
+        .as("x6"));
+
+    var rows = JsonCollectionHelper.decode(
+        "[{\"x1\": \"b0e7cf18-e3ce-439b-a63e-034c8452f59c\", \"x2\": 5, "
+            + "\"x3\": 5.10, \"x4\": \"2020-01-02\", \"x5\": \"2021-03-01T10:00:00+01:00\", \"x6\": \"Beer 1\"}, "
+            + "{\"x1\": null, \"x2\": null, \"x3\": 6, \"x4\": null, \"x5\": null, \"x6\": null}]",
+        JsonCollectionHelper.getColumnTypes(query));
+
+    assertThat(rows.get(0),
+        equalTo(Map.of("x1", UUID.fromString("b0e7cf18-e3ce-439b-a63e-034c8452f59c"), "x2", 5L, "x3",
+            new BigDecimal("5.10"), "x4", LocalDate.of(2020, 1, 2), "x5",
+            OffsetDateTime.parse("2021-03-01T10:00:00+01:00"), "x6", "Beer 1")));
+    assertThat(rows.get(1)
+        .get("x1"), is(nullValue()));
+    assertThat(rows.get(1)
+        .get("x3"), equalTo(new BigDecimal("6")));
+  }
+
+  @Test
+  void decode_returnsEmptyList_forNull() {
+    assertThat(JsonCollectionHelper.decode(null, Map.of()), equalTo(List.of()));
+  }
+}
@@ -0,0 +1,72 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.junit.jupiter.api.Test;
+
+class QueryTemplateCacheTest {
+
+  @Test
+  void get_returnsTemplate_afterPut() {
+    var queryTemplateCache = createQueryTemplateCache(2);
+    var queryTemplate = mock(QueryTemplate.class);
+
+    queryTemplateCache.put("a", queryTemplate);
+
+    assertThat(queryTemplateCache.get("a")
+        .orElseThrow(), is(queryTemplate));
+    assertThat(queryTemplateCache.get("b")
+        .isPresent(), is(false));
+    assertThat(queryTemplateCache.getHits(), is(1L));
+    assertThat(queryTemplateCache.getMisses(), is(1L));
+  }
+
+  @Test
+  void put_evictsLeastRecentlyUsedTemplate_whenFull() {
+    var queryTemplateCache = createQueryTemplateCache(2);
+
+    queryTemplateCache.put("a", mock(QueryTemplate.class));
+    queryTemplateCache.put("b", mock(QueryTemplate.class));
+    queryTemplateCache.get("a");
+    queryTemplateCache.put("c", mock(QueryTemplate.class));
+
+    assertThat(queryTemplateCache.size(), is(2));
+    assertThat(queryTemplateCache.get("a")
+        .isPresent(), is(true));
+    assertThat(queryTemplateCache.get("b")
+        .isPresent(), is(false));
+  }
+
+  @Test
+  void isEnabled_returnsFalse_forZeroSize() {
+    assertThat(createQueryTemplateCache(0).isEnabled(), is(false));
+  }
+
+  @Test
+  void bindTo_registersHitRatio() {
+    var queryTemplateCache = createQueryTemplateCache(2);
+    var registry = new SimpleMeterRegistry();
+    queryTemplateCache.bindTo(registry);
+
+    queryTemplateCache.put("a", mock(QueryTemplate.class));
+    queryTemplateCache.get("a");
+    queryTemplateCache.get("b");
+
+    assertThat(registry.get(QueryTemplateCache.METRIC_PREFIX.concat("hit.ratio"))
+        .gauge()
+        .value(), is(0.5));
+    assertThat(registry.get(QueryTemplateCache.METRIC_PREFIX.concat("hits"))
+        .functionCounter()
+        .count(), is(1.0));
+  }
+
+  private QueryTemplateCache createQueryTemplateCache(int size) {
+    var postgresProperties = new PostgresProperties();
+    postgresProperties.setQueryTemplateCacheSize(size);
+    return new QueryTemplateCache(postgresProperties);
+  }
+}
@@ -0,0 +1,60 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class RowReaderTest {
+
+  @Test
+  void read_returnsRowsByColumnName_withLayoutResolvedOnce() {
+    var rowMetadata = mock(RowMetadata.class);
+    when(rowMetadata.getColumnNames()).thenReturn(List.of("x1", "x2"));
+
+    var rowReader = new RowReader();
+    var firstRow = rowReader.read(mockRow("foo", 1), rowMetadata);
+    var secondRow = rowReader.read(mockRow("bar", null), rowMetadata);
+
+    verify(rowMetadata, times(1)).getColumnNames();
+    assertThat(firstRow, is(Map.of("x1", "foo", "x2", 1)));
+    assertThat(secondRow.get("x1"), is("bar"));
+    assertThat(secondRow.get("x2"), is(nullValue()));
+    assertThat(secondRow.containsKey("x2"), is(true));
+    assertThat(secondRow.containsKey("x3"), is(false));
+  }
+
+  @Test
+  void createMapAssembler_returnsMapEqualToAssembledFields() {
+    Map<String, Object> row = Map.of("x1", "foo");
+
+    var mapAssembler =
+        QueryHelper.createMapAssembler(Map.of("name", fields -> fields.get("x1")), new AtomicReference<>(), false);
+
+    assertThat(mapAssembler.apply(row), is(Map.of("name", "foo")));
+    assertThat(mapAssembler.apply(row)
+        .hashCode(),
+        is(Map.of("name", "foo")
+            .hashCode()));
+  }
+
+  private Row mockRow(Object... values) {
+    var row = mock(Row.class);
+
+    for (var index = 0; index < values.length; index++) {
+      when(row.get(index)).thenReturn(values[index]);
+    }
+
+    return row;
+  }
+}
@@ -1,19 +1,35 @@
 package org.dotwebstack.framework.backend.postgres.query;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.dotwebstack.framework.backend.postgres.PostgresProperties;
+import org.dotwebstack.framework.backend.postgres.config.AggregateSummary;
+import org.dotwebstack.framework.backend.postgres.config.FetchStrategy;
 import org.dotwebstack.framework.backend.postgres.config.JoinColumn;
 import org.dotwebstack.framework.backend.postgres.config.JoinTable;
 import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
 import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
 import org.dotwebstack.framework.core.config.AbstractFieldConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
 import org.dotwebstack.framework.core.config.KeyConfiguration;
+import org.dotwebstack.framework.core.config.TextSearchConfiguration;
 import org.dotwebstack.framework.core.config.TypeConfiguration;
 import org.dotwebstack.framework.core.query.model.AggregateFieldConfiguration;
 import org.dotwebstack.framework.core.query.model.AggregateFunctionType;
@@ -31,12 +47,18 @@ import org.dotwebstack.framework.core.query.model.SortCriteria;
 import org.dotwebstack.framework.core.query.model.SortDirection;
 import org.dotwebstack.framework.core.query.model.filter.EqualsFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.FieldPath;
+import org.dotwebstack.framework.core.query.model.filter.InFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.MatchFilterCriteria;
 import org.jooq.DSLContext;
 import org.jooq.Meta;
 import org.jooq.MetaProvider;
 import org.jooq.SQLDialect;
+import org.jooq.conf.ParamType;
+import org.jooq.impl.DSL;
 import org.jooq.impl.DefaultConfiguration;
 import org.jooq.impl.DefaultDSLContext;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -59,7 +81,9 @@ class SelectQueryBuilderTest {
   @BeforeEach
   void beforeAll() {
     dslContext = createDslContext();
-    selectQueryBuilder = new SelectQueryBuilder(dslContext, new AggregateFieldFactory());
+    selectQueryBuilder = new SelectQueryBuilder(dslContext, new AggregateFieldFactory(),
+        new TableCatalog(dslContext, new DotWebStackConfiguration()), new QueryTemplateCache(new PostgresProperties()),
+        new FetchPlanner(dslContext, new PostgresProperties()));
   }
 
   @Test
@@ -91,6 +115,10 @@ class SelectQueryBuilderTest {
         .toString(),
         equalTo("select\n" + "  \"t1\".\"nameColumn\" as \"x1\",\n" + "  \"t1\".\"identifierColumn\" as \"x2\"\n"
             + "from \"breweryTable\" as \"t1\""));
+
+    assertThat(result.getContext()
+        .getObjectQueryContext()
+        .getTableNames(), equalTo(Set.of("breweryTable")));
   }
 
   @Test
@@ -117,6 +145,37 @@ class SelectQueryBuilderTest {
             + "offset 1"));
   }
 
+  @Test
+  void buildCollectionRequest_returnsQuery_forSimplifiedGeometryField() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var scalarField = createGeometryScalarField("name", Map.of("simplify", 10.0, "precision", 0.01));
+
+    var collectionRequest = CollectionRequest.builder()
+        .objectRequest(createObjectRequest("Brewery", List.of(scalarField)))
+        .build();
+
+    var result = selectQueryBuilder.build(collectionRequest);
+
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select ST_ReducePrecision(ST_SimplifyPreserveTopology(\"t1\".\"nameColumn\", 10.0), 0.01) as \"x1\"\n"
+            + "from \"breweryTable\" as \"t1\""));
+  }
+
+  @Test
+  void buildCollectionRequest_throwsException_forNonPositiveSimplifyTolerance() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var scalarField = createGeometryScalarField("name", Map.of("simplify", 0.0));
+
+    var collectionRequest = CollectionRequest.builder()
+        .objectRequest(createObjectRequest("Brewery", List.of(scalarField)))
+        .build();
+
+    assertThrows(IllegalArgumentException.class, () -> selectQueryBuilder.build(collectionRequest));
+  }
+
   @Test
   void buildCollectionRequest_returnsQuery_withFilterCriteria() {
     when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
@@ -144,6 +203,227 @@ class SelectQueryBuilderTest {
             + "where \"t1\".\"nameColumn\" = 'Brewery X'"));
   }
 
+  @Test
+  void buildCountQuery_returnsQueryWithoutOrder_forRankedMatchFilter() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var scalarField = createScalarFieldConfiguration("name");
+
+    var textSearch = new TextSearchConfiguration();
+    textSearch.setConfig("english");
+    textSearch.setRank(true);
+
+    var collectionRequest = CollectionRequest.builder()
+        .objectRequest(createObjectRequest("Brewery", List.of(scalarField)))
+        .filterCriterias(List.of(MatchFilterCriteria.builder()
+            .fieldPath(FieldPath.builder()
+                .fieldConfiguration((AbstractFieldConfiguration) scalarField.getField())
+                .build())
+            .value("100% pale")
+            .textSearch(textSearch)
+            .build()))
+        .build();
+
+    var query = selectQueryBuilder.buildCountQuery(collectionRequest);
+
+    assertThat(query.getSQL(ParamType.NAMED),
+        equalTo("select count(*) from (select \"t1\".\"nameColumn\" as \"x1\" from \"breweryTable\" as \"t1\" "
+            + "where (to_tsvector(cast('english' as regconfig), \"t1\".\"nameColumn\") @@ "
+            + "websearch_to_tsquery(cast('english' as regconfig), :1))) as \"x\""));
+    assertThat(query.getBindValues(), contains("100% pale"));
+  }
+
+  @Test
+  void buildCollectionRequest_reusesQueryTemplate_forRequestWithSameShape() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var typeConfiguration = mockTypeConfiguration("Brewery");
+    var scalarField = createScalarFieldConfiguration("name");
+
+    var firstResult =
+        selectQueryBuilder.build(createFilteredCollectionRequest(typeConfiguration, scalarField, "Brewery X", 1));
+    var secondResult =
+        selectQueryBuilder.build(createFilteredCollectionRequest(typeConfiguration, scalarField, "Brewery Y", 2));
+
+    assertThat(firstResult.getQuery(), notNullValue());
+    assertThat(firstResult.getBindValues(), contains("Brewery X", 10, 1));
+    assertThat(secondResult.getQuery(), nullValue());
+    assertThat(secondResult.getSql(), equalTo(firstResult.getSql()));
+    assertThat(secondResult.getBindValues(), contains("Brewery Y", 10, 2));
+    assertThat(secondResult.getMapAssembler(), sameInstance(firstResult.getMapAssembler()));
+  }
+
+  @Test
+  void buildCollectionRequest_doesNotReuseQueryTemplate_forInFilterWithOtherValueType() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var typeConfiguration = mockTypeConfiguration("Brewery");
+    var scalarField = createScalarFieldConfiguration("name");
+    // the column is unknown to the table, so the type of the values is used
+    var filterField = createScalarFieldConfiguration("founded");
+
+    var firstResult = selectQueryBuilder
+        .build(createInFilteredCollectionRequest(typeConfiguration, scalarField, filterField, List.of(1, 2)));
+    var secondResult = selectQueryBuilder
+        .build(createInFilteredCollectionRequest(typeConfiguration, scalarField, filterField, List.of("a", "b")));
+
+    assertThat(secondResult.getQuery(), notNullValue());
+    assertThat(secondResult.getSql(), not(equalTo(firstResult.getSql())));
+  }
+
+  @Test
+  void buildCollectionRequest_returnsSeekQuery_withKeysetPagingCriteria() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var typeConfiguration = mockTypeConfiguration("Brewery");
+
+    var keyConfiguration = new KeyConfiguration();
+    keyConfiguration.setField("identifier");
+
+    when(typeConfiguration.getKeys()).thenReturn(List.of(keyConfiguration));
+
+    var identifierFieldConfiguration = new PostgresFieldConfiguration();
+    identifierFieldConfiguration.setName("identifier");
+    identifierFieldConfiguration.setColumn("identifierColumn");
+
+    when(typeConfiguration.getFields()).thenReturn(Map.of("identifier", identifierFieldConfiguration));
+
+    var scalarField = createScalarFieldConfiguration("age");
+
+    var collectionRequest = CollectionRequest.builder()
+        .objectRequest(createObjectRequest(typeConfiguration, List.of(scalarField)))
+        .sortCriterias(List.of(SortCriteria.builder()
+            .fieldPath(FieldPath.builder()
+                .fieldConfiguration((AbstractFieldConfiguration) scalarField.getField())
+                .build())
+            .direction(SortDirection.ASC)
+            .build()))
+        .pagingCriteria(PagingCriteria.builder()
+            .pageSize(10)
+            .keyset(true)
+            .after(List.of("30", "brewery-1"))
+            .build())
+        .build();
+
+    var result = selectQueryBuilder.build(collectionRequest);
+
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select\n" + "  \"t1\".\"ageColumn\" as \"x1\",\n" + "  \"t1\".\"identifierColumn\" as \"x2\",\n"
+            + "  \"t1\".\"ageColumn\" as \"x3\",\n" + "  \"t1\".\"identifierColumn\" as \"x4\"\n"
+            + "from \"breweryTable\" as \"t1\"\n" + "where (\"t1\".\"ageColumn\", \"t1\".\"identifierColumn\") > "
+            + "(cast('30' as int), cast('brewery-1' as varchar))\n" + "order by\n" + "  \"t1\".\"ageColumn\" asc,\n"
+            + "  \"t1\".\"identifierColumn\" asc\n" + "limit 10"));
+    assertThat(result.getBindValues(), contains("30", "brewery-1", 10));
+  }
+
+  @Test
+  void buildCollectionRequest_returnsSeekQueryWithRank_withKeysetPagingAndRankedMatchFilter() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var typeConfiguration = mockTypeConfiguration("Brewery");
+
+    var keyConfiguration = new KeyConfiguration();
+    keyConfiguration.setField("identifier");
+
+    when(typeConfiguration.getKeys()).thenReturn(List.of(keyConfiguration));
+
+    var identifierFieldConfiguration = new PostgresFieldConfiguration();
+    identifierFieldConfiguration.setName("identifier");
+    identifierFieldConfiguration.setColumn("identifierColumn");
+
+    when(typeConfiguration.getFields()).thenReturn(Map.of("identifier", identifierFieldConfiguration));
+
+    var scalarField = createScalarFieldConfiguration("name");
+
+    var textSearch = new TextSearchConfiguration();
+    textSearch.setConfig("english");
+    textSearch.setRank(true);
+
+    var collectionRequest = CollectionRequest.builder()
+        .objectRequest(createObjectRequest(typeConfiguration, List.of(scalarField)))
+        .filterCriterias(List.of(MatchFilterCriteria.builder()
+            .fieldPath(FieldPath.builder()
+                .fieldConfiguration((AbstractFieldConfiguration) scalarField.getField())
+                .build())
+            .value("pale")
+            .textSearch(textSearch)
+            .build()))
+        .pagingCriteria(PagingCriteria.builder()
+            .pageSize(10)
+            .keyset(true)
+            .after(List.of("0.5", "brewery-1"))
+            .build())
+        .build();
+
+    var result = selectQueryBuilder.build(collectionRequest);
+
+    var rank = "ts_rank(to_tsvector(cast('english' as regconfig), \"t1\".\"nameColumn\"), "
+        + "websearch_to_tsquery(cast('english' as regconfig), 'pale'))";
+
+    // the rank is the first cursor value, followed by the key
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select\n" + "  \"t1\".\"nameColumn\" as \"x1\",\n" + "  \"t1\".\"identifierColumn\" as \"x2\",\n"
+            + "  " + rank + " as \"x3\",\n" + "  \"t1\".\"identifierColumn\" as \"x4\"\n"
+            + "from \"breweryTable\" as \"t1\"\n" + "where (\n"
+            + "  (to_tsvector(cast('english' as regconfig), \"t1\".\"nameColumn\") @@ "
+            + "websearch_to_tsquery(cast('english' as regconfig), 'pale'))\n" + "  and (\n" + "    false\n" + "    or "
+            + rank + " < cast('0.5' as real)\n" + "    or (\n" + "      " + rank + " = cast('0.5' as real)\n"
+            + "      and \"t1\".\"identifierColumn\" > cast('brewery-1' as varchar)\n" + "    )\n" + "  )\n" + ")\n"
+            + "order by\n" + "  " + rank + " desc,\n" + "  \"t1\".\"identifierColumn\" asc\n" + "limit 10"));
+  }
+
+  @Test
+  void buildCollectionRequest_returnsNullSafeSeekQuery_withNullSortValueInCursor() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var typeConfiguration = mockTypeConfiguration("Brewery");
+
+    var keyConfiguration = new KeyConfiguration();
+    keyConfiguration.setField("identifier");
+
+    when(typeConfiguration.getKeys()).thenReturn(List.of(keyConfiguration));
+
+    var identifierFieldConfiguration = new PostgresFieldConfiguration();
+    identifierFieldConfiguration.setName("identifier");
+    identifierFieldConfiguration.setColumn("identifierColumn");
+
+    when(typeConfiguration.getFields()).thenReturn(Map.of("identifier", identifierFieldConfiguration));
+
+    var scalarField = createScalarFieldConfiguration("name");
+
+    var collectionRequest = CollectionRequest.builder()
+        .objectRequest(createObjectRequest(typeConfiguration, List.of(scalarField)))
+        .sortCriterias(List.of(SortCriteria.builder()
+            .fieldPath(FieldPath.builder()
+                .fieldConfiguration((AbstractFieldConfiguration) scalarField.getField())
+                .build())
+            .direction(SortDirection.ASC)
+            .build()))
+        .pagingCriteria(PagingCriteria.builder()
+            .pageSize(10)
+            .keyset(true)
+            .after(Arrays.asList(null, "brewery-1"))
+            .build())
+        .build();
+
+    var result = selectQueryBuilder.build(collectionRequest);
+
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select\n" + "  \"t1\".\"nameColumn\" as \"x1\",\n" + "  \"t1\".\"identifierColumn\" as \"x2\",\n"
+            + "  \"t1\".\"nameColumn\" as \"x3\",\n" + "  \"t1\".\"identifierColumn\" as \"x4\"\n"
+            + "from \"breweryTable\" as \"t1\"\n" + "where (\n" + "  false\n" + "  or (\n"
+            + "    cast(null as varchar) is not null\n" + "    and (\n"
+            + "      \"t1\".\"nameColumn\" > cast(null as varchar)\n" + "      or \"t1\".\"nameColumn\" is null\n"
+            + "    )\n" + "  )\n" + "  or (\n"
+            + "    \"t1\".\"nameColumn\" is not distinct from cast(null as varchar)\n"
+            + "    and \"t1\".\"identifierColumn\" > cast('brewery-1' as varchar)\n" + "  )\n" + ")\n" + "order by\n"
+            + "  \"t1\".\"nameColumn\" asc,\n" + "  \"t1\".\"identifierColumn\" asc\n" + "limit 10"));
+    assertThat(result.getBindValues(), contains(null, null, null, "brewery-1", 10));
+  }
+
   @Test
   void buildCollectionRequest_returnsQuery_withSortCriteriaAscending() {
     when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
@@ -230,10 +510,10 @@ class SelectQueryBuilderTest {
 
     assertThat(result.getQuery()
         .toString(),
-        equalTo("select\n" + "  \"t3\".*,\n" + "  x2\n" + "from (values ('Beer 1')) as \"t2\" (\"x2\")\n"
-            + "  left outer join lateral (\n" + "    select \"t1\".\"nameColumn\" as \"x1\"\n"
-            + "    from \"breweryTable\" as \"t1\"\n" + "    where \"t1\".\"name\" = \"t2\".\"x2\"\n"
-            + "  ) as \"t3\"\n" + "    on 1 = 1"));
+        equalTo("select\n" + "  \"t3\".*,\n" + "  x2\n"
+            + "from unnest(cast('{\"Beer 1\"}' as varchar[])) as \"t2\" (\"x2\")\n" + "  left outer join lateral (\n"
+            + "    select \"t1\".\"nameColumn\" as \"x1\"\n" + "    from \"breweryTable\" as \"t1\"\n"
+            + "    where \"t1\".\"name\" = \"t2\".\"x2\"\n" + "  ) as \"t3\"\n" + "    on 1 = 1"));
   }
 
   @Test
@@ -277,6 +557,45 @@ class SelectQueryBuilderTest {
             + "  ) as \"t3\"\n" + "    on 1 = 1"));
   }
 
+  @Test
+  void buildObjectRequest_returnsQuery_forBatchedObjectFieldsWithJoinColumn() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setTable("Address" + TABLE_POSTFIX);
+
+    var joinColumn = createJoinColumn("postal_address", "identifier_address");
+    var fieldConfiguration = createPostgresFieldConfiguration(typeConfiguration, List.of(joinColumn));
+    fieldConfiguration.setName("postalAddress");
+    fieldConfiguration.setFetch(FetchStrategy.BATCH);
+
+    var nestedObjectField = ObjectFieldConfiguration.builder()
+        .field(fieldConfiguration)
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(typeConfiguration)
+            .scalarFields(List.of(createScalarFieldConfiguration("street")))
+            .build())
+        .build();
+
+    var objectRequest = ObjectRequest.builder()
+        .typeConfiguration(mockTypeConfiguration("Brewery"))
+        .objectFields(List.of(nestedObjectField))
+        .scalarFields(List.of(createScalarFieldConfiguration("name")))
+        .build();
+
+    SelectQueryBuilderResult result = selectQueryBuilder.build(objectRequest);
+
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select\n" + "  \"t1\".\"nameColumn\" as \"x1\",\n" + "  \"t1\".\"postal_address\" as \"x2\"\n"
+            + "from \"breweryTable\" as \"t1\""));
+
+    var row = result.getMapAssembler()
+        .apply(Map.of("x1", "Brewery X", "x2", "a1"));
+
+    assertThat(row.get("postalAddress.postal_address"), equalTo("a1"));
+  }
+
   @Test
   void buildObjectRequest_returnsQuery_forObjectFieldsWithJoinTable() {
     when(meta.getTables("IngredientTable"))
@@ -321,6 +640,56 @@ class SelectQueryBuilderTest {
             + "    on \"t2\".\"ingredient_identifier\" = \"t1\".\"identifier_ingredientColumn\""));
   }
 
+  @Test
+  void buildObjectRequest_returnsQuery_forCompositeJoinTableKeys() {
+    when(meta.getTables("IngredientTable"))
+        .thenReturn(List.of(new org.dotwebstack.framework.backend.postgres.query.IngredientTable()));
+    when(meta.getTables("BeerIngredientTable"))
+        .thenReturn(List.of(new org.dotwebstack.framework.backend.postgres.query.BeerIngredientTable()));
+
+    var ingredientIdentifierFieldConfiguration = new PostgresFieldConfiguration();
+    ingredientIdentifierFieldConfiguration.setColumn("identifier_ingredientColumn");
+
+    var typeConfiguration = new PostgresTypeConfiguration();
+    typeConfiguration.setKeys(List.of());
+    typeConfiguration.setTable("IngredientTable");
+    typeConfiguration.setFields(Map.of("identifier_ingredient", ingredientIdentifierFieldConfiguration));
+
+    var joinTable = new JoinTable();
+    joinTable.setName("BeerIngredientTable");
+    joinTable.setInverseJoinColumns(List.of(createJoinColumn("ingredient_identifier", "identifier_ingredient")));
+
+    var keyCriterias = Stream.of("b1", "b2")
+        .<PostgresKeyCriteria>map(beerIdentifier -> {
+          var values = new LinkedHashMap<String, Object>();
+          values.put("beer_identifier", beerIdentifier);
+          values.put("ingredient_identifier", "i1");
+
+          return PostgresKeyCriteria.builder()
+              .values(values)
+              .joinTable(joinTable)
+              .build();
+        })
+        .collect(Collectors.toList());
+
+    var objectRequest = ObjectRequest.builder()
+        .typeConfiguration(typeConfiguration)
+        .scalarFields(List.of(createScalarFieldConfiguration("identifier_ingredient")))
+        .build();
+
+    var result = selectQueryBuilder.build(objectRequest, new ObjectSelectContext(keyCriterias, true));
+
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select\n" + "  \"t1\".\"identifier_ingredientColumn\" as \"x1\",\n"
+            + "  \"t2\".\"beer_identifier\" as \"x2\",\n" + "  \"t2\".\"ingredient_identifier\" as \"x3\"\n"
+            + "from \"ingredientTable\" as \"t1\"\n" + "  join \"beerIngredientTable\" as \"t2\"\n"
+            + "    on \"t2\".\"ingredient_identifier\" = \"t1\".\"identifier_ingredientColumn\"\n"
+            + "where ((\"t2\".\"beer_identifier\", \"t2\".\"ingredient_identifier\") in (select * from unnest("
+            + "cast('{\"b1\",\"b2\"}' as varchar[]), cast('{\"i1\",\"i1\"}' as varchar[]))))"));
+    assertThat(result.getBindValues(), hasSize(2));
+  }
+
   @Test
   void buildObjectRequest_returnsQuery_forNestedObjects() {
     when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
@@ -491,7 +860,7 @@ class SelectQueryBuilderTest {
   }
 
   @Test
-  void buildObjectRequest_returnsQuery_forAggregateFieldsWithStringJoinOnArray() {
+  void buildObjectRequest_returnsQuery_forAggregateFieldsWithStringJoinOnArrayInSingleSubquery() {
     when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
     when(meta.getTables("BeerTable")).thenReturn(List.of(new BeerTable()));
 
@@ -532,7 +901,13 @@ class SelectQueryBuilderTest {
             .aggregateFunctionType(AggregateFunctionType.JOIN)
             .alias("stringJoin")
             .type(ScalarType.STRING)
-            .build()))
+            .build(),
+            AggregateFieldConfiguration.builder()
+                .field(beerIdentifierFieldConfiguration)
+                .aggregateFunctionType(AggregateFunctionType.COUNT)
+                .alias("count")
+                .type(ScalarType.INT)
+                .build()))
         .build();
 
     List<ScalarField> scalarFields = List.of(createScalarFieldConfiguration("name"));
@@ -545,14 +920,218 @@ class SelectQueryBuilderTest {
 
     var result = selectQueryBuilder.build(objectRequest);
 
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select\n" + "  \"t1\".\"nameColumn\" as \"x1\",\n" + "  \"t4\".*\n"
+            + "from \"breweryTable\" as \"t1\"\n" + "  left outer join lateral (\n" + "    select\n"
+            + "      string_agg(cast(\"x2\" as varchar), ',') as \"x2\",\n"
+            + "      count(\"t2\".\"identifierColumn\") filter (where (\n" + "        \"t3\".\"x4\" is null\n"
+            + "        or \"t3\".\"x4\" = 1\n" + "      )) as \"x3\"\n" + "    from \"beerTable\" as \"t2\"\n"
+            + "      left outer join unnest(\"t2\".\"taste\") with ordinality as \"t3\" (\"x2\", \"x4\")\n"
+            + "        on true\n" + "    where \"t2\".\"breweryColumn\" = \"t1\".\"identifierColumn\"\n"
+            + "  ) as \"t4\"\n" + "    on 1 = 1"));
+  }
+
+
+  @Test
+  void buildObjectRequest_returnsQuery_forAggregateFieldsWithSummary() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+
+    var breweryIdentifierFieldConfiguration = new PostgresFieldConfiguration();
+    breweryIdentifierFieldConfiguration.setColumn("identifierColumn");
+
+    var breweryTypeConfiguration = new PostgresTypeConfiguration();
+    breweryTypeConfiguration.setKeys(List.of());
+    breweryTypeConfiguration.setTable("BreweryTable");
+    breweryTypeConfiguration.setFields(Map.of("identifier", breweryIdentifierFieldConfiguration));
+
+    var countColumn = new AggregateSummary.SummaryColumn();
+    countColumn.setName("beer_count");
+    countColumn.setField("identifier");
+    countColumn.setFunction(AggregateFunctionType.COUNT);
+
+    var avgColumn = new AggregateSummary.SummaryColumn();
+    avgColumn.setName("avg_sold_per_year");
+    avgColumn.setField("soldPerYear");
+    avgColumn.setFunction(AggregateFunctionType.AVG);
+
+    var summary = new AggregateSummary();
+    summary.setTable("dbeerpedia.brewery_beer_summary");
+    summary.setJoinColumns(List.of(createJoinColumn("brewery", "identifier")));
+    summary.setColumns(List.of(countColumn, avgColumn));
+
+    var aggregatePostgresFieldConfiguration = new PostgresFieldConfiguration();
+    aggregatePostgresFieldConfiguration.setName("beerAgg");
+    aggregatePostgresFieldConfiguration.setAggregationOf("Beer");
+    aggregatePostgresFieldConfiguration.setJoinColumns(List.of(createJoinColumn("breweryColumn", "identifier")));
+    aggregatePostgresFieldConfiguration.setSummary(summary);
+
+    var beerIdentifierFieldConfiguration = new PostgresFieldConfiguration();
+    beerIdentifierFieldConfiguration.setName("identifier");
+    beerIdentifierFieldConfiguration.setColumn("identifierColumn");
+
+    var beerFieldConfiguration = new PostgresFieldConfiguration();
+    beerFieldConfiguration.setColumn("sold_per_year");
+    beerFieldConfiguration.setName("soldPerYear");
+    beerFieldConfiguration.setType("Int");
+
+    var aggregateFieldConfiguration = AggregateObjectFieldConfiguration.builder()
+        .field(aggregatePostgresFieldConfiguration)
+        .aggregateFields(List.of(AggregateFieldConfiguration.builder()
+            .field(beerIdentifierFieldConfiguration)
+            .aggregateFunctionType(AggregateFunctionType.COUNT)
+            .alias("count")
+            .type(ScalarType.INT)
+            .build(),
+            AggregateFieldConfiguration.builder()
+                .field(beerFieldConfiguration)
+                .aggregateFunctionType(AggregateFunctionType.AVG)
+                .alias("intAvg")
+                .type(ScalarType.INT)
+                .build()))
+        .build();
+
+    var objectRequest = ObjectRequest.builder()
+        .typeConfiguration(breweryTypeConfiguration)
+        .scalarFields(List.of(createScalarFieldConfiguration("name")))
+        .aggregateObjectFields(List.of(aggregateFieldConfiguration))
+        .build();
+
+    var result = selectQueryBuilder.build(objectRequest);
+
     assertThat(result.getQuery()
         .toString(),
         equalTo("select\n" + "  \"t1\".\"nameColumn\" as \"x1\",\n" + "  \"t3\".*\n"
+            + "from \"breweryTable\" as \"t1\"\n" + "  left outer join lateral (\n" + "    select\n"
+            + "      cast(coalesce(\n" + "        sum(\"t2\".\"beer_count\"),\n" + "        0\n"
+            + "      ) as int) as \"x2\",\n" + "      cast(max(\"t2\".\"avg_sold_per_year\") as int) as \"x3\"\n"
+            + "    from \"dbeerpedia\".\"brewery_beer_summary\" as \"t2\"\n"
+            + "    where \"t2\".\"brewery\" = \"t1\".\"identifierColumn\"\n" + "  ) as \"t3\"\n" + "    on 1 = 1"));
+
+    assertThat(result.getContext()
+        .getObjectQueryContext()
+        .getTableNames(), equalTo(Set.of("breweryTable", "brewery_beer_summary")));
+  }
+
+  @Test
+  void buildObjectRequest_returnsQuery_forCollectionFieldsWithJsonFetch() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+    when(meta.getTables("BeerTable")).thenReturn(List.of(new BeerTable()));
+
+    var result = selectQueryBuilder.build(createBreweryWithBeersRequest("Beer 1"));
+
+    assertThat(result.getQuery()
+        .toString(),
+        equalTo("select\n" + "  \"t1\".\"nameColumn\" as \"x1\",\n" + "  \"t4\".*\n"
             + "from \"breweryTable\" as \"t1\"\n" + "  left outer join lateral (\n"
-            + "    select string_agg(cast(\"x2\" as varchar), ',') as \"x2\"\n" + "    from \"beerTable\" as \"t2\"\n"
-            + "      cross join unnest(\"t2\".\"taste\") as \"x2\" (\"COLUMN_VALUE\")\n"
-            + "    where \"t2\".\"breweryColumn\" = \"t1\".\"identifierColumn\"\n" + "  ) as \"t3\"\n"
+            + "    select cast(json_agg(\"t3\" order by \"t3\".\"x3\") as text) as \"x4\"\n" + "    from (\n"
+            + "      select\n" + "        \"t2\".\"nameColumn\" as \"x2\",\n"
+            + "        row_number() over (order by \"t2\".\"nameColumn\" asc) as \"x3\"\n"
+            + "      from \"beerTable\" as \"t2\"\n" + "      where (\n"
+            + "        \"t2\".\"breweryColumn\" = \"t1\".\"identifierColumn\"\n"
+            + "        and \"t2\".\"nameColumn\" = 'Beer 1'\n" + "      )\n" + "    ) as \"t3\"\n" + "  ) as \"t4\"\n"
             + "    on 1 = 1"));
+
+    var row = result.getMapAssembler()
+        .apply(Map.of("x1", "Brewery X", "x4", "[{\"x2\":\"Beer 1\",\"x3\":1}]"));
+
+    assertThat(row.get("beers"), equalTo(List.of(Map.of("name", "Beer 1"))));
+    assertThat(result.getMapAssembler()
+        .apply(Map.of("x1", "Brewery X"))
+        .get("beers"), equalTo(List.of()));
+  }
+
+  @Test
+  void buildObjectRequest_rebindsCollectionFilters_forRequestWithSameShape() {
+    when(meta.getTables("BreweryTable")).thenReturn(List.of(new BreweryTable()));
+    when(meta.getTables("BeerTable")).thenReturn(List.of(new BeerTable()));
+
+    var firstResult = selectQueryBuilder.build(createBreweryWithBeersRequest("Beer 1"));
+    var secondResult = selectQueryBuilder.build(createBreweryWithBeersRequest("Beer 2"));
+
+    assertThat(secondResult.getQuery(), nullValue());
+    assertThat(secondResult.getSql(), equalTo(firstResult.getSql()));
+    assertThat(firstResult.getBindValues(), contains("Beer 1"));
+    assertThat(secondResult.getBindValues(), contains("Beer 2"));
+  }
+
+  private ObjectRequest createBreweryWithBeersRequest(String beerName) {
+    var breweryIdentifierFieldConfiguration = new PostgresFieldConfiguration();
+    breweryIdentifierFieldConfiguration.setColumn("identifierColumn");
+
+    var breweryTypeConfiguration = new PostgresTypeConfiguration();
+    breweryTypeConfiguration.setKeys(List.of());
+    breweryTypeConfiguration.setTable("BreweryTable");
+    breweryTypeConfiguration.setFields(Map.of("identifier", breweryIdentifierFieldConfiguration));
+
+    var beerBreweryFieldConfiguration = new PostgresFieldConfiguration();
+    beerBreweryFieldConfiguration.setJoinColumns(List.of(createJoinColumn("breweryColumn", "identifier")));
+
+    var beerTypeConfiguration = new PostgresTypeConfiguration();
+    beerTypeConfiguration.setKeys(List.of());
+    beerTypeConfiguration.setTable("BeerTable");
+    beerTypeConfiguration.setFields(Map.of("brewery", beerBreweryFieldConfiguration));
+
+    var beersFieldConfiguration = new PostgresFieldConfiguration();
+    beersFieldConfiguration.setName("beers");
+    beersFieldConfiguration.setList(true);
+    beersFieldConfiguration.setMappedBy("brewery");
+    beersFieldConfiguration.setFetch(FetchStrategy.JSON);
+    beersFieldConfiguration.setTypeConfiguration(beerTypeConfiguration);
+
+    var beerNameField = createScalarFieldConfiguration("name");
+    var beerNameFieldPath = FieldPath.builder()
+        .fieldConfiguration((AbstractFieldConfiguration) beerNameField.getField())
+        .build();
+
+    var beersField = ObjectFieldConfiguration.builder()
+        .field(beersFieldConfiguration)
+        .objectRequest(createObjectRequest(beerTypeConfiguration, List.of(beerNameField)))
+        .filterCriterias(List.of(EqualsFilterCriteria.builder()
+            .fieldPath(beerNameFieldPath)
+            .value(beerName)
+            .build()))
+        .sortCriterias(List.of(SortCriteria.builder()
+            .fieldPath(beerNameFieldPath)
+            .direction(SortDirection.ASC)
+            .build()))
+        .build();
+
+    return ObjectRequest.builder()
+        .typeConfiguration(breweryTypeConfiguration)
+        .scalarFields(List.of(createScalarFieldConfiguration("name")))
+        .collectionObjectFields(List.of(beersField))
+        .build();
+  }
+
+  private CollectionRequest createFilteredCollectionRequest(TypeConfiguration<?> typeConfiguration,
+      ScalarField scalarField, String name, int page) {
+    return CollectionRequest.builder()
+        .objectRequest(createObjectRequest(typeConfiguration, List.of(scalarField)))
+        .filterCriterias(List.of(EqualsFilterCriteria.builder()
+            .fieldPath(FieldPath.builder()
+                .fieldConfiguration((AbstractFieldConfiguration) scalarField.getField())
+                .build())
+            .value(name)
+            .build()))
+        .pagingCriteria(PagingCriteria.builder()
+            .page(page)
+            .pageSize(10)
+            .build())
+        .build();
+  }
+
+  private CollectionRequest createInFilteredCollectionRequest(TypeConfiguration<?> typeConfiguration,
+      ScalarField scalarField, ScalarField filterField, List<?> values) {
+    return CollectionRequest.builder()
+        .objectRequest(createObjectRequest(typeConfiguration, List.of(scalarField)))
+        .filterCriterias(List.of(InFilterCriteria.builder()
+            .fieldPath(FieldPath.builder()
+                .fieldConfiguration((AbstractFieldConfiguration) filterField.getField())
+                .build())
+            .values(values)
+            .build()))
+        .build();
   }
 
   private ObjectRequest createObjectRequest(String typeName, List<ScalarField> scalarFields) {
@@ -594,6 +1173,18 @@ class SelectQueryBuilderTest {
         .build();
   }
 
+  private ScalarField createGeometryScalarField(String scalarName, Map<String, Object> arguments) {
+    PostgresFieldConfiguration fieldConfiguration = new PostgresFieldConfiguration();
+    fieldConfiguration.setName(scalarName);
+    fieldConfiguration.setColumn(scalarName + COLUMN_POSTFIX);
+    fieldConfiguration.setType("Geometry");
+    return ScalarField.builder()
+        .field(fieldConfiguration)
+        .origins(Set.of(Origin.REQUESTED))
+        .arguments(arguments)
+        .build();
+  }
+
   private DSLContext createDslContext() {
     MetaProvider metaProvider = mock(MetaProvider.class);
     when(metaProvider.provide()).thenReturn(meta);
@@ -601,6 +1192,16 @@ class SelectQueryBuilderTest {
     DefaultConfiguration configuration = new DefaultConfiguration();
     configuration.setSQLDialect(SQLDialect.POSTGRES);
     configuration.setMetaProvider(metaProvider);
+    // the table catalog reads the search path, which is empty so tables are resolved by name
+    configuration.setConnection(new MockConnection(context -> {
+      var searchPath = DSL.field("current_schemas(false)", String[].class);
+      var result = DSL.using(SQLDialect.POSTGRES)
+          .newResult(searchPath);
+      result.add(DSL.using(SQLDialect.POSTGRES)
+          .newRecord(searchPath)
+          .value1(new String[] {}));
+      return new MockResult[] {new MockResult(1, result)};
+    }));
 
     return new DefaultDSLContext(configuration);
   }
@@ -0,0 +1,164 @@
+package org.dotwebstack.framework.backend.postgres.query;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.dotwebstack.framework.backend.postgres.config.JoinTable;
+import org.dotwebstack.framework.backend.postgres.config.PostgresFieldConfiguration;
+import org.dotwebstack.framework.backend.postgres.config.PostgresTypeConfiguration;
+import org.dotwebstack.framework.core.config.AbstractTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Meta;
+import org.jooq.Schema;
+import org.jooq.exception.DataAccessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TableCatalogTest {
+
+  @Mock
+  private DSLContext dslContext;
+
+  @Mock
+  private Meta meta;
+
+  @Mock
+  private Schema schema;
+
+  @Mock
+  private Schema publicSchema;
+
+  private TableCatalog tableCatalog;
+
+  @BeforeEach
+  void beforeEach() {
+    tableCatalog = new TableCatalog(dslContext, createDotWebStackConfiguration());
+  }
+
+  @Test
+  void getConfiguredTableNames_returnsTypeJoinAndAggregateTables() {
+    var tableNames = tableCatalog.getConfiguredTableNames();
+
+    assertThat(tableNames, containsInAnyOrder("dbeerpedia.beers", "dbeerpedia.ingredients", "beers_ingredients"));
+  }
+
+  @Test
+  void getTable_returnsTableWithoutMetaLookup_afterRefresh() {
+    when(dslContext.meta()).thenReturn(meta);
+    when(dslContext.fetchValue(ArgumentMatchers.<Field<String[]>>any())).thenReturn(new String[] {"public"});
+    var beerTable = new BeerTable();
+    var ingredientTable = new IngredientTable();
+    var beerIngredientTable = new BeerIngredientTable();
+    when(meta.getSchemas("dbeerpedia")).thenReturn(List.of(schema));
+    when(meta.getSchemas("public")).thenReturn(List.of(publicSchema));
+    when(schema.getTable("beers")).thenAnswer(invocation -> beerTable);
+    when(schema.getTable("ingredients")).thenAnswer(invocation -> ingredientTable);
+    when(publicSchema.getTable("beers_ingredients")).thenAnswer(invocation -> beerIngredientTable);
+
+    tableCatalog.refresh();
+
+    assertThat(tableCatalog.getTable("dbeerpedia.beers"), is(beerTable));
+    assertThat(tableCatalog.getTable("dbeerpedia.ingredients"), is(ingredientTable));
+    assertThat(tableCatalog.getTable("beers_ingredients"), is(beerIngredientTable));
+    verify(dslContext, times(1)).meta();
+  }
+
+  @Test
+  void getTable_resolvesTableOnFirstUse_forUnknownTable() {
+    when(dslContext.meta()).thenReturn(meta);
+    when(dslContext.fetchValue(ArgumentMatchers.<Field<String[]>>any())).thenReturn(new String[] {});
+    var breweryTable = new BreweryTable();
+    when(meta.getTables("breweries")).thenReturn(List.of(breweryTable));
+
+    assertThat(tableCatalog.getTable("breweries"), equalTo(breweryTable));
+    assertThat(tableCatalog.getTable("breweries"), equalTo(breweryTable));
+    verify(meta, times(1)).getTables("breweries");
+  }
+
+  @Test
+  void getTable_resolvesTableOnFirstUse_afterFailedRefresh() {
+    when(dslContext.meta()).thenThrow(new DataAccessException("Connection refused"))
+        .thenReturn(meta);
+    when(dslContext.fetchValue(ArgumentMatchers.<Field<String[]>>any())).thenReturn(new String[] {});
+    var breweryTable = new BreweryTable();
+    when(meta.getTables("breweries")).thenReturn(List.of(breweryTable));
+
+    tableCatalog.refresh();
+
+    assertThat(tableCatalog.getTable("breweries"), equalTo(breweryTable));
+  }
+
+  @Test
+  void getTable_resolvesUnqualifiedTable_inSearchPathOrder() {
+    when(dslContext.meta()).thenReturn(meta);
+    when(dslContext.fetchValue(ArgumentMatchers.<Field<String[]>>any()))
+        .thenReturn(new String[] {"dbeerpedia", "public"});
+    var breweryTable = new BreweryTable();
+    when(meta.getSchemas("dbeerpedia")).thenReturn(List.of(schema));
+    when(schema.getTable("breweries")).thenAnswer(invocation -> breweryTable);
+
+    assertThat(tableCatalog.getTable("breweries"), equalTo(breweryTable));
+    verify(meta, never()).getSchemas("public");
+  }
+
+  @Test
+  void getTable_throwsException_forAmbiguousUnqualifiedTable() {
+    when(dslContext.meta()).thenReturn(meta);
+    when(dslContext.fetchValue(ArgumentMatchers.<Field<String[]>>any())).thenReturn(new String[] {"public"});
+    when(meta.getSchemas("public")).thenReturn(List.of(publicSchema));
+    when(meta.getTables("breweries")).thenReturn(List.of(new BreweryTable(), new BreweryTable()));
+
+    assertThrows(IllegalStateException.class, () -> tableCatalog.getTable("breweries"));
+  }
+
+  @Test
+  void getTable_throwsException_forNonExistingTable() {
+    when(dslContext.meta()).thenReturn(meta);
+    when(dslContext.fetchValue(ArgumentMatchers.<Field<String[]>>any())).thenReturn(new String[] {"public"});
+    when(meta.getSchemas("dbeerpedia")).thenReturn(List.of());
+
+    assertThrows(IllegalStateException.class, () -> tableCatalog.getTable("dbeerpedia.unknown"));
+  }
+
+  private DotWebStackConfiguration createDotWebStackConfiguration() {
+    var ingredientTypeConfiguration = new PostgresTypeConfiguration();
+    ingredientTypeConfiguration.setTable("dbeerpedia.ingredients");
+
+    var joinTable = new JoinTable();
+    joinTable.setName("beers_ingredients");
+
+    var ingredientsFieldConfiguration = new PostgresFieldConfiguration();
+    ingredientsFieldConfiguration.setJoinTable(joinTable);
+
+    var ingredientAggFieldConfiguration = new PostgresFieldConfiguration();
+    ingredientAggFieldConfiguration.setAggregationOf("Ingredient");
+
+    var beerTypeConfiguration = new PostgresTypeConfiguration();
+    beerTypeConfiguration.setTable("dbeerpedia.beers");
+    beerTypeConfiguration.setFields(new HashMap<>(
+        Map.of("ingredients", ingredientsFieldConfiguration, "ingredientAgg", ingredientAggFieldConfiguration)));
+
+    var dotWebStackConfiguration = new DotWebStackConfiguration();
+    dotWebStackConfiguration.setObjectTypes(Map.<String, AbstractTypeConfiguration<?>>of("Beer", beerTypeConfiguration,
+        "Ingredient", ingredientTypeConfiguration));
+
+    return dotWebStackConfiguration;
+  }
+}
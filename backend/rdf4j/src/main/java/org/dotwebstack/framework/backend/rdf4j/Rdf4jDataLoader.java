@@ -2,8 +2,11 @@ package org.dotwebstack.framework.backend.rdf4j;
 
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.unsupportedOperationException;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Pattern;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.dotwebstack.framework.backend.rdf4j.config.Rdf4jTypeConfiguration;
@@ -14,6 +17,9 @@ import org.dotwebstack.framework.core.datafetchers.BackendDataLoader;
 import org.dotwebstack.framework.core.datafetchers.KeyCondition;
 import org.dotwebstack.framework.core.datafetchers.KeyConditionGroupedFlux;
 import org.dotwebstack.framework.core.datafetchers.LoadEnvironment;
+import org.dotwebstack.framework.core.query.QueryExecution;
+import org.dotwebstack.framework.core.query.QueryStatistics;
+import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.manager.LocalRepositoryManager;
 import org.springframework.stereotype.Component;
@@ -26,17 +32,24 @@ import reactor.util.function.Tuple2;
 @Slf4j
 public class Rdf4jDataLoader implements BackendDataLoader {
 
+  private static final String BACKEND_NAME = "rdf4j";
+
+  private static final Pattern QUOTED_LITERAL = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"");
+
   private final DotWebStackConfiguration dotWebStackConfiguration;
 
   private final QueryBuilder queryBuilder;
 
   private final LocalRepositoryManager localRepositoryManager;
 
+  private final QueryStatistics queryStatistics;
+
   public Rdf4jDataLoader(@NonNull DotWebStackConfiguration dotWebStackConfiguration, @NonNull QueryBuilder queryBuilder,
-      @NonNull LocalRepositoryManager localRepositoryManager) {
+      @NonNull LocalRepositoryManager localRepositoryManager, @NonNull QueryStatistics queryStatistics) {
     this.dotWebStackConfiguration = dotWebStackConfiguration;
     this.queryBuilder = queryBuilder;
     this.localRepositoryManager = localRepositoryManager;
+    this.queryStatistics = queryStatistics;
   }
 
   @Override
@@ -49,13 +62,18 @@ public class Rdf4jDataLoader implements BackendDataLoader {
     Rdf4jTypeConfiguration typeConfiguration = dotWebStackConfiguration.getTypeConfiguration(environment);
 
     var queryHolder = queryBuilder.build(typeConfiguration, environment.getSelectionSet(), keyCondition);
+    var start = System.nanoTime();
 
     try (TupleQueryResult queryResult = executeQuery(queryHolder.getQuery())) {
       if (queryResult.hasNext()) {
-        return Mono.just(queryResult.next())
-            .map(bindingSet -> queryHolder.getMapAssembler()
-                .apply(bindingSet));
+        var bindingSet = queryResult.next();
+        record(queryHolder.getQuery(), environment, start, 1, estimateSize(bindingSet));
+
+        return Mono.just(bindingSet)
+            .map(queryHolder.getMapAssembler()::apply);
       }
+
+      record(queryHolder.getQuery(), environment, start, 0, 0);
       return Mono.empty();
     }
   }
@@ -72,9 +90,16 @@ public class Rdf4jDataLoader implements BackendDataLoader {
 
     var queryHolder = queryBuilder.build(typeConfiguration, environment.getSelectionSet(), keyCondition);
 
+    var start = System.nanoTime();
     TupleQueryResult queryResult = executeQuery(queryHolder.getQuery());
+    var counts = new long[2];
 
     return Flux.fromStream(queryResult.stream())
+        .doOnNext(bindingSet -> {
+          counts[0]++;
+          counts[1] += estimateSize(bindingSet);
+        })
+        .doFinally(signal -> record(queryHolder.getQuery(), environment, start, counts[0], counts[1]))
         .map(bindingSet -> queryHolder.getMapAssembler()
             .apply(bindingSet));
   }
@@ -86,6 +111,34 @@ public class Rdf4jDataLoader implements BackendDataLoader {
         .map(keyCondition -> new KeyConditionGroupedFlux(keyCondition, loadMany(keyCondition, environment)));
   }
 
+  private void record(String query, LoadEnvironment environment, long start, long rows, long bytes) {
+    if (!queryStatistics.isEnabled()) {
+      return;
+    }
+
+    // literals are inlined in SPARQL, so they are replaced before the query is normalized
+    queryStatistics.record(QueryExecution.builder()
+        .backend(BACKEND_NAME)
+        .query(query)
+        .shape(QueryStatistics.normalize(QUOTED_LITERAL.matcher(query)
+            .replaceAll("?")))
+        .path(QueryStatistics.getPath(environment.getExecutionStepInfo()))
+        .duration(Duration.ofNanos(System.nanoTime() - start))
+        .rows(rows)
+        .bytes(bytes)
+        .build());
+  }
+
+  private static long estimateSize(BindingSet bindingSet) {
+    return bindingSet.getBindingNames()
+        .stream()
+        .map(bindingSet::getValue)
+        .filter(Objects::nonNull)
+        .mapToLong(value -> value.stringValue()
+            .length())
+        .sum();
+  }
+
   private TupleQueryResult executeQuery(String query) {
 
     LOG.debug("Sparql query: {}", query);
@@ -31,6 +31,8 @@ import org.dotwebstack.framework.core.datafetchers.FieldKeyCondition;
 import org.dotwebstack.framework.core.datafetchers.KeyCondition;
 import org.dotwebstack.framework.core.datafetchers.LoadEnvironment;
 import org.dotwebstack.framework.core.datafetchers.MappedByKeyCondition;
+import org.dotwebstack.framework.core.query.QueryStatistics;
+import org.dotwebstack.framework.core.query.QueryStatisticsProperties;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
@@ -58,7 +60,8 @@ class Rdf4jDataLoaderTest {
 
   @BeforeEach
   void init() {
-    rdf4jDataLoader = new Rdf4jDataLoader(dotWebStackConfiguration, queryBuilder, localRepositoryManager);
+    rdf4jDataLoader = new Rdf4jDataLoader(dotWebStackConfiguration, queryBuilder, localRepositoryManager,
+        new QueryStatistics(new QueryStatisticsProperties()));
   }
 
   @Test
@@ -14,6 +14,7 @@ import static org.dotwebstack.framework.core.config.TypeUtils.newType;
 import static org.dotwebstack.framework.core.datafetchers.SortConstants.SORT_ARGUMENT_NAME;
 
 import graphql.Scalars;
+import graphql.language.BooleanValue;
 import graphql.language.EnumTypeDefinition;
 import graphql.language.EnumValue;
 import graphql.language.EnumValueDefinition;
@@ -61,6 +62,10 @@ public class TypeDefinitionRegistrySchemaFactory {
 
   private static final String GEOMETRY_ARGUMENT_TYPE = "GeometryType";
 
+  private static final String GEOMETRY_SIMPLIFY_ARGUMENT_NAME = "simplify";
+
+  private static final String GEOMETRY_PRECISION_ARGUMENT_NAME = "precision";
+
   private final DotWebStackConfiguration dotWebStackConfiguration;
 
   private final Map<String, String> fieldFilterMap = new HashMap<>();
@@ -135,15 +140,36 @@ public class TypeDefinitionRegistrySchemaFactory {
 
   private ObjectTypeDefinition createConnectionTypeDefinition(AbstractTypeConfiguration<?> typeConfiguration) {
     var connectionName = createConnectionName(typeConfiguration.getName());
-    return newObjectTypeDefinition().name(connectionName)
+    var connectionTypeDefinition = newObjectTypeDefinition().name(connectionName)
         .fieldDefinition(newFieldDefinition().name(PagingConstants.NODES_FIELD_NAME)
             .type(newNonNullableListType(typeConfiguration.getName()))
             .build())
         .fieldDefinition(newFieldDefinition().name(PagingConstants.OFFSET_FIELD_NAME)
             .type(newNonNullableType(Scalars.GraphQLInt.getName()))
             .build())
-        .additionalData(Map.of(TypeHelper.IS_CONNECTION_TYPE, Boolean.TRUE.toString()))
-        .build();
+        .additionalData(Map.of(TypeHelper.IS_CONNECTION_TYPE, Boolean.TRUE.toString()));
+
+    if (dotWebStackConfiguration.isFeatureEnabled(Feature.KEYSET_PAGING)) {
+      connectionTypeDefinition.fieldDefinition(newFieldDefinition().name(PagingConstants.START_CURSOR_FIELD_NAME)
+          .type(newType(Scalars.GraphQLString.getName()))
+          .build())
+          .fieldDefinition(newFieldDefinition().name(PagingConstants.END_CURSOR_FIELD_NAME)
+              .type(newType(Scalars.GraphQLString.getName()))
+              .build());
+    }
+
+    if (dotWebStackConfiguration.isFeatureEnabled(Feature.TOTAL_COUNT)) {
+      connectionTypeDefinition.fieldDefinition(newFieldDefinition().name(PagingConstants.TOTAL_COUNT_FIELD_NAME)
+          .type(newType(Scalars.GraphQLInt.getName()))
+          .inputValueDefinition(newInputValueDefinition().name(PagingConstants.ESTIMATE_ARGUMENT_NAME)
+              .type(newNonNullableType(Scalars.GraphQLBoolean.getName()))
+              .defaultValue(BooleanValue.newBooleanValue(false)
+                  .build())
+              .build())
+          .build());
+    }
+
+    return connectionTypeDefinition.build();
   }
 
   private InputObjectTypeDefinition createFilterObjectTypeDefinition(String objectTypeName,
@@ -244,7 +270,7 @@ public class TypeDefinitionRegistrySchemaFactory {
   private List<InputValueDefinition> createInputValueDefinitions(FieldConfiguration fieldConfiguration) {
     List<InputValueDefinition> inputValueDefinitions = new ArrayList<>();
     if (GEOMETRY_TYPE.equals(fieldConfiguration.getType())) {
-      inputValueDefinitions.add(createGeometryInputValueDefinition());
+      inputValueDefinitions.addAll(createGeometryInputValueDefinitions());
     }
 
     fieldConfiguration.getArguments()
@@ -441,13 +467,27 @@ public class TypeDefinitionRegistrySchemaFactory {
 
   private List<InputValueDefinition> createPagingArguments(QueryConfiguration queryConfiguration) {
     if (queryConfiguration.isList()) {
-      return Stream.concat(createFirstArgument().stream(), createOffsetArgument().stream())
+      return Stream
+          .of(createFirstArgument(), createOffsetArgument(), createCursorArgument(PagingConstants.AFTER_ARGUMENT_NAME),
+              createCursorArgument(PagingConstants.BEFORE_ARGUMENT_NAME))
+          .flatMap(Optional::stream)
           .collect(Collectors.toList());
     }
 
     return List.of();
   }
 
+  private Optional<InputValueDefinition> createCursorArgument(String argumentName) {
+    if (dotWebStackConfiguration.isFeatureEnabled(Feature.PAGING)
+        && dotWebStackConfiguration.isFeatureEnabled(Feature.KEYSET_PAGING)) {
+      return Optional.of(newInputValueDefinition().name(argumentName)
+          .type(newType(Scalars.GraphQLString.getName()))
+          .build());
+    }
+
+    return Optional.empty();
+  }
+
   private Optional<InputValueDefinition> createFirstArgument() {
     if (dotWebStackConfiguration.isFeatureEnabled(Feature.PAGING)) {
       return Optional.of(newInputValueDefinition().name(PagingConstants.FIRST_ARGUMENT_NAME)
@@ -484,10 +524,16 @@ public class TypeDefinitionRegistrySchemaFactory {
         .build();
   }
 
-  private InputValueDefinition createGeometryInputValueDefinition() {
-    return newInputValueDefinition().name(GEOMETRY_ARGUMENT_NAME)
+  private List<InputValueDefinition> createGeometryInputValueDefinitions() {
+    return List.of(newInputValueDefinition().name(GEOMETRY_ARGUMENT_NAME)
         .type(TypeUtils.newType(GEOMETRY_ARGUMENT_TYPE))
-        .build();
+        .build(),
+        newInputValueDefinition().name(GEOMETRY_SIMPLIFY_ARGUMENT_NAME)
+            .type(TypeUtils.newType(Scalars.GraphQLFloat.getName()))
+            .build(),
+        newInputValueDefinition().name(GEOMETRY_PRECISION_ARGUMENT_NAME)
+            .type(TypeUtils.newType(Scalars.GraphQLFloat.getName()))
+            .build());
   }
 
   private String createFilterName(String objectTypeName) {
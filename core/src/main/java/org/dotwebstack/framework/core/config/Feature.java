@@ -2,5 +2,5 @@ package org.dotwebstack.framework.core.config;
 
 
 public enum Feature {
-  PAGING
+  PAGING, KEYSET_PAGING, TOTAL_COUNT
 }
@@ -1,6 +1,7 @@
 package org.dotwebstack.framework.core.config;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.validation.Valid;
 import lombok.Data;
 
 @Data
@@ -11,7 +12,15 @@ public class FilterConfiguration {
   @JsonProperty("default")
   private Object defaultValue;
 
+  // enables the match operator on a String field
+  @Valid
+  private TextSearchConfiguration textSearch;
+
   public boolean hasDefaultValue() {
     return defaultValue != null;
   }
+
+  public boolean isTextSearch() {
+    return textSearch != null;
+  }
 }
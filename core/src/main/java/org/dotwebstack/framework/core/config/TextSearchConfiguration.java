@@ -0,0 +1,18 @@
+package org.dotwebstack.framework.core.config;
+
+import javax.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class TextSearchConfiguration {
+
+  // the text search configuration of the database, which determines the stemming of words
+  @NotBlank
+  private String config = "simple";
+
+  // a column with the precomputed document, otherwise it is computed from the column of the field
+  private String column;
+
+  // orders the results by relevance, before the requested sort order
+  private boolean rank = false;
+}
@@ -34,7 +34,18 @@ public interface BackendDataLoader {
     return Flux.empty();
   }
 
-  default Flux<Tuple2<KeyCondition, Map<String, Object>>> batchLoadSingleRequest(ObjectRequest objectRequest) {
+  // Backends which observe changes keep the subscription open, others return the current state
+  default Flux<Map<String, Object>> subscribeRequest(CollectionRequest collectionRequest) {
+    return loadManyRequest(collectionRequest);
+  }
+
+  // Counts the objects which match the filters of the request, or estimates their number
+  default Mono<Long> countRequest(CollectionRequest collectionRequest, boolean estimate) {
+    return Mono.empty();
+  }
+
+  default Flux<Tuple2<KeyCondition, Map<String, Object>>> batchLoadSingleRequest(Set<KeyCondition> keyConditions,
+      ObjectRequest objectRequest) {
     return Flux.empty();
   }
 
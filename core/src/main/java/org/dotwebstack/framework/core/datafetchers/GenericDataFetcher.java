@@ -21,6 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.dataloader.DataLoader;
 import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
 import org.dotwebstack.framework.core.config.TypeConfiguration;
+import org.dotwebstack.framework.core.datafetchers.paging.ConnectionCursors;
 import org.dotwebstack.framework.core.datafetchers.paging.PagingDataFetcherContext;
 import org.dotwebstack.framework.core.helpers.ExceptionHelper;
 import org.dotwebstack.framework.core.query.RequestFactory;
@@ -53,6 +54,7 @@ public final class GenericDataFetcher implements DataFetcher<Object> {
     try {
       return doGet(environment);
     } catch (Exception e) {
+      getConnectionCursors(environment).ifPresent(ConnectionCursors::completeEmpty);
       throw internalServerErrorException(e);
     }
   }
@@ -93,7 +95,10 @@ public final class GenericDataFetcher implements DataFetcher<Object> {
     if (backendDataLoader.useRequestApproach()) {
       var collectionRequest = requestFactory.createCollectionRequest(typeConfiguration, environment);
 
-      result = mapLoadMany(typeConfiguration, backendDataLoader.loadManyRequest(collectionRequest));
+      var rows = loadEnvironment.isSubscription() ? backendDataLoader.subscribeRequest(collectionRequest)
+          : backendDataLoader.loadManyRequest(collectionRequest);
+
+      result = mapLoadMany(typeConfiguration, rows);
     } else {
       result = mapLoadMany(typeConfiguration, backendDataLoader.loadMany(keyCondition, loadEnvironment));
     }
@@ -102,10 +107,27 @@ public final class GenericDataFetcher implements DataFetcher<Object> {
       return result;
     }
 
+    var connectionCursors = getConnectionCursors(environment);
+
+    if (connectionCursors.isPresent()) {
+      return result.collectList()
+          .doOnNext(connectionCursors.get()::complete)
+          .doOnError(e -> connectionCursors.get()
+              .completeEmpty())
+          .toFuture();
+    }
+
     return result.collectList()
         .toFuture();
   }
 
+  private Optional<ConnectionCursors> getConnectionCursors(DataFetchingEnvironment environment) {
+    return Optional.ofNullable(environment.getLocalContext())
+        .filter(PagingDataFetcherContext.class::isInstance)
+        .map(PagingDataFetcherContext.class::cast)
+        .map(PagingDataFetcherContext::getCursors);
+  }
+
   private Object doNestedGet(DataFetchingEnvironment environment, graphql.execution.ExecutionStepInfo executionStepInfo,
       Map<String, Object> source, TypeConfiguration<?> typeConfiguration) {
     String fieldName = executionStepInfo.getFieldDefinition()
@@ -177,8 +199,8 @@ public final class GenericDataFetcher implements DataFetcher<Object> {
     if (backendDataLoader.useRequestApproach()) {
       var objectRequest = requestFactory.createObjectRequest(typeConfiguration, environment);
 
-      return newMappedDataLoader(
-          keys -> mapLoadBatchLoadSingle(typeConfiguration, backendDataLoader.batchLoadSingleRequest(objectRequest)));
+      return newMappedDataLoader(keys -> mapLoadBatchLoadSingle(typeConfiguration,
+          backendDataLoader.batchLoadSingleRequest(keys, objectRequest)));
     } else {
       return newMappedDataLoader(
           keys -> mapLoadBatchLoadSingle(typeConfiguration, backendDataLoader.batchLoadSingle(keys, loadEnvironment)));
@@ -223,6 +245,8 @@ public final class GenericDataFetcher implements DataFetcher<Object> {
         .selectionSet(environment.getSelectionSet())
         .subscription(SUBSCRIPTION.equals(environment.getOperationDefinition()
             .getOperation()))
+        .deadline(RequestDeadline.get(environment)
+            .orElse(null))
         .build();
   }
 
@@ -2,6 +2,7 @@ package org.dotwebstack.framework.core.datafetchers;
 
 import graphql.execution.ExecutionStepInfo;
 import graphql.schema.DataFetchingFieldSelectionSet;
+import java.time.Instant;
 import java.util.Map;
 import lombok.Builder;
 import lombok.Getter;
@@ -22,4 +23,6 @@ public final class LoadEnvironment {
   private final boolean subscription;
 
   private final Map<String, Object> source;
+
+  private final Instant deadline;
 }
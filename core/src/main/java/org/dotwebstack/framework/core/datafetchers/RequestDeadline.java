@@ -0,0 +1,30 @@
+package org.dotwebstack.framework.core.datafetchers;
+
+import graphql.GraphQLContext;
+import graphql.schema.DataFetchingEnvironment;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// The moment after which the backends should stop working on a request, it is passed by the service
+// through the GraphQL context
+public final class RequestDeadline {
+
+  public static final String CONTEXT_KEY = "dotwebstack.requestDeadline";
+
+  private RequestDeadline() {}
+
+  public static Optional<Instant> get(DataFetchingEnvironment environment) {
+    Object context = environment.getContext();
+
+    if (!(context instanceof GraphQLContext)) {
+      return Optional.empty();
+    }
+
+    return ((GraphQLContext) context).getOrEmpty(CONTEXT_KEY);
+  }
+
+  public static Duration getRemaining(Instant deadline) {
+    return Duration.between(Instant.now(), deadline);
+  }
+}
@@ -18,8 +18,10 @@ import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.INT_FILTER_INPUT_OBJECT_TYPE;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.LTE_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.LT_FIELD;
+import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.MATCH_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.NOT_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.STRING_FILTER_INPUT_OBJECT_TYPE;
+import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE;
 import static org.dotwebstack.framework.core.scalars.CoreScalars.DATE;
 import static org.dotwebstack.framework.core.scalars.CoreScalars.DATETIME;
 
@@ -40,6 +42,7 @@ public class CoreFilterConfigurer implements GraphqlConfigurer, FilterConfigurer
   @Override
   public void configureTypeDefinitionRegistry(@NonNull TypeDefinitionRegistry registry) {
     registry.add(createStringFilterType());
+    registry.add(createTextSearchFilterType());
     registry.add(createIntFilterType());
     registry.add(createFloatFilterType());
     registry.add(createDateFilterType());
@@ -66,6 +69,18 @@ public class CoreFilterConfigurer implements GraphqlConfigurer, FilterConfigurer
         .build();
   }
 
+  // the filter of a String field with a text search configuration
+  private InputObjectTypeDefinition createTextSearchFilterType() {
+    var typeName = Scalars.GraphQLString.getName();
+
+    return newInputObjectDefinition().name(TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE)
+        .inputValueDefinition(createInputValueDefinition(EQ_FIELD, typeName))
+        .inputValueDefinition(createArrayInputValue(typeName))
+        .inputValueDefinition(createInputValueDefinition(MATCH_FIELD, typeName))
+        .inputValueDefinition(createInputValueDefinition(NOT_FIELD, TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE))
+        .build();
+  }
+
   private InputObjectTypeDefinition createIntFilterType() {
     return createNumberFilterType(Scalars.GraphQLInt, INT_FILTER_INPUT_OBJECT_TYPE);
   }
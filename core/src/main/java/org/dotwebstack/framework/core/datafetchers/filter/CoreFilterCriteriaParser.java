@@ -14,14 +14,16 @@ import org.dotwebstack.framework.core.query.model.filter.GreaterThenFilterCriter
 import org.dotwebstack.framework.core.query.model.filter.InFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenEqualsFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.MatchFilterCriteria;
 import org.springframework.stereotype.Component;
 
 @Component
 public class CoreFilterCriteriaParser extends OperatorFilterCriteriaParser {
 
-  private static final List<String> SUPPORTED_OBJECT_TYPES = List.of(FilterConstants.STRING_FILTER_INPUT_OBJECT_TYPE,
-      FilterConstants.DATE_FILTER_INPUT_OBJECT_TYPE, FilterConstants.INT_FILTER_INPUT_OBJECT_TYPE,
-      FilterConstants.FLOAT_FILTER_INPUT_OBJECT_TYPE, FilterConstants.DATE_TIME_FILTER_INPUT_OBJECT_TYPE);
+  private static final List<String> SUPPORTED_OBJECT_TYPES =
+      List.of(FilterConstants.STRING_FILTER_INPUT_OBJECT_TYPE, FilterConstants.DATE_FILTER_INPUT_OBJECT_TYPE,
+          FilterConstants.INT_FILTER_INPUT_OBJECT_TYPE, FilterConstants.FLOAT_FILTER_INPUT_OBJECT_TYPE,
+          FilterConstants.DATE_TIME_FILTER_INPUT_OBJECT_TYPE, FilterConstants.TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE);
 
   @Override
   public boolean supports(GraphQLInputObjectField inputObjectField) {
@@ -44,6 +46,8 @@ public class CoreFilterCriteriaParser extends OperatorFilterCriteriaParser {
         return createGreaterThenEqualsFilterCriteria(fieldPath, filterItem);
       case FilterConstants.IN_FIELD:
         return createInFilterCriteria(fieldPath, filterItem);
+      case FilterConstants.MATCH_FIELD:
+        return createMatchFilterCriteria(fieldPath, filterItem);
       default:
         return super.createFilterCriteria(fieldPath, fieldConfiguration, filterItem);
     }
@@ -94,4 +98,13 @@ public class CoreFilterCriteriaParser extends OperatorFilterCriteriaParser {
         .values((List<?>) filterItem.getValue())
         .build();
   }
+
+  private FilterCriteria createMatchFilterCriteria(FieldPath fieldPath, FilterItem filterItem) {
+    return MatchFilterCriteria.builder()
+        .fieldPath(fieldPath)
+        .value((String) filterItem.getValue())
+        .textSearch(filterItem.getFilterConfiguration()
+            .getTextSearch())
+        .build();
+  }
 }
@@ -16,6 +16,8 @@ public class FilterConstants {
 
   public static final String DATE_TIME_FILTER_INPUT_OBJECT_TYPE = "DateTimeFilter";
 
+  public static final String TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE = "TextSearchFilter";
+
   public static final String EQ_FIELD = "eq";
 
   public static final String IN_FIELD = "in";
@@ -29,4 +31,6 @@ public class FilterConstants {
   public static final String GTE_FIELD = "gte";
 
   public static final String NOT_FIELD = "not";
+
+  public static final String MATCH_FIELD = "match";
 }
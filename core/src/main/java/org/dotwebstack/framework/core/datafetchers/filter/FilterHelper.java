@@ -3,6 +3,7 @@ package org.dotwebstack.framework.core.datafetchers.filter;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgumentException;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.invalidConfigurationException;
 
+import graphql.Scalars;
 import java.util.Map;
 import org.dotwebstack.framework.core.config.FilterConfiguration;
 import org.dotwebstack.framework.core.config.TypeConfiguration;
@@ -29,6 +30,15 @@ public final class FilterHelper {
     var type = typeConfigurationForField.get()
         .getType();
 
+    if (filterConfiguration.isTextSearch()) {
+      if (!Scalars.GraphQLString.getName()
+          .equals(type)) {
+        throw invalidConfigurationException("Text search filter '{}' requires a String field!", filterName);
+      }
+
+      return FilterConstants.TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE;
+    }
+
     return getTypeNameForFilter(fieldFilterMap, type);
   }
 
@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 import lombok.Builder;
 import lombok.Data;
 import org.dotwebstack.framework.core.config.FieldConfiguration;
+import org.dotwebstack.framework.core.config.FilterConfiguration;
 import org.dotwebstack.framework.core.config.TypeConfiguration;
 import org.dotwebstack.framework.core.query.model.filter.AndFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.FieldPath;
@@ -24,8 +25,11 @@ public abstract class OperatorFilterCriteriaParser extends AbstractFilterCriteri
   @Override
   public List<FilterCriteria> parse(TypeConfiguration<?> typeConfiguration, GraphQLInputObjectField inputObjectField,
       Map<String, Object> data) {
+    var filterConfiguration = typeConfiguration.getFilters()
+        .get(inputObjectField.getName());
+
     return getFilter(typeConfiguration, inputObjectField, data).stream()
-        .flatMap(filter -> getFilterItems(filter).stream())
+        .flatMap(filter -> getFilterItems(filter, filterConfiguration).stream())
         .map(filterItem -> createFilterCriteria(
             FieldPathHelper.createFieldPath(typeConfiguration, getFieldPath(typeConfiguration, inputObjectField)),
             getFieldConfiguration(typeConfiguration, inputObjectField), filterItem))
@@ -62,27 +66,32 @@ public abstract class OperatorFilterCriteriaParser extends AbstractFilterCriteri
   }
 
   @SuppressWarnings("unchecked")
-  private List<FilterItem> getFilterItems(Filter filter) {
+  private List<FilterItem> getFilterItems(Filter filter, FilterConfiguration filterConfiguration) {
     return getInputObjectTypes(filter.getInputObjectField())
-        .flatMap(inputObjectType -> getFilterItems(inputObjectType, (Map<String, Object>) filter.getData()).stream())
+        .flatMap(inputObjectType -> getFilterItems(inputObjectType, (Map<String, Object>) filter.getData(),
+            filterConfiguration).stream())
         .collect(Collectors.toList());
   }
 
-  private List<FilterItem> getFilterItems(GraphQLInputObjectType inputObjectType, Map<String, Object> data) {
+  private List<FilterItem> getFilterItems(GraphQLInputObjectType inputObjectType, Map<String, Object> data,
+      FilterConfiguration filterConfiguration) {
     return getInputObjectFields(inputObjectType)
         .filter(inputObjectField -> Objects.nonNull(data.get(inputObjectField.getName())))
-        .map(inputObjectField -> createFilterItem(data, inputObjectField))
+        .map(inputObjectField -> createFilterItem(data, inputObjectField, filterConfiguration))
         .collect(Collectors.toList());
   }
 
-  private FilterItem createFilterItem(Map<String, Object> data, GraphQLInputObjectField inputObjectField) {
+  private FilterItem createFilterItem(Map<String, Object> data, GraphQLInputObjectField inputObjectField,
+      FilterConfiguration filterConfiguration) {
     var filterOperator = inputObjectField.getName();
 
     return FilterItem.builder()
         .operator(filterOperator)
         .value(data.get(inputObjectField.getName()))
-        .children(getInputObjectTypes(inputObjectField).flatMap(
-            inputObjectType -> getFilterItems(inputObjectType, getNestedMap(data, inputObjectField.getName())).stream())
+        .filterConfiguration(filterConfiguration)
+        .children(getInputObjectTypes(inputObjectField)
+            .flatMap(inputObjectType -> getFilterItems(inputObjectType, getNestedMap(data, inputObjectField.getName()),
+                filterConfiguration).stream())
             .collect(Collectors.toList()))
         .build();
   }
@@ -94,6 +103,9 @@ public abstract class OperatorFilterCriteriaParser extends AbstractFilterCriteri
 
     private Object value;
 
+    // the configuration of the filter the item is part of
+    private FilterConfiguration filterConfiguration;
+
     private List<FilterItem> children;
   }
 }
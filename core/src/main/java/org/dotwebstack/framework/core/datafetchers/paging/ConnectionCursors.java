@@ -0,0 +1,44 @@
+package org.dotwebstack.framework.core.datafetchers.paging;
+
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.CURSOR_VALUES_KEY;
+
+import graphql.execution.DataFetcherResult;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import lombok.Getter;
+
+// The cursors of a connection are only known after the nodes have been loaded
+@Getter
+public class ConnectionCursors {
+
+  private final CompletableFuture<String> startCursor = new CompletableFuture<>();
+
+  private final CompletableFuture<String> endCursor = new CompletableFuture<>();
+
+  public void complete(List<DataFetcherResult<Object>> nodes) {
+    if (nodes.isEmpty()) {
+      completeEmpty();
+      return;
+    }
+
+    startCursor.complete(createCursor(nodes.get(0)));
+    endCursor.complete(createCursor(nodes.get(nodes.size() - 1)));
+  }
+
+  public void completeEmpty() {
+    startCursor.complete(null);
+    endCursor.complete(null);
+  }
+
+  @SuppressWarnings("unchecked")
+  private String createCursor(DataFetcherResult<Object> node) {
+    return Optional.ofNullable(node.getData())
+        .filter(Map.class::isInstance)
+        .map(data -> ((Map<String, Object>) data).get(CURSOR_VALUES_KEY))
+        .filter(List.class::isInstance)
+        .map(cursorValues -> CursorHelper.encode((List<?>) cursorValues))
+        .orElse(null);
+  }
+}
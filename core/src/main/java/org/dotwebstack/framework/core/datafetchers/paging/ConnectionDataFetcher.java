@@ -1,9 +1,14 @@
 package org.dotwebstack.framework.core.datafetchers.paging;
 
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.AFTER_ARGUMENT_NAME;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.BEFORE_ARGUMENT_NAME;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.END_CURSOR_FIELD_NAME;
 import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.FIRST_ARGUMENT_NAME;
 import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.FIRST_MAX_VALUE;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.NODES_FIELD_NAME;
 import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.OFFSET_ARGUMENT_NAME;
 import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.OFFSET_MAX_VALUE;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.START_CURSOR_FIELD_NAME;
 import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgumentException;
 
 import graphql.execution.DataFetcherResult;
@@ -22,6 +27,11 @@ public class ConnectionDataFetcher implements DataFetcher<Object> {
 
     validateArgumentValues(firstArgumentValue, offsetArgumentValue);
 
+    if (environment.getFieldDefinition()
+        .getArgument(AFTER_ARGUMENT_NAME) != null) {
+      return getKeysetResult(environment, firstArgumentValue, offsetArgumentValue);
+    }
+
     PagingDataFetcherContext localContext = PagingDataFetcherContext.builder()
         .first(firstArgumentValue)
         .offset(offsetArgumentValue)
@@ -33,6 +43,38 @@ public class ConnectionDataFetcher implements DataFetcher<Object> {
         .build();
   }
 
+  private Object getKeysetResult(DataFetchingEnvironment environment, int firstArgumentValue, int offsetArgumentValue) {
+    String after = environment.getArgument(AFTER_ARGUMENT_NAME);
+    String before = environment.getArgument(BEFORE_ARGUMENT_NAME);
+
+    if (after != null && before != null) {
+      throw illegalArgumentException("Arguments after and before can't be used together.");
+    }
+
+    var cursors = new ConnectionCursors();
+
+    // without nodes there is no data fetcher which completes the cursors
+    if (!environment.getSelectionSet()
+        .contains(NODES_FIELD_NAME)) {
+      cursors.completeEmpty();
+    }
+
+    PagingDataFetcherContext localContext = PagingDataFetcherContext.builder()
+        .first(firstArgumentValue)
+        .offset(offsetArgumentValue)
+        .keyset(true)
+        .after(after)
+        .before(before)
+        .cursors(cursors)
+        .build();
+
+    return DataFetcherResult.newResult()
+        .data(Map.of(PagingConstants.OFFSET_ARGUMENT_NAME, offsetArgumentValue, START_CURSOR_FIELD_NAME,
+            cursors.getStartCursor(), END_CURSOR_FIELD_NAME, cursors.getEndCursor()))
+        .localContext(localContext)
+        .build();
+  }
+
   private int getFirstArgumentValue(DataFetchingEnvironment environment) {
     var fieldDefinition = environment.getFieldDefinition();
     var firstArgument = fieldDefinition.getArgument(FIRST_ARGUMENT_NAME);
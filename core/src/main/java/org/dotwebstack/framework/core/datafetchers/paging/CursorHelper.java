@@ -0,0 +1,49 @@
+package org.dotwebstack.framework.core.datafetchers.paging;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgumentException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public final class CursorHelper {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final TypeReference<List<String>> CURSOR_VALUES_TYPE = new TypeReference<>() {};
+
+  private CursorHelper() {}
+
+  public static String encode(List<?> values) {
+    // values are stored as text, backends convert them back to the type of the sort column
+    var textValues = values.stream()
+        .map(value -> Objects.toString(value, null))
+        .collect(Collectors.toList());
+
+    try {
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(OBJECT_MAPPER.writeValueAsBytes(textValues));
+    } catch (JsonProcessingException e) {
+      throw illegalArgumentException("Unable to create cursor for values {}.", values, e);
+    }
+  }
+
+  public static List<String> decode(String cursor) {
+    if (cursor == null) {
+      return null;
+    }
+
+    try {
+      return OBJECT_MAPPER.readValue(new String(Base64.getUrlDecoder()
+          .decode(cursor), StandardCharsets.UTF_8), CURSOR_VALUES_TYPE);
+    } catch (IllegalArgumentException | JsonProcessingException e) {
+      throw illegalArgumentException("Invalid cursor '{}'.", cursor, e);
+    }
+  }
+}
@@ -23,4 +23,19 @@ public final class PagingConstants {
   public static final String OFFSET_ARGUMENT_NAME = "offset";
 
   public static final BigInteger OFFSET_DEFAULT_VALUE = BigInteger.valueOf(10);
+
+  public static final String AFTER_ARGUMENT_NAME = "after";
+
+  public static final String BEFORE_ARGUMENT_NAME = "before";
+
+  public static final String START_CURSOR_FIELD_NAME = "startCursor";
+
+  public static final String END_CURSOR_FIELD_NAME = "endCursor";
+
+  public static final String TOTAL_COUNT_FIELD_NAME = "totalCount";
+
+  public static final String ESTIMATE_ARGUMENT_NAME = "estimate";
+
+  // Key under which backends add the cursor values to every row of a keyset paged collection
+  public static final String CURSOR_VALUES_KEY = "$cursor";
 }
@@ -12,4 +12,13 @@ public class PagingDataFetcherContext {
   private final int first;
 
   private final int offset;
+
+  private final boolean keyset;
+
+  private final String after;
+
+  private final String before;
+
+  @EqualsAndHashCode.Exclude
+  private final ConnectionCursors cursors;
 }
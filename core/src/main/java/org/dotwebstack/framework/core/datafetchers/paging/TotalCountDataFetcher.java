@@ -0,0 +1,56 @@
+package org.dotwebstack.framework.core.datafetchers.paging;
+
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.ESTIMATE_ARGUMENT_NAME;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.NODES_FIELD_NAME;
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStateException;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLObjectType;
+import java.util.Collection;
+import java.util.Optional;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.dotwebstack.framework.core.datafetchers.BackendDataLoader;
+import org.dotwebstack.framework.core.helpers.ExceptionHelper;
+import org.dotwebstack.framework.core.query.RequestFactory;
+import org.springframework.stereotype.Component;
+
+// Resolves the totalCount of a connection with a separate count query, which runs in parallel with
+// the query of its nodes. The query only runs when the field is selected.
+@Component
+public class TotalCountDataFetcher implements DataFetcher<Object> {
+
+  private final DotWebStackConfiguration dotWebStackConfiguration;
+
+  private final Collection<BackendDataLoader> backendDataLoaders;
+
+  private final RequestFactory requestFactory;
+
+  public TotalCountDataFetcher(DotWebStackConfiguration dotWebStackConfiguration,
+      Collection<BackendDataLoader> backendDataLoaders, RequestFactory requestFactory) {
+    this.dotWebStackConfiguration = dotWebStackConfiguration;
+    this.backendDataLoaders = backendDataLoaders;
+    this.requestFactory = requestFactory;
+  }
+
+  @Override
+  public Object get(DataFetchingEnvironment environment) {
+    var connectionType = (GraphQLObjectType) environment.getParentType();
+    var typeConfiguration =
+        dotWebStackConfiguration.getTypeConfiguration(connectionType.getFieldDefinition(NODES_FIELD_NAME));
+
+    var backendDataLoader = backendDataLoaders.stream()
+        .filter(loader -> loader.supports(typeConfiguration))
+        .findFirst()
+        .orElseThrow(() -> illegalStateException("No backend found for type {}.", typeConfiguration.getName()));
+
+    var estimate = Optional.ofNullable(environment.<Boolean>getArgument(ESTIMATE_ARGUMENT_NAME))
+        .orElse(false);
+
+    return backendDataLoader.countRequest(requestFactory.createCountRequest(typeConfiguration, environment), estimate)
+        // counts beyond the range of a GraphQL Int are reported as its maximum value
+        .map(count -> (int) Math.min(count, Integer.MAX_VALUE))
+        .onErrorMap(ExceptionHelper::internalServerErrorException)
+        .toFuture();
+  }
+}
@@ -0,0 +1,37 @@
+package org.dotwebstack.framework.core.datafetchers.paging;
+
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.TOTAL_COUNT_FIELD_NAME;
+import static org.dotwebstack.framework.core.helpers.TypeHelper.isConnectionType;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.idl.FieldWiringEnvironment;
+import graphql.schema.idl.TypeDefinitionRegistry;
+import graphql.schema.idl.WiringFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TotalCountDataFetcherWiringFactory implements WiringFactory {
+
+  private final TypeDefinitionRegistry typeDefinitionRegistry;
+
+  private final TotalCountDataFetcher totalCountDataFetcher;
+
+  public TotalCountDataFetcherWiringFactory(TypeDefinitionRegistry typeDefinitionRegistry,
+      TotalCountDataFetcher totalCountDataFetcher) {
+    this.typeDefinitionRegistry = typeDefinitionRegistry;
+    this.totalCountDataFetcher = totalCountDataFetcher;
+  }
+
+  @Override
+  public boolean providesDataFetcher(FieldWiringEnvironment environment) {
+    return TOTAL_COUNT_FIELD_NAME.equals(environment.getFieldDefinition()
+        .getName()) && isConnectionType(typeDefinitionRegistry,
+            environment.getParentType()
+                .getName());
+  }
+
+  @Override
+  public DataFetcher<?> getDataFetcher(FieldWiringEnvironment environment) {
+    return totalCountDataFetcher;
+  }
+}
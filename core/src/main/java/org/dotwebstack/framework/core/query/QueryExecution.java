@@ -0,0 +1,35 @@
+package org.dotwebstack.framework.core.query;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+@Data
+@Builder
+public class QueryExecution {
+
+  @NonNull
+  private final String backend;
+
+  @NonNull
+  private final String query;
+
+  // The normalized query, derived from the query when absent
+  private final String shape;
+
+  @Builder.Default
+  private final List<Object> bindValues = List.of();
+
+  // The GraphQL path of the field which triggered the query
+  private final String path;
+
+  @NonNull
+  private final Duration duration;
+
+  private final long rows;
+
+  // Estimated size of the values which were read
+  private final long bytes;
+}
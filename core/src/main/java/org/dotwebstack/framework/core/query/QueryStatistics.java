@@ -0,0 +1,363 @@
+package org.dotwebstack.framework.core.query;
+
+import com.google.common.hash.Hashing;
+import graphql.execution.ExecutionStepInfo;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.Getter;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@EnableConfigurationProperties(QueryStatisticsProperties.class)
+public class QueryStatistics implements MeterBinder {
+
+  static final String METRIC_PREFIX = "dotwebstack.queries.";
+
+  static final String OTHER_SHAPE = "other";
+
+  private static final Logger SLOW_QUERY_LOG = LoggerFactory.getLogger(QueryStatistics.class.getName()
+      .concat(".slow"));
+
+  private static final Duration[] LATENCY_BUCKETS =
+      {Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+          Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+          Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10)};
+
+  private static final Pattern BIND_MARKER = Pattern.compile("\\$\\d+");
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+  private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?(?:[eE][-+]?\\d+)?\\b");
+
+  private static final Pattern VALUE_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+  private static final Pattern ROW_LIST = Pattern.compile("(\\((?:\\?|\\?\\.\\.\\.)\\))(?:\\s*,\\s*\\1)+");
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private final boolean enabled;
+
+  private final int maxShapes;
+
+  private final Duration slowQueryThreshold;
+
+  private final int slowQueryLogSize;
+
+  private final Map<List<String>, ShapeStatistics> shapes = new ConcurrentHashMap<>();
+
+  private final Deque<QueryExecution> slowQueries = new ArrayDeque<>();
+
+  private volatile MeterRegistry registry;
+
+  public QueryStatistics(QueryStatisticsProperties queryStatisticsProperties) {
+    this.enabled = queryStatisticsProperties.isEnabled();
+    this.maxShapes = queryStatisticsProperties.getMaxShapes();
+    this.slowQueryThreshold = queryStatisticsProperties.getSlowQueryThreshold();
+    this.slowQueryLogSize = queryStatisticsProperties.getSlowQueryLogSize();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void record(@NonNull QueryExecution execution) {
+    if (!enabled) {
+      return;
+    }
+
+    var shape = execution.getShape() != null ? execution.getShape() : normalize(execution.getQuery());
+
+    getShapeStatistics(execution.getBackend(), shape).record(execution);
+
+    if (slowQueryThreshold != null && execution.getDuration()
+        .compareTo(slowQueryThreshold) >= 0) {
+      logSlowQuery(execution);
+    }
+  }
+
+  // Returns the statistics of all tracked shapes, the shapes with the highest total time first
+  public List<ShapeStatistics> getStatistics() {
+    return shapes.values()
+        .stream()
+        .sorted(Comparator.comparingLong(ShapeStatistics::getTotalNanos)
+            .reversed())
+        .collect(Collectors.toList());
+  }
+
+  public List<QueryExecution> getSlowQueries() {
+    synchronized (slowQueries) {
+      return List.copyOf(slowQueries);
+    }
+  }
+
+  // Replaces the values in a query by markers and collapses lists of values, so queries which only
+  // differ in their values (or number of keys) have the same shape
+  public static String normalize(String query) {
+    var shape = BIND_MARKER.matcher(query)
+        .replaceAll("?");
+    shape = STRING_LITERAL.matcher(shape)
+        .replaceAll("?");
+    shape = NUMBER.matcher(shape)
+        .replaceAll("?");
+    shape = VALUE_LIST.matcher(shape)
+        .replaceAll("?...");
+    shape = ROW_LIST.matcher(shape)
+        .replaceAll("$1...");
+
+    return WHITESPACE.matcher(shape)
+        .replaceAll(" ")
+        .trim();
+  }
+
+  public static String getPath(ExecutionStepInfo executionStepInfo) {
+    if (executionStepInfo == null || executionStepInfo.getPath() == null) {
+      return null;
+    }
+
+    return "/".concat(String.join("/", executionStepInfo.getPath()
+        .getKeysOnly()));
+  }
+
+  // A rough estimate of the memory taken by a value which has been read
+  public static long estimateSize(Object value) {
+    if (value == null) {
+      return 0;
+    }
+
+    if (value instanceof CharSequence) {
+      return ((CharSequence) value).length();
+    }
+
+    if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    }
+
+    if (value instanceof ByteBuffer) {
+      return ((ByteBuffer) value).remaining();
+    }
+
+    if (value instanceof Map) {
+      return estimateSize(((Map<?, ?>) value).values());
+    }
+
+    if (value instanceof Collection) {
+      return ((Collection<?>) value).stream()
+          .mapToLong(QueryStatistics::estimateSize)
+          .sum();
+    }
+
+    return Long.BYTES;
+  }
+
+  private ShapeStatistics getShapeStatistics(String backend, String shape) {
+    var key = List.of(backend, shape);
+    var shapeStatistics = shapes.get(key);
+
+    if (shapeStatistics != null) {
+      return shapeStatistics;
+    }
+
+    var trackedKey = shapes.size() < maxShapes ? key : List.of(backend, OTHER_SHAPE);
+
+    return shapes.computeIfAbsent(trackedKey, ignored -> {
+      var newShapeStatistics = new ShapeStatistics(backend, trackedKey.get(1));
+      var meterRegistry = registry;
+
+      if (meterRegistry != null) {
+        newShapeStatistics.register(meterRegistry);
+      }
+
+      return newShapeStatistics;
+    });
+  }
+
+  private void logSlowQuery(QueryExecution execution) {
+    SLOW_QUERY_LOG.warn("Slow {} query for path {} took {} ms and returned {} rows: {} with values {}",
+        execution.getBackend(), execution.getPath(), execution.getDuration()
+            .toMillis(),
+        execution.getRows(), execution.getQuery(), execution.getBindValues());
+
+    if (slowQueryLogSize <= 0) {
+      return;
+    }
+
+    synchronized (slowQueries) {
+      if (slowQueries.size() >= slowQueryLogSize) {
+        slowQueries.removeFirst();
+      }
+
+      slowQueries.addLast(execution);
+    }
+  }
+
+  @Override
+  public void bindTo(@NonNull MeterRegistry registry) {
+    this.registry = registry;
+
+    shapes.values()
+        .forEach(shapeStatistics -> shapeStatistics.register(registry));
+  }
+
+  public static final class ShapeStatistics {
+
+    @Getter
+    private final String backend;
+
+    @Getter
+    private final String shape;
+
+    // A short identifier of the shape, used to tag the metrics
+    @Getter
+    private final String id;
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private final AtomicLong rows = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLongArray latencyCounts = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+
+    private volatile Meters meters;
+
+    private ShapeStatistics(String backend, String shape) {
+      this.backend = backend;
+      this.shape = shape;
+      this.id = OTHER_SHAPE.equals(shape) ? OTHER_SHAPE
+          : Hashing.sha256()
+              .hashString(shape, StandardCharsets.UTF_8)
+              .toString()
+              .substring(0, 12);
+    }
+
+    public long getCount() {
+      return count.get();
+    }
+
+    public long getTotalNanos() {
+      return totalNanos.get();
+    }
+
+    public Duration getTotalTime() {
+      return Duration.ofNanos(totalNanos.get());
+    }
+
+    public Duration getMaxTime() {
+      return Duration.ofNanos(maxNanos.get());
+    }
+
+    public long getRows() {
+      return rows.get();
+    }
+
+    public long getBytes() {
+      return bytes.get();
+    }
+
+    // Returns the number of queries per upper bound of their duration, the last bucket has no bound
+    public Map<String, Long> getLatencyHistogram() {
+      var histogram = new LinkedHashMap<String, Long>();
+
+      for (var index = 0; index < latencyCounts.length(); index++) {
+        histogram.put(index < LATENCY_BUCKETS.length ? LATENCY_BUCKETS[index].toString() : "+Inf",
+            latencyCounts.get(index));
+      }
+
+      return histogram;
+    }
+
+    private void record(QueryExecution execution) {
+      var nanos = execution.getDuration()
+          .toNanos();
+
+      count.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+      maxNanos.accumulateAndGet(nanos, Math::max);
+      rows.addAndGet(execution.getRows());
+      bytes.addAndGet(execution.getBytes());
+      latencyCounts.incrementAndGet(getBucket(execution.getDuration()));
+
+      var currentMeters = meters;
+
+      if (currentMeters != null) {
+        currentMeters.timer.record(execution.getDuration());
+        currentMeters.rows.record(execution.getRows());
+        currentMeters.bytes.record(execution.getBytes());
+      }
+    }
+
+    private void register(MeterRegistry registry) {
+      var tags = Tags.of("backend", backend, "shape", id);
+
+      var timer = Timer.builder(METRIC_PREFIX.concat("duration"))
+          .description("Duration of the queries with a shape")
+          .serviceLevelObjectives(LATENCY_BUCKETS)
+          .tags(tags)
+          .register(registry);
+
+      var rowsSummary = DistributionSummary.builder(METRIC_PREFIX.concat("rows"))
+          .description("Number of rows returned by the queries with a shape")
+          .tags(tags)
+          .register(registry);
+
+      var bytesSummary = DistributionSummary.builder(METRIC_PREFIX.concat("bytes"))
+          .description("Estimated size of the values read by the queries with a shape")
+          .baseUnit("bytes")
+          .tags(tags)
+          .register(registry);
+
+      meters = new Meters(timer, rowsSummary, bytesSummary);
+    }
+
+    private static int getBucket(Duration duration) {
+      for (var index = 0; index < LATENCY_BUCKETS.length; index++) {
+        if (duration.compareTo(LATENCY_BUCKETS[index]) <= 0) {
+          return index;
+        }
+      }
+
+      return LATENCY_BUCKETS.length;
+    }
+  }
+
+  private static final class Meters {
+
+    private final Timer timer;
+
+    private final DistributionSummary rows;
+
+    private final DistributionSummary bytes;
+
+    private Meters(Timer timer, DistributionSummary rows, DistributionSummary bytes) {
+      this.timer = timer;
+      this.rows = rows;
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package org.dotwebstack.framework.core.query;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnProperty(prefix = "dotwebstack.query-statistics", name = "endpoint-enabled", havingValue = "true")
+class QueryStatisticsController {
+
+  private final QueryStatistics queryStatistics;
+
+  public QueryStatisticsController(QueryStatistics queryStatistics) {
+    this.queryStatistics = queryStatistics;
+  }
+
+  @GetMapping(path = "${dotwebstack.query-statistics.path:/query-statistics}",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<List<QueryStatistics.ShapeStatistics>> handleGet() {
+    return Mono.fromSupplier(queryStatistics::getStatistics);
+  }
+
+  @GetMapping(path = "${dotwebstack.query-statistics.path:/query-statistics}/slow",
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public Mono<List<QueryExecution>> handleGetSlowQueries() {
+    return Mono.fromSupplier(queryStatistics::getSlowQueries);
+  }
+}
@@ -0,0 +1,30 @@
+package org.dotwebstack.framework.core.query;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "dotwebstack.query-statistics")
+public class QueryStatisticsProperties {
+
+  private boolean enabled = true;
+
+  // queries with a new shape are counted as 'other' once this number of shapes is tracked
+  private int maxShapes = 500;
+
+  // queries which take at least this long are logged, no queries are logged without a threshold
+  private Duration slowQueryThreshold = Duration.ofSeconds(1);
+
+  // number of recent slow queries which are kept for inspection
+  private int slowQueryLogSize = 100;
+
+  // exposes the shape statistics and the recent slow queries over http
+  private boolean endpointEnabled = false;
+
+  private String path = "/query-statistics";
+}
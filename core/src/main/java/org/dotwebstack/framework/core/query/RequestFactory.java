@@ -10,8 +10,10 @@ import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalStat
 import static org.dotwebstack.framework.core.helpers.MapHelper.getNestedMap;
 import static org.dotwebstack.framework.core.helpers.TypeHelper.isConnectionType;
 
+import graphql.execution.ExecutionStepInfo;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.GraphQLArgument;
+import graphql.schema.GraphQLFieldDefinition;
 import graphql.schema.GraphQLInputObjectField;
 import graphql.schema.GraphQLInputObjectType;
 import graphql.schema.SelectedField;
@@ -30,9 +32,11 @@ import org.dotwebstack.framework.core.config.AbstractFieldConfiguration;
 import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
 import org.dotwebstack.framework.core.config.Feature;
 import org.dotwebstack.framework.core.config.TypeConfiguration;
+import org.dotwebstack.framework.core.datafetchers.RequestDeadline;
 import org.dotwebstack.framework.core.datafetchers.SortConstants;
 import org.dotwebstack.framework.core.datafetchers.filter.FilterConstants;
 import org.dotwebstack.framework.core.datafetchers.filter.FilterCriteriaParserFactory;
+import org.dotwebstack.framework.core.datafetchers.paging.CursorHelper;
 import org.dotwebstack.framework.core.datafetchers.paging.PagingDataFetcherContext;
 import org.dotwebstack.framework.core.query.model.AggregateFieldConfiguration;
 import org.dotwebstack.framework.core.query.model.AggregateFunctionType;
@@ -67,15 +71,61 @@ public class RequestFactory {
 
   public CollectionRequest createCollectionRequest(TypeConfiguration<?> typeConfiguration,
       DataFetchingEnvironment environment) {
+    var fieldArguments = getFieldArguments(environment);
 
     return CollectionRequest.builder()
         .objectRequest(createObjectRequest(typeConfiguration, environment))
-        .filterCriterias(createFilterCriterias(typeConfiguration, environment))
-        .sortCriterias(createSortCriterias(typeConfiguration, environment))
+        .filterCriterias(createFilterCriterias(typeConfiguration, fieldArguments.getFieldDefinition(),
+            fieldArguments.getArguments()))
+        .sortCriterias(
+            createSortCriterias(typeConfiguration, fieldArguments.getFieldDefinition(), fieldArguments.getArguments()))
         .pagingCriteria(createPagingCriteria(environment).orElse(null))
+        .deadline(RequestDeadline.get(environment)
+            .orElse(null))
+        .path(QueryStatistics.getPath(environment.getExecutionStepInfo()))
         .build();
   }
 
+  // Counts the objects of a connection, with the filters of the connection field and without paging
+  public CollectionRequest createCountRequest(TypeConfiguration<?> typeConfiguration,
+      DataFetchingEnvironment environment) {
+    var deadline = RequestDeadline.get(environment)
+        .orElse(null);
+    var path = QueryStatistics.getPath(environment.getExecutionStepInfo());
+    var fieldArguments = getFieldArguments(environment);
+
+    return CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(typeConfiguration)
+            .deadline(deadline)
+            .path(path)
+            .build())
+        .filterCriterias(createFilterCriterias(typeConfiguration, fieldArguments.getFieldDefinition(),
+            fieldArguments.getArguments()))
+        .deadline(deadline)
+        .path(path)
+        .build();
+  }
+
+  // The filter and sort arguments of a paged collection belong to its connection field, which is the
+  // parent of the nodes and totalCount fields
+  private FieldArguments getFieldArguments(DataFetchingEnvironment environment) {
+    if (environment.getLocalContext() instanceof PagingDataFetcherContext) {
+      var parentStepInfo = Optional.ofNullable(environment.getExecutionStepInfo())
+          .map(ExecutionStepInfo::getParent);
+
+      if (parentStepInfo.isPresent() && parentStepInfo.get()
+          .getFieldDefinition() != null) {
+        return new FieldArguments(parentStepInfo.get()
+            .getFieldDefinition(),
+            parentStepInfo.get()
+                .getArguments());
+      }
+    }
+
+    return new FieldArguments(environment.getFieldDefinition(), environment.getArguments());
+  }
+
   public ObjectRequest createObjectRequest(TypeConfiguration<?> typeConfiguration,
       DataFetchingEnvironment environment) {
     return createObjectRequest("", typeConfiguration, environment);
@@ -114,14 +164,16 @@ public class RequestFactory {
         .aggregateObjectFields(aggregateObjectFields)
         .collectionObjectFields(collectionObjectFields)
         .keyCriteria(keyCriterias)
+        .deadline(RequestDeadline.get(environment)
+            .orElse(null))
+        .path(QueryStatistics.getPath(environment.getExecutionStepInfo()))
         .build();
   }
 
   private List<FilterCriteria> createFilterCriterias(TypeConfiguration<?> typeConfiguration,
-      DataFetchingEnvironment environment) {
+      GraphQLFieldDefinition fieldDefinition, Map<String, Object> arguments) {
 
-    Optional<GraphQLArgument> filterArgument = environment.getFieldDefinition()
-        .getArguments()
+    Optional<GraphQLArgument> filterArgument = fieldDefinition.getArguments()
         .stream()
         .filter(argument -> Objects.equals(argument.getName(), FilterConstants.FILTER_ARGUMENT_NAME))
         .findFirst();
@@ -129,7 +181,7 @@ public class RequestFactory {
     if (filterArgument.isPresent()) {
       GraphQLArgument argument = filterArgument.get();
 
-      Map<String, Object> data = getNestedMap(environment.getArguments(), argument.getName());
+      Map<String, Object> data = getNestedMap(arguments, argument.getName());
 
       var graphQlInputObjectType = Optional.of(argument)
           .map(GraphQLArgument::getType)
@@ -148,9 +200,8 @@ public class RequestFactory {
   }
 
   private List<SortCriteria> createSortCriterias(TypeConfiguration<?> typeConfiguration,
-      DataFetchingEnvironment environment) {
-    Optional<GraphQLArgument> sortArgument = environment.getFieldDefinition()
-        .getArguments()
+      GraphQLFieldDefinition fieldDefinition, Map<String, Object> arguments) {
+    Optional<GraphQLArgument> sortArgument = fieldDefinition.getArguments()
         .stream()
         .filter(argument -> Objects.equals(argument.getName(), SortConstants.SORT_ARGUMENT_NAME))
         .findFirst();
@@ -158,8 +209,7 @@ public class RequestFactory {
     if (sortArgument.isPresent()) {
       GraphQLArgument argument = sortArgument.get();
 
-      String orderEnumName = (String) environment.getArguments()
-          .get(argument.getName());
+      String orderEnumName = (String) arguments.get(argument.getName());
 
       Optional<String> sortableByConfigurationKey = typeConfiguration.getSortCriterias()
           .keySet()
@@ -182,6 +232,9 @@ public class RequestFactory {
       return Optional.of(PagingCriteria.builder()
           .page(context.getFirst())
           .pageSize(context.getOffset())
+          .keyset(context.isKeyset())
+          .after(CursorHelper.decode(context.getAfter()))
+          .before(CursorHelper.decode(context.getBefore()))
           .build());
     }
     return Optional.empty();
@@ -255,13 +308,14 @@ public class RequestFactory {
 
   private List<ScalarField> getScalarFields(String fieldPathPrefix, TypeConfiguration<?> typeConfiguration,
       DataFetchingEnvironment environment) {
-    return getSelectedFields(fieldPathPrefix, environment).stream()
-        .map(selectedField -> typeConfiguration.getFields()
-            .get(selectedField.getName()))
-        .filter(AbstractFieldConfiguration::isScalarField)
-        .map(field -> ScalarField.builder()
-            .field(field)
+    return getFieldConfigurationPairs(fieldPathPrefix, typeConfiguration, environment)
+        .filter(pair -> pair.getFieldConfiguration()
+            .isScalarField())
+        .map(pair -> ScalarField.builder()
+            .field(pair.getFieldConfiguration())
             .origins(new HashSet<>(Set.of(Origin.REQUESTED)))
+            .arguments(pair.getSelectedField()
+                .getArguments())
             .build())
         .collect(Collectors.toList());
   }
@@ -276,6 +330,18 @@ public class RequestFactory {
         .map(pair -> ObjectFieldConfiguration.builder()
             .field(pair.getFieldConfiguration())
             .objectRequest(createObjectRequest(pair, environment))
+            .filterCriterias(createFilterCriterias(pair.getFieldConfiguration()
+                .getTypeConfiguration(),
+                pair.getSelectedField()
+                    .getFieldDefinition(),
+                pair.getSelectedField()
+                    .getArguments()))
+            .sortCriterias(createSortCriterias(pair.getFieldConfiguration()
+                .getTypeConfiguration(),
+                pair.getSelectedField()
+                    .getFieldDefinition(),
+                pair.getSelectedField()
+                    .getArguments()))
             .build())
         .collect(Collectors.toList());
   }
@@ -343,6 +409,13 @@ public class RequestFactory {
         .collect(Collectors.toList());
   }
 
+  @Data
+  private static class FieldArguments {
+    private final GraphQLFieldDefinition fieldDefinition;
+
+    private final Map<String, Object> arguments;
+  }
+
   @Data
   @Builder
   private static class FieldConfigurationPair {
@@ -1,5 +1,6 @@
 package org.dotwebstack.framework.core.query.model;
 
+import java.time.Instant;
 import java.util.List;
 import lombok.Builder;
 import lombok.Data;
@@ -20,4 +21,9 @@ public class CollectionRequest implements Request {
   private final List<FilterCriteria> filterCriterias = List.of();
 
   private final PagingCriteria pagingCriteria;
+
+  private final Instant deadline;
+
+  // The GraphQL path of the requested field, used to trace queries
+  private final String path;
 }
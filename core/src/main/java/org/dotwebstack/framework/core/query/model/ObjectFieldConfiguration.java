@@ -1,8 +1,11 @@
 package org.dotwebstack.framework.core.query.model;
 
+import java.util.List;
+import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.SuperBuilder;
 import org.dotwebstack.framework.core.config.FieldConfiguration;
+import org.dotwebstack.framework.core.query.model.filter.FilterCriteria;
 
 @Data
 @SuperBuilder
@@ -10,4 +13,11 @@ public class ObjectFieldConfiguration {
   protected final FieldConfiguration field;
 
   private final ObjectRequest objectRequest;
+
+  // Only present for list fields, which can be loaded as part of the query of the parent
+  @Builder.Default
+  private final List<FilterCriteria> filterCriterias = List.of();
+
+  @Builder.Default
+  private final List<SortCriteria> sortCriterias = List.of();
 }
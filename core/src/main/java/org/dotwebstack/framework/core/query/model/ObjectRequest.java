@@ -1,5 +1,6 @@
 package org.dotwebstack.framework.core.query.model;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -37,6 +38,11 @@ public class ObjectRequest implements Request {
   @Builder.Default
   private final List<ObjectFieldConfiguration> collectionObjectFields = List.of();
 
+  private final Instant deadline;
+
+  // The GraphQL path of the requested field, used to trace queries
+  private final String path;
+
   public void addScalarField(ScalarField scalar) {
     if (!scalarFields.contains(scalar)) {
       scalarFields.add(scalar);
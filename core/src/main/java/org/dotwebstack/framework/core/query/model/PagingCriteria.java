@@ -1,5 +1,6 @@
 package org.dotwebstack.framework.core.query.model;
 
+import java.util.List;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,4 +10,10 @@ public class PagingCriteria {
   private final int page;
 
   private final int pageSize;
+
+  private final boolean keyset;
+
+  private final List<String> after;
+
+  private final List<String> before;
 }
@@ -1,5 +1,6 @@
 package org.dotwebstack.framework.core.query.model;
 
+import java.util.Map;
 import java.util.Set;
 import lombok.Builder;
 import lombok.Data;
@@ -12,6 +13,10 @@ public class ScalarField {
 
   private Set<Origin> origins;
 
+  // Arguments of the selected field, e.g. to transform a geometry
+  @Builder.Default
+  private Map<String, Object> arguments = Map.of();
+
   public String getName() {
     return field.getName();
   }
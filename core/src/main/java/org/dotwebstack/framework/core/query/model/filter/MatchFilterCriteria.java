@@ -0,0 +1,15 @@
+package org.dotwebstack.framework.core.query.model.filter;
+
+import lombok.Data;
+import lombok.experimental.SuperBuilder;
+import org.dotwebstack.framework.core.config.TextSearchConfiguration;
+
+@Data
+@SuperBuilder
+public class MatchFilterCriteria implements FilterCriteria {
+  private FieldPath fieldPath;
+
+  private String value;
+
+  private TextSearchConfiguration textSearch;
+}
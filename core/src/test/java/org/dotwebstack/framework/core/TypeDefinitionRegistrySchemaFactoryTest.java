@@ -402,12 +402,21 @@ class TypeDefinitionRegistrySchemaFactoryTest {
     assertThat(fieldDefinitions.size(), is(6));
 
     var geometryFieldDefinition = fieldDefinitions.get(1);
-    assertFieldDefinition(geometryFieldDefinition, "geometry", "Geometry", 1);
-
-    var geometryInputValueDefinition = geometryFieldDefinition.getInputValueDefinitions()
-        .get(0);
-    assertThat(geometryInputValueDefinition.getName(), is("type"));
-    assertType(geometryInputValueDefinition.getType(), "GeometryType");
+    assertFieldDefinition(geometryFieldDefinition, "geometry", "Geometry", 3);
+
+    var geometryInputValueDefinitions = geometryFieldDefinition.getInputValueDefinitions();
+    assertThat(geometryInputValueDefinitions.get(0)
+        .getName(), is("type"));
+    assertType(geometryInputValueDefinitions.get(0)
+        .getType(), "GeometryType");
+    assertThat(geometryInputValueDefinitions.get(1)
+        .getName(), is("simplify"));
+    assertType(geometryInputValueDefinitions.get(1)
+        .getType(), "Float");
+    assertThat(geometryInputValueDefinitions.get(2)
+        .getName(), is("precision"));
+    assertType(geometryInputValueDefinitions.get(2)
+        .getType(), "Float");
 
     var addressesFieldDefinition = fieldDefinitions.get(2);
     assertThat(addressesFieldDefinition.getName(), is("addresses"));
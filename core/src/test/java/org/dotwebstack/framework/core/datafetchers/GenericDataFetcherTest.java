@@ -227,7 +227,7 @@ class GenericDataFetcherTest {
         .build();
 
     when(backendDataLoader.supports(typeConfiguration)).thenReturn(true);
-    when(backendDataLoader.loadManyRequest(any())).thenReturn(Flux.empty());
+    when(backendDataLoader.subscribeRequest(any())).thenReturn(Flux.empty());
     when(backendDataLoader.useRequestApproach()).thenReturn(true);
     when(requestFactory.createCollectionRequest(typeConfiguration, dataFetchingEnvironment))
         .thenReturn(collectionQuery);
@@ -236,7 +236,7 @@ class GenericDataFetcherTest {
 
     assertThat(result, instanceOf(Flux.class));
 
-    verify(backendDataLoader).loadManyRequest(any(CollectionRequest.class));
+    verify(backendDataLoader).subscribeRequest(any(CollectionRequest.class));
   }
 
   @Test
@@ -398,7 +398,7 @@ class GenericDataFetcherTest {
     DataFetchingEnvironment dataFetchingEnvironment =
         createDataFetchingEnvironment(outputType, QUERY, Map.of(), breweryOneKey);
 
-    when(backendDataLoader.batchLoadSingleRequest(any())).thenReturn(Flux.fromIterable(breweries));
+    when(backendDataLoader.batchLoadSingleRequest(any(), any())).thenReturn(Flux.fromIterable(breweries));
     when(backendDataLoader.supports(typeConfiguration)).thenReturn(true);
     when(backendDataLoader.useRequestApproach()).thenReturn(true);
     when(requestFactory.createObjectRequest(typeConfiguration, dataFetchingEnvironment)).thenReturn(objectQuery);
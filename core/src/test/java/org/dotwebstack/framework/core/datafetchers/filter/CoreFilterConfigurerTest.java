@@ -10,8 +10,10 @@ import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.IN_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.LTE_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.LT_FIELD;
+import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.MATCH_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.NOT_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.STRING_FILTER_INPUT_OBJECT_TYPE;
+import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -69,6 +71,12 @@ class CoreFilterConfigurerTest {
     configureTypeDefinitionRegistry_addFilter_forType(expectedFieldNames, DATE_TIME_FILTER_INPUT_OBJECT_TYPE);
   }
 
+  @Test
+  void configureTypeDefinitionRegistry_addFilter_forTextSearch() {
+    List<String> expectedFieldNames = List.of(EQ_FIELD, IN_FIELD, MATCH_FIELD, NOT_FIELD);
+    configureTypeDefinitionRegistry_addFilter_forType(expectedFieldNames, TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE);
+  }
+
   @SuppressWarnings("rawtypes")
   private void configureTypeDefinitionRegistry_addFilter_forType(List<String> expectedFieldNames, String typeName) {
     coreFilterConfigurer.configureTypeDefinitionRegistry(dataFetchingEnvironment);
@@ -10,8 +10,10 @@ import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.IN_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.LTE_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.LT_FIELD;
+import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.MATCH_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.NOT_FIELD;
 import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.STRING_FILTER_INPUT_OBJECT_TYPE;
+import static org.dotwebstack.framework.core.datafetchers.filter.FilterConstants.TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -25,6 +27,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import org.dotwebstack.framework.core.config.FieldConfigurationImpl;
+import org.dotwebstack.framework.core.config.TextSearchConfiguration;
 import org.dotwebstack.framework.core.config.TypeConfigurationImpl;
 import org.dotwebstack.framework.core.query.model.filter.AndFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.EqualsFilterCriteria;
@@ -34,6 +37,7 @@ import org.dotwebstack.framework.core.query.model.filter.GreaterThenFilterCriter
 import org.dotwebstack.framework.core.query.model.filter.InFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenEqualsFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.LowerThenFilterCriteria;
+import org.dotwebstack.framework.core.query.model.filter.MatchFilterCriteria;
 import org.dotwebstack.framework.core.query.model.filter.NotFilterCriteria;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -47,7 +51,7 @@ class CoreFilterCriteriaParserTest extends FilterCriteriaParserBaseTest {
 
   @ParameterizedTest
   @CsvSource({STRING_FILTER_INPUT_OBJECT_TYPE, DATE_FILTER_INPUT_OBJECT_TYPE, INT_FILTER_INPUT_OBJECT_TYPE,
-      FLOAT_FILTER_INPUT_OBJECT_TYPE, DATE_TIME_FILTER_INPUT_OBJECT_TYPE})
+      FLOAT_FILTER_INPUT_OBJECT_TYPE, DATE_TIME_FILTER_INPUT_OBJECT_TYPE, TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE})
   void supports_returnsTrue_forSupportedScalar(String typeName) {
     GraphQLInputObjectField inputObjectField = createInputObjectField(FIELD_TEST, typeName);
 
@@ -133,6 +137,28 @@ class CoreFilterCriteriaParserTest extends FilterCriteriaParserBaseTest {
     assertThat(((InFilterCriteria) result.get(0)).getValues(), containsInAnyOrder(1, 2));
   }
 
+  @Test
+  void parse_returnsFilterCriteriaList_forMatchOperator() {
+    TypeConfigurationImpl typeConfiguration = createTypeConfiguration(Scalars.GraphQLString.getName());
+    var textSearch = new TextSearchConfiguration();
+    typeConfiguration.getFilters()
+        .get(FIELD_TEST)
+        .setTextSearch(textSearch);
+    GraphQLInputObjectField inputObjectField = createInputObjectField(FIELD_TEST, TEXT_SEARCH_FILTER_INPUT_OBJECT_TYPE);
+    Map<String, Object> data = Map.of(FIELD_TEST, Map.of(NOT_FIELD, Map.of(MATCH_FIELD, "pale ale")));
+
+    List<FilterCriteria> result = parser.parse(typeConfiguration, inputObjectField, data);
+
+    assertThat(result.size(), is(1));
+    assertThat(result.get(0), instanceOf(NotFilterCriteria.class));
+
+    var innerCriteria = ((NotFilterCriteria) result.get(0)).getFilterCriteria();
+    assertThat(innerCriteria, instanceOf(MatchFilterCriteria.class));
+    assertFieldName(innerCriteria);
+    assertThat(((MatchFilterCriteria) innerCriteria).getValue(), is("pale ale"));
+    assertThat(((MatchFilterCriteria) innerCriteria).getTextSearch(), is(textSearch));
+  }
+
   @Test
   void parse_throwsIllegalArgumentException_forInOperatorWithNonList() {
     TypeConfigurationImpl typeConfiguration = createTypeConfiguration(INT_TYPE);
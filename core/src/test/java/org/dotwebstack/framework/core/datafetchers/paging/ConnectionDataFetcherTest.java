@@ -1,11 +1,16 @@
 package org.dotwebstack.framework.core.datafetchers.paging;
 
 import static graphql.schema.GraphQLArgument.newArgument;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.AFTER_ARGUMENT_NAME;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.BEFORE_ARGUMENT_NAME;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.END_CURSOR_FIELD_NAME;
 import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.FIRST_ARGUMENT_NAME;
 import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.OFFSET_ARGUMENT_NAME;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.START_CURSOR_FIELD_NAME;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -13,8 +18,10 @@ import static org.mockito.Mockito.when;
 import graphql.Scalars;
 import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import graphql.schema.GraphQLFieldDefinition;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -81,6 +88,38 @@ class ConnectionDataFetcherTest {
         .build()));
   }
 
+  @Test
+  void get_returnsKeysetResult_forAfterArgument() throws Exception {
+    mockKeysetArguments();
+    when(dataFetchingEnvironment.getArguments()).thenReturn(Map.of());
+    when(dataFetchingEnvironment.getArgument(AFTER_ARGUMENT_NAME)).thenReturn("cursor");
+    when(dataFetchingEnvironment.getSelectionSet()).thenReturn(mock(DataFetchingFieldSelectionSet.class));
+
+    var dataFetcherResult = (DataFetcherResult<?>) connectionDataFetcher.get(dataFetchingEnvironment);
+
+    var localContext = (PagingDataFetcherContext) dataFetcherResult.getLocalContext();
+    assertThat(localContext.isKeyset(), is(true));
+    assertThat(localContext.getAfter(), is("cursor"));
+    assertThat(localContext.getBefore(), nullValue());
+
+    // the cursors are completed from the nodes, which are not selected here
+    Map<?, ?> data = (Map<?, ?>) dataFetcherResult.getData();
+    assertThat(((CompletableFuture<?>) data.get(START_CURSOR_FIELD_NAME)).get(), nullValue());
+    assertThat(((CompletableFuture<?>) data.get(END_CURSOR_FIELD_NAME)).get(), nullValue());
+  }
+
+  @Test
+  void get_throwsException_forAfterAndBeforeArguments() {
+    mockKeysetArguments();
+    when(dataFetchingEnvironment.getArguments()).thenReturn(Map.of());
+    when(dataFetchingEnvironment.getArgument(AFTER_ARGUMENT_NAME)).thenReturn("a");
+    when(dataFetchingEnvironment.getArgument(BEFORE_ARGUMENT_NAME)).thenReturn("b");
+
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> connectionDataFetcher.get(dataFetchingEnvironment));
+    assertThat(exception.getMessage(), is("Arguments after and before can't be used together."));
+  }
+
   @Test
   void get_throwsException_forInvalidFirstArgumentValue() {
     when(dataFetchingEnvironment.getArguments()).thenReturn(Map.of(FIRST_ARGUMENT_NAME, 101, OFFSET_ARGUMENT_NAME, 20));
@@ -99,4 +138,12 @@ class ConnectionDataFetcherTest {
         assertThrows(IllegalArgumentException.class, () -> connectionDataFetcher.get(dataFetchingEnvironment));
     assertThat(exception.getMessage(), is("Argument offset can't be bigger then 10000."));
   }
+
+  private void mockKeysetArguments() {
+    var fieldDefinition = dataFetchingEnvironment.getFieldDefinition();
+
+    when(fieldDefinition.getArgument(AFTER_ARGUMENT_NAME)).thenReturn(newArgument().name(AFTER_ARGUMENT_NAME)
+        .type(Scalars.GraphQLString)
+        .build());
+  }
 }
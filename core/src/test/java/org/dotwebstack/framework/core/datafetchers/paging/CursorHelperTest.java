@@ -0,0 +1,26 @@
+package org.dotwebstack.framework.core.datafetchers.paging;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class CursorHelperTest {
+
+  @Test
+  void decode_returnsValues_forEncodedCursor() {
+    var cursor = CursorHelper.encode(Arrays.asList("Brewery X", 10, null));
+
+    assertThat(CursorHelper.decode(cursor), contains("Brewery X", "10", null));
+  }
+
+  @Test
+  void decode_throwsException_forInvalidCursor() {
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> CursorHelper.decode("not a cursor"));
+    assertThat(exception.getMessage(), is("Invalid cursor 'not a cursor'."));
+  }
+}
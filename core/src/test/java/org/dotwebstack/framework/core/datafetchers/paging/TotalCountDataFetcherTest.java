@@ -0,0 +1,92 @@
+package org.dotwebstack.framework.core.datafetchers.paging;
+
+import static graphql.schema.GraphQLFieldDefinition.newFieldDefinition;
+import static graphql.schema.GraphQLObjectType.newObject;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.ESTIMATE_ARGUMENT_NAME;
+import static org.dotwebstack.framework.core.datafetchers.paging.PagingConstants.NODES_FIELD_NAME;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.when;
+
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLNonNull;
+import graphql.schema.GraphQLTypeReference;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.dotwebstack.framework.core.config.AbstractTypeConfiguration;
+import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
+import org.dotwebstack.framework.core.datafetchers.BackendDataLoader;
+import org.dotwebstack.framework.core.query.RequestFactory;
+import org.dotwebstack.framework.core.query.model.CollectionRequest;
+import org.dotwebstack.framework.core.query.model.ObjectRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+class TotalCountDataFetcherTest {
+
+  @Mock
+  private BackendDataLoader backendDataLoader;
+
+  @Mock
+  private RequestFactory requestFactory;
+
+  @Mock
+  private AbstractTypeConfiguration<?> typeConfiguration;
+
+  @Mock
+  private DataFetchingEnvironment environment;
+
+  private CollectionRequest countRequest;
+
+  private TotalCountDataFetcher totalCountDataFetcher;
+
+  @BeforeEach
+  void beforeEach() {
+    var dotWebStackConfiguration = new DotWebStackConfiguration();
+    dotWebStackConfiguration.setObjectTypes(Map.of("Brewery", typeConfiguration));
+
+    totalCountDataFetcher =
+        new TotalCountDataFetcher(dotWebStackConfiguration, List.of(backendDataLoader), requestFactory);
+
+    when(environment.getParentType()).thenReturn(newObject().name("BreweryConnection")
+        .field(newFieldDefinition().name(NODES_FIELD_NAME)
+            .type(GraphQLNonNull
+                .nonNull(GraphQLList.list(GraphQLNonNull.nonNull(GraphQLTypeReference.typeRef("Brewery"))))))
+        .build());
+
+    countRequest = CollectionRequest.builder()
+        .objectRequest(ObjectRequest.builder()
+            .typeConfiguration(typeConfiguration)
+            .build())
+        .build();
+
+    when(backendDataLoader.supports(typeConfiguration)).thenReturn(true);
+    when(requestFactory.createCountRequest(typeConfiguration, environment)).thenReturn(countRequest);
+  }
+
+  @Test
+  void get_returnsCount_forExactMode() throws Exception {
+    when(backendDataLoader.countRequest(countRequest, false)).thenReturn(Mono.just(42L));
+
+    var result = totalCountDataFetcher.get(environment);
+
+    assertThat(((CompletableFuture<?>) result).get(), is(42));
+  }
+
+  @Test
+  void get_returnsMaxValue_forEstimateBeyondIntRange() throws Exception {
+    when(environment.getArgument(ESTIMATE_ARGUMENT_NAME)).thenReturn(true);
+    when(backendDataLoader.countRequest(countRequest, true)).thenReturn(Mono.just(5_000_000_000L));
+
+    var result = totalCountDataFetcher.get(environment);
+
+    assertThat(((CompletableFuture<?>) result).get(), is(Integer.MAX_VALUE));
+  }
+}
@@ -0,0 +1,120 @@
+package org.dotwebstack.framework.core.query;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class QueryStatisticsTest {
+
+  @Test
+  void normalize_replacesValues_forQueriesWithDifferentValues() {
+    var first = QueryStatistics.normalize("select \"x1\" from \"t1\" where \"id\" in ($1, $2, $3) limit 10");
+    var second = QueryStatistics.normalize("select \"x1\" from \"t1\"\nwhere \"id\" in ($1) limit 20");
+
+    assertThat(first, equalTo("select \"x1\" from \"t1\" where \"id\" in (?...) limit ?"));
+    assertThat(second, equalTo("select \"x1\" from \"t1\" where \"id\" in (?) limit ?"));
+  }
+
+  @Test
+  void normalize_collapsesRows_forValuesTable() {
+    var query = "select * from (values ($1, $2), ($3, $4)) as \"k\" where \"name\" = 'Brewery X'";
+    var shape = QueryStatistics.normalize(query);
+
+    assertThat(shape, equalTo("select * from (values (?...)...) as \"k\" where \"name\" = ?"));
+  }
+
+  @Test
+  void record_aggregatesExecutions_perShape() {
+    var queryStatistics = new QueryStatistics(new QueryStatisticsProperties());
+    var registry = new SimpleMeterRegistry();
+    queryStatistics.bindTo(registry);
+
+    queryStatistics.record(createExecution("select * from \"t1\" where \"id\" = $1", Duration.ofMillis(3), 1));
+    queryStatistics.record(createExecution("select * from \"t1\" where \"id\" = $1", Duration.ofMillis(30), 2));
+    queryStatistics.record(createExecution("select * from \"t2\"", Duration.ofMillis(2), 5));
+
+    var statistics = queryStatistics.getStatistics();
+
+    assertThat(statistics, hasSize(2));
+    assertThat(statistics.get(0)
+        .getShape(), equalTo("select * from \"t1\" where \"id\" = ?"));
+    assertThat(statistics.get(0)
+        .getCount(), is(2L));
+    assertThat(statistics.get(0)
+        .getRows(), is(3L));
+    assertThat(statistics.get(0)
+        .getMaxTime(), equalTo(Duration.ofMillis(30)));
+    assertThat(statistics.get(0)
+        .getLatencyHistogram()
+        .get(Duration.ofMillis(5)
+            .toString()),
+        is(1L));
+
+    var timer = registry.get(QueryStatistics.METRIC_PREFIX.concat("duration"))
+        .tag("shape", statistics.get(0)
+            .getId())
+        .timer();
+
+    assertThat(timer.count(), is(2L));
+    assertThat(queryStatistics.getSlowQueries(), empty());
+  }
+
+  @Test
+  void record_countsNewShapesAsOther_whenMaxShapesReached() {
+    var properties = new QueryStatisticsProperties();
+    properties.setMaxShapes(1);
+    var queryStatistics = new QueryStatistics(properties);
+
+    queryStatistics.record(createExecution("select * from \"t1\"", Duration.ofMillis(1), 1));
+    queryStatistics.record(createExecution("select * from \"t2\"", Duration.ofMillis(1), 1));
+    queryStatistics.record(createExecution("select * from \"t3\"", Duration.ofMillis(1), 1));
+
+    assertThat(queryStatistics.getStatistics(), hasSize(2));
+    assertThat(queryStatistics.getStatistics()
+        .get(0)
+        .getShape(), equalTo(QueryStatistics.OTHER_SHAPE));
+  }
+
+  @Test
+  void record_keepsSlowQuery_whenThresholdIsExceeded() {
+    var properties = new QueryStatisticsProperties();
+    properties.setSlowQueryThreshold(Duration.ofMillis(100));
+    properties.setSlowQueryLogSize(1);
+    var queryStatistics = new QueryStatistics(properties);
+
+    var slowExecution = createExecution("select * from \"t1\"", Duration.ofMillis(200), 1);
+    var slowerExecution = createExecution("select * from \"t2\"", Duration.ofMillis(300), 1);
+
+    queryStatistics.record(createExecution("select * from \"t1\"", Duration.ofMillis(10), 1));
+    queryStatistics.record(slowExecution);
+    queryStatistics.record(slowerExecution);
+
+    assertThat(queryStatistics.getSlowQueries(), contains(slowerExecution));
+  }
+
+  @Test
+  void estimateSize_sumsValues_forRow() {
+    var row = Map.<String, Object>of("name", "Brewery X", "data", new byte[] {1, 2, 3}, "list", List.of(1, 2));
+
+    assertThat(QueryStatistics.estimateSize(row), is(9L + 3L + 2L * Long.BYTES));
+  }
+
+  private static QueryExecution createExecution(String query, Duration duration, long rows) {
+    return QueryExecution.builder()
+        .backend("postgres")
+        .query(query)
+        .path("/breweries")
+        .duration(duration)
+        .rows(rows)
+        .build();
+  }
+}
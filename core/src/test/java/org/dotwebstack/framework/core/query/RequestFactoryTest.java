@@ -18,19 +18,28 @@ import static org.dotwebstack.framework.core.datafetchers.aggregate.AggregateCon
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import graphql.GraphQLContext;
+import graphql.Scalars;
+import graphql.execution.ExecutionStepInfo;
 import graphql.schema.DataFetchingEnvironment;
 import graphql.schema.DataFetchingFieldSelectionSet;
 import graphql.schema.GraphQLEnumType;
 import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLInputObjectField;
 import graphql.schema.GraphQLObjectType;
 import graphql.schema.SelectedField;
 import graphql.schema.idl.TypeDefinitionRegistry;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -41,8 +50,10 @@ import org.dotwebstack.framework.core.config.AbstractFieldConfiguration;
 import org.dotwebstack.framework.core.config.DotWebStackConfiguration;
 import org.dotwebstack.framework.core.config.Feature;
 import org.dotwebstack.framework.core.config.TypeConfiguration;
+import org.dotwebstack.framework.core.datafetchers.RequestDeadline;
 import org.dotwebstack.framework.core.datafetchers.SortConstants;
 import org.dotwebstack.framework.core.datafetchers.filter.FilterConstants;
+import org.dotwebstack.framework.core.datafetchers.filter.FilterCriteriaParser;
 import org.dotwebstack.framework.core.datafetchers.filter.FilterCriteriaParserFactory;
 import org.dotwebstack.framework.core.datafetchers.paging.PagingDataFetcherContext;
 import org.dotwebstack.framework.core.query.model.AggregateObjectFieldConfiguration;
@@ -51,6 +62,7 @@ import org.dotwebstack.framework.core.query.model.ObjectRequest;
 import org.dotwebstack.framework.core.query.model.PagingCriteria;
 import org.dotwebstack.framework.core.query.model.ScalarType;
 import org.dotwebstack.framework.core.query.model.SortCriteria;
+import org.dotwebstack.framework.core.query.model.filter.FilterCriteria;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -126,8 +138,10 @@ class RequestFactoryTest {
     identifierFieldConfiguration = getTestFieldConfiguration(FIELD_IDENTIFIER, SCALAR_FIELDCONFIGURATION);
 
     selectedFields = new ArrayList<>();
-    when(environment.getSelectionSet()).thenReturn(selectionSet);
-    when(selectionSet.getFields(fieldPathPrefix.concat("*.*"))).thenReturn(selectedFields);
+    lenient().when(environment.getSelectionSet())
+        .thenReturn(selectionSet);
+    lenient().when(selectionSet.getFields(fieldPathPrefix.concat("*.*")))
+        .thenReturn(selectedFields);
   }
 
   @Test
@@ -215,14 +229,97 @@ class RequestFactoryTest {
 
   }
 
+  @Test
+  void createCollectionQuery_returnsSortCriterias_fromConnectionFieldForPaging() {
+    when(dotWebStackConfiguration.isFeatureEnabled(Feature.PAGING)).thenReturn(true);
+
+    when(environment.getLocalContext()).thenReturn(PagingDataFetcherContext.builder()
+        .first(1)
+        .offset(10)
+        .build());
+
+    selectedFields.add(mockSelectedField(FIELD_IDENTIFIER));
+
+    var sortCriteria = Mockito.mock(SortCriteria.class);
+
+    when(typeConfiguration.getSortCriterias()).thenReturn(Map.of("IDENTIFICATIE", List.of(sortCriteria)));
+    when(typeConfiguration.getFields()).thenReturn(Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration));
+
+    // the sort argument belongs to the connection field, the nodes field has no arguments
+    var connectionStepInfo = mock(ExecutionStepInfo.class);
+    when(connectionStepInfo.getFieldDefinition()).thenReturn(newFieldDefinition().name("testQuery")
+        .type(newObject().name("ReturnObjectConnection")
+            .build())
+        .argument(newArgument().name(SortConstants.SORT_ARGUMENT_NAME)
+            .type(GraphQLEnumType.newEnum()
+                .name("TestOrder")
+                .build())
+            .build())
+        .build());
+    when(connectionStepInfo.getArguments()).thenReturn(Map.of("sort", "IDENTIFICATIE"));
+
+    var nodesStepInfo = mock(ExecutionStepInfo.class);
+    when(nodesStepInfo.getParent()).thenReturn(connectionStepInfo);
+    when(environment.getExecutionStepInfo()).thenReturn(nodesStepInfo);
+    when(environment.getArguments()).thenReturn(Map.of());
+
+    var collectionQuery = requestFactory.createCollectionRequest(typeConfiguration, environment);
+
+    assertCollectionQuery(collectionQuery);
+    assertThat(collectionQuery.getSortCriterias(), equalTo(List.of(sortCriteria)));
+  }
+
+  @Test
+  void createCountRequest_returnsFilterCriterias_fromConnectionField() {
+    when(environment.getLocalContext()).thenReturn(PagingDataFetcherContext.builder()
+        .first(1)
+        .offset(10)
+        .build());
+
+    var filterCriteria = mock(FilterCriteria.class);
+    var filterCriteriaParser = mock(FilterCriteriaParser.class);
+    when(filterCriteriaParserFactory.getFilterCriteriaParser(any(GraphQLInputObjectField.class)))
+        .thenReturn(filterCriteriaParser);
+    when(filterCriteriaParser.parse(eq(typeConfiguration), any(GraphQLInputObjectField.class),
+        eq(Map.of(FIELD_IDENTIFIER, "id-1")))).thenReturn(List.of(filterCriteria));
+
+    // the filter argument belongs to the connection field, the totalCount field has no filter argument
+    var connectionStepInfo = mock(ExecutionStepInfo.class);
+    when(connectionStepInfo.getFieldDefinition()).thenReturn(newFieldDefinition().name("testQuery")
+        .type(newObject().name("ReturnObjectConnection")
+            .build())
+        .argument(newArgument().name(FilterConstants.FILTER_ARGUMENT_NAME)
+            .type(newInputObject().name("TestFilter")
+                .field(GraphQLInputObjectField.newInputObjectField()
+                    .name(FIELD_IDENTIFIER)
+                    .type(Scalars.GraphQLString)
+                    .build())
+                .build())
+            .build())
+        .build());
+    when(connectionStepInfo.getArguments())
+        .thenReturn(Map.of(FilterConstants.FILTER_ARGUMENT_NAME, Map.of(FIELD_IDENTIFIER, "id-1")));
+
+    var totalCountStepInfo = mock(ExecutionStepInfo.class);
+    when(totalCountStepInfo.getParent()).thenReturn(connectionStepInfo);
+    when(environment.getExecutionStepInfo()).thenReturn(totalCountStepInfo);
+
+    var countRequest = requestFactory.createCountRequest(typeConfiguration, environment);
+
+    assertThat(countRequest.getFilterCriterias(), equalTo(List.of(filterCriteria)));
+    assertThat(countRequest.getPagingCriteria(), is(nullValue()));
+  }
+
   @Test
   void createObjectQuery_returnsObjectQuery_withScalarField() {
     selectedFields.add(mockSelectedField(FIELD_IDENTIFIER));
 
     Map<String, TestFieldConfiguration> fields = Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration);
 
-    when(environment.getSelectionSet()).thenReturn(selectionSet);
-    when(selectionSet.getFields(fieldPathPrefix.concat("*.*"))).thenReturn(selectedFields);
+    lenient().when(environment.getSelectionSet())
+        .thenReturn(selectionSet);
+    lenient().when(selectionSet.getFields(fieldPathPrefix.concat("*.*")))
+        .thenReturn(selectedFields);
 
     when(typeConfiguration.getFields()).thenReturn(fields);
 
@@ -231,14 +328,30 @@ class RequestFactoryTest {
     assertIdentifierScalarConfiguration(objectQuery);
   }
 
+  @Test
+  void createObjectQuery_returnsObjectQuery_withDeadlineFromContext() {
+    var deadline = Instant.now()
+        .plusSeconds(5);
+
+    when(environment.getContext()).thenReturn(GraphQLContext.newContext()
+        .of(RequestDeadline.CONTEXT_KEY, deadline)
+        .build());
+
+    var objectQuery = requestFactory.createObjectRequest(typeConfiguration, environment);
+
+    assertThat(objectQuery.getDeadline(), is(deadline));
+  }
+
   @Test
   void createObjectQuery_returnsObjectQuery_withKeyCriteria() {
     selectedFields.add(mockSelectedField(FIELD_IDENTIFIER));
 
     Map<String, TestFieldConfiguration> fields = Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration);
 
-    when(environment.getSelectionSet()).thenReturn(selectionSet);
-    when(selectionSet.getFields(fieldPathPrefix.concat("*.*"))).thenReturn(selectedFields);
+    lenient().when(environment.getSelectionSet())
+        .thenReturn(selectionSet);
+    lenient().when(selectionSet.getFields(fieldPathPrefix.concat("*.*")))
+        .thenReturn(selectedFields);
 
     when(typeConfiguration.getFields()).thenReturn(fields);
 
@@ -257,8 +370,10 @@ class RequestFactoryTest {
 
     Map<String, TestFieldConfiguration> fields = Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration);
 
-    when(environment.getSelectionSet()).thenReturn(selectionSet);
-    when(selectionSet.getFields(fieldPathPrefix.concat("*.*"))).thenReturn(selectedFields);
+    lenient().when(environment.getSelectionSet())
+        .thenReturn(selectionSet);
+    lenient().when(selectionSet.getFields(fieldPathPrefix.concat("*.*")))
+        .thenReturn(selectedFields);
 
     when(typeConfiguration.getFields()).thenReturn(fields);
 
@@ -282,8 +397,10 @@ class RequestFactoryTest {
     Map<String, TestFieldConfiguration> fields =
         Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration, FIELD_BREWERY, breweryFieldConfiguration);
 
-    when(environment.getSelectionSet()).thenReturn(selectionSet);
-    when(selectionSet.getFields(fieldPathPrefix.concat("*.*"))).thenReturn(selectedFields);
+    lenient().when(environment.getSelectionSet())
+        .thenReturn(selectionSet);
+    lenient().when(selectionSet.getFields(fieldPathPrefix.concat("*.*")))
+        .thenReturn(selectedFields);
 
     when(typeConfiguration.getFields()).thenReturn(fields);
 
@@ -303,8 +420,10 @@ class RequestFactoryTest {
     Map<String, TestFieldConfiguration> fields =
         Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration, FIELD_BREWERY, breweryFieldConfiguration);
 
-    when(environment.getSelectionSet()).thenReturn(selectionSet);
-    when(selectionSet.getFields(fieldPathPrefix.concat("*.*"))).thenReturn(selectedFields);
+    lenient().when(environment.getSelectionSet())
+        .thenReturn(selectionSet);
+    lenient().when(selectionSet.getFields(fieldPathPrefix.concat("*.*")))
+        .thenReturn(selectedFields);
 
     when(typeConfiguration.getFields()).thenReturn(fields);
 
@@ -324,8 +443,10 @@ class RequestFactoryTest {
     Map<String, TestFieldConfiguration> fields =
         Map.of(FIELD_IDENTIFIER, identifierFieldConfiguration, FIELD_HISTORY, historyFieldConfiguration);
 
-    when(environment.getSelectionSet()).thenReturn(selectionSet);
-    when(selectionSet.getFields(fieldPathPrefix.concat("*.*"))).thenReturn(selectedFields);
+    lenient().when(environment.getSelectionSet())
+        .thenReturn(selectionSet);
+    lenient().when(selectionSet.getFields(fieldPathPrefix.concat("*.*")))
+        .thenReturn(selectedFields);
 
     when(typeConfiguration.getFields()).thenReturn(fields);
 
@@ -0,0 +1,160 @@
+package org.dotwebstack.framework.ext.spatial;
+
+import static org.dotwebstack.framework.core.helpers.ExceptionHelper.illegalArgumentException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.Function;
+import lombok.NonNull;
+import org.locationtech.jts.geom.Geometry;
+
+// Keeps the (E)WKB bytes of a geometry as read from the database. The type and WKB are read
+// from the bytes, a JTS geometry is only parsed when it is needed.
+public final class LazyGeometry {
+
+  private static final int EWKB_Z = 0x80000000;
+
+  private static final int EWKB_M = 0x40000000;
+
+  private static final int EWKB_SRID = 0x20000000;
+
+  private static final String[] GEOMETRY_TYPES =
+      {"POINT", "LINESTRING", "POLYGON", "MULTIPOINT", "MULTILINESTRING", "MULTIPOLYGON", "GEOMETRYCOLLECTION"};
+
+  private final byte[] bytes;
+
+  private final Function<byte[], Geometry> parser;
+
+  private volatile Geometry geometry;
+
+  private LazyGeometry(byte[] bytes, Function<byte[], Geometry> parser) {
+    this.bytes = bytes;
+    this.parser = parser;
+  }
+
+  public static LazyGeometry of(@NonNull byte[] bytes, @NonNull Function<byte[], Geometry> parser) {
+    return new LazyGeometry(bytes, parser);
+  }
+
+  // Number of bytes as read from the database
+  public int getSize() {
+    return bytes.length;
+  }
+
+  public String getGeometryType() {
+    var buffer = wrap();
+
+    return GEOMETRY_TYPES[readHeader(buffer).baseType - 1];
+  }
+
+  public Geometry getGeometry() {
+    var parsedGeometry = geometry;
+
+    if (parsedGeometry == null) {
+      parsedGeometry = parser.apply(bytes);
+      geometry = parsedGeometry;
+    }
+
+    return parsedGeometry;
+  }
+
+  // Returns the geometry as 2D big endian WKB without SRID, equal to the output of a default JTS
+  // WKBWriter, by copying the coordinates from the bytes
+  public byte[] toWkb() {
+    var source = wrap();
+    var target = ByteBuffer.allocate(bytes.length);
+
+    copyGeometry(source, target);
+
+    var wkb = new byte[target.position()];
+    target.flip()
+        .get(wkb);
+
+    return wkb;
+  }
+
+  private ByteBuffer wrap() {
+    return ByteBuffer.wrap(bytes)
+        .asReadOnlyBuffer();
+  }
+
+  private static void copyGeometry(ByteBuffer source, ByteBuffer target) {
+    var header = readHeader(source);
+
+    target.put((byte) 0)
+        .putInt(header.baseType);
+
+    switch (header.baseType) {
+      case 1:
+        copyCoordinates(source, target, 1, header);
+        break;
+      case 2:
+        copyCoordinates(source, target, copyCount(source, target), header);
+        break;
+      case 3:
+        var rings = copyCount(source, target);
+
+        for (var ring = 0; ring < rings; ring++) {
+          copyCoordinates(source, target, copyCount(source, target), header);
+        }
+        break;
+      default:
+        var geometries = copyCount(source, target);
+
+        for (var index = 0; index < geometries; index++) {
+          copyGeometry(source, target);
+        }
+    }
+  }
+
+  private static int copyCount(ByteBuffer source, ByteBuffer target) {
+    var count = source.getInt();
+    target.putInt(count);
+
+    return count;
+  }
+
+  private static void copyCoordinates(ByteBuffer source, ByteBuffer target, int count, Header header) {
+    for (var index = 0; index < count; index++) {
+      target.putDouble(source.getDouble())
+          .putDouble(source.getDouble());
+
+      // the output only contains x and y
+      source.position(source.position() + header.extraOrdinates * Double.BYTES);
+    }
+  }
+
+  private static Header readHeader(ByteBuffer buffer) {
+    buffer.order(buffer.get() == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+
+    var typeWord = buffer.getInt();
+
+    // EWKB marks the dimensions with flags, ISO WKB with a type code offset of 1000, 2000 or 3000
+    var isoDimensions = (typeWord & 0xFFFF) / 1000;
+    var hasZ = (typeWord & EWKB_Z) != 0 || isoDimensions == 1 || isoDimensions == 3;
+    var hasM = (typeWord & EWKB_M) != 0 || isoDimensions == 2 || isoDimensions == 3;
+    var baseType = (typeWord & 0xFFFF) % 1000;
+
+    if (baseType < 1 || baseType > GEOMETRY_TYPES.length) {
+      throw illegalArgumentException("Unsupported WKB geometry type {}.", baseType);
+    }
+
+    if ((typeWord & EWKB_SRID) != 0) {
+      buffer.getInt();
+    }
+
+    return new Header(baseType, (hasZ ? 1 : 0) + (hasM ? 1 : 0));
+  }
+
+  private static final class Header {
+
+    private final int baseType;
+
+    private final int extraOrdinates;
+
+    private Header(int baseType, int extraOrdinates) {
+      this.baseType = baseType;
+      this.extraOrdinates = extraOrdinates;
+    }
+  }
+}
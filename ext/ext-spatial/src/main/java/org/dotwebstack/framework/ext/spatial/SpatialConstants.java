@@ -6,7 +6,7 @@ public class SpatialConstants {
 
   // ObjectTypes
 
-  static final String GEOMETRY = "Geometry";
+  public static final String GEOMETRY = "Geometry";
 
   static final String GEOMETRY_INPUT = "GeometryInput";
 
@@ -18,6 +18,10 @@ public class SpatialConstants {
 
   static final String ARGUMENT_TYPE = "type";
 
+  public static final String ARGUMENT_SIMPLIFY = "simplify";
+
+  public static final String ARGUMENT_PRECISION = "precision";
+
   // FieldNames
 
   static final String TYPE = "type";
@@ -29,11 +29,12 @@ public class SpatialDataFetcher implements DataFetcher<Object> {
       return null;
     }
 
-    if (!(dataFetchingEnvironment.getSource() instanceof Geometry)) {
+    var source = dataFetchingEnvironment.getSource();
+
+    if (!(source instanceof Geometry) && !(source instanceof LazyGeometry)) {
       throw illegalArgumentException("Source is not an instance of Geometry");
     }
 
-    var geometry = (Geometry) dataFetchingEnvironment.getSource();
     String fieldName = dataFetchingEnvironment.getFieldDefinition()
         .getName();
 
@@ -41,6 +42,19 @@ public class SpatialDataFetcher implements DataFetcher<Object> {
         .getParent()
         .getArgument(ARGUMENT_TYPE);
 
+    if (source instanceof LazyGeometry) {
+      var lazyGeometry = (LazyGeometry) source;
+
+      // the geometry is only parsed when it is converted to another type or written as WKT
+      if ((type == null || type.equals(lazyGeometry.getGeometryType())) && !AS_WKT.equals(fieldName)) {
+        return getValue(fieldName, lazyGeometry);
+      }
+
+      source = lazyGeometry.getGeometry();
+    }
+
+    var geometry = (Geometry) source;
+
     if (type != null) {
       geometry = typeEnforcer.enforce(GeometryType.valueOf(type), geometry);
     }
@@ -58,6 +72,17 @@ public class SpatialDataFetcher implements DataFetcher<Object> {
     }
   }
 
+  private Object getValue(String fieldName, LazyGeometry lazyGeometry) {
+    switch (fieldName) {
+      case TYPE:
+        return lazyGeometry.getGeometryType();
+      case AS_WKB:
+        return encodeHexString(lazyGeometry.toWkb());
+      default:
+        throw unsupportedOperationException("Invalid fieldName {}", fieldName);
+    }
+  }
+
   private String createWkt(Geometry geometry) {
     var wktWriter = new WKTWriter();
     return wktWriter.write(geometry);
@@ -0,0 +1,86 @@
+package org.dotwebstack.framework.ext.spatial;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ByteOrderValues;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBReader;
+import org.locationtech.jts.io.WKBWriter;
+import org.locationtech.jts.io.WKTReader;
+
+class LazyGeometryTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {"POINT (5.97 52.21)", "POINT Z (5.97 52.21 1.5)", "LINESTRING (5.97 52.21, 5.98 52.22)",
+      "POLYGON ((0 0, 0 1, 1 1, 0 0), (0.1 0.1, 0.1 0.2, 0.2 0.2, 0.1 0.1))",
+      "MULTIPOLYGON Z (((0 0 1, 0 1 1, 1 1 1, 0 0 1)), ((2 2 1, 2 3 1, 3 3 1, 2 2 1)))",
+      "GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (1 2, 3 4))", "MULTIPOINT EMPTY"})
+  void toWkb_returnsJtsWkb_forEwkb(String wkt) throws ParseException {
+    var geometry = read(wkt);
+    var lazyGeometry = LazyGeometry.of(createEwkb(geometry), LazyGeometryTest::parse);
+
+    assertThat(lazyGeometry.toWkb(), is(new WKBWriter().write(geometry)));
+    assertThat(lazyGeometry.getGeometryType(), is(geometry.getGeometryType()
+        .toUpperCase()));
+  }
+
+  @Test
+  void toWkb_returnsJtsWkb_forBigEndianWkb() throws ParseException {
+    var geometry = read("POLYGON ((0 0, 0 1, 1 1, 0 0))");
+    var wkb = new WKBWriter().write(geometry);
+
+    assertThat(LazyGeometry.of(wkb, LazyGeometryTest::parse)
+        .toWkb(), is(wkb));
+  }
+
+  @Test
+  void getGeometry_parsesBytesOnce_whenCalledTwice() throws ParseException {
+    var geometry = read("POINT (5.97 52.21)");
+    var parses = new AtomicInteger();
+    var lazyGeometry = LazyGeometry.of(createEwkb(geometry), bytes -> {
+      parses.incrementAndGet();
+      return parse(bytes);
+    });
+
+    lazyGeometry.getGeometryType();
+    lazyGeometry.toWkb();
+    assertThat(parses.get(), is(0));
+
+    assertThat(lazyGeometry.getGeometry(), is(geometry));
+    assertThat(lazyGeometry.getGeometry(), is(geometry));
+    assertThat(parses.get(), is(1));
+  }
+
+  @Test
+  void getGeometryType_throwsException_forUnknownType() {
+    var lazyGeometry = LazyGeometry.of(new byte[] {0, 0, 0, 0, 15}, LazyGeometryTest::parse);
+
+    assertThrows(IllegalArgumentException.class, lazyGeometry::getGeometryType);
+  }
+
+  private static Geometry read(String wkt) throws ParseException {
+    var geometry = new WKTReader().read(wkt);
+    geometry.setSRID(28992);
+
+    return geometry;
+  }
+
+  private static byte[] createEwkb(Geometry geometry) {
+    return new WKBWriter(3, ByteOrderValues.LITTLE_ENDIAN, true).write(geometry);
+  }
+
+  private static Geometry parse(byte[] bytes) {
+    try {
+      return new WKBReader().read(bytes);
+    } catch (ParseException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.dotwebstack.framework.ext.spatial;
 
+import static org.dotwebstack.framework.ext.spatial.GeometryType.MULTIPOINT;
 import static org.dotwebstack.framework.ext.spatial.GeometryType.POINT;
 import static org.dotwebstack.framework.ext.spatial.SpatialConstants.AS_WKB;
 import static org.dotwebstack.framework.ext.spatial.SpatialConstants.AS_WKT;
@@ -24,7 +25,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.ByteOrderValues;
 import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKBWriter;
 import org.locationtech.jts.io.WKTReader;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -142,6 +147,64 @@ class SpatialDataFetcherTest {
     assertThat(stringValue, is("00000000014017eac6e4232933404a1bcbd2b403c4"));
   }
 
+  @Test
+  void get_returnsValue_forLazyGeometryAsWkb() {
+    var lazyGeometry = createLazyGeometry();
+    when(dataFetchingEnvironment.getSource()).thenReturn(lazyGeometry);
+    when(dataFetchingEnvironment.getFieldDefinition()).thenReturn(fieldDefinition);
+    when(fieldDefinition.getName()).thenReturn(AS_WKB);
+    when(dataFetchingEnvironment.getExecutionStepInfo()).thenReturn(executionStepInfo);
+    when(executionStepInfo.getParent()).thenReturn(executionStepInfo);
+    when(executionStepInfo.getArgument("type")).thenReturn("POINT");
+
+    Object value = spatialDataFetcher.get(dataFetchingEnvironment);
+
+    assertThat(value, is("00000000014017eac6e4232933404a1bcbd2b403c4"));
+    verify(typeEnforcer, times(0)).enforce(any(), any());
+  }
+
+  @Test
+  void get_returnsValue_forLazyGeometryType() {
+    when(dataFetchingEnvironment.getSource()).thenReturn(createLazyGeometry());
+    when(dataFetchingEnvironment.getFieldDefinition()).thenReturn(fieldDefinition);
+    when(fieldDefinition.getName()).thenReturn(TYPE);
+    when(dataFetchingEnvironment.getExecutionStepInfo()).thenReturn(executionStepInfo);
+    when(executionStepInfo.getParent()).thenReturn(executionStepInfo);
+
+    Object value = spatialDataFetcher.get(dataFetchingEnvironment);
+
+    assertThat(value, is("POINT"));
+  }
+
+  @Test
+  void get_callsTypeEnforcer_forLazyGeometryWithOtherType() {
+    var multiPoint = new GeometryFactory().createMultiPoint(new Point[] {(Point) geometry});
+    when(dataFetchingEnvironment.getSource()).thenReturn(createLazyGeometry());
+    when(dataFetchingEnvironment.getFieldDefinition()).thenReturn(fieldDefinition);
+    when(fieldDefinition.getName()).thenReturn(TYPE);
+    when(dataFetchingEnvironment.getExecutionStepInfo()).thenReturn(executionStepInfo);
+    when(executionStepInfo.getParent()).thenReturn(executionStepInfo);
+    when(executionStepInfo.getArgument("type")).thenReturn("MULTIPOINT");
+    when(typeEnforcer.enforce(MULTIPOINT, geometry)).thenReturn(multiPoint);
+
+    Object value = spatialDataFetcher.get(dataFetchingEnvironment);
+
+    assertThat(value, is("MULTIPOINT"));
+  }
+
+  @Test
+  void get_returnsValue_forLazyGeometryAsWkt() {
+    when(dataFetchingEnvironment.getSource()).thenReturn(createLazyGeometry());
+    when(dataFetchingEnvironment.getFieldDefinition()).thenReturn(fieldDefinition);
+    when(fieldDefinition.getName()).thenReturn(AS_WKT);
+    when(dataFetchingEnvironment.getExecutionStepInfo()).thenReturn(executionStepInfo);
+    when(executionStepInfo.getParent()).thenReturn(executionStepInfo);
+
+    Object value = spatialDataFetcher.get(dataFetchingEnvironment);
+
+    assertThat(value, is(geometryString));
+  }
+
   @Test
   void get_throwsException_forUnknown() {
     when(dataFetchingEnvironment.getSource()).thenReturn(geometry);
@@ -152,4 +215,10 @@ class SpatialDataFetcherTest {
 
     assertThrows(UnsupportedOperationException.class, () -> spatialDataFetcher.get(dataFetchingEnvironment));
   }
+
+  private LazyGeometry createLazyGeometry() {
+    var ewkb = new WKBWriter(2, ByteOrderValues.LITTLE_ENDIAN, true).write(geometry);
+
+    return LazyGeometry.of(ewkb, bytes -> geometry);
+  }
 }
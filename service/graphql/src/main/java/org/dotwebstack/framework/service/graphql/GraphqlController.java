@@ -7,26 +7,38 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import graphql.ExecutionInput;
 import graphql.ExecutionResult;
 import graphql.GraphQL;
+import graphql.GraphQLContext;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.dataloader.DataLoaderRegistry;
+import org.dotwebstack.framework.core.datafetchers.RequestDeadline;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Mono;
 
 @Slf4j
 @RestController
+@EnableConfigurationProperties(GraphqlProperties.class)
 class GraphqlController {
 
+  static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
   private final GraphQL graphQL;
 
+  private final GraphqlProperties graphqlProperties;
+
   private final ObjectMapper objectMapper;
 
   private static final String QUERY = "query";
@@ -35,8 +47,9 @@ class GraphqlController {
 
   private static final String VARIABLES = "variables";
 
-  public GraphqlController(GraphQL graphQL) {
+  public GraphqlController(GraphQL graphQL, GraphqlProperties graphqlProperties) {
     this.graphQL = graphQL;
+    this.graphqlProperties = graphqlProperties;
     this.objectMapper = new ObjectMapper();
   }
 
@@ -44,7 +57,8 @@ class GraphqlController {
   @GetMapping(path = "/", produces = MediaType.APPLICATION_JSON_VALUE)
   public Mono<Map<String, Object>> handleGet(@RequestParam(QUERY) String query,
       @RequestParam(value = OPERATION_NAME, required = false) String operationName,
-      @RequestParam(value = VARIABLES, required = false) String variablesJson) {
+      @RequestParam(value = VARIABLES, required = false) String variablesJson,
+      @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) String requestTimeout) {
 
     if (operationName != null) {
       validateOperationNameIsNotEmptyString(operationName);
@@ -52,7 +66,7 @@ class GraphqlController {
 
     Map<String, Object> variablesMap = convertVariablesJson(variablesJson);
 
-    var executionInput = getExecutionInput(query, operationName, variablesMap);
+    var executionInput = getExecutionInput(query, operationName, variablesMap, requestTimeout);
 
     return Mono.fromFuture(graphQL.executeAsync(executionInput))
         .map(ExecutionResult::toSpecification);
@@ -60,7 +74,8 @@ class GraphqlController {
 
   @CrossOrigin
   @PostMapping(value = "/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-  public Mono<Map<String, Object>> handlePost(@RequestBody Map<String, Object> requestBody) {
+  public Mono<Map<String, Object>> handlePost(@RequestBody Map<String, Object> requestBody,
+      @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) String requestTimeout) {
 
     if (!requestBody.containsKey(QUERY)) {
       throw illegalArgumentException("Required parameter 'query' is not present.");
@@ -76,7 +91,7 @@ class GraphqlController {
           .toString());
     }
 
-    var executionInput = getExecutionInput(requestBody);
+    var executionInput = getExecutionInput(requestBody, requestTimeout);
 
     return Mono.fromFuture(graphQL.executeAsync(executionInput))
         .map(ExecutionResult::toSpecification);
@@ -84,9 +99,10 @@ class GraphqlController {
 
   @CrossOrigin
   @PostMapping(value = "/", consumes = "application/graphql", produces = MediaType.APPLICATION_JSON_VALUE)
-  public Mono<Map<String, Object>> handlePost(@RequestBody(required = false) String body) {
+  public Mono<Map<String, Object>> handlePost(@RequestBody(required = false) String body,
+      @RequestHeader(value = REQUEST_TIMEOUT_HEADER, required = false) String requestTimeout) {
 
-    var executionInput = getExecutionInput(body, null, Map.of());
+    var executionInput = getExecutionInput(body, null, Map.of(), requestTimeout);
 
     return Mono.fromFuture(graphQL.executeAsync(executionInput))
         .map(ExecutionResult::toSpecification);
@@ -111,17 +127,49 @@ class GraphqlController {
     }
   }
 
-  private ExecutionInput getExecutionInput(Map<String, Object> requestBody) {
+  private ExecutionInput getExecutionInput(Map<String, Object> requestBody, String requestTimeout) {
     return getExecutionInput((String) requestBody.get(QUERY), (String) requestBody.get(OPERATION_NAME),
-        getNestedMap(requestBody, VARIABLES));
+        getNestedMap(requestBody, VARIABLES), requestTimeout);
   }
 
-  private ExecutionInput getExecutionInput(String query, String operationName, Map<String, Object> variables) {
+  private ExecutionInput getExecutionInput(String query, String operationName, Map<String, Object> variables,
+      String requestTimeout) {
+    var context = GraphQLContext.newContext();
+
+    getRequestTimeout(requestTimeout).ifPresent(timeout -> context.of(RequestDeadline.CONTEXT_KEY, Instant.now()
+        .plus(timeout)));
+
     return ExecutionInput.newExecutionInput()
         .query(query)
         .operationName(operationName)
         .variables(variables)
+        .context(context)
         .dataLoaderRegistry(new DataLoaderRegistry())
         .build();
   }
+
+  private Optional<Duration> getRequestTimeout(String requestTimeout) {
+    var defaultTimeout = Optional.ofNullable(graphqlProperties.getRequestTimeout());
+
+    if (requestTimeout == null) {
+      return defaultTimeout;
+    }
+
+    Duration headerTimeout;
+
+    try {
+      headerTimeout = Duration.ofMillis(Long.parseLong(requestTimeout));
+    } catch (NumberFormatException e) {
+      throw illegalArgumentException("Header {} must contain a number of milliseconds.", REQUEST_TIMEOUT_HEADER);
+    }
+
+    if (headerTimeout.isNegative() || headerTimeout.isZero()) {
+      throw illegalArgumentException("Header {} must contain a positive number of milliseconds.",
+          REQUEST_TIMEOUT_HEADER);
+    }
+
+    // clients can shorten the configured timeout, but not extend it
+    return defaultTimeout.filter(timeout -> timeout.compareTo(headerTimeout) < 0)
+        .or(() -> Optional.of(headerTimeout));
+  }
 }
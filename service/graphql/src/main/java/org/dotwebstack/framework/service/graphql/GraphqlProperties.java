@@ -0,0 +1,15 @@
+package org.dotwebstack.framework.service.graphql;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "dotwebstack.graphql")
+public class GraphqlProperties {
+
+  // Without a timeout requests only get a deadline when the client sends the request timeout header
+  private Duration requestTimeout;
+}
@@ -4,18 +4,24 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import graphql.ExecutionInput;
 import graphql.ExecutionResultImpl;
 import graphql.GraphQL;
+import graphql.GraphQLContext;
 import graphql.execution.UnknownOperationException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import org.dotwebstack.framework.core.datafetchers.RequestDeadline;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
@@ -31,7 +37,7 @@ class GraphqlControllerTest {
 
   @BeforeEach
   void init() {
-    this.graphqlController = new GraphqlController(graphQL);
+    this.graphqlController = new GraphqlController(graphQL, new GraphqlProperties());
   }
 
   @Test
@@ -46,7 +52,7 @@ class GraphqlControllerTest {
 
     when(graphQL.executeAsync(any(ExecutionInput.class)))
         .thenReturn(CompletableFuture.completedFuture(executionResult));
-    Mono<Map<String, Object>> result = graphqlController.handleGet(query, null, null);
+    Mono<Map<String, Object>> result = graphqlController.handleGet(query, null, null, null);
 
     StepVerifier.create(result)
         .assertNext(resultMap -> {
@@ -69,7 +75,7 @@ class GraphqlControllerTest {
     var query = "{beers{identifier_beer name}}";
 
     Throwable throwable =
-        assertThrows(IllegalArgumentException.class, () -> graphqlController.handleGet(query, null, ""));
+        assertThrows(IllegalArgumentException.class, () -> graphqlController.handleGet(query, null, "", null));
 
     assertThat(throwable.getMessage(), is("Could not convert variables GET parameter: expected a JSON map"));
   }
@@ -80,7 +86,7 @@ class GraphqlControllerTest {
         "query beerCollection{beers{identifier_beer name}} query breweryCollection{breweries{identifier_brewery name}}";
 
     Throwable throwable =
-        assertThrows(IllegalArgumentException.class, () -> graphqlController.handleGet(query, "", null));
+        assertThrows(IllegalArgumentException.class, () -> graphqlController.handleGet(query, "", null, null));
 
     assertThat(throwable.getMessage(), is("Must provide operation name if query contains multiple operations."));
   }
@@ -94,7 +100,7 @@ class GraphqlControllerTest {
     when(graphQL.executeAsync(any(ExecutionInput.class))).thenThrow(exception);
 
     Throwable throwable =
-        assertThrows(UnknownOperationException.class, () -> graphqlController.handleGet(query, null, null));
+        assertThrows(UnknownOperationException.class, () -> graphqlController.handleGet(query, null, null, null));
 
     assertThat(throwable.getMessage(), is("Must provide operation name if query contains multiple operations."));
   }
@@ -111,7 +117,7 @@ class GraphqlControllerTest {
 
     when(graphQL.executeAsync(any(ExecutionInput.class)))
         .thenReturn(CompletableFuture.completedFuture(executionResult));
-    Mono<Map<String, Object>> result = graphqlController.handlePost(body);
+    Mono<Map<String, Object>> result = graphqlController.handlePost(body, null);
 
     StepVerifier.create(result)
         .assertNext(resultMap -> {
@@ -141,7 +147,7 @@ class GraphqlControllerTest {
 
     when(graphQL.executeAsync(any(ExecutionInput.class)))
         .thenReturn(CompletableFuture.completedFuture(executionResult));
-    Mono<Map<String, Object>> result = graphqlController.handlePost(query);
+    Mono<Map<String, Object>> result = graphqlController.handlePost(query, null);
 
     StepVerifier.create(result)
         .assertNext(resultMap -> {
@@ -163,7 +169,7 @@ class GraphqlControllerTest {
   void handlePost_shouldThrowException_whenQueryIsMissing() {
     var body = Map.of("operationName", "", "variables", Map.of());
 
-    Throwable throwable = assertThrows(IllegalArgumentException.class, () -> graphqlController.handlePost(body));
+    Throwable throwable = assertThrows(IllegalArgumentException.class, () -> graphqlController.handlePost(body, null));
 
     assertThat(throwable.getMessage(), is("Required parameter 'query' is not present."));
   }
@@ -172,7 +178,7 @@ class GraphqlControllerTest {
   void handlePost_shouldThrowException_whenQueryIsEmptyString() {
     var body = Map.of("query", "", "operationName", "", "variables", Map.of());
 
-    Throwable throwable = assertThrows(IllegalArgumentException.class, () -> graphqlController.handlePost(body));
+    Throwable throwable = assertThrows(IllegalArgumentException.class, () -> graphqlController.handlePost(body, null));
 
     assertThat(throwable.getMessage(), is("Required parameter 'query' can not be empty."));
   }
@@ -184,7 +190,7 @@ class GraphqlControllerTest {
             + "query breweryCollection{breweries{identifier_brewery name}}",
         "operationName", "", "variables", Map.of());
 
-    Throwable throwable = assertThrows(IllegalArgumentException.class, () -> graphqlController.handlePost(body));
+    Throwable throwable = assertThrows(IllegalArgumentException.class, () -> graphqlController.handlePost(body, null));
 
     assertThat(throwable.getMessage(), is("Must provide operation name if query contains multiple operations."));
   }
@@ -198,11 +204,43 @@ class GraphqlControllerTest {
     var exception = new UnknownOperationException("Must provide operation name if query contains multiple operations.");
     when(graphQL.executeAsync(any(ExecutionInput.class))).thenThrow(exception);
 
-    Throwable throwable = assertThrows(UnknownOperationException.class, () -> graphqlController.handlePost(body));
+    Throwable throwable = assertThrows(UnknownOperationException.class, () -> graphqlController.handlePost(body, null));
 
     assertThat(throwable.getMessage(), is("Must provide operation name if query contains multiple operations."));
   }
 
+  @Test
+  void handlePost_passesDeadline_forRequestTimeoutHeader() {
+    var graphqlProperties = new GraphqlProperties();
+    graphqlProperties.setRequestTimeout(Duration.ofMinutes(1));
+    graphqlController = new GraphqlController(graphQL, graphqlProperties);
+
+    when(graphQL.executeAsync(any(ExecutionInput.class)))
+        .thenReturn(CompletableFuture.completedFuture(ExecutionResultImpl.newExecutionResult()
+            .build()));
+
+    var before = Instant.now();
+    graphqlController.handlePost("{beers{name}}", "500");
+
+    var executionInputCaptor = ArgumentCaptor.forClass(ExecutionInput.class);
+    verify(graphQL).executeAsync(executionInputCaptor.capture());
+
+    GraphQLContext context = (GraphQLContext) executionInputCaptor.getValue()
+        .getContext();
+    Instant deadline = context.get(RequestDeadline.CONTEXT_KEY);
+
+    assertThat(deadline.isAfter(before.plusMillis(499)), is(true));
+    assertThat(deadline.isBefore(before.plusSeconds(30)), is(true));
+  }
+
+  @Test
+  void handlePost_throwsException_forInvalidRequestTimeoutHeader() {
+    Throwable throwable =
+        assertThrows(IllegalArgumentException.class, () -> graphqlController.handlePost("{beers{name}}", "soon"));
+
+    assertThat(throwable.getMessage(), is("Header X-Request-Timeout must contain a number of milliseconds."));
+  }
+
   @SuppressWarnings("unchecked")
   private Map<String, Object> getNestedObject(Map<String, Object> data, String name) {
     return (Map<String, Object>) data.get(name);